@@ -0,0 +1,15 @@
+package com.technicalchallenge.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the @Scheduled background jobs, such as the blotter index reconciliation, the
+ * dashboard summary snapshots and the expired submission key purge. Set trade.scheduling.enabled=false to run none of them.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "trade.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
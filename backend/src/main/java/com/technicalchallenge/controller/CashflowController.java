@@ -4,7 +4,10 @@ import com.technicalchallenge.dto.CashflowDTO;
 import com.technicalchallenge.dto.CashflowGenerationRequest;
 import com.technicalchallenge.mapper.CashflowMapper;
 import com.technicalchallenge.model.Cashflow;
+import com.technicalchallenge.service.BusinessCalendar;
 import com.technicalchallenge.service.CashflowService;
+import com.technicalchallenge.service.DateRollConvention;
+import com.technicalchallenge.service.HolidayCalendarEngine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -41,6 +44,8 @@ public class CashflowController {
     private CashflowService cashflowService;
     @Autowired
     private CashflowMapper cashflowMapper;
+    @Autowired
+    private HolidayCalendarEngine holidayCalendarEngine;
 
     @GetMapping
     @Operation(summary = "Get all cashflows",
@@ -140,6 +145,10 @@ public class CashflowController {
             if (months <= 0) {
                 continue;
             }
+            DateRollConvention convention = DateRollConvention.fromName(leg.getPaymentBusinessDayConvention());
+            BusinessCalendar calendar = convention != DateRollConvention.UNADJUSTED
+                    ? holidayCalendarEngine.forName(leg.getHolidayCalendar())
+                    : null;
             LocalDate valueDate = startDate;
             while (valueDate.isBefore(maturityDate)) {
                 LocalDate nextValueDate = valueDate.plusMonths(months);
@@ -154,7 +163,8 @@ public class CashflowController {
                 }
                 // For floating, paymentValue remains 0
                 CashflowDTO cf = new CashflowDTO();
-                cf.setValueDate(nextValueDate);
+                // Accrual uses the unadjusted period, only the payment date moves
+                cf.setValueDate(calendar != null ? calendar.adjust(nextValueDate, convention) : nextValueDate);
                 cf.setPaymentValue(paymentValue);
                 cf.setPayRec(leg.getPayReceiveFlag());
                 cf.setPaymentType(leg.getLegType());
@@ -1,7 +1,9 @@
 package com.technicalchallenge.controller;
 
 import com.technicalchallenge.dto.HolidayCalendarDTO;
+import com.technicalchallenge.dto.HolidayDTO;
 import com.technicalchallenge.mapper.HolidayCalendarMapper;
+import com.technicalchallenge.model.Holiday;
 import com.technicalchallenge.model.HolidayCalendar;
 import com.technicalchallenge.service.HolidayCalendarService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -76,4 +78,38 @@ public class HolidayCalendarController {
                 .map(HolidayCalendar::getHolidayCalendar)
                 .toList();
     }
+
+    @GetMapping("/{id}/holidays")
+    public List<HolidayDTO> getHolidays(@PathVariable Long id) {
+        logger.debug("Fetching holidays for holiday calendar id: {}", id);
+        return holidayCalendarService.findHolidays(id).stream()
+                .map(holiday -> toHolidayDto(holiday, id))
+                .toList();
+    }
+
+    @PostMapping("/{id}/holidays")
+    public ResponseEntity<?> addHoliday(@PathVariable Long id, @RequestBody HolidayDTO holidayDTO) {
+        logger.info("Adding holiday {} to holiday calendar id: {}", holidayDTO.getHolidayDate(), id);
+        try {
+            Holiday holiday = new Holiday();
+            holiday.setHolidayDate(holidayDTO.getHolidayDate());
+            holiday.setDescription(holidayDTO.getDescription());
+            return ResponseEntity.ok(toHolidayDto(holidayCalendarService.addHoliday(id, holiday), id));
+        } catch (Exception e) {
+            logger.error("Error adding holiday: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Error adding holiday: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}/holidays/{holidayId}")
+    public ResponseEntity<Void> deleteHoliday(@PathVariable Long id, @PathVariable Long holidayId) {
+        logger.warn("Deleting holiday {} from holiday calendar id: {}", holidayId, id);
+        holidayCalendarService.deleteHoliday(holidayId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private HolidayDTO toHolidayDto(Holiday holiday, Long holidayCalendarId) {
+        String calendarName = holiday.getHolidayCalendar() != null ? holiday.getHolidayCalendar().getHolidayCalendar() : null;
+        return new HolidayDTO(holiday.getId(), holidayCalendarId, calendarName, holiday.getHolidayDate(), holiday.getDescription());
+    }
 }
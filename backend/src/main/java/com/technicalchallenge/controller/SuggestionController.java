@@ -0,0 +1,63 @@
+package com.technicalchallenge.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.technicalchallenge.dto.SuggestionDTO;
+import com.technicalchallenge.service.SuggestionService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/suggestions")
+@Validated
+@Tag(name = "Suggestions", description = "Type-ahead lookups for counterparties, books, users and UTI codes")
+public class SuggestionController {
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionController.class);
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @GetMapping
+    @Operation(summary = "Suggest values",
+               description = "Returns the best matches for a partly typed counterparty name, book name, user or UTI code, "
+                       + "in place of the full lists from the /values endpoints")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved suggestions",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = SuggestionDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid type or limit"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<?> suggest(
+            @Parameter(description = "Text typed so far", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Types to search: COUNTERPARTY, BOOK, USER or UTI. Repeat the parameter or separate types with commas; all types when omitted", required = false)
+            @RequestParam (required = false) List<String> type,
+            @Parameter(description = "Maximum number of suggestions, up to 50", required = false)
+            @RequestParam (defaultValue = "" + SuggestionService.DEFAULT_LIMIT) int limit) {
+        logger.debug("Fetching suggestions for '{}' of types {}", q, type);
+
+        try {
+            return ResponseEntity.ok(suggestionService.suggest(q, type, limit));
+        } catch (Exception e) {
+            logger.error("Error fetching suggestions: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Error fetching suggestions: " + e.getMessage());
+        }
+    }
+}
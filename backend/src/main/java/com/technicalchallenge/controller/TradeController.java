@@ -1,16 +1,34 @@
 package com.technicalchallenge.controller;
 
+import com.technicalchallenge.dto.CashflowGenerationStatusDTO;
+import com.technicalchallenge.dto.TradeAmendmentResponseDTO;
+import com.technicalchallenge.dto.TradeBatchResultDTO;
 import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeKeysetPageDTO;
+import com.technicalchallenge.dto.TradeRowsDTO;
+import com.technicalchallenge.dto.TradeRowsRequestDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
 import com.technicalchallenge.mapper.TradeMapper;
 import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.service.TradeAmendment;
+import com.technicalchallenge.service.TradeBatchService;
+import com.technicalchallenge.service.TradeCursor;
+import com.technicalchallenge.service.TradeExportService;
+import com.technicalchallenge.service.TradeGridService;
+import com.technicalchallenge.service.TradeKeysetPage;
 import com.technicalchallenge.service.TradeService;
+import com.technicalchallenge.service.TradeSubmission;
+import com.technicalchallenge.service.TradeSubmissionService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -22,6 +40,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import jakarta.validation.Valid;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -35,10 +54,25 @@ import org.slf4j.LoggerFactory;
 public class TradeController {
     private static final Logger logger = LoggerFactory.getLogger(TradeController.class);
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    // Set on create responses that were deduplicated by key, true when the trade was booked earlier
+    static final String IDEMPOTENT_REPLAY_HEADER = "Idempotent-Replayed";
+
+    private static final String FIELDS_DESCRIPTION = "Trade properties to return, e.g. tradeId,version,bookName,counterpartyName,tradeStatus. "
+            + "Only these are read from the database; legs are not loaded. Omit for whole trades with legs";
+
     @Autowired
     private TradeService tradeService;
     @Autowired
     private TradeMapper tradeMapper;
+    @Autowired
+    private TradeBatchService tradeBatchService;
+    @Autowired
+    private TradeSubmissionService tradeSubmissionService;
+    @Autowired
+    private TradeExportService tradeExportService;
+    @Autowired
+    private TradeGridService tradeGridService;
 
     @GetMapping("/rsql")
     @Operation(summary = "Get trades using RSQL query",
@@ -55,7 +89,9 @@ public class TradeController {
                 @Parameter(description = "Id of user seeking to perform action", required = true)
                 @RequestParam String userId,
                 @Parameter(description = "RSQL Query", required = true)
-                @RequestParam String query) {
+                @RequestParam String query,
+                @Parameter(description = FIELDS_DESCRIPTION, required = false)
+                @RequestParam (required = false) List<String> fields) {
 
         if (!tradeService.validateUserPrivileges(userId, "VIEW")) {
             return ResponseEntity.status(403).body("User " + userId + " is not authorized to VIEW trades.");
@@ -63,6 +99,9 @@ public class TradeController {
         logger.info("Fetching specified trades: {}", query);
 
         try {
+            if (fields != null && !fields.isEmpty()) {
+                return ResponseEntity.ok().body(tradeService.getTradesWithRSQL(query, fields));
+            }
             List<TradeDTO> listOfTradeDTOs = tradeService.getTradesWithRSQL(query)
             .stream()
             .map(tradeMapper::toDto)
@@ -110,6 +149,49 @@ public class TradeController {
         }
     }
 
+    @GetMapping("/filter/keyset")
+    @Operation(summary = "Paginate trades by keyset",
+               description = "Retrieves a page of trades continuing from the continuation token of the previous page. Page cost does not grow with depth; the total count is optional.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved page of trades",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = TradeKeysetPageDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid page size, order or continuation token"),
+        @ApiResponse(responseCode = "403", description = "Forbidden: Request not authorised")
+    })
+    public ResponseEntity<?> paginateTradesByKeyset(
+            @Parameter(description = "Id of user seeking to perform action", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "Requested number of trades on page. Default value is 50", required = false)
+            @RequestParam(defaultValue = "50") int pageSize,
+            @Parameter(description = "TRADE_ID (newest trade and version first) or LAST_TOUCH (most recently touched first)", required = false)
+            @RequestParam(defaultValue = "TRADE_ID") String order,
+            @Parameter(description = "Token returned with the previous page; omit for the first page", required = false)
+            @RequestParam(required = false) String continuationToken,
+            @Parameter(description = "Whether to include the (cached) total number of trades", required = false)
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        if (!tradeService.validateUserPrivileges(userId, "VIEW")) {
+            return ResponseEntity.status(403).body("User " + userId + " is not authorized to VIEW trades.");
+        }
+        logger.info("Fetching keyset page of trades: Page Size - {}, Order - {}", pageSize, order);
+        try {
+            TradeCursor.Order cursorOrder = TradeCursor.Order.valueOf(order.toUpperCase());
+            TradeKeysetPage page = tradeService.paginateTradesByKeyset(pageSize, cursorOrder, continuationToken, includeTotal);
+            TradeKeysetPageDTO pageDTO = new TradeKeysetPageDTO(
+                    page.getTrades().stream().map(tradeMapper::toDto).toList(),
+                    page.getTrades().size(),
+                    cursorOrder.name(),
+                    page.getContinuationToken(),
+                    page.getContinuationToken() != null,
+                    page.getTotalElements());
+            return ResponseEntity.ok().body(pageDTO);
+        } catch (Exception e) {
+            logger.error("Pagination Error: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Pagination Error: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Search trades",
                description = "Retrieves a list of trades in the system by criteria such as counterparty, book, trader, status, date ranges")
@@ -128,24 +210,41 @@ public class TradeController {
             @RequestParam (required = false) LocalDate earliestTradeDate,
             @Parameter(description = "Lastest possible date of the trades being searched", required = false) 
             @RequestParam (required = false) LocalDate latestTradeDate, 
-            @Parameter(description = "Id of the trade status", required = false)
-            @RequestParam (required = false) Long tradeStatusId, 
-            @Parameter(description = "Id of the trader who's trades are being searched for", required = false)
-            @RequestParam (required = false) Long traderId, 
-            @Parameter(description = "Id of book", required = false)
-            @RequestParam (required = false) Long bookId, 
-            @Parameter(description = "Id of counterparty", required = false)
-            @RequestParam (required = false) Long counterpartyId) {
+            @Parameter(description = "Earliest possible maturity date of the trades being searched", required = false)
+            @RequestParam (required = false) LocalDate earliestMaturityDate,
+            @Parameter(description = "Latest possible maturity date of the trades being searched", required = false)
+            @RequestParam (required = false) LocalDate latestMaturityDate,
+            @Parameter(description = "Earliest possible execution date of the trades being searched", required = false)
+            @RequestParam (required = false) LocalDate earliestExecutionDate,
+            @Parameter(description = "Latest possible execution date of the trades being searched", required = false)
+            @RequestParam (required = false) LocalDate latestExecutionDate,
+            @Parameter(description = "Ids of trade statuses. Repeat the parameter or separate ids with commas to match any of several", required = false)
+            @RequestParam (required = false) List<Long> tradeStatusId, 
+            @Parameter(description = "Ids of the traders who's trades are being searched for", required = false)
+            @RequestParam (required = false) List<Long> traderId, 
+            @Parameter(description = "Ids of books", required = false)
+            @RequestParam (required = false) List<Long> bookId, 
+            @Parameter(description = "Ids of counterparties", required = false)
+            @RequestParam (required = false) List<Long> counterpartyId,
+            @Parameter(description = FIELDS_DESCRIPTION, required = false)
+            @RequestParam (required = false) List<String> fields) {
 
         if (!tradeService.validateUserPrivileges(userId, "VIEW")) {
             return ResponseEntity.status(403).body("User " + userId + " is not authorized to VIEW trades.");
         }
 
-        logger.info("Fetching trades with specified properties: {}, {}, {}, {}, {}, {}", 
-            earliestTradeDate, latestTradeDate, tradeStatusId, traderId, bookId, counterpartyId);
+        logger.info("Fetching trades with specified properties: {}, {}, {}, {}, {}, {}, {}, {}, {}, {}", 
+            earliestTradeDate, latestTradeDate, earliestMaturityDate, latestMaturityDate, earliestExecutionDate, latestExecutionDate,
+            tradeStatusId, traderId, bookId, counterpartyId);
+        TradeSearchCriteria criteria = new TradeSearchCriteria(earliestTradeDate, latestTradeDate,
+                earliestMaturityDate, latestMaturityDate, earliestExecutionDate, latestExecutionDate,
+                tradeStatusId, traderId, bookId, counterpartyId);
         
         try {
-            List<TradeDTO> listOfTradeDTOs = tradeService.searchTrades(earliestTradeDate, latestTradeDate, tradeStatusId, traderId, bookId, counterpartyId)
+            if (fields != null && !fields.isEmpty()) {
+                return ResponseEntity.ok().body(tradeService.searchTrades(criteria, fields));
+            }
+            List<TradeDTO> listOfTradeDTOs = tradeService.searchTrades(criteria)
                     .stream()
                     .map(tradeMapper::toDto)
                     .toList();
@@ -156,6 +255,36 @@ public class TradeController {
         }        
     }
 
+    @PostMapping("/rows")
+    @Operation(summary = "Get a block of blotter rows",
+               description = "Serves the ag-Grid server-side row model: a block of rows from startRow to endRow after the filter model, sort model and row grouping are applied in the database. "
+                           + "Returns group rows with counts and aggregates until every group level is expanded, then trade rows. Only active trade versions are returned unless active is filtered on.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved rows",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = TradeRowsDTO.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error"),
+        @ApiResponse(responseCode = "400", description = "Invalid row request"),
+        @ApiResponse(responseCode = "403", description = "Forbidden: Request not authorised")
+    })
+    public ResponseEntity<?> getTradeRows(
+            @Parameter(description = "Id of user seeking to perform action", required = true)
+            @RequestParam String userId,
+            @RequestBody TradeRowsRequestDTO request) {
+
+        if (!tradeService.validateUserPrivileges(userId, "VIEW")) {
+            return ResponseEntity.status(403).body("User " + userId + " is not authorized to VIEW trades.");
+        }
+        logger.info("Fetching trade rows {} to {}", request.getStartRow(), request.getEndRow());
+
+        try {
+            return ResponseEntity.ok().body(tradeGridService.getRows(request));
+        } catch (Exception e) {
+            logger.error("Error fetching trade rows: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Error fetching trade rows: " + e.getMessage());
+        }
+    }
+
     @GetMapping
     @Operation(summary = "Get all trades",
                description = "Retrieves a list of all trades in the system. Returns comprehensive trade information including legs and cashflows.")
@@ -168,12 +297,22 @@ public class TradeController {
     })
     public ResponseEntity<?> getAllTrades(
             @Parameter(description = "Id of user seeking to perform action", required = true)
-            @RequestParam String userId) {
+            @RequestParam String userId,
+            @Parameter(description = FIELDS_DESCRIPTION, required = false)
+            @RequestParam (required = false) List<String> fields) {
 
         if (!tradeService.validateUserPrivileges(userId, "VIEW")) {
             return ResponseEntity.status(403).body("User " + userId + " is not authorized to VIEW trades.");
         }
         logger.info("Fetching all trades");
+        if (fields != null && !fields.isEmpty()) {
+            try {
+                return ResponseEntity.ok().body(tradeService.getAllTrades(fields));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Invalid trade fields: {}", e.getMessage());
+                return ResponseEntity.badRequest().body("Error fetching trades: " + e.getMessage());
+            }
+        }
         List<TradeDTO> listOfTradeDTOs = tradeService.getAllTrades().stream()
                                     .map(tradeMapper::toDto)
                                     .toList();
@@ -181,6 +320,46 @@ public class TradeController {
         return ResponseEntity.ok().body(listOfTradeDTOs);
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export trades",
+               description = "Streams every trade version as newline delimited JSON or CSV, one row per version without legs or cashflows. Rows are written as they are read, so exports of any size use constant memory.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Unsupported export format"),
+        @ApiResponse(responseCode = "403", description = "Forbidden: Request not authorised")
+    })
+    public ResponseEntity<StreamingResponseBody> exportTrades(
+            @Parameter(description = "Id of user seeking to perform action", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "ndjson or csv. Default value is ndjson", required = false)
+            @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Only export live trade versions. Default value is false", required = false)
+            @RequestParam(defaultValue = "false") boolean activeOnly) {
+
+        if (!tradeService.validateUserPrivileges(userId, "VIEW")) {
+            return ResponseEntity.status(403).body(textBody("User " + userId + " is not authorized to VIEW trades."));
+        }
+
+        TradeExportService.Format exportFormat;
+        try {
+            exportFormat = TradeExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(textBody("Unsupported export format: " + format));
+        }
+        logger.info("Exporting trades as {}", exportFormat);
+
+        StreamingResponseBody body = out -> tradeExportService.export(exportFormat, activeOnly, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"trades." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    // Streaming endpoints must declare StreamingResponseBody, so error messages are written the same way
+    private static StreamingResponseBody textBody(String message) {
+        return out -> out.write(message.getBytes(StandardCharsets.UTF_8));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get trade by ID",
                description = "Retrieves a specific trade by its unique identifier")
@@ -208,9 +387,34 @@ public class TradeController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/cashflow-status")
+    @Operation(summary = "Get cashflow generation status",
+               description = "Reports whether cashflows for each leg of the trade are still pending, done or failed. Poll this after booking when cashflows are generated in the background.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cashflow generation status returned successfully",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = CashflowGenerationStatusDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Trade not found"),
+        @ApiResponse(responseCode = "403", description = "Forbidden: Request not authorised")
+    })
+    public ResponseEntity<?> getCashflowGenerationStatus(
+            @Parameter(description = "Id of user seeking to perform action", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "Unique identifier of the trade", required = true)
+            @PathVariable(name = "id") Long id) {
+
+        if (!tradeService.validateUserPrivileges(userId, "VIEW")) {
+            return ResponseEntity.status(403).body("User " + userId + " is not authorized to VIEW trades.");
+        }
+        logger.debug("Fetching cashflow generation status for trade: {}", id);
+        return tradeService.getCashflowGenerationStatus(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping
     @Operation(summary = "Create new trade",
-               description = "Creates a new trade with the provided details. Automatically generates cashflows and validates business rules.")
+               description = "Creates a new trade with the provided details. Automatically generates cashflows and validates business rules. Submissions are idempotent by Idempotency-Key header or UTI: a retry returns the trade booked by the first attempt.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Trade created successfully",
                     content = @Content(mediaType = "application/json",
@@ -222,6 +426,8 @@ public class TradeController {
     public ResponseEntity<?> createTrade(
             @Parameter(description = "Id of user seeking to perform action", required = true)
             @RequestParam String userId,
+            @Parameter(description = "Client generated key identifying this submission. Retrying with the same key returns the trade booked by the first attempt. Defaults to the trade's UTI when absent.", required = false)
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Parameter(description = "Trade details for creation", required = true)
             @Valid @RequestBody TradeDTO tradeDTO) {
 
@@ -232,24 +438,70 @@ public class TradeController {
         logger.info("Creating new trade: {}", tradeDTO);
         
         try {
-            Trade trade = tradeMapper.toEntity(tradeDTO);
-            tradeService.populateReferenceDataByName(trade, tradeDTO);
-            Trade savedTrade = tradeService.saveTrade(trade, tradeDTO);
-            TradeDTO responseDTO = tradeMapper.toDto(savedTrade);
-            return ResponseEntity.status(HttpStatus.CREATED).body(responseDTO);
+            String submissionKey = tradeSubmissionService.submissionKey(userId, idempotencyKey, tradeDTO);
+            if (submissionKey == null) {
+                return ResponseEntity.status(HttpStatus.CREATED).body(bookTrade(tradeDTO));
+            }
+            TradeSubmission submission = tradeSubmissionService.submit(submissionKey, () -> bookTrade(tradeDTO));
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAY_HEADER, String.valueOf(submission.isReplayed()))
+                    .body(submission.getTrade());
         } catch (Exception e) {
             logger.error("Error creating trade: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body("Error creating trade: " + e.getMessage());
         }
     }
 
+    private TradeDTO bookTrade(TradeDTO tradeDTO) {
+        Trade trade = tradeMapper.toEntity(tradeDTO);
+        tradeService.populateReferenceDataByName(trade, tradeDTO);
+        Trade savedTrade = tradeService.saveTrade(trade, tradeDTO);
+        return tradeMapper.toDto(savedTrade);
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create trades in bulk",
+               description = "Validates and books a list of trades, persisting them in batched chunks. Returns a result per trade with its booking status or validation errors.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see per trade results",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = TradeBatchResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Empty or invalid batch"),
+        @ApiResponse(responseCode = "500", description = "Internal server error during batch booking"),
+        @ApiResponse(responseCode = "403", description = "Forbidden: Request not authorised")
+    })
+    public ResponseEntity<?> createTradesBatch(
+            @Parameter(description = "Id of user seeking to perform action", required = true)
+            @RequestParam String userId,
+            @Parameter(description = "Trades to book", required = true)
+            @RequestBody List<TradeDTO> tradeDTOs) {
+
+        if (!tradeService.validateUserPrivileges(userId, "CREATE")) {
+            return ResponseEntity.status(403).body("User " + userId + " is not authorized to CREATE trades.");
+        }
+
+        if (tradeDTOs == null || tradeDTOs.isEmpty()) {
+            return ResponseEntity.badRequest().body("Batch must contain at least one trade");
+        }
+
+        logger.info("Booking batch of {} trades", tradeDTOs.size());
+
+        try {
+            TradeBatchResultDTO result = tradeBatchService.bookTrades(tradeDTOs);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            logger.error("Error booking trade batch: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Error booking trades: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update existing trade",
-               description = "Updates an existing trade with new information. Subject to business rule validation and user privileges.")
+               description = "Updates an existing trade with new information. Subject to business rule validation and user privileges. Legs whose economic terms are unchanged are copied with their cashflows rather than regenerated; the response reports what was copied and what was recomputed.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Trade updated successfully",
                     content = @Content(mediaType = "application/json",
-                                     schema = @Schema(implementation = TradeDTO.class))),
+                                     schema = @Schema(implementation = TradeAmendmentResponseDTO.class))),
         @ApiResponse(responseCode = "404", description = "Trade not found"),
         @ApiResponse(responseCode = "400", description = "Invalid trade data or business rule violation"),
         @ApiResponse(responseCode = "403", description = "Insufficient privileges to update trade")
@@ -271,8 +523,9 @@ public class TradeController {
                 throw new RuntimeException("Trade ID in path must match Trade ID in request body");
             }
             tradeDTO.setTradeId(id); // Ensure the ID matches
-            Trade amendedTrade = tradeService.amendTrade(id, tradeDTO);
-            TradeDTO responseDTO = tradeMapper.toDto(amendedTrade);
+            TradeAmendment amendment = tradeService.amendTrade(id, tradeDTO);
+            TradeAmendmentResponseDTO responseDTO = new TradeAmendmentResponseDTO(
+                    tradeMapper.toDto(amendment.getTrade()), amendment.getSummary());
             return ResponseEntity.ok(responseDTO);
         } catch (Exception e) {
             logger.error("Error updating trade: {}", e.getMessage(), e);
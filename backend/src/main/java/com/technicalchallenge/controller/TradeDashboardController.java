@@ -1,5 +1,6 @@
 package com.technicalchallenge.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -14,12 +15,15 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.technicalchallenge.dto.DailySummaryDTO;
+import com.technicalchallenge.dto.TradeBlotterSummaryDTO;
 import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
 import com.technicalchallenge.dto.TradeSummaryDTO;
 import com.technicalchallenge.mapper.TradeMapper;
 import com.technicalchallenge.service.TradeDashboardService;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -120,12 +124,51 @@ public class TradeDashboardController {
         @ApiResponse(responseCode = "404", description = "Invalid Trader User"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<?> getDailySummary(@RequestParam String userId) {
+    public ResponseEntity<?> getDailySummary(@RequestParam String userId,
+            @Parameter(description = "Window lengths in days for the rolling averages, defaults to 7, 30 and 90")
+            @RequestParam(required = false) List<Integer> windowDays) {
         try {
-            return ResponseEntity.ok(tradeDashboardService.getDailySummaryForUser(userId));
+            return ResponseEntity.ok(tradeDashboardService.getDailySummaryForUser(userId, windowDays));
         } catch (Exception e) {
             logger.error("Error fetching trades: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body("Error fetching trades: " + e.getMessage());
         }        
     }
+
+    @GetMapping("/blotter")
+    @Operation(summary = "Get blotter aggregates",
+               description = "Counts and notionals of the active trades matching the filters, grouped by status, trade type, counterparty, book and currency")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved blotter aggregates",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = TradeBlotterSummaryDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid Trader User or filters"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<?> getBlotterSummary(
+            @Parameter(description = "Id of user seeking to perform action", required = true)
+            @RequestParam String userId,
+            @RequestParam (required = false) LocalDate earliestTradeDate,
+            @RequestParam (required = false) LocalDate latestTradeDate,
+            @RequestParam (required = false) LocalDate earliestMaturityDate,
+            @RequestParam (required = false) LocalDate latestMaturityDate,
+            @RequestParam (required = false) LocalDate earliestExecutionDate,
+            @RequestParam (required = false) LocalDate latestExecutionDate,
+            @Parameter(description = "Ids of trade statuses. Repeat the parameter or separate ids with commas to match any of several", required = false)
+            @RequestParam (required = false) List<Long> tradeStatusId,
+            @RequestParam (required = false) List<Long> traderId,
+            @RequestParam (required = false) List<Long> bookId,
+            @RequestParam (required = false) List<Long> counterpartyId) {
+        logger.info("Fetching blotter aggregates for user");
+
+        TradeSearchCriteria criteria = new TradeSearchCriteria(earliestTradeDate, latestTradeDate,
+                earliestMaturityDate, latestMaturityDate, earliestExecutionDate, latestExecutionDate,
+                tradeStatusId, traderId, bookId, counterpartyId);
+        try {
+            return ResponseEntity.ok(tradeDashboardService.getBlotterSummary(userId, criteria));
+        } catch (Exception e) {
+            logger.error("Error fetching trades: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Error fetching trades: " + e.getMessage());
+        }
+    }
 }
@@ -19,6 +19,7 @@ public class CashflowGenerationRequest {
         private String index; // for floating
         private String calculationPeriodSchedule; // e.g. "Monthly", "Quarterly", "Annually"
         private String paymentBusinessDayConvention;
+        private String holidayCalendar; // e.g. "NY", "LON" or "NY+LON"
         private String payReceiveFlag; // "Pay" or "Rec"
     }
 }
@@ -0,0 +1,34 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cashflow generation progress for the live version of a trade. The overall status is
+ * FAILED if any leg failed, PENDING while any leg is still waiting or RUNNING, otherwise DONE.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CashflowGenerationStatusDTO {
+    private Long tradeId;
+    private Integer version;
+    private String status;
+    private List<LegStatus> legs = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LegStatus {
+        private Long legId;
+        private String status;
+        private String message;
+    }
+}
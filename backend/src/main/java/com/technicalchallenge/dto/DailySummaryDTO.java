@@ -2,6 +2,7 @@ package com.technicalchallenge.dto;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 import lombok.AllArgsConstructor;
@@ -34,4 +35,7 @@ public class DailySummaryDTO {
     private BigDecimal avgNotional30Days;
     private BigDecimal notionalChange30Days;
     private BigDecimal tradeCountChange30Days;
+
+    // Rolling averages over the requested window lengths
+    private List<DailyWindowStatisticsDTO> windows;
 }
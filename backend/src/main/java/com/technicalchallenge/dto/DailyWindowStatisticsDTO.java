@@ -0,0 +1,31 @@
+package com.technicalchallenge.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyWindowStatisticsDTO {
+    // Days the window reaches back from yesterday
+    private int windowDays;
+    // Days in the window with a saved daily summary, which the averages are taken over
+    private int summaryDays;
+
+    // Left null when the window holds no summaries
+    private BigDecimal avgTradeCount;
+    private BigDecimal avgNotional;
+
+    // Today less the window average
+    private BigDecimal tradeCountDelta;
+    private BigDecimal notionalDelta;
+
+    // Today's change on the window average, in percent
+    private BigDecimal tradeCountChangePercentage;
+    private BigDecimal notionalChangePercentage;
+}
@@ -0,0 +1,19 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+    // COUNTERPARTY, BOOK, USER or UTI
+    private String type;
+    // Counterparty, book or user ID, or the trade ID for a UTI
+    private Long id;
+    // Counterparty name, book name, user login ID or UTI code
+    private String value;
+}
@@ -0,0 +1,22 @@
+package com.technicalchallenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Response to a trade amendment. The trade's own fields stay at the top level, as they
+ * were before, with the amendment summary alongside them.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeAmendmentResponseDTO {
+    @JsonUnwrapped
+    private TradeDTO trade;
+
+    private TradeAmendmentSummaryDTO amendment;
+}
@@ -0,0 +1,42 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What an amendment changed and what had to be recomputed for it. Every leg is written
+ * again for the new version; legs whose economic terms are unchanged are copied with
+ * their cashflows instead of having them generated. Leg IDs are those of the previous
+ * version's legs, except for regenerated legs.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeAmendmentSummaryDTO {
+    private Integer previousVersion;
+    private Integer newVersion;
+
+    // Trade level fields that differ from the previous version
+    private List<String> changedFields = new ArrayList<>();
+
+    // Unchanged legs copied to the new version with their existing cashflows
+    private int legsCopied;
+    private int legsRegenerated;
+    // Previous legs succeeded by a leg with new terms
+    private int legsReplaced;
+    // Previous legs with no successor on the new version
+    private int legsRemoved;
+    private int cashflowsGenerated;
+    // Regenerated legs whose cashflows are still being generated in the background
+    private int legsPendingCashflows;
+
+    private List<Long> copiedLegIds = new ArrayList<>();
+    private List<Long> replacedLegIds = new ArrayList<>();
+    private List<Long> regeneratedLegIds = new ArrayList<>();
+}
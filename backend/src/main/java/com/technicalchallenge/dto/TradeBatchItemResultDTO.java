@@ -0,0 +1,24 @@
+package com.technicalchallenge.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeBatchItemResultDTO {
+    // Position of the trade in the submitted list
+    private int index;
+
+    // BOOKED or REJECTED
+    private String status;
+    private Long tradeId;
+    private Long id;
+    private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,22 @@
+package com.technicalchallenge.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeBatchResultDTO {
+    private int submitted;
+    private int booked;
+    private int rejected;
+    private long durationMillis;
+    private double tradesPerSecond;
+    private List<TradeBatchItemResultDTO> results = new ArrayList<>();
+}
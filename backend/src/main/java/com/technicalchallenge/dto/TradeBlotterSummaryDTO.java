@@ -0,0 +1,30 @@
+package com.technicalchallenge.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeBlotterSummaryDTO {
+    // Active trade versions matching the filter
+    private long tradeCount;
+    // Sum of all leg notionals
+    private BigDecimal totalNotional;
+
+    private Map<String, Long> tradeCountByStatus;
+    private Map<String, Long> tradeCountByTradeType;
+    private Map<String, Long> tradeCountByCounterparty;
+    private Map<String, Long> tradeCountByBook;
+
+    private Map<String, BigDecimal> notionalByBook;
+    private Map<String, BigDecimal> notionalByCurrency;
+    // Receive legs less pay legs, per book
+    private Map<String, BigDecimal> riskExposureByBook;
+}
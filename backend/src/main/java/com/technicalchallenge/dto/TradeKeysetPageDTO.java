@@ -0,0 +1,26 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A keyset page of the trade blotter. Pass continuationToken back to fetch the next page;
+ * it is null on the last page. totalElements is only filled in when requested.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeKeysetPageDTO {
+    private List<TradeDTO> content = new ArrayList<>();
+    private int size;
+    private String order;
+    private String continuationToken;
+    private boolean hasNext;
+    private Long totalElements;
+}
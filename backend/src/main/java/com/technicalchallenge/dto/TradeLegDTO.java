@@ -53,6 +53,9 @@ public class TradeLegDTO {
     private Long payRecId;
     private String payReceiveFlag;
 
+    // Cashflow generation status (PENDING, DONE or FAILED), read only
+    private String cashflowStatus;
+
     // Associated cashflows
     private List<CashflowDTO> cashflows;
 }
@@ -0,0 +1,23 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One block of trade or group rows for the grid. lastRow is the total row count once the
+ * block reaches the end of the rows, and null while more rows may follow.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeRowsDTO {
+    private List<Map<String, Object>> rows = new ArrayList<>();
+    private Integer lastRow;
+}
@@ -0,0 +1,76 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A block request from an ag-Grid server-side or infinite row model: rows startRow up to
+ * but excluding endRow, after filtering, grouping and sorting. Columns are named by their
+ * TradeDTO field. fields is not part of the grid request; it chooses the leaf row columns
+ * and defaults to the blotter columns.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TradeRowsRequestDTO {
+    private int startRow;
+    private int endRow;
+    private List<Column> rowGroupCols = new ArrayList<>();
+    private List<Column> valueCols = new ArrayList<>();
+    private List<String> groupKeys = new ArrayList<>();
+    private List<SortModel> sortModel = new ArrayList<>();
+    private Map<String, Filter> filterModel = new LinkedHashMap<>();
+    private List<String> fields = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Column {
+        private String id;
+        private String field;
+        private String aggFunc;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class SortModel {
+        private String colId;
+        private String sort;
+    }
+
+    /**
+     * A column filter as sent by the text, number, date and set filters. A combined filter
+     * has an operator of AND or OR and its conditions instead of a type.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Filter {
+        private String filterType;
+        private String type;
+        private Object filter;
+        private Object filterTo;
+        private String dateFrom;
+        private String dateTo;
+        private List<String> values;
+        private String operator;
+        private List<Filter> conditions;
+    }
+}
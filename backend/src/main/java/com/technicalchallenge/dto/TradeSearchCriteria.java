@@ -0,0 +1,30 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Criteria for the trade search. Every field is optional; id lists match any of their
+ * values and date ranges are inclusive at both ends.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeSearchCriteria {
+    private LocalDate earliestTradeDate;
+    private LocalDate latestTradeDate;
+    private LocalDate earliestMaturityDate;
+    private LocalDate latestMaturityDate;
+    private LocalDate earliestExecutionDate;
+    private LocalDate latestExecutionDate;
+    private List<Long> tradeStatusIds;
+    private List<Long> traderIds;
+    private List<Long> bookIds;
+    private List<Long> counterpartyIds;
+}
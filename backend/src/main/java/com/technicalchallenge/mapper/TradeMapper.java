@@ -162,6 +162,8 @@ public class TradeMapper {
             dto.setPayReceiveFlag(leg.getPayReceiveFlag().getPayRec());
         }
 
+        dto.setCashflowStatus(leg.getCashflowStatus());
+
         // Map cashflows
         if (leg.getCashflows() != null) {
             List<CashflowDTO> cashflowDTOs = leg.getCashflows().stream()
@@ -17,7 +17,8 @@ import lombok.Setter;
 @Table(name = "cashflow")
 public class Cashflow {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cashflow_seq")
+    @SequenceGenerator(name = "cashflow_seq", sequenceName = "cashflow_seq", initialValue = 10000, allocationSize = 50)
     private Long id; // Changed from 'id' to match DTO
 
     private BigDecimal paymentValue;
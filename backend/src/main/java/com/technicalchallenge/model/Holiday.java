@@ -0,0 +1,34 @@
+package com.technicalchallenge.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * A single non-business date in a holiday calendar. Weekends are not stored; every
+ * calendar treats Saturday and Sunday as non-business days.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "holiday", uniqueConstraints = @UniqueConstraint(columnNames = {"holiday_calendar_id", "holiday_date"}))
+public class Holiday {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "holiday_calendar_id", referencedColumnName = "id")
+    private HolidayCalendar holidayCalendar;
+
+    @Column(name = "holiday_date", nullable = false)
+    private LocalDate holidayDate;
+
+    private String description;
+}
@@ -14,10 +14,25 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+// Everything TradeMapper reads from a trade apart from its legs, for list queries to fetch in one join
+@NamedEntityGraph(name = Trade.REFERENCES_GRAPH, attributeNodes = {
+        @NamedAttributeNode("book"),
+        @NamedAttributeNode("counterparty"),
+        @NamedAttributeNode(value = "traderUser", subgraph = "user"),
+        @NamedAttributeNode(value = "tradeInputterUser", subgraph = "user"),
+        @NamedAttributeNode("tradeType"),
+        @NamedAttributeNode("tradeSubType"),
+        @NamedAttributeNode("tradeStatus")
+}, subgraphs = @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("userProfile")))
+// Indexes are created by the schema migrations under db/migration
 @Table(name = "trade")
 public class Trade {
+    public static final String REFERENCES_GRAPH = "Trade.references";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence-backed IDs let Hibernate batch inserts; IDENTITY forces one insert per row
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trade_seq")
+    @SequenceGenerator(name = "trade_seq", sequenceName = "trade_seq", initialValue = 10000, allocationSize = 50)
     private Long id;
 
     private Long tradeId;
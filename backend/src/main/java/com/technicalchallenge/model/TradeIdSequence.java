@@ -0,0 +1,27 @@
+package com.technicalchallenge.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Persistent high-water mark for business trade IDs. Each application node reserves
+ * a block of IDs by advancing nextValue under a row lock, so IDs stay unique across
+ * restarts and across nodes sharing the database.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "trade_id_sequence")
+public class TradeIdSequence {
+    @Id
+    private String sequenceName;
+
+    // First ID not yet reserved by any node
+    @Column(nullable = false)
+    private Long nextValue;
+}
@@ -17,7 +17,8 @@ import lombok.Setter;
 @Table(name = "trade_leg")
 public class TradeLeg {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trade_leg_seq")
+    @SequenceGenerator(name = "trade_leg_seq", sequenceName = "trade_leg_seq", initialValue = 10000, allocationSize = 50)
     private Long legId;
 
     private BigDecimal notional;
@@ -59,6 +60,16 @@ public class TradeLeg {
     @JoinColumn(name = "pay_rec_id", referencedColumnName = "id")
     private PayRec payReceiveFlag;
 
+    // Cashflow generation progress: PENDING, RUNNING, DONE or FAILED. Legs booked before this
+    // was tracked have no status and already have their cashflows.
+    @Column(name = "cashflow_status", length = 10)
+    private String cashflowStatus;
+    @Column(name = "cashflow_status_message", length = 500)
+    private String cashflowStatusMessage;
+    // When a node claimed the leg to generate its cashflows, while RUNNING
+    @Column(name = "cashflow_claimed_at")
+    private LocalDateTime cashflowClaimedAt;
+
     // Audit fields
     private Boolean active = true;
     private LocalDateTime createdDate;
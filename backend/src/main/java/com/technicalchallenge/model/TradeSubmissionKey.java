@@ -0,0 +1,67 @@
+package com.technicalchallenge.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency key of a trade submission and the trade version it booked. Written in the
+ * same transaction as the trade, so a retried submission finds either both or neither.
+ *
+ * The key is assigned rather than generated, so a new key reports itself as new and is
+ * inserted instead of merged: a second booking of the same key then fails on the primary
+ * key instead of overwriting the first.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "trade_submission_key")
+public class TradeSubmissionKey implements Persistable<String> {
+    @Id
+    @Column(name = "submission_key", length = 200)
+    private String submissionKey;
+
+    // Row ID of the trade version returned to the original submission
+    @Column(name = "trade_row_id", nullable = false)
+    private Long tradeRowId;
+
+    @Column(name = "trade_id", nullable = false)
+    private Long tradeId;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newKey = true;
+
+    public TradeSubmissionKey(String submissionKey, Long tradeRowId, Long tradeId, LocalDateTime createdDate) {
+        this.submissionKey = submissionKey;
+        this.tradeRowId = tradeRowId;
+        this.tradeId = tradeId;
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public String getId() {
+        return submissionKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newKey;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        newKey = false;
+    }
+}
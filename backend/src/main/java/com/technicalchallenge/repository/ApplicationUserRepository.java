@@ -4,6 +4,8 @@ import com.technicalchallenge.model.ApplicationUser;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +13,6 @@ public interface ApplicationUserRepository extends JpaRepository<ApplicationUser
     // Custom query methods if needed
     Optional<ApplicationUser> findByLoginId(String loginId);
     Optional<ApplicationUser> findByFirstName(String firstName);
+    List<ApplicationUser> findByActiveTrue();
+    long countByIdIn(Collection<Long> ids);
 }
@@ -4,9 +4,11 @@ import com.technicalchallenge.model.Book;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
     Optional<Book> findByBookName(String bookName);
+    long countByIdIn(Collection<Long> ids);
 }
@@ -4,9 +4,11 @@ import com.technicalchallenge.model.Counterparty;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface CounterpartyRepository extends JpaRepository<Counterparty, Long> {
     Optional<Counterparty> findByName(String name);
+    long countByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,17 @@
+package com.technicalchallenge.repository;
+
+import com.technicalchallenge.model.Holiday;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface HolidayRepository extends JpaRepository<Holiday, Long> {
+    List<Holiday> findByHolidayCalendarIdOrderByHolidayDate(Long holidayCalendarId);
+
+    // Fetches the calendar with each holiday so calendars can be compiled outside a session
+    @Query("SELECT h FROM Holiday h JOIN FETCH h.holidayCalendar")
+    List<Holiday> findAllWithCalendar();
+}
@@ -0,0 +1,21 @@
+package com.technicalchallenge.repository;
+
+import com.technicalchallenge.model.TradeIdSequence;
+
+import jakarta.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TradeIdSequenceRepository extends JpaRepository<TradeIdSequence, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TradeIdSequence s WHERE s.sequenceName = :sequenceName")
+    Optional<TradeIdSequence> findForUpdate(@Param("sequenceName") String sequenceName);
+}
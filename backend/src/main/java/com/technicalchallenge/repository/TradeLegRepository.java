@@ -1,8 +1,48 @@
 package com.technicalchallenge.repository;
 
 import com.technicalchallenge.model.TradeLeg;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface TradeLegRepository extends JpaRepository<TradeLeg, Long> {}
+public interface TradeLegRepository extends JpaRepository<TradeLeg, Long> {
+
+    // Initialises the cashflows of legs already loaded, with the references the mapper reads
+    @Query("""
+        SELECT l FROM TradeLeg l
+        LEFT JOIN FETCH l.cashflows c
+        LEFT JOIN FETCH c.payRec LEFT JOIN FETCH c.paymentType LEFT JOIN FETCH c.paymentBusinessDayConvention
+        WHERE l.legId IN :legIds
+    """)
+    List<TradeLeg> fetchCashflowsByLegIdIn(@Param("legIds") Collection<Long> legIds);
+
+    // Legs in a cashflow generation state, with the trade whose dates they are generated over
+    @Query("SELECT l FROM TradeLeg l JOIN FETCH l.trade WHERE l.cashflowStatus = :status")
+    List<TradeLeg> findWithTradeByCashflowStatus(@Param("status") String status);
+
+    // Moves a leg from one generation state to another and stamps the claim; the row count
+    // tells the caller whether the leg was still in the state it expected
+    @Modifying
+    @Query("""
+        UPDATE TradeLeg l SET l.cashflowStatus = :toStatus, l.cashflowClaimedAt = :claimedAt
+        WHERE l.legId = :legId AND l.cashflowStatus = :fromStatus
+    """)
+    int claimCashflowGeneration(@Param("legId") Long legId, @Param("fromStatus") String fromStatus,
+                                @Param("toStatus") String toStatus, @Param("claimedAt") LocalDateTime claimedAt);
+
+    // Hands back legs whose claim was taken before staleBefore
+    @Modifying
+    @Query("""
+        UPDATE TradeLeg l SET l.cashflowStatus = :toStatus, l.cashflowClaimedAt = null
+        WHERE l.cashflowStatus = :fromStatus AND l.cashflowClaimedAt < :staleBefore
+    """)
+    int releaseStaleCashflowClaims(@Param("fromStatus") String fromStatus, @Param("toStatus") String toStatus,
+                                   @Param("staleBefore") LocalDateTime staleBefore);
+}
@@ -2,9 +2,14 @@ package com.technicalchallenge.repository;
 
 import com.technicalchallenge.model.Trade;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -14,23 +19,18 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface TradeRepository extends JpaRepository<Trade, Long>, JpaSpecificationExecutor<Trade> {
 
-    @Query("""
-        SELECT t FROM Trade t WHERE 
-            (:earliestTradeDate IS NULL OR t.tradeDate >= :earliestTradeDate)
-            AND (:latestTradeDate IS NULL OR t.tradeDate <= :latestTradeDate)
-            AND (:tradeStatusId IS NULL OR :tradeStatusId = t.tradeStatus.id)
-            AND (:traderId IS NULL OR :traderId = t.traderUser.id)
-            AND (:bookId IS NULL OR :bookId = t.book.id)
-            AND (:counterpartyId IS NULL OR :counterpartyId = t.counterparty.id)
-    """)
-    List<Trade> searchTradesUsingSearchCriteria(
-        @Param ("earliestTradeDate") LocalDate earliestTradeDate,
-        @Param ("latestTradeDate") LocalDate latestTradeDate,
-        @Param ("tradeStatusId") Long tradeStatusId,
-        @Param ("traderId") Long traderId,
-        @Param ("bookId") Long bookId,
-        @Param ("counterpartyId") Long counterpartyId
-    );
+    // List queries fetch each trade's reference data in the same select; see TradeFetchPlan for the legs
+    @Override
+    @EntityGraph(Trade.REFERENCES_GRAPH)
+    List<Trade> findAll();
+
+    @Override
+    @EntityGraph(Trade.REFERENCES_GRAPH)
+    Page<Trade> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(Trade.REFERENCES_GRAPH)
+    List<Trade> findAll(Specification<Trade> spec);
 
     List<Trade> findByTraderUser_IdAndBook_Id(Long bookId, Long traderUserId);
 
@@ -53,4 +53,50 @@ public interface TradeRepository extends JpaRepository<Trade, Long>, JpaSpecific
 
     @Query("SELECT t FROM Trade t WHERE t.tradeId = :tradeId AND t.active = true ORDER BY t.version DESC")
     Optional<Trade> findLatestActiveVersionByTradeId(@Param("tradeId") Long tradeId);
+
+    // Keyset pages: seek past the last row of the previous page instead of using an offset.
+    // Only the first pageable.getPageSize() rows are read and no count query is issued.
+    @EntityGraph(Trade.REFERENCES_GRAPH)
+    @Query("SELECT t FROM Trade t ORDER BY t.tradeId DESC, t.version DESC")
+    List<Trade> findKeysetFirstPageByTradeId(Pageable pageable);
+
+    @EntityGraph(Trade.REFERENCES_GRAPH)
+    @Query("""
+        SELECT t FROM Trade t
+        WHERE t.tradeId < :tradeId OR (t.tradeId = :tradeId AND t.version < :version)
+        ORDER BY t.tradeId DESC, t.version DESC
+    """)
+    List<Trade> findKeysetPageByTradeIdAfter(@Param("tradeId") Long tradeId, @Param("version") Integer version, Pageable pageable);
+
+    @EntityGraph(Trade.REFERENCES_GRAPH)
+    // Trades never touched sort first, as they do under the database's own DESC ordering
+    @Query("SELECT t FROM Trade t ORDER BY t.lastTouchTimestamp DESC NULLS FIRST, t.id DESC")
+    List<Trade> findKeysetFirstPageByLastTouch(Pageable pageable);
+
+    @EntityGraph(Trade.REFERENCES_GRAPH)
+    @Query("""
+        SELECT t FROM Trade t
+        WHERE t.lastTouchTimestamp < :lastTouchTimestamp OR (t.lastTouchTimestamp = :lastTouchTimestamp AND t.id < :id)
+        ORDER BY t.lastTouchTimestamp DESC NULLS FIRST, t.id DESC
+    """)
+    List<Trade> findKeysetPageByLastTouchAfter(@Param("lastTouchTimestamp") LocalDateTime lastTouchTimestamp, @Param("id") Long id, Pageable pageable);
+
+    // Continues from a page that ended among the untouched trades
+    @EntityGraph(Trade.REFERENCES_GRAPH)
+    @Query("""
+        SELECT t FROM Trade t
+        WHERE t.lastTouchTimestamp IS NOT NULL OR t.id < :id
+        ORDER BY t.lastTouchTimestamp DESC NULLS FIRST, t.id DESC
+    """)
+    List<Trade> findKeysetPageByLastTouchAfterUntouched(@Param("id") Long id, Pageable pageable);
+
+    // Initialises the legs of trades already loaded, with every leg reference the mapper reads.
+    // A graph rather than JOIN FETCH because HQL reads "l.index" as the INDEX() function.
+    @EntityGraph(attributePaths = {
+            "tradeLegs.currency", "tradeLegs.legRateType", "tradeLegs.index", "tradeLegs.holidayCalendar",
+            "tradeLegs.calculationPeriodSchedule", "tradeLegs.paymentBusinessDayConvention",
+            "tradeLegs.fixingBusinessDayConvention", "tradeLegs.payReceiveFlag"
+    })
+    @Query("SELECT t FROM Trade t WHERE t.id IN :ids")
+    List<Trade> fetchLegsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -4,9 +4,11 @@ import com.technicalchallenge.model.TradeStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface TradeStatusRepository extends JpaRepository<TradeStatus, Long> {
     Optional<TradeStatus> findByTradeStatus(String tradeStatus);
+    long countByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,19 @@
+package com.technicalchallenge.repository;
+
+import com.technicalchallenge.model.TradeSubmissionKey;
+
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TradeSubmissionKeyRepository extends JpaRepository<TradeSubmissionKey, String> {
+
+    // Deletes the keys recorded before the cut-off, returning how many there were
+    @Modifying
+    @Query("DELETE FROM TradeSubmissionKey k WHERE k.createdDate < :cutoff")
+    int deleteRecordedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,7 +1,9 @@
 package com.technicalchallenge.repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.technicalchallenge.model.TradeSummary;
@@ -10,4 +12,8 @@ public interface TradeSummaryRepository extends JpaRepository<TradeSummary, Long
     // Find summaries for a trader on a specific date
     List<TradeSummary> findByTraderUser_IdAndSummaryDateStamp(Long traderUserId, LocalDate summaryDateStamp);
 
+    // The trader's snapshot for one period of the day
+    Optional<TradeSummary> findByTraderUser_IdAndSummaryDateStampAndSummaryTimeStamp(Long traderUserId,
+            LocalDate summaryDateStamp, LocalTime summaryTimeStamp);
+
 }
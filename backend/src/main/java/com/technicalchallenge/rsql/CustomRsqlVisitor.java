@@ -18,6 +18,12 @@ public class CustomRsqlVisitor<T> implements RSQLVisitor<Specification<T>, Void>
         builder = new GenericRsqlSpecBuilder<T>();
     }
 
+    // Resolves selectors against the entity's fields and converts arguments while visiting,
+    // so the specification it returns can be reused for any number of queries
+    public CustomRsqlVisitor(Class<T> entityClass) {
+        builder = new GenericRsqlSpecBuilder<T>(entityClass);
+    }
+
     @Override
     public Specification<T> visit(AndNode node, Void param) {
         return builder.createSpecification(node);
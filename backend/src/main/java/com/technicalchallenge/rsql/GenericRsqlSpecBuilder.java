@@ -1,5 +1,8 @@
 package com.technicalchallenge.rsql;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -14,6 +17,17 @@ import cz.jirutka.rsql.parser.ast.Node;
 // Specification builder that constructs specifications out of each of the nodes we visit.
 public class GenericRsqlSpecBuilder<T> {
 
+    // Entity the selectors are resolved against, when known; otherwise they are resolved per query
+    private final Class<T> entityClass;
+
+    public GenericRsqlSpecBuilder() {
+        this(null);
+    }
+
+    public GenericRsqlSpecBuilder(Class<T> entityClass) {
+        this.entityClass = entityClass;
+    }
+
     public Specification<T> createSpecification(Node node) {
         if (node instanceof LogicalNode) {
             return createSpecification((LogicalNode) node);
@@ -46,13 +60,54 @@ public class GenericRsqlSpecBuilder<T> {
     }
 
     public Specification<T> createSpecification(ComparisonNode comparisonNode) {
-        Specification<T> result = Specification.where(
+        if (entityClass == null) {
+            return Specification.where(
+              new GenericRsqlSpecification<T>(
+                comparisonNode.getSelector(),
+                comparisonNode.getOperator(),
+                comparisonNode.getArguments()
+              )
+            );
+        }
+        if (RsqlSearchOperation.getSimpleOperator(comparisonNode.getOperator()) == null) {
+            throw new IllegalArgumentException("Unsupported operator: " + comparisonNode.getOperator());
+        }
+        return Specification.where(
           new GenericRsqlSpecification<T>(
-            comparisonNode.getSelector(), 
-            comparisonNode.getOperator(), 
-            comparisonNode.getArguments()
+            comparisonNode.getSelector(),
+            comparisonNode.getOperator(),
+            comparisonNode.getArguments(),
+            resolveType(comparisonNode.getSelector())
           )
         );
-        return result;
+    }
+
+    // Follows a selector such as counterparty.name through the entity's fields to the type
+    // of the last one, rejecting selectors that name no field
+    private Class<?> resolveType(String selector) {
+        Class<?> type = entityClass;
+        for (String part : selector.split("\\.")) {
+            Field field = findField(type, part);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown property: " + selector);
+            }
+            type = field.getType();
+            // a collection such as tradeLegs continues into its element type
+            if (Collection.class.isAssignableFrom(type) && field.getGenericType() instanceof ParameterizedType parameterized) {
+                type = (Class<?>) parameterized.getActualTypeArguments()[0];
+            }
+        }
+        return type;
+    }
+
+    static Field findField(Class<?> type, String name) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                // Try the superclass
+            }
+        }
+        return null;
     }
 }
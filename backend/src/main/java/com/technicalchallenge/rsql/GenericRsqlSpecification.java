@@ -1,133 +1,208 @@
 package com.technicalchallenge.rsql;
 
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.data.jpa.domain.Specification;
 
 import cz.jirutka.rsql.parser.ast.ComparisonOperator;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Subquery;
 
-// Dynamically builds WHERE clauses (predicates) for any entity type T at runtime
+// Dynamically builds WHERE clauses (predicates) for any entity type T at runtime.
+// Immutable, as compiled specifications are cached and shared between threads.
 public class GenericRsqlSpecification<T> implements Specification<T> {
 
-    private String property;
-    private ComparisonOperator operator;
-    private List<String> arguments;
+    private final String property;
+    private final ComparisonOperator operator;
+    private final List<String> arguments;
+    // Arguments already converted to the property's type, when it was known up front
+    private final List<Object> typedArguments;
 
     public GenericRsqlSpecification(String property, ComparisonOperator operator, List<String> arguments) {
         this.property = property;
         this.operator = operator;
-        this.arguments = arguments;
+        this.arguments = List.copyOf(arguments);
+        this.typedArguments = null;
     }
 
-    //This method figures out how to reach the path being filtered
-    // Root<T> root is the root entity being queried. eg. Root<Trade>
-    private Path<?> getPath(Root<T> root, String property) {
-
-        // for nested properties like counterparty.name...
-        if (property.contains(".")) {
-            //splits string at the full stops
-            String[] parts = property.split("\\.");
-
-            jakarta.persistence.criteria.From<?, ?> join = root;
+    // For a property whose type has been resolved in advance, so arguments are converted once
+    // here instead of on every query
+    public GenericRsqlSpecification(String property, ComparisonOperator operator, List<String> arguments, Class<?> type) {
+        this.property = property;
+        this.operator = operator;
+        this.arguments = List.copyOf(arguments);
+        this.typedArguments = castArguments(type);
+    }
 
-            for (int i = 0; i < parts.length - 1; i++) {
-                // perform left joins until we get to the final column
-                join = join.join(parts[i], jakarta.persistence.criteria.JoinType.LEFT);
+    // Joins are looked up in the query's own join tree before a new one is added, so every
+    // comparison in one RSQL expression shares a single join per association, including
+    // the fetch joins of the query it is applied to
+    private static From<?, ?> leftJoin(From<?, ?> from, String attribute) {
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute) && join.getJoinType() == JoinType.LEFT) {
+                return join;
             }
-
-            return join.get(parts[parts.length - 1]);
-        } else {
-            // if the property is simple e.g. tradeID
-            return root.get(property);
         }
+        for (Fetch<?, ?> fetch : from.getFetches()) {
+            if (fetch instanceof Join<?, ?> join && fetch.getAttribute().getName().equals(attribute)
+                    && fetch.getJoinType() == JoinType.LEFT) {
+                return join;
+            }
+        }
+        return from.join(attribute, JoinType.LEFT);
     }
 
+    private static boolean isCollection(From<?, ?> from, String attribute) {
+        Field field = GenericRsqlSpecBuilder.findField(from.getJavaType(), attribute);
+        return field != null && Collection.class.isAssignableFrom(field.getType());
+    }
 
     @Override
     // Build the SQL condition
     public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
         try {
-            // Get the field path and convert string arguments into correct Java type
-            Path<?> path = getPath(root, property);
-            List<Object> args = castArguments(root);
-            Object argument = args.get(0);
-
-            // Look up the operation and build a predicate with the correct criteria builder method.
-            switch (RsqlSearchOperation.getSimpleOperator(operator)) {
-                case EQUAL:
-                    if (argument instanceof String) {
-                        return builder.like(builder.lower(path.as(String.class)), argument.toString().toLowerCase().replace('*', '%'));
-                    } else {
-                        return builder.equal(path, argument);
-                    }
-                case NOT_EQUAL:
-                    return builder.notEqual(path, argument);
-                case GREATER_THAN:
-                    return builder.greaterThan(path.as(String.class), argument.toString());
-                case GREATER_THAN_OR_EQUAL:
-                    return builder.greaterThanOrEqualTo(path.as(String.class), argument.toString());
-                case LESS_THAN:
-                    return builder.lessThan(path.as(String.class), argument.toString());
-                case LESS_THAN_OR_EQUAL:
-                    return builder.lessThanOrEqualTo(path.as(String.class), argument.toString());
-                case IN:
-                    return path.in(args);
-                case NOT_IN:
-                    return builder.not(path.in(args));
-                default:
-                    return null;
+            // for nested properties like counterparty.name, join through to the final column
+            String[] parts = property.split("\\.");
+            From<?, ?> from = root;
+            for (int i = 0; i < parts.length - 1; i++) {
+                if (isCollection(from, parts[i])) {
+                    return existsThrough(from, parts, i, query, builder);
+                }
+                from = leftJoin(from, parts[i]);
             }
+            return toPredicate(from.get(parts[parts.length - 1]), builder);
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("Error building predicate for property: " + property + " — " + e.getMessage(), e);
         }
     }
 
+    // A selector through a collection such as tradeLegs.notional becomes a correlated
+    // EXISTS, so a trade matching through several legs still comes back once and the outer
+    // query needs neither a row-multiplying join nor DISTINCT
+    private Predicate existsThrough(From<?, ?> from, String[] parts, int collection, CriteriaQuery<?> query, CriteriaBuilder builder) {
+        Subquery<Integer> subquery = query.subquery(Integer.class);
+        From<?, ?> element = (from instanceof Root<?> root ? subquery.correlate(root) : subquery.correlate((Join<?, ?>) from))
+                .join(parts[collection]);
+        for (int i = collection + 1; i < parts.length - 1; i++) {
+            element = element.join(parts[i]);
+        }
+        subquery.select(builder.literal(1)).where(toPredicate(element.get(parts[parts.length - 1]), builder));
+        return builder.exists(subquery);
+    }
+
+    private Predicate toPredicate(Path<?> path, CriteriaBuilder builder) {
+        // Convert string arguments into correct Java type
+        List<Object> args = typedArguments != null ? typedArguments : castArguments(path.getJavaType());
+        Object argument = args.get(0);
+
+        // Look up the operation and build a predicate with the correct criteria builder method.
+        switch (RsqlSearchOperation.getSimpleOperator(operator)) {
+            case EQUAL:
+                if (argument instanceof String) {
+                    return builder.like(builder.lower(asText(path)), argument.toString().toLowerCase().replace('*', '%'));
+                } else {
+                    return builder.equal(path, argument);
+                }
+            case NOT_EQUAL:
+                return builder.notEqual(path, argument);
+            case GREATER_THAN:
+            case GREATER_THAN_OR_EQUAL:
+            case LESS_THAN:
+            case LESS_THAN_OR_EQUAL:
+                return compare(builder, path, argument, RsqlSearchOperation.getSimpleOperator(operator));
+            case IN:
+                return path.in(args);
+            case NOT_IN:
+                return builder.not(path.in(args));
+            default:
+                return null;
+        }
+    }
+
+    // Text columns are used as they are; anything else is cast
+    @SuppressWarnings("unchecked")
+    private static Expression<String> asText(Path<?> path) {
+        return path.getJavaType() == String.class ? (Expression<String>) path : path.as(String.class);
+    }
+
+    // Range comparisons run on the column's own type where it is comparable, so dates and
+    // numbers order correctly and an index on the column can serve them. Anything else is
+    // compared as text.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate compare(CriteriaBuilder builder, Path<?> path, Object argument, RsqlSearchOperation operation) {
+        Expression<Comparable> expression;
+        Comparable value;
+        if (argument instanceof Comparable && Comparable.class.isAssignableFrom(path.getJavaType())) {
+            expression = (Expression<Comparable>) path;
+            value = (Comparable) argument;
+        } else {
+            expression = (Expression) path.as(String.class);
+            value = argument.toString();
+        }
 
-    private List<Object> castArguments(final Root<T> root) {
-        Path<?> path = getPath(root, property);
-        Class<?> type = path.getJavaType(); 
+        switch (operation) {
+            case GREATER_THAN:
+                return builder.greaterThan(expression, value);
+            case GREATER_THAN_OR_EQUAL:
+                return builder.greaterThanOrEqualTo(expression, value);
+            case LESS_THAN:
+                return builder.lessThan(expression, value);
+            default:
+                return builder.lessThanOrEqualTo(expression, value);
+        }
+    }
 
+    private List<Object> castArguments(Class<?> type) {
         return arguments.stream().map(arg -> {
             try {
-                if (type.equals(Integer.class)) return Integer.parseInt(arg);
-                if (type.equals(Long.class)) return Long.parseLong(arg);
-                if (type.equals(Boolean.class)) return Boolean.parseBoolean(arg);
-                if (type.equals(Double.class)) return Double.parseDouble(arg);
+                if (type.equals(Integer.class) || type.equals(int.class)) return Integer.parseInt(arg);
+                if (type.equals(Long.class) || type.equals(long.class)) return Long.parseLong(arg);
+                if (type.equals(Boolean.class) || type.equals(boolean.class)) return Boolean.parseBoolean(arg);
+                if (type.equals(Double.class) || type.equals(double.class)) return Double.parseDouble(arg);
+                if (type.equals(BigDecimal.class)) return new BigDecimal(arg);
+                if (type.equals(LocalDate.class)) return LocalDate.parse(arg);
+                if (type.equals(LocalDateTime.class)) return LocalDateTime.parse(arg);
+                if (type.isEnum()) return enumConstant(type, arg);
                 return arg;
             } catch (Exception e) {
                 throw new RuntimeException("Invalid value for property '" + property + "': " + arg);
             }
-        }).collect(Collectors.toList());
+        }).toList();
     }
 
-    public String getProperty() {
-        return property;
+    private static Object enumConstant(Class<?> type, String name) {
+        for (Object constant : type.getEnumConstants()) {
+            if (((Enum<?>) constant).name().equalsIgnoreCase(name)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException(name);
     }
 
-    public void setProperty(String property) {
-        this.property = property;
+    public String getProperty() {
+        return property;
     }
 
     public ComparisonOperator getOperator() {
         return operator;
     }
 
-    public void setOperator(ComparisonOperator operator) {
-        this.operator = operator;
-    }
-
     public List<String> getArguments() {
         return arguments;
     }
-
-    public void setArguments(List<String> arguments) {
-        this.arguments = arguments;
-    }
 }
\ No newline at end of file
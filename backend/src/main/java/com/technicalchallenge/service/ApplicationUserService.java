@@ -17,6 +17,7 @@ import java.util.Optional;
 public class ApplicationUserService {
     private static final Logger logger = LoggerFactory.getLogger(ApplicationUserService.class);
     private final ApplicationUserRepository applicationUserRepository;
+    private final ReferenceDataResolver referenceDataResolver;
 
     public boolean validateCredentials(String loginId, String password) {
         logger.debug("Validating credentials for user: {}", loginId);
@@ -41,12 +42,15 @@ public class ApplicationUserService {
 
     public ApplicationUser saveUser(ApplicationUser user) {
         logger.info("Saving user: {}", user);
-        return applicationUserRepository.save(user);
+        ApplicationUser saved = applicationUserRepository.save(user);
+        referenceDataResolver.refresh();
+        return saved;
     }
 
     public void deleteUser(Long id) {
         logger.warn("Deleting user with id: {}", id);
         applicationUserRepository.deleteById(id);
+        referenceDataResolver.refresh();
     }
 
     public ApplicationUser updateUser(Long id, ApplicationUser user) {
@@ -63,6 +67,8 @@ public class ApplicationUserService {
             existingUser.setPassword(user.getPassword());
         }
         // version and lastModifiedTimestamp handled by entity listeners
-        return applicationUserRepository.save(existingUser);
+        ApplicationUser saved = applicationUserRepository.save(existingUser);
+        referenceDataResolver.refresh();
+        return saved;
     }
 }
@@ -0,0 +1,42 @@
+package com.technicalchallenge.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * The fields of an active trade version that the blotter index holds. References are
+ * carried as ID and display name; the leg notionals are already summed, in total, per
+ * currency and signed by pay/receive direction.
+ */
+@Getter
+@Builder
+public class BlotterTrade {
+    private final long tradeId;
+    private final String utiCode;
+    private final LocalDate tradeDate;
+    private final LocalDate maturityDate;
+    private final LocalDate executionDate;
+
+    private final Long bookId;
+    private final String bookName;
+    private final Long counterpartyId;
+    private final String counterpartyName;
+    private final Long tradeStatusId;
+    private final String tradeStatus;
+    private final Long tradeTypeId;
+    private final String tradeType;
+    private final Long traderId;
+    private final String traderLoginId;
+
+    @Builder.Default
+    private final BigDecimal notional = BigDecimal.ZERO;
+    // Receive legs count positive and pay legs negative
+    @Builder.Default
+    private final BigDecimal exposure = BigDecimal.ZERO;
+    @Builder.Default
+    private final Map<String, BigDecimal> notionalByCurrency = Map.of();
+}
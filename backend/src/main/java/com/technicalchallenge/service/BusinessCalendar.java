@@ -0,0 +1,187 @@
+package com.technicalchallenge.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A compiled holiday calendar. Every day from 1970 to the end of {@link #LAST_YEAR} has
+ * one bit, set when the day is a weekend or holiday, so checking a date is a single
+ * array read. The {@code long} epoch-day methods do not allocate; the {@link LocalDate}
+ * overloads only allocate the date they return. Instances are immutable.
+ */
+public final class BusinessCalendar {
+
+    public static final int LAST_YEAR = 2199;
+
+    private static final int DAYS = (int) LocalDate.of(LAST_YEAR + 1, 1, 1).toEpochDay();
+    private static final int WORDS = (DAYS + 63) >>> 6;
+
+    // Longest run of non-business days tolerated before giving up on a roll
+    private static final int MAX_ROLL_DAYS = 366;
+
+    private static final byte[] DAY_OF_MONTH = new byte[DAYS];
+    private static final long[] WEEKENDS = new long[WORDS];
+
+    static {
+        LocalDate date = LocalDate.ofEpochDay(0);
+        for (int day = 0; day < DAYS; day++) {
+            DAY_OF_MONTH[day] = (byte) date.getDayOfMonth();
+            if (isWeekend(day)) {
+                WEEKENDS[day >>> 6] |= 1L << day;
+            }
+            date = date.plusDays(1);
+        }
+    }
+
+    private final String name;
+    private final long[] nonBusinessDays;
+    private final int holidayCount;
+
+    private BusinessCalendar(String name, long[] nonBusinessDays, int holidayCount) {
+        this.name = name;
+        this.nonBusinessDays = nonBusinessDays;
+        this.holidayCount = holidayCount;
+    }
+
+    public static BusinessCalendar weekendsOnly(String name) {
+        return new BusinessCalendar(name, WEEKENDS, 0);
+    }
+
+    /**
+     * Builds a calendar from its holiday dates. Holidays outside the supported years
+     * are ignored, and dates outside them are treated as business days unless they
+     * fall on a weekend.
+     */
+    public static BusinessCalendar compile(String name, Collection<LocalDate> holidays) {
+        long[] bits = WEEKENDS.clone();
+        int count = 0;
+        for (LocalDate holiday : holidays) {
+            long day = holiday.toEpochDay();
+            if (day >= 0 && day < DAYS && !isWeekend(day)) {
+                long mask = 1L << day;
+                if ((bits[(int) (day >>> 6)] & mask) == 0) {
+                    bits[(int) (day >>> 6)] |= mask;
+                    count++;
+                }
+            }
+        }
+        return new BusinessCalendar(name, bits, count);
+    }
+
+    /**
+     * Combines calendars so a day is a business day only when it is one in all of them.
+     */
+    public static BusinessCalendar join(String name, List<BusinessCalendar> calendars) {
+        long[] bits = WEEKENDS.clone();
+        for (BusinessCalendar calendar : calendars) {
+            long[] other = calendar.nonBusinessDays;
+            for (int i = 0; i < WORDS; i++) {
+                bits[i] |= other[i];
+            }
+        }
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            count += Long.bitCount(bits[i] & ~WEEKENDS[i]);
+        }
+        return new BusinessCalendar(name, bits, count);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getHolidayCount() {
+        return holidayCount;
+    }
+
+    public boolean isBusinessDay(long epochDay) {
+        if (epochDay < 0 || epochDay >= DAYS) {
+            return !isWeekend(epochDay);
+        }
+        return (nonBusinessDays[(int) (epochDay >>> 6)] & (1L << epochDay)) == 0;
+    }
+
+    public boolean isBusinessDay(LocalDate date) {
+        return isBusinessDay(date.toEpochDay());
+    }
+
+    public long adjust(long epochDay, DateRollConvention convention) {
+        switch (convention) {
+            case FOLLOWING:
+                return following(epochDay);
+            case PRECEDING:
+                return preceding(epochDay);
+            case MODIFIED_FOLLOWING: {
+                // Rolling forward less than a month crossed into the next month exactly
+                // when the day of month went down
+                long rolled = following(epochDay);
+                return dayOfMonth(rolled) < dayOfMonth(epochDay) ? preceding(epochDay) : rolled;
+            }
+            case MODIFIED_PRECEDING: {
+                long rolled = preceding(epochDay);
+                return dayOfMonth(rolled) > dayOfMonth(epochDay) ? following(epochDay) : rolled;
+            }
+            default:
+                return epochDay;
+        }
+    }
+
+    public LocalDate adjust(LocalDate date, DateRollConvention convention) {
+        long epochDay = date.toEpochDay();
+        long adjusted = adjust(epochDay, convention);
+        return adjusted == epochDay ? date : LocalDate.ofEpochDay(adjusted);
+    }
+
+    /**
+     * Moves the given number of business days forwards, or backwards when negative.
+     * Zero returns the date unchanged even if it is not a business day.
+     */
+    public long addBusinessDays(long epochDay, int businessDays) {
+        int step = businessDays < 0 ? -1 : 1;
+        int remaining = Math.abs(businessDays);
+        long day = epochDay;
+        while (remaining > 0) {
+            day += step;
+            if (isBusinessDay(day)) {
+                remaining--;
+            }
+        }
+        return day;
+    }
+
+    public LocalDate addBusinessDays(LocalDate date, int businessDays) {
+        return businessDays == 0 ? date : LocalDate.ofEpochDay(addBusinessDays(date.toEpochDay(), businessDays));
+    }
+
+    private long following(long epochDay) {
+        return roll(epochDay, 1);
+    }
+
+    private long preceding(long epochDay) {
+        return roll(epochDay, -1);
+    }
+
+    private long roll(long epochDay, int step) {
+        long day = epochDay;
+        for (int i = 0; i < MAX_ROLL_DAYS; i++) {
+            if (isBusinessDay(day)) {
+                return day;
+            }
+            day += step;
+        }
+        throw new RuntimeException("No business day in calendar " + name + " within a year of " + LocalDate.ofEpochDay(epochDay));
+    }
+
+    private static int dayOfMonth(long epochDay) {
+        if (epochDay < 0 || epochDay >= DAYS) {
+            return LocalDate.ofEpochDay(epochDay).getDayOfMonth();
+        }
+        return DAY_OF_MONTH[(int) epochDay];
+    }
+
+    private static boolean isWeekend(long epochDay) {
+        // 1970-01-01 was a Thursday, so this gives 0 for Monday through 6 for Sunday
+        return Math.floorMod(epochDay + 3, 7L) >= 5;
+    }
+}
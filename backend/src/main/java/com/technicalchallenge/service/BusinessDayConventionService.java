@@ -18,6 +18,9 @@ public class BusinessDayConventionService {
     @Autowired
     private BusinessDayConventionRepository businessDayConventionRepository;
 
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
+
     public List<BusinessDayConvention> findAll() {
         logger.info("Retrieving all business day conventions");
         return businessDayConventionRepository.findAll();
@@ -30,11 +33,14 @@ public class BusinessDayConventionService {
 
     public BusinessDayConvention save(BusinessDayConvention businessDayConvention) {
         logger.info("Saving business day convention: {}", businessDayConvention);
-        return businessDayConventionRepository.save(businessDayConvention);
+        BusinessDayConvention saved = businessDayConventionRepository.save(businessDayConvention);
+        referenceDataResolver.refresh();
+        return saved;
     }
 
     public void deleteById(Long id) {
         logger.warn("Deleting business day convention with id: {}", id);
         businessDayConventionRepository.deleteById(id);
+        referenceDataResolver.refresh();
     }
 }
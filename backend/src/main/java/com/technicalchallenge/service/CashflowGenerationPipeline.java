@@ -0,0 +1,274 @@
+package com.technicalchallenge.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.technicalchallenge.dto.CashflowGenerationStatusDTO;
+import com.technicalchallenge.model.Cashflow;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.TradeLeg;
+import com.technicalchallenge.repository.TradeLegRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Decides whether a trade's cashflows are generated inside the booking transaction or in
+ * the background. With {@code cashflow.async.enabled} set, legs are committed as PENDING
+ * and handed to a bounded worker pool once the booking commits; each leg is then generated
+ * in its own transaction and marked DONE or FAILED. When the queue is full the booking
+ * thread generates the leg itself, which slows callers down instead of dropping work.
+ *
+ * A worker claims a leg by moving it from PENDING to RUNNING in its own transaction before
+ * generating it, and skips the leg when another node or an earlier queueing of the same leg
+ * got there first. The queue is only held in memory, so on startup legs still PENDING are
+ * queued again, as are legs RUNNING for longer than
+ * {@code cashflow.async.claim-timeout-seconds}, whose node stopped before finishing them.
+ */
+@Service
+public class CashflowGenerationPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(CashflowGenerationPipeline.class);
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    @Autowired
+    private CashflowGenerator cashflowGenerator;
+
+    @Autowired
+    private TradeLegRepository tradeLegRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cashflow.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    @Value("${cashflow.async.pool-size:4}")
+    private int poolSize = 4;
+
+    @Value("${cashflow.async.queue-capacity:1000}")
+    private int queueCapacity = 1000;
+
+    @Value("${cashflow.async.claim-timeout-seconds:600}")
+    private long claimTimeoutSeconds = 600;
+
+    private ThreadPoolExecutor executor;
+    private Counter saturatedCounter;
+
+    @PostConstruct
+    void start() {
+        if (!asyncEnabled) {
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "cashflow-gen-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        saturatedCounter = Counter.builder("cashflow.async.saturated")
+                .description("Legs generated on the booking thread because the queue was full")
+                .register(meterRegistry);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, (task, pool) -> {
+                    if (pool.isShutdown()) {
+                        logger.warn("Cashflow generation turned away during shutdown, leg left PENDING for the next startup");
+                        return;
+                    }
+                    saturatedCounter.increment();
+                    task.run();
+                });
+        Gauge.builder("cashflow.async.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Legs waiting for cashflow generation")
+                .register(meterRegistry);
+        Gauge.builder("cashflow.async.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Legs currently having cashflows generated")
+                .register(meterRegistry);
+        logger.info("Asynchronous cashflow generation enabled with {} workers and queue capacity {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeueOnStartup() {
+        requeuePending();
+    }
+
+    /**
+     * Hands back legs whose claim has gone stale, then queues every PENDING leg again, or
+     * generates them straight away when asynchronous generation is now off. A PENDING leg
+     * still queued on another node is generated by whichever claims it first. Returns the
+     * number of legs requeued.
+     */
+    public int requeuePending() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusSeconds(claimTimeoutSeconds);
+        Integer released = new TransactionTemplate(transactionManager).execute(status ->
+                tradeLegRepository.releaseStaleCashflowClaims(RUNNING, PENDING, staleBefore));
+        if (released != null && released > 0) {
+            logger.warn("Released {} cashflow generation claims taken before {}", released, staleBefore);
+        }
+        List<TradeLeg> pending = tradeLegRepository.findWithTradeByCashflowStatus(PENDING);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        logger.info("Requeueing cashflow generation for {} legs left pending", pending.size());
+        for (TradeLeg leg : pending) {
+            Trade trade = leg.getTrade();
+            submit(List.of(leg.getLegId()), trade.getTradeStartDate(), trade.getTradeMaturityDate());
+        }
+        return pending.size();
+    }
+
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
+
+    /**
+     * Generates cashflows for legs that have already been saved. Returns the number of
+     * cashflows generated straight away, which is zero when generation was deferred.
+     */
+    public int generate(List<TradeLeg> legs, LocalDate startDate, LocalDate maturityDate) {
+        if (legs.isEmpty()) {
+            return 0;
+        }
+        if (startDate == null || maturityDate == null) {
+            legs.forEach(leg -> markDone(leg));
+            return 0;
+        }
+
+        if (!asyncEnabled) {
+            List<Cashflow> cashflows = new ArrayList<>();
+            for (TradeLeg leg : legs) {
+                cashflows.addAll(cashflowGenerator.generate(leg, startDate, maturityDate));
+                markDone(leg);
+            }
+            cashflowGenerator.persist(cashflows);
+            return cashflows.size();
+        }
+
+        List<Long> legIds = new ArrayList<>(legs.size());
+        for (TradeLeg leg : legs) {
+            leg.setCashflowStatus(PENDING);
+            leg.setCashflowStatusMessage(null);
+            legIds.add(leg.getLegId());
+        }
+        // Workers must not start before the legs they load are committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(legIds, startDate, maturityDate);
+                }
+            });
+        } else {
+            submit(legIds, startDate, maturityDate);
+        }
+        return 0;
+    }
+
+    public CashflowGenerationStatusDTO statusOf(Trade trade) {
+        CashflowGenerationStatusDTO status = new CashflowGenerationStatusDTO();
+        status.setTradeId(trade.getTradeId());
+        status.setVersion(trade.getVersion());
+
+        boolean pending = false;
+        boolean failed = false;
+        if (trade.getTradeLegs() != null) {
+            for (TradeLeg leg : trade.getTradeLegs()) {
+                // Legs booked before statuses were recorded were generated synchronously
+                String legStatus = leg.getCashflowStatus() == null ? DONE : leg.getCashflowStatus();
+                pending |= PENDING.equals(legStatus) || RUNNING.equals(legStatus);
+                failed |= FAILED.equals(legStatus);
+                status.getLegs().add(new CashflowGenerationStatusDTO.LegStatus(leg.getLegId(), legStatus, leg.getCashflowStatusMessage()));
+            }
+        }
+        status.setStatus(failed ? FAILED : pending ? PENDING : DONE);
+        return status;
+    }
+
+    private void submit(List<Long> legIds, LocalDate startDate, LocalDate maturityDate) {
+        for (Long legId : legIds) {
+            if (executor == null) {
+                generateLeg(legId, startDate, maturityDate);
+            } else {
+                executor.execute(() -> generateLeg(legId, startDate, maturityDate));
+            }
+        }
+    }
+
+    private void generateLeg(Long legId, LocalDate startDate, LocalDate maturityDate) {
+        // REQUIRES_NEW because a saturated pool runs this on the booking thread, inside
+        // the after-commit callback of a transaction that is already finished
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+        // Committed before generating, so other nodes see the leg RUNNING and leave it alone
+        Integer claimed = transactionTemplate.execute(status ->
+                tradeLegRepository.claimCashflowGeneration(legId, PENDING, RUNNING, LocalDateTime.now()));
+        if (claimed == null || claimed == 0) {
+            logger.debug("Leg {} already claimed for cashflow generation", legId);
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                TradeLeg leg = tradeLegRepository.findById(legId)
+                        .orElseThrow(() -> new RuntimeException("Trade leg not found: " + legId));
+                if (startDate == null || maturityDate == null) {
+                    markDone(leg);
+                    return;
+                }
+                cashflowGenerator.persist(cashflowGenerator.generate(leg, startDate, maturityDate));
+                markDone(leg);
+            });
+        } catch (Exception e) {
+            logger.error("Cashflow generation failed for leg {}: {}", legId, e.getMessage(), e);
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            transactionTemplate.executeWithoutResult(status -> tradeLegRepository.findById(legId).ifPresent(leg -> {
+                leg.setCashflowStatus(FAILED);
+                leg.setCashflowClaimedAt(null);
+                leg.setCashflowStatusMessage(message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message);
+            }));
+        }
+    }
+
+    private static void markDone(TradeLeg leg) {
+        leg.setCashflowStatus(DONE);
+        leg.setCashflowStatusMessage(null);
+        leg.setCashflowClaimedAt(null);
+    }
+}
@@ -0,0 +1,191 @@
+package com.technicalchallenge.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.technicalchallenge.model.Cashflow;
+import com.technicalchallenge.model.TradeLeg;
+import com.technicalchallenge.repository.CashflowRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Generates the cashflows for trade legs. A leg's whole schedule is computed in one pass
+ * into a {@link CashflowSchedule}, then turned into entities that share a single creation
+ * timestamp and are persisted with one {@code saveAll} so Hibernate can batch the inserts.
+ */
+@Service
+public class CashflowGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(CashflowGenerator.class);
+
+    private static final int DEFAULT_MONTHS_INTERVAL = 3;
+
+    @Autowired
+    private CashflowRepository cashflowRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private HolidayCalendarEngine holidayCalendarEngine;
+
+    /**
+     * Computes the payment schedule for a leg between the given dates. The leg's calculation
+     * period schedule decides the interval, defaulting to quarterly when it is not set. Payment
+     * dates are moved onto business days of the leg's holiday calendar using its payment
+     * business day convention, while periods keep rolling from the unadjusted dates.
+     */
+    public CashflowSchedule computeSchedule(TradeLeg leg, LocalDate startDate, LocalDate maturityDate) {
+        String schedule = null;
+        if (leg.getCalculationPeriodSchedule() != null) {
+            schedule = leg.getCalculationPeriodSchedule().getSchedule();
+        }
+        int monthsInterval = parseSchedule(schedule);
+
+        // Size the array up front from the number of whole months so the dates are
+        // written in a single pass without resizing
+        long maxPeriods = Math.max(0, ChronoUnit.MONTHS.between(startDate, maturityDate) / monthsInterval + 1);
+        LocalDate[] valueDates = new LocalDate[(int) maxPeriods];
+        int periods = 0;
+        LocalDate currentDate = startDate.plusMonths(monthsInterval);
+        while (!currentDate.isAfter(maturityDate) && periods < valueDates.length) {
+            valueDates[periods++] = currentDate;
+            currentDate = currentDate.plusMonths(monthsInterval);
+        }
+
+        DateRollConvention convention = DateRollConvention.fromBusinessDayConvention(leg.getPaymentBusinessDayConvention());
+        if (convention != DateRollConvention.UNADJUSTED) {
+            BusinessCalendar calendar = holidayCalendarEngine.forCalendar(leg.getHolidayCalendar());
+            for (int i = 0; i < periods; i++) {
+                valueDates[i] = calendar.adjust(valueDates[i], convention);
+            }
+        }
+
+        return new CashflowSchedule(Arrays.copyOf(valueDates, periods), monthsInterval,
+                calculateCashflowValue(leg, monthsInterval));
+    }
+
+    /**
+     * Builds the cashflow entities for a leg without persisting them.
+     */
+    public List<Cashflow> generate(TradeLeg leg, LocalDate startDate, LocalDate maturityDate) {
+        long start = System.nanoTime();
+
+        CashflowSchedule schedule = computeSchedule(leg, startDate, maturityDate);
+        LocalDateTime createdDate = LocalDateTime.now();
+        List<Cashflow> cashflows = new ArrayList<>(schedule.size());
+        for (LocalDate valueDate : schedule.getValueDates()) {
+            Cashflow cashflow = new Cashflow();
+            cashflow.setTradeLeg(leg);
+            cashflow.setValueDate(valueDate);
+            cashflow.setRate(leg.getRate());
+            cashflow.setPaymentValue(schedule.getPaymentValue());
+            cashflow.setPayRec(leg.getPayReceiveFlag());
+            cashflow.setPaymentBusinessDayConvention(leg.getPaymentBusinessDayConvention());
+            cashflow.setCreatedDate(createdDate);
+            cashflow.setActive(true);
+            cashflows.add(cashflow);
+        }
+
+        recordMetrics(cashflows.size(), System.nanoTime() - start);
+        logger.debug("Generated {} cashflows for leg {} from {} to {}", cashflows.size(), leg.getLegId(), startDate, maturityDate);
+        return cashflows;
+    }
+
+    /**
+     * Persists generated cashflows in one call. With JDBC batching enabled the inserts
+     * go to the database in batches rather than one statement per cashflow.
+     */
+    public List<Cashflow> persist(List<Cashflow> cashflows) {
+        if (cashflows.isEmpty()) {
+            return cashflows;
+        }
+        return cashflowRepository.saveAll(cashflows);
+    }
+
+    private void recordMetrics(int generated, long durationNanos) {
+        Timer.builder("cashflow.generation.duration")
+                .description("Time taken to compute and build the cashflows for one leg")
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("cashflow.generated")
+                .description("Cashflows generated")
+                .register(meterRegistry)
+                .increment(generated);
+        if (generated > 0 && durationNanos > 0) {
+            DistributionSummary.builder("cashflow.generation.throughput")
+                    .description("Cashflows generated per second")
+                    .baseUnit("cashflows/s")
+                    .register(meterRegistry)
+                    .record(generated / (durationNanos / 1_000_000_000.0));
+        }
+    }
+
+    private int parseSchedule(String schedule) {
+        if (schedule == null || schedule.trim().isEmpty()) {
+            return DEFAULT_MONTHS_INTERVAL;
+        }
+        schedule = schedule.trim();
+
+        // Handle common schedule names
+        switch (schedule.toLowerCase()) {
+            case "monthly":
+                return 1;
+            case "quarterly":
+                return 3;
+            case "semi-annually":
+            case "semiannually":
+            case "half-yearly":
+                return 6;
+            case "annually":
+            case "yearly":
+                return 12;
+            default:
+                // Parse "1M", "3M", "12M" format
+                if (schedule.endsWith("M") || schedule.endsWith("m")) {
+                    try {
+                        return Integer.parseInt(schedule.substring(0, schedule.length() - 1));
+                    } catch (NumberFormatException e) {
+                        throw new RuntimeException("Invalid schedule format: " + schedule);
+                    }
+                }
+                throw new RuntimeException("Invalid schedule format: " + schedule + ". Supported formats: Monthly, Quarterly, Semi-annually, Annually, or 1M, 3M, 6M, 12M");
+        }
+    }
+
+    private BigDecimal calculateCashflowValue(TradeLeg leg, int monthsInterval) {
+        if (leg.getLegRateType() == null) {
+            return BigDecimal.ZERO;
+        }
+
+        String legType = leg.getLegRateType().getType();
+
+        if ("Fixed".equals(legType)) {
+            double notional = leg.getNotional().doubleValue();
+            double rate = leg.getRate();
+            double months = monthsInterval;
+
+            double result = (notional * rate * months) / 12;
+
+            return BigDecimal.valueOf(result);
+        } else if ("Floating".equals(legType)) {
+            return BigDecimal.ZERO;
+        }
+
+        return BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,24 @@
+package com.technicalchallenge.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The computed payment schedule for one trade leg: every value date in order plus the
+ * per-period payment, which is the same for every period of a leg. Cashflow entities
+ * are only materialised from this when they are about to be persisted.
+ */
+@Getter
+@AllArgsConstructor
+public class CashflowSchedule {
+    private final LocalDate[] valueDates;
+    private final int monthsInterval;
+    private final BigDecimal paymentValue;
+
+    public int size() {
+        return valueDates.length;
+    }
+}
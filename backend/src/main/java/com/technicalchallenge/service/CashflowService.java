@@ -3,9 +3,6 @@ package com.technicalchallenge.service;
 import com.technicalchallenge.dto.CashflowDTO;
 import com.technicalchallenge.model.Cashflow;
 import com.technicalchallenge.repository.CashflowRepository;
-import com.technicalchallenge.repository.BusinessDayConventionRepository;
-import com.technicalchallenge.repository.LegTypeRepository;
-import com.technicalchallenge.repository.PayRecRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -21,11 +18,7 @@ public class CashflowService {
     @Autowired
     private CashflowRepository cashflowRepository;
     @Autowired
-    private PayRecRepository payRecRepository;
-    @Autowired
-    private LegTypeRepository legTypeRepository;
-    @Autowired
-    private BusinessDayConventionRepository businessDayConventionRepository;
+    private ReferenceDataResolver referenceDataResolver;
 
     public List<Cashflow> getAllCashflows() {
         logger.info("Retrieving all cashflows");
@@ -56,20 +49,16 @@ public class CashflowService {
     }
 
     public void populateReferenceDataByName(Cashflow cashflow, CashflowDTO dto) {
+        ReferenceDataSnapshot referenceData = referenceDataResolver.current();
         if (dto.getPayRec() != null) {
-            cashflow.setPayRec(payRecRepository.findAll().stream()
-                .filter(p -> p.getPayRec().equalsIgnoreCase(dto.getPayRec()))
-                .findFirst().orElse(null));
+            cashflow.setPayRec(referenceData.getPayRecs().byName(dto.getPayRec()).orElse(null));
         }
         if (dto.getPaymentType() != null) {
-            cashflow.setPaymentType(legTypeRepository.findAll().stream()
-                .filter(l -> l.getType().equalsIgnoreCase(dto.getPaymentType()))
-                .findFirst().orElse(null));
+            cashflow.setPaymentType(referenceData.getLegTypes().byName(dto.getPaymentType()).orElse(null));
         }
         if (dto.getPaymentBusinessDayConvention() != null) {
-            cashflow.setPaymentBusinessDayConvention(businessDayConventionRepository.findAll().stream()
-                .filter(b -> b.getBdc().equalsIgnoreCase(dto.getPaymentBusinessDayConvention()))
-                .findFirst().orElse(null));
+            cashflow.setPaymentBusinessDayConvention(referenceData.getBusinessDayConventions()
+                .byName(dto.getPaymentBusinessDayConvention()).orElse(null));
         }
     }
 }
@@ -20,6 +20,9 @@ public class CostCenterService {
     @Autowired
     private CostCenterRepository costCenterRepository;
 
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
+
     @Autowired
     private SubDeskRepository subDeskRepository;
 
@@ -47,11 +50,14 @@ public class CostCenterService {
     public CostCenter saveCostCenter(CostCenter costCenter, CostCenterDTO dto) {
         logger.info("Saving cost center: {}", costCenter);
         populateReferenceDataByName(costCenter, dto);
-        return costCenterRepository.save(costCenter);
+        CostCenter saved = costCenterRepository.save(costCenter);
+        referenceDataResolver.refresh();
+        return saved;
     }
 
     public void deleteCostCenter(Long id) {
         logger.warn("Deleting cost center with id: {}", id);
         costCenterRepository.deleteById(id);
+        referenceDataResolver.refresh();
     }
 }
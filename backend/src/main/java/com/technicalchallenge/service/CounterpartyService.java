@@ -13,6 +13,9 @@ public class CounterpartyService {
     @Autowired
     private CounterpartyRepository counterpartyRepository;
 
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
+
     public List<Counterparty> getAllCounterparties() {
         return counterpartyRepository.findAll();
     }
@@ -22,10 +25,13 @@ public class CounterpartyService {
     }
 
     public Counterparty saveCounterparty(Counterparty counterparty) {
-        return counterpartyRepository.save(counterparty);
+        Counterparty saved = counterpartyRepository.save(counterparty);
+        referenceDataResolver.refresh();
+        return saved;
     }
 
     public void deleteCounterparty(Long id) {
         counterpartyRepository.deleteById(id);
+        referenceDataResolver.refresh();
     }
 }
@@ -18,6 +18,9 @@ public class CurrencyService {
     @Autowired
     private CurrencyRepository currencyRepository;
 
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
+
     public List<Currency> findAll() {
         logger.info("Retrieving all currencies");
         return currencyRepository.findAll();
@@ -30,11 +33,14 @@ public class CurrencyService {
 
     public Currency save(Currency currency) {
         logger.info("Saving currency: {}", currency);
-        return currencyRepository.save(currency);
+        Currency saved = currencyRepository.save(currency);
+        referenceDataResolver.refresh();
+        return saved;
     }
 
     public void deleteById(Long id) {
         logger.warn("Deleting currency with id: {}", id);
         currencyRepository.deleteById(id);
+        referenceDataResolver.refresh();
     }
 }
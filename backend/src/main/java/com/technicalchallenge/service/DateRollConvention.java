@@ -0,0 +1,48 @@
+package com.technicalchallenge.service;
+
+import java.util.Locale;
+
+import com.technicalchallenge.model.BusinessDayConvention;
+
+/**
+ * How a date that falls on a non-business day is moved onto a business day.
+ */
+public enum DateRollConvention {
+    UNADJUSTED,
+    FOLLOWING,
+    MODIFIED_FOLLOWING,
+    PRECEDING,
+    MODIFIED_PRECEDING;
+
+    /**
+     * Maps a business day convention name such as "Following" or "Modified Following"
+     * to a convention. Missing or unrecognised names leave dates unadjusted, which is
+     * how cashflows were generated before calendars were applied.
+     */
+    public static DateRollConvention fromName(String name) {
+        if (name == null) {
+            return UNADJUSTED;
+        }
+        String key = name.replaceAll("[^A-Za-z]", "").toLowerCase(Locale.ROOT);
+        switch (key) {
+            case "following":
+            case "f":
+                return FOLLOWING;
+            case "modifiedfollowing":
+            case "mf":
+                return MODIFIED_FOLLOWING;
+            case "preceding":
+            case "p":
+                return PRECEDING;
+            case "modifiedpreceding":
+            case "mp":
+                return MODIFIED_PRECEDING;
+            default:
+                return UNADJUSTED;
+        }
+    }
+
+    public static DateRollConvention fromBusinessDayConvention(BusinessDayConvention businessDayConvention) {
+        return businessDayConvention == null ? UNADJUSTED : fromName(businessDayConvention.getBdc());
+    }
+}
@@ -0,0 +1,141 @@
+package com.technicalchallenge.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.technicalchallenge.model.Holiday;
+import com.technicalchallenge.model.HolidayCalendar;
+import com.technicalchallenge.repository.HolidayRepository;
+
+/**
+ * Compiles the stored holidays of every calendar into {@link BusinessCalendar}s and hands
+ * them out by name. A name joining several calendars with "+", such as "NY+LON", gives
+ * their joint calendar, built by OR-ing the component calendars. Components without stored
+ * holidays add nothing, so they are dropped before the joint calendar is looked up, and at
+ * most {@code holiday.calendar.joint-cache-size} joint calendars are kept, least recently
+ * used first out. Calendars without stored holidays only treat weekends as non-business days.
+ */
+@Service
+public class HolidayCalendarEngine {
+    private static final Logger logger = LoggerFactory.getLogger(HolidayCalendarEngine.class);
+
+    public static final String JOINT_SEPARATOR = "+";
+
+    private static final BusinessCalendar WEEKENDS_ONLY = BusinessCalendar.weekendsOnly("");
+
+    @Autowired
+    private HolidayRepository holidayRepository;
+
+    @Value("${holiday.calendar.joint-cache-size:100}")
+    private int jointCacheSize = 100;
+
+    private final AtomicReference<CompiledCalendars> compiled = new AtomicReference<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    public BusinessCalendar forCalendar(HolidayCalendar holidayCalendar) {
+        return forName(holidayCalendar == null ? null : holidayCalendar.getHolidayCalendar());
+    }
+
+    public BusinessCalendar forName(String name) {
+        if (name == null || name.isBlank()) {
+            return WEEKENDS_ONLY;
+        }
+        CompiledCalendars calendars = current();
+        // The name comes from the caller, so only calendars with holidays make up the key
+        List<String> components = Arrays.stream(normalise(name).split("\\" + JOINT_SEPARATOR))
+                .filter(calendars.byName::containsKey)
+                .toList();
+        if (components.isEmpty()) {
+            return WEEKENDS_ONLY;
+        }
+        if (components.size() == 1) {
+            return calendars.byName.get(components.get(0));
+        }
+        String key = String.join(JOINT_SEPARATOR, components);
+        BusinessCalendar joint = calendars.joint.get(key);
+        if (joint == null) {
+            logger.debug("Building joint calendar {}", key);
+            joint = BusinessCalendar.join(key, components.stream().map(calendars.byName::get).toList());
+            calendars.joint.put(key, joint);
+        }
+        return joint;
+    }
+
+    /**
+     * Recompiles all calendars, after the surrounding transaction commits if there is one.
+     */
+    public void refresh() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    private CompiledCalendars current() {
+        CompiledCalendars calendars = compiled.get();
+        return calendars != null ? calendars : reload();
+    }
+
+    private synchronized CompiledCalendars reload() {
+        Map<String, List<LocalDate>> holidaysByCalendar = new HashMap<>();
+        for (Holiday holiday : holidayRepository.findAllWithCalendar()) {
+            holidaysByCalendar.computeIfAbsent(normalise(holiday.getHolidayCalendar().getHolidayCalendar()), k -> new ArrayList<>())
+                    .add(holiday.getHolidayDate());
+        }
+
+        Map<String, BusinessCalendar> byName = new HashMap<>();
+        holidaysByCalendar.forEach((name, dates) -> byName.put(name, BusinessCalendar.compile(name, dates)));
+
+        CompiledCalendars calendars = new CompiledCalendars(Map.copyOf(byName), new ExpiringCache<>(jointCacheSize));
+        compiled.set(calendars);
+        logger.info("Compiled {} holiday calendars", byName.size());
+        return calendars;
+    }
+
+    // Upper-cases and sorts the components so "lon + NY" and "NY+LON" share one calendar
+    private static String normalise(String name) {
+        return Arrays.stream(name.split("\\" + JOINT_SEPARATOR))
+                .map(component -> component.trim().toUpperCase(Locale.ROOT))
+                .filter(component -> !component.isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(JOINT_SEPARATOR));
+    }
+
+    private static final class CompiledCalendars {
+        private final Map<String, BusinessCalendar> byName;
+        private final ExpiringCache<String, BusinessCalendar> joint;
+
+        private CompiledCalendars(Map<String, BusinessCalendar> byName, ExpiringCache<String, BusinessCalendar> joint) {
+            this.byName = byName;
+            this.joint = joint;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.technicalchallenge.service;
 
+import com.technicalchallenge.model.Holiday;
 import com.technicalchallenge.model.HolidayCalendar;
 import com.technicalchallenge.repository.HolidayCalendarRepository;
+import com.technicalchallenge.repository.HolidayRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +21,15 @@ public class HolidayCalendarService {
     @Autowired
     private HolidayCalendarRepository holidayCalendarRepository;
 
+    @Autowired
+    private HolidayRepository holidayRepository;
+
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
+
+    @Autowired
+    private HolidayCalendarEngine holidayCalendarEngine;
+
     public List<HolidayCalendar> findAll() {
         logger.info("Retrieving all holiday calendars");
         return holidayCalendarRepository.findAll();
@@ -30,11 +42,42 @@ public class HolidayCalendarService {
 
     public HolidayCalendar save(HolidayCalendar holidayCalendar) {
         logger.info("Saving holiday calendar: {}", holidayCalendar);
-        return holidayCalendarRepository.save(holidayCalendar);
+        HolidayCalendar saved = holidayCalendarRepository.save(holidayCalendar);
+        referenceDataResolver.refresh();
+        holidayCalendarEngine.refresh();
+        return saved;
     }
 
+    @Transactional
     public void deleteById(Long id) {
         logger.warn("Deleting holiday calendar with id: {}", id);
+        holidayRepository.deleteAll(holidayRepository.findByHolidayCalendarIdOrderByHolidayDate(id));
         holidayCalendarRepository.deleteById(id);
+        referenceDataResolver.refresh();
+        holidayCalendarEngine.refresh();
+    }
+
+    public List<Holiday> findHolidays(Long holidayCalendarId) {
+        logger.debug("Retrieving holidays for holiday calendar id: {}", holidayCalendarId);
+        return holidayRepository.findByHolidayCalendarIdOrderByHolidayDate(holidayCalendarId);
+    }
+
+    public Holiday addHoliday(Long holidayCalendarId, Holiday holiday) {
+        logger.info("Adding holiday {} to holiday calendar id: {}", holiday.getHolidayDate(), holidayCalendarId);
+        if (holiday.getHolidayDate() == null) {
+            throw new RuntimeException("Holiday date is required");
+        }
+        HolidayCalendar holidayCalendar = holidayCalendarRepository.findById(holidayCalendarId)
+                .orElseThrow(() -> new RuntimeException("Holiday calendar not found: " + holidayCalendarId));
+        holiday.setHolidayCalendar(holidayCalendar);
+        Holiday saved = holidayRepository.save(holiday);
+        holidayCalendarEngine.refresh();
+        return saved;
+    }
+
+    public void deleteHoliday(Long holidayId) {
+        logger.warn("Deleting holiday with id: {}", holidayId);
+        holidayRepository.deleteById(holidayId);
+        holidayCalendarEngine.refresh();
     }
 }
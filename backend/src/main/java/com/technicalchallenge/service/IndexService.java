@@ -18,6 +18,9 @@ public class IndexService {
     @Autowired
     private IndexRepository indexRepository;
 
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
+
     public List<Index> findAll() {
         logger.info("Retrieving all indexes");
         return indexRepository.findAll();
@@ -30,11 +33,14 @@ public class IndexService {
 
     public Index save(Index index) {
         logger.info("Saving index: {}", index);
-        return indexRepository.save(index);
+        Index saved = indexRepository.save(index);
+        referenceDataResolver.refresh();
+        return saved;
     }
 
     public void deleteById(Long id) {
         logger.warn("Deleting index with id: {}", id);
         indexRepository.deleteById(id);
+        referenceDataResolver.refresh();
     }
 }
@@ -18,6 +18,9 @@ public class LegTypeService {
     @Autowired
     private LegTypeRepository legTypeRepository;
 
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
+
     public List<LegType> findAll() {
         logger.info("Retrieving all leg types");
         return legTypeRepository.findAll();
@@ -30,11 +33,14 @@ public class LegTypeService {
 
     public LegType save(LegType legType) {
         logger.info("Saving leg type: {}", legType);
-        return legTypeRepository.save(legType);
+        LegType saved = legTypeRepository.save(legType);
+        referenceDataResolver.refresh();
+        return saved;
     }
 
     public void deleteById(Long id) {
         logger.warn("Deleting leg type with id: {}", id);
         legTypeRepository.deleteById(id);
+        referenceDataResolver.refresh();
     }
 }
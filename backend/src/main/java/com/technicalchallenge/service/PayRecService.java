@@ -18,6 +18,9 @@ public class PayRecService {
     @Autowired
     private PayRecRepository payRecRepository;
 
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
+
     public List<PayRec> findAll() {
         logger.info("Retrieving all pay recs");
         return payRecRepository.findAll();
@@ -30,11 +33,14 @@ public class PayRecService {
 
     public PayRec save(PayRec payRec) {
         logger.info("Saving pay rec: {}", payRec);
-        return payRecRepository.save(payRec);
+        PayRec saved = payRecRepository.save(payRec);
+        referenceDataResolver.refresh();
+        return saved;
     }
 
     public void deleteById(Long id) {
         logger.warn("Deleting pay rec with id: {}", id);
         payRecRepository.deleteById(id);
+        referenceDataResolver.refresh();
     }
 }
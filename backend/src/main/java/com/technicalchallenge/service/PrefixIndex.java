@@ -0,0 +1,232 @@
+package com.technicalchallenge.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Type-ahead index over short labels such as names and UTI codes, keyed by a long ID.
+ * Labels are matched case-insensitively, best first: the whole label, then the label
+ * starting with the query, then any word of the label or its aliases starting with it.
+ * Words start after punctuation or spaces and at camel-case humps, so "fund" finds
+ * "MegaFund". When built with substrings, a trigram index also finds the query anywhere
+ * in the text, but costs a posting per trigram so is only meant for small sets.
+ * Prefix lookups walk sorted maps and stop after the requested number of matches.
+ * Not thread safe; callers guard it or stop writing once it is published.
+ */
+final class PrefixIndex {
+
+    static final int EXACT = 0;
+    static final int PREFIX = 1;
+    static final int WORD = 2;
+    static final int SUBSTRING = 3;
+
+    private static final int GRAM = 3;
+    // Rough cost of a map key or posting, with its boxed ID and tree or hash node
+    private static final int ENTRY_BYTES = 48;
+
+    private final boolean substrings;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeMap<String, Set<Long>> byLabel = new TreeMap<>();
+    private final TreeMap<String, Set<Long>> byWord = new TreeMap<>();
+    private final Map<String, Set<Long>> byGram = new HashMap<>();
+    private long keyChars;
+    private long postings;
+
+    PrefixIndex(boolean substrings) {
+        this.substrings = substrings;
+    }
+
+    /**
+     * Indexes the label under the ID, replacing whatever was held for it. Aliases are
+     * matched like the label but never returned.
+     */
+    void put(long id, String label, String... aliases) {
+        remove(id);
+        if (label == null || normalise(label).isEmpty()) {
+            return;
+        }
+        List<String> texts = new ArrayList<>();
+        texts.add(label);
+        for (String alias : aliases) {
+            if (alias != null && !normalise(alias).isEmpty()) {
+                texts.add(alias);
+            }
+        }
+        Entry entry = new Entry(label, List.copyOf(texts));
+        entries.put(id, entry);
+        keys(entry, (map, key) -> add(map, key, id));
+    }
+
+    void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            keys(entry, (map, key) -> drop(map, key, id));
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Up to limit matches for the query, best match first and alphabetical within a rank.
+     */
+    List<Match> search(String query, int limit) {
+        String q = query == null ? "" : normalise(query);
+        Map<Long, Match> found = new LinkedHashMap<>();
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        collect(found, byLabel, q, limit, true);
+        collect(found, byWord, q, limit, false);
+        if (substrings && found.size() < limit && q.length() >= GRAM) {
+            collectSubstrings(found, q, limit);
+        }
+        return List.copyOf(found.values());
+    }
+
+    long estimatedBytes() {
+        return keyChars * Character.BYTES + (long) (byLabel.size() + byWord.size() + byGram.size()) * ENTRY_BYTES
+                + postings * ENTRY_BYTES + (long) entries.size() * ENTRY_BYTES;
+    }
+
+    private void collect(Map<Long, Match> found, TreeMap<String, Set<Long>> map, String q, int limit, boolean labels) {
+        NavigableMap<String, Set<Long>> range = map.subMap(q, true, q + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Set<Long>> key : range.entrySet()) {
+            int rank = !labels ? WORD : key.getKey().equals(q) ? EXACT : PREFIX;
+            for (Long id : key.getValue()) {
+                if (found.size() == limit) {
+                    return;
+                }
+                found.putIfAbsent(id, new Match(id, entries.get(id).label, rank));
+            }
+        }
+    }
+
+    private void collectSubstrings(Map<Long, Match> found, String q, int limit) {
+        // Candidates hold every trigram of the query; the rarest one bounds the scan
+        Set<Long> candidates = null;
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            Set<Long> posting = byGram.get(q.substring(i, i + GRAM));
+            if (posting == null) {
+                return;
+            }
+            if (candidates == null || posting.size() < candidates.size()) {
+                candidates = posting;
+            }
+        }
+        List<Match> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            Entry entry = entries.get(id);
+            if (!found.containsKey(id) && entry.texts.stream().anyMatch(text -> normalise(text).contains(q))) {
+                matches.add(new Match(id, entry.label, SUBSTRING));
+            }
+        }
+        matches.sort(Comparator.comparing(match -> normalise(match.getLabel())));
+        for (Match match : matches) {
+            if (found.size() == limit) {
+                return;
+            }
+            found.put(match.getId(), match);
+        }
+    }
+
+    private void keys(Entry entry, KeyVisitor visitor) {
+        visitor.visit(byLabel, normalise(entry.label));
+        Set<String> words = new LinkedHashSet<>();
+        Set<String> grams = new LinkedHashSet<>();
+        for (String text : entry.texts) {
+            String trimmed = text.trim();
+            for (int i = 0; i < trimmed.length(); i++) {
+                if (wordStartsAt(trimmed, i)) {
+                    words.add(normalise(trimmed.substring(i)));
+                }
+            }
+            if (substrings) {
+                String normalised = normalise(text);
+                for (int i = 0; i + GRAM <= normalised.length(); i++) {
+                    grams.add(normalised.substring(i, i + GRAM));
+                }
+            }
+        }
+        words.forEach(word -> visitor.visit(byWord, word));
+        grams.forEach(gram -> visitor.visit(byGram, gram));
+    }
+
+    private void add(Map<String, Set<Long>> map, String key, long id) {
+        Set<Long> ids = map.get(key);
+        if (ids == null) {
+            ids = new TreeSet<>();
+            map.put(key, ids);
+            keyChars += key.length();
+        }
+        if (ids.add(id)) {
+            postings++;
+        }
+    }
+
+    private void drop(Map<String, Set<Long>> map, String key, long id) {
+        Set<Long> ids = map.get(key);
+        if (ids == null || !ids.remove(id)) {
+            return;
+        }
+        postings--;
+        if (ids.isEmpty()) {
+            map.remove(key);
+            keyChars -= key.length();
+        }
+    }
+
+    private static boolean wordStartsAt(String text, int i) {
+        char c = text.charAt(i);
+        if (!Character.isLetterOrDigit(c)) {
+            return false;
+        }
+        if (i == 0) {
+            return true;
+        }
+        char previous = text.charAt(i - 1);
+        return !Character.isLetterOrDigit(previous)
+                || (Character.isUpperCase(c) && Character.isLowerCase(previous))
+                || (Character.isDigit(c) != Character.isDigit(previous));
+    }
+
+    private static String normalise(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private interface KeyVisitor {
+        void visit(Map<String, Set<Long>> map, String key);
+    }
+
+    private static final class Entry {
+        private final String label;
+        private final List<String> texts;
+
+        private Entry(String label, List<String> texts) {
+            this.label = label;
+            this.texts = texts;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static final class Match {
+        private final long id;
+        private final String label;
+        private final int rank;
+    }
+}
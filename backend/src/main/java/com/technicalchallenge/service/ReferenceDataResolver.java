@@ -0,0 +1,168 @@
+package com.technicalchallenge.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.Book;
+import com.technicalchallenge.model.BusinessDayConvention;
+import com.technicalchallenge.model.CostCenter;
+import com.technicalchallenge.model.Counterparty;
+import com.technicalchallenge.model.Currency;
+import com.technicalchallenge.model.HolidayCalendar;
+import com.technicalchallenge.model.Index;
+import com.technicalchallenge.model.LegType;
+import com.technicalchallenge.model.PayRec;
+import com.technicalchallenge.model.Schedule;
+import com.technicalchallenge.model.TradeStatus;
+import com.technicalchallenge.model.TradeSubType;
+import com.technicalchallenge.model.TradeType;
+import com.technicalchallenge.repository.ApplicationUserRepository;
+import com.technicalchallenge.repository.BookRepository;
+import com.technicalchallenge.repository.BusinessDayConventionRepository;
+import com.technicalchallenge.repository.CostCenterRepository;
+import com.technicalchallenge.repository.CounterpartyRepository;
+import com.technicalchallenge.repository.CurrencyRepository;
+import com.technicalchallenge.repository.DeskRepository;
+import com.technicalchallenge.repository.HolidayCalendarRepository;
+import com.technicalchallenge.repository.IndexRepository;
+import com.technicalchallenge.repository.LegTypeRepository;
+import com.technicalchallenge.repository.PayRecRepository;
+import com.technicalchallenge.repository.ScheduleRepository;
+import com.technicalchallenge.repository.SubDeskRepository;
+import com.technicalchallenge.repository.TradeStatusRepository;
+import com.technicalchallenge.repository.TradeSubTypeRepository;
+import com.technicalchallenge.repository.TradeTypeRepository;
+
+/**
+ * Holds the current {@link ReferenceDataSnapshot} used to turn the names and IDs on
+ * incoming DTOs into entities without going to the database. Static data services call
+ * {@link #refresh()} after every write, which loads a new snapshot and swaps it in
+ * atomically, so readers always see either the old or the new data, never a mix.
+ */
+@Service
+public class ReferenceDataResolver {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataResolver.class);
+
+    @Autowired
+    private DeskRepository deskRepository;
+    @Autowired
+    private SubDeskRepository subDeskRepository;
+    @Autowired
+    private CostCenterRepository costCenterRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CounterpartyRepository counterpartyRepository;
+    @Autowired
+    private TradeStatusRepository tradeStatusRepository;
+    @Autowired
+    private TradeTypeRepository tradeTypeRepository;
+    @Autowired
+    private TradeSubTypeRepository tradeSubTypeRepository;
+    @Autowired
+    private ApplicationUserRepository applicationUserRepository;
+    @Autowired
+    private CurrencyRepository currencyRepository;
+    @Autowired
+    private LegTypeRepository legTypeRepository;
+    @Autowired
+    private IndexRepository indexRepository;
+    @Autowired
+    private HolidayCalendarRepository holidayCalendarRepository;
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+    @Autowired
+    private BusinessDayConventionRepository businessDayConventionRepository;
+    @Autowired
+    private PayRecRepository payRecRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicReference<ReferenceDataSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Returns the current snapshot, loading the first one if nothing has been loaded yet.
+     */
+    public ReferenceDataSnapshot current() {
+        ReferenceDataSnapshot current = snapshot.get();
+        return current != null ? current : reload();
+    }
+
+    /**
+     * Rebuilds the snapshot. When called inside a transaction the reload waits until it
+     * commits, so the new snapshot includes the change that triggered it.
+     */
+    public void refresh() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    private synchronized ReferenceDataSnapshot reload() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+
+        ReferenceDataSnapshot loaded = transactionTemplate.execute(status -> load());
+        snapshot.set(loaded);
+        logger.info("Loaded reference data snapshot version {} ({} books, {} counterparties, {} users)",
+                loaded.getVersion(), loaded.getBooks().size(), loaded.getCounterparties().size(),
+                loaded.getUsersByLoginId().size());
+        return loaded;
+    }
+
+    private ReferenceDataSnapshot load() {
+        // Desks, subdesks and cost centers are loaded first so the book hierarchy
+        // resolves to these instances rather than lazy proxies
+        deskRepository.findAll();
+        subDeskRepository.findAll();
+        var costCenters = costCenterRepository.findAll();
+        var users = applicationUserRepository.findAll();
+
+        return ReferenceDataSnapshot.builder()
+                .version(versions.incrementAndGet())
+                .loadedAt(LocalDateTime.now())
+                .costCenters(ReferenceIndex.of(costCenters, CostCenter::getId, CostCenter::getCostCenterName))
+                .books(ReferenceIndex.of(bookRepository.findAll(), Book::getId, Book::getBookName))
+                .counterparties(ReferenceIndex.of(counterpartyRepository.findAll(), Counterparty::getId, Counterparty::getName))
+                .tradeStatuses(ReferenceIndex.of(tradeStatusRepository.findAll(), TradeStatus::getId, TradeStatus::getTradeStatus))
+                .tradeTypes(ReferenceIndex.of(tradeTypeRepository.findAll(), TradeType::getId, TradeType::getTradeType))
+                .tradeSubTypes(ReferenceIndex.of(tradeSubTypeRepository.findAll(), TradeSubType::getId, TradeSubType::getTradeSubType))
+                .usersByFirstName(ReferenceIndex.of(users, ApplicationUser::getId, ApplicationUser::getFirstName))
+                .usersByLoginId(ReferenceIndex.of(users, ApplicationUser::getId, ApplicationUser::getLoginId))
+                .currencies(ReferenceIndex.of(currencyRepository.findAll(), Currency::getId, Currency::getCurrency))
+                .legTypes(ReferenceIndex.of(legTypeRepository.findAll(), LegType::getId, LegType::getType))
+                .indices(ReferenceIndex.of(indexRepository.findAll(), Index::getId, Index::getIndex))
+                .holidayCalendars(ReferenceIndex.of(holidayCalendarRepository.findAll(), HolidayCalendar::getId, HolidayCalendar::getHolidayCalendar))
+                .schedules(ReferenceIndex.of(scheduleRepository.findAll(), Schedule::getId, Schedule::getSchedule))
+                .businessDayConventions(ReferenceIndex.of(businessDayConventionRepository.findAll(), BusinessDayConvention::getId, BusinessDayConvention::getBdc))
+                .payRecs(ReferenceIndex.of(payRecRepository.findAll(), PayRec::getId, PayRec::getPayRec))
+                .build();
+    }
+}
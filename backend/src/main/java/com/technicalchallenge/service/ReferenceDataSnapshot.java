@@ -0,0 +1,67 @@
+package com.technicalchallenge.service;
+
+import java.time.LocalDateTime;
+
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.Book;
+import com.technicalchallenge.model.BusinessDayConvention;
+import com.technicalchallenge.model.CostCenter;
+import com.technicalchallenge.model.Counterparty;
+import com.technicalchallenge.model.Currency;
+import com.technicalchallenge.model.HolidayCalendar;
+import com.technicalchallenge.model.Index;
+import com.technicalchallenge.model.LegType;
+import com.technicalchallenge.model.PayRec;
+import com.technicalchallenge.model.Schedule;
+import com.technicalchallenge.model.TradeStatus;
+import com.technicalchallenge.model.TradeSubType;
+import com.technicalchallenge.model.TradeType;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A consistent, read-only copy of all static data used when booking trades. A new
+ * snapshot with a higher version replaces the old one whenever static data changes;
+ * a snapshot itself is never modified once built.
+ */
+@Getter
+@Builder
+public class ReferenceDataSnapshot {
+    private final long version;
+    private final LocalDateTime loadedAt;
+
+    @Builder.Default
+    private final ReferenceIndex<Book> books = ReferenceIndex.empty();
+    @Builder.Default
+    private final ReferenceIndex<CostCenter> costCenters = ReferenceIndex.empty();
+    @Builder.Default
+    private final ReferenceIndex<Counterparty> counterparties = ReferenceIndex.empty();
+    @Builder.Default
+    private final ReferenceIndex<TradeStatus> tradeStatuses = ReferenceIndex.empty();
+    @Builder.Default
+    private final ReferenceIndex<TradeType> tradeTypes = ReferenceIndex.empty();
+    @Builder.Default
+    private final ReferenceIndex<TradeSubType> tradeSubTypes = ReferenceIndex.empty();
+
+    // Users are looked up by first name, falling back to login ID
+    @Builder.Default
+    private final ReferenceIndex<ApplicationUser> usersByFirstName = ReferenceIndex.empty();
+    @Builder.Default
+    private final ReferenceIndex<ApplicationUser> usersByLoginId = ReferenceIndex.empty();
+
+    @Builder.Default
+    private final ReferenceIndex<Currency> currencies = ReferenceIndex.empty();
+    @Builder.Default
+    private final ReferenceIndex<LegType> legTypes = ReferenceIndex.empty();
+    @Builder.Default
+    private final ReferenceIndex<Index> indices = ReferenceIndex.empty();
+    @Builder.Default
+    private final ReferenceIndex<HolidayCalendar> holidayCalendars = ReferenceIndex.empty();
+    @Builder.Default
+    private final ReferenceIndex<Schedule> schedules = ReferenceIndex.empty();
+    @Builder.Default
+    private final ReferenceIndex<BusinessDayConvention> businessDayConventions = ReferenceIndex.empty();
+    @Builder.Default
+    private final ReferenceIndex<PayRec> payRecs = ReferenceIndex.empty();
+}
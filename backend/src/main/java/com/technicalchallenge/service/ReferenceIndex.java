@@ -0,0 +1,81 @@
+package com.technicalchallenge.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Immutable lookup table for one kind of reference data, keyed by ID and by
+ * case-insensitive name. When two entries share a name the one loaded first wins.
+ */
+public final class ReferenceIndex<T> {
+
+    private static final ReferenceIndex<?> EMPTY = new ReferenceIndex<>(Map.of(), Map.of());
+
+    private final Map<Long, T> byId;
+    private final Map<String, T> byName;
+
+    private ReferenceIndex(Map<Long, T> byId, Map<String, T> byName) {
+        this.byId = byId;
+        this.byName = byName;
+    }
+
+    public static <T> ReferenceIndex<T> of(List<T> entries, Function<T, Long> idFunction, Function<T, String> nameFunction) {
+        Map<Long, T> byId = new LinkedHashMap<>();
+        Map<String, T> byName = new HashMap<>();
+        for (T entry : entries) {
+            Long id = idFunction.apply(entry);
+            if (id != null) {
+                byId.putIfAbsent(id, entry);
+            }
+            String name = nameFunction.apply(entry);
+            if (name != null) {
+                byName.putIfAbsent(normalise(name), entry);
+            }
+        }
+        return new ReferenceIndex<>(Collections.unmodifiableMap(byId), Map.copyOf(byName));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ReferenceIndex<T> empty() {
+        return (ReferenceIndex<T>) EMPTY;
+    }
+
+    public Optional<T> byId(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(byId.get(id));
+    }
+
+    public Optional<T> byName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(byName.get(normalise(name)));
+    }
+
+    /**
+     * Looks up by name when one is given, otherwise by ID, the same precedence the
+     * DTO to entity mapping has always used.
+     */
+    public Optional<T> resolve(String name, Long id) {
+        return name != null ? byName(name) : byId(id);
+    }
+
+    public boolean containsId(Long id) {
+        return id != null && byId.containsKey(id);
+    }
+
+    public Collection<T> all() {
+        return byId.values();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private static String normalise(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
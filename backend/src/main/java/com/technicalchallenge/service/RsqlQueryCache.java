@@ -0,0 +1,83 @@
+package com.technicalchallenge.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.rsql.CustomRsqlVisitor;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Holds trade RSQL queries already parsed and compiled into specifications, keyed by
+ * query string. Compiling resolves every selector against the Trade fields and converts
+ * the arguments to the field types, so a repeated query only has to be bound to a
+ * criteria query and run. The least recently used query is dropped once
+ * {@code trade.rsql.cache-size} are held.
+ */
+@Component
+public class RsqlQueryCache {
+    private static final Logger logger = LoggerFactory.getLogger(RsqlQueryCache.class);
+
+    private final RSQLParser parser = new RSQLParser();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${trade.rsql.cache-size:500}")
+    private int cacheSize = 500;
+
+    private ExpiringCache<String, Specification<Trade>> compiledQueries;
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        compiledQueries = new ExpiringCache<>(cacheSize);
+        hits = Counter.builder("trade.rsql.cache.gets")
+                .description("RSQL query lookups in the compiled query cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        misses = Counter.builder("trade.rsql.cache.gets")
+                .description("RSQL query lookups in the compiled query cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("trade.rsql.cache.hit.ratio", this, RsqlQueryCache::hitRatio)
+                .description("Share of RSQL queries answered from the compiled query cache")
+                .register(meterRegistry);
+        Gauge.builder("trade.rsql.cache.size", compiledQueries, ExpiringCache::size)
+                .description("Compiled RSQL queries held")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The specification for an RSQL query, compiled on first use. Malformed queries and
+     * unknown selectors throw and are not cached.
+     */
+    public Specification<Trade> specification(String query) {
+        String key = query.trim();
+        Specification<Trade> spec = compiledQueries.get(key);
+        if (spec != null) {
+            hits.increment();
+            return spec;
+        }
+        misses.increment();
+        spec = parser.parse(key).accept(new CustomRsqlVisitor<Trade>(Trade.class));
+        compiledQueries.put(key, spec);
+        logger.debug("Compiled RSQL query: {}", key);
+        return spec;
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+}
@@ -18,6 +18,9 @@ public class ScheduleService {
     @Autowired
     private ScheduleRepository scheduleRepository;
 
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
+
     public List<Schedule> findAll() {
         logger.info("Retrieving all schedules");
         return scheduleRepository.findAll();
@@ -30,11 +33,14 @@ public class ScheduleService {
 
     public Schedule save(Schedule schedule) {
         logger.info("Saving schedule: {}", schedule);
-        return scheduleRepository.save(schedule);
+        Schedule saved = scheduleRepository.save(schedule);
+        referenceDataResolver.refresh();
+        return saved;
     }
 
     public void deleteById(Long id) {
         logger.warn("Deleting schedule with id: {}", id);
         scheduleRepository.deleteById(id);
+        referenceDataResolver.refresh();
     }
 }
@@ -19,6 +19,9 @@ public class SubDeskService {
     @Autowired
     private SubDeskRepository subDeskRepository;
 
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
+
     @Autowired
     private DeskRepository deskRepository;
 
@@ -46,11 +49,14 @@ public class SubDeskService {
     public SubDesk saveSubDesk(SubDesk subDesk, SubDeskDTO dto) {
         logger.info("Saving subdesk: {}", subDesk);
         populateReferenceDataByName(subDesk, dto);
-        return subDeskRepository.save(subDesk);
+        SubDesk saved = subDeskRepository.save(subDesk);
+        referenceDataResolver.refresh();
+        return saved;
     }
 
     public void deleteSubDesk(Long id) {
         logger.warn("Deleting subdesk with id: {}", id);
         subDeskRepository.deleteById(id);
+        referenceDataResolver.refresh();
     }
 }
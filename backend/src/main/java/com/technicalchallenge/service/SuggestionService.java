@@ -0,0 +1,144 @@
+package com.technicalchallenge.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.technicalchallenge.dto.SuggestionDTO;
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.Book;
+import com.technicalchallenge.model.Counterparty;
+
+/**
+ * Type-ahead over counterparty names, book names, users and UTI codes, so clients ask for
+ * the few matches they display instead of downloading whole value lists. Reference names
+ * are indexed from the current {@link ReferenceDataSnapshot} and re-indexed whenever a
+ * newer snapshot is loaded; UTI codes come from the {@link TradeBlotterIndex}, which
+ * follows every trade change.
+ */
+@Service
+public class SuggestionService {
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionService.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 50;
+
+    public enum Type {
+        COUNTERPARTY,
+        BOOK,
+        USER,
+        UTI
+    }
+
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
+
+    @Autowired
+    private TradeBlotterIndex tradeBlotterIndex;
+
+    private volatile ReferenceSuggestions referenceSuggestions;
+
+    /**
+     * The best matches for the query across the requested types, or all types when none
+     * are given. Better matches come first whatever their type: the whole value, then
+     * values starting with the query, then values with a word starting with it.
+     */
+    public List<SuggestionDTO> suggest(String query, List<String> types, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<Type> requested = parseTypes(types);
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        ReferenceSuggestions references = referenceSuggestions();
+        for (Type type : requested) {
+            List<PrefixIndex.Match> matches = switch (type) {
+                case COUNTERPARTY -> references.counterparties.search(query, limit);
+                case BOOK -> references.books.search(query, limit);
+                case USER -> references.users.search(query, limit);
+                case UTI -> tradeBlotterIndex.searchUtiCodes(query, limit);
+            };
+            matches.forEach(match -> candidates.add(new Candidate(type, match)));
+        }
+
+        return candidates.stream()
+                .sorted(Comparator.comparingInt((Candidate candidate) -> candidate.match.getRank())
+                        .thenComparing(candidate -> candidate.match.getLabel(), String.CASE_INSENSITIVE_ORDER)
+                        .thenComparing(candidate -> candidate.type))
+                .limit(limit)
+                .map(candidate -> new SuggestionDTO(candidate.type.name(), candidate.match.getId(), candidate.match.getLabel()))
+                .toList();
+    }
+
+    private static List<Type> parseTypes(List<String> types) {
+        if (types == null || types.isEmpty()) {
+            return Arrays.asList(Type.values());
+        }
+        List<Type> parsed = new ArrayList<>();
+        for (String type : types) {
+            try {
+                Type value = Type.valueOf(type.trim().toUpperCase(Locale.ROOT));
+                if (!parsed.contains(value)) {
+                    parsed.add(value);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unknown suggestion type: " + type);
+            }
+        }
+        return parsed;
+    }
+
+    // Reference data is a few hundred rows at most, so a newer snapshot is simply re-indexed
+    private ReferenceSuggestions referenceSuggestions() {
+        ReferenceDataSnapshot snapshot = referenceDataResolver.current();
+        ReferenceSuggestions current = referenceSuggestions;
+        if (current == null || current.version != snapshot.getVersion()) {
+            current = new ReferenceSuggestions(snapshot);
+            referenceSuggestions = current;
+            logger.debug("Indexed reference data snapshot version {} for suggestions", snapshot.getVersion());
+        }
+        return current;
+    }
+
+    // Written once on construction and only read afterwards
+    private static final class ReferenceSuggestions {
+        private final long version;
+        private final PrefixIndex counterparties = new PrefixIndex(true);
+        private final PrefixIndex books = new PrefixIndex(true);
+        private final PrefixIndex users = new PrefixIndex(true);
+
+        private ReferenceSuggestions(ReferenceDataSnapshot snapshot) {
+            version = snapshot.getVersion();
+            for (Counterparty counterparty : snapshot.getCounterparties().all()) {
+                counterparties.put(counterparty.getId(), counterparty.getName());
+            }
+            for (Book book : snapshot.getBooks().all()) {
+                books.put(book.getId(), book.getBookName());
+            }
+            // Users are returned by login ID and also found by their first and last names
+            for (ApplicationUser user : snapshot.getUsersByLoginId().all()) {
+                users.put(user.getId(), user.getLoginId(), user.getFirstName(), user.getLastName());
+            }
+        }
+    }
+
+    private static final class Candidate {
+        private final Type type;
+        private final PrefixIndex.Match match;
+
+        private Candidate(Type type, PrefixIndex.Match match) {
+            this.type = type;
+            this.match = match;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.dto.TradeAmendmentSummaryDTO;
+import com.technicalchallenge.model.Trade;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The new version created by {@link TradeService#amendTrade} together with a summary of
+ * what the amendment recomputed.
+ */
+@Getter
+@AllArgsConstructor
+public class TradeAmendment {
+    private final Trade trade;
+    private final TradeAmendmentSummaryDTO summary;
+}
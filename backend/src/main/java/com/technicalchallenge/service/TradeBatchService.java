@@ -0,0 +1,172 @@
+package com.technicalchallenge.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.technicalchallenge.dto.TradeBatchItemResultDTO;
+import com.technicalchallenge.dto.TradeBatchResultDTO;
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.model.FieldValidationError;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.ValidationResult;
+import com.technicalchallenge.repository.TradeRepository;
+import com.technicalchallenge.validation.TradeValidationEngine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Books a list of trades in one request. Every trade is built and validated up front,
+ * then the valid ones are persisted in chunks, one transaction per chunk, so that
+ * Hibernate can batch the trade, leg and cashflow inserts.
+ */
+@Service
+public class TradeBatchService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeBatchService.class);
+
+    public static final String BOOKED = "BOOKED";
+    public static final String REJECTED = "REJECTED";
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeValidationEngine tradeValidationEngine;
+
+    @Autowired
+    private TradeBlotterIndex tradeBlotterIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${trade.batch.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public TradeBatchResultDTO bookTrades(List<TradeDTO> tradeDTOs) {
+        logger.info("Booking batch of {} trades", tradeDTOs.size());
+        long start = System.nanoTime();
+
+        List<TradeBatchItemResultDTO> results = new ArrayList<>(tradeDTOs.size());
+        List<Trade> validTrades = new ArrayList<>();
+        List<TradeBatchItemResultDTO> validResults = new ArrayList<>();
+
+        // Structural checks for the whole batch first, so malformed trades never get an ID
+        List<ValidationResult> structureResults = tradeValidationEngine.validateStructure(tradeDTOs);
+
+        for (int i = 0; i < tradeDTOs.size(); i++) {
+            TradeDTO tradeDTO = tradeDTOs.get(i);
+            TradeBatchItemResultDTO itemResult = new TradeBatchItemResultDTO();
+            itemResult.setIndex(i);
+            results.add(itemResult);
+
+            if (!structureResults.get(i).isValid()) {
+                reject(itemResult, errorMessages(structureResults.get(i)));
+                continue;
+            }
+
+            try {
+                Trade trade = tradeService.buildNewTrade(tradeDTO);
+                ValidationResult validationResult = tradeValidationEngine.validateReferenceData(tradeDTO, trade);
+
+                if (!validationResult.isValid()) {
+                    reject(itemResult, errorMessages(validationResult));
+                    continue;
+                }
+
+                tradeService.attachTradeLegsWithCashflows(tradeDTO, trade);
+                itemResult.setTradeId(trade.getTradeId());
+                validTrades.add(trade);
+                validResults.add(itemResult);
+            } catch (Exception e) {
+                logger.warn("Trade {} in batch could not be built: {}", i, e.getMessage());
+                reject(itemResult, List.of(e.getMessage()));
+            }
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < validTrades.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, validTrades.size());
+            List<Trade> chunk = validTrades.subList(from, to);
+            List<TradeBatchItemResultDTO> chunkResults = validResults.subList(from, to);
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    tradeRepository.saveAll(chunk);
+                    entityManager.flush();
+                    entityManager.clear();
+                    tradeBlotterIndex.refresh(chunk.stream().map(Trade::getTradeId).toList());
+                });
+                for (int i = 0; i < chunk.size(); i++) {
+                    chunkResults.get(i).setStatus(BOOKED);
+                    chunkResults.get(i).setId(chunk.get(i).getId());
+                }
+            } catch (Exception e) {
+                // The whole chunk is rolled back, so none of its trades were booked
+                logger.error("Failed to persist trades {} to {} of batch: {}", from, to - 1, e.getMessage(), e);
+                chunkResults.forEach(itemResult -> reject(itemResult, List.of("Error persisting trade: " + e.getMessage())));
+            }
+        }
+
+        long durationNanos = System.nanoTime() - start;
+        return summarise(results, durationNanos);
+    }
+
+    private static List<String> errorMessages(ValidationResult validationResult) {
+        return validationResult.getValidationErrors().stream()
+                .map(FieldValidationError::getErrorMessage)
+                .toList();
+    }
+
+    private void reject(TradeBatchItemResultDTO itemResult, List<String> errors) {
+        itemResult.setStatus(REJECTED);
+        itemResult.setId(null);
+        itemResult.setErrors(new ArrayList<>(errors));
+    }
+
+    private TradeBatchResultDTO summarise(List<TradeBatchItemResultDTO> results, long durationNanos) {
+        int booked = (int) results.stream().filter(r -> BOOKED.equals(r.getStatus())).count();
+        int rejected = results.size() - booked;
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        double tradesPerSecond = durationNanos > 0 ? booked / (durationNanos / 1_000_000_000d) : 0d;
+
+        Timer.builder("trade.batch.duration")
+                .description("Time taken to book a batch of trades")
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("trade.batch.trades").tag("outcome", "booked")
+                .register(meterRegistry).increment(booked);
+        Counter.builder("trade.batch.trades").tag("outcome", "rejected")
+                .register(meterRegistry).increment(rejected);
+        DistributionSummary.builder("trade.batch.throughput")
+                .baseUnit("trades/s")
+                .register(meterRegistry)
+                .record(tradesPerSecond);
+
+        logger.info("Batch complete: {} booked, {} rejected in {} ms ({} trades/s)",
+                booked, rejected, durationMillis, String.format("%.1f", tradesPerSecond));
+
+        return new TradeBatchResultDTO(results.size(), booked, rejected, durationMillis, tradesPerSecond, results);
+    }
+}
@@ -0,0 +1,403 @@
+package com.technicalchallenge.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.technicalchallenge.dto.TradeBlotterSummaryDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Keeps every active trade version in an in-memory {@link TradeColumns} store, so
+ * dashboard aggregates and blotter filters are answered without going to the database.
+ * The store is built from the database once the application is ready. Trade services
+ * call {@link #refresh(Collection)} for each trade they book, amend, terminate or cancel;
+ * once the transaction commits those trades are read back and their rows replaced.
+ * Per-trader summaries come from running totals kept alongside the rows; a scheduled
+ * reconciliation checks them against the database and repairs any that have drifted.
+ * Row count and estimated heap use are published as {@code trade.blotter.index.*} metrics.
+ */
+@Service
+public class TradeBlotterIndex {
+    private static final Logger logger = LoggerFactory.getLogger(TradeBlotterIndex.class);
+
+    private static final String TRADE_QUERY = """
+            SELECT t.tradeId, t.tradeDate, t.tradeMaturityDate, t.tradeExecutionDate,
+                   b.id, b.bookName, cp.id, cp.name, s.id, s.tradeStatus, ty.id, ty.tradeType, u.id, u.loginId,
+                   t.utiCode
+            FROM Trade t
+            LEFT JOIN t.book b LEFT JOIN t.counterparty cp LEFT JOIN t.tradeStatus s
+            LEFT JOIN t.tradeType ty LEFT JOIN t.traderUser u
+            WHERE t.active = true
+            """;
+
+    private static final String LEG_QUERY = """
+            SELECT t.tradeId, c.currency, p.payRec, l.notional
+            FROM TradeLeg l JOIN l.trade t LEFT JOIN l.currency c LEFT JOIN l.payReceiveFlag p
+            WHERE t.active = true
+            """;
+
+    private static final String FOR_TRADE_IDS = " AND t.tradeId IN :tradeIds";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Held from reading trades to applying them, so refreshes apply in the order they read:
+    // two refreshes of a trade cannot leave the earlier read in the index
+    private final ReentrantLock refreshing = new ReentrantLock();
+    // Guarded by lock
+    private TradeColumns columns = new TradeColumns();
+    // Trades refreshed while a rebuild was reading the database, replayed once it is swapped in
+    private Set<Long> refreshedDuringRebuild;
+    // Bumped on every change to the index, see version()
+    private final AtomicLong version = new AtomicLong();
+    private volatile boolean loaded;
+
+    private Counter reconciledTraders;
+    private Counter driftedTraders;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("trade.blotter.index.trades", this, TradeBlotterIndex::size)
+                .description("Active trade versions held in the blotter index")
+                .register(meterRegistry);
+        Gauge.builder("trade.blotter.index.memory", this, TradeBlotterIndex::estimatedBytes)
+                .description("Estimated heap used by the blotter index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        reconciledTraders = Counter.builder("trade.blotter.index.reconciled")
+                .description("Trader summaries checked against the trades in the database")
+                .register(meterRegistry);
+        driftedTraders = Counter.builder("trade.blotter.index.drifted")
+                .description("Trader summaries found to differ from the trades in the database")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the whole index with the active trade versions currently in the database.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            refreshedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        TradeColumns rebuilt = new TradeColumns();
+        load(null).forEach(rebuilt::put);
+
+        Set<Long> replay;
+        lock.writeLock().lock();
+        try {
+            columns = rebuilt;
+            replay = refreshedDuringRebuild;
+            refreshedDuringRebuild = null;
+            version.incrementAndGet();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!replay.isEmpty()) {
+            reindex(replay);
+        }
+        logger.info("Built trade blotter index of {} active trades, about {} KB", size(), estimatedBytes() / 1024);
+    }
+
+    public void refresh(Long tradeId) {
+        refresh(List.of(tradeId));
+    }
+
+    /**
+     * Re-reads the given trades into the index, after the surrounding transaction commits
+     * if there is one. Trades without an active version are dropped.
+     */
+    public void refresh(Collection<Long> tradeIds) {
+        List<Long> ids = List.copyOf(tradeIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reindex(ids);
+                }
+            });
+        } else {
+            reindex(ids);
+        }
+    }
+
+    void reindex(Collection<Long> tradeIds) {
+        if (tradeIds.isEmpty()) {
+            return;
+        }
+        // Reads stay open while the trades load; only other refreshes wait
+        refreshing.lock();
+        try {
+            List<BlotterTrade> trades = load(tradeIds);
+            lock.writeLock().lock();
+            try {
+                tradeIds.forEach(columns::remove);
+                trades.forEach(columns::put);
+                if (refreshedDuringRebuild != null) {
+                    refreshedDuringRebuild.addAll(tradeIds);
+                }
+                version.incrementAndGet();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            refreshing.unlock();
+        }
+    }
+
+    void put(BlotterTrade trade) {
+        lock.writeLock().lock();
+        try {
+            columns.put(trade);
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the index has been built from the database. Requests can arrive before the
+     * startup build finishes; until then the index holds no trades.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Changes each time the index is rebuilt or trades in it are refreshed, which happens
+     * after every committed booking, amendment, termination and cancellation. Results
+     * cached under one version are stale once it moves on.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Counts and notionals of the active trades matching the criteria.
+     */
+    public TradeBlotterSummaryDTO summarise(TradeSearchCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            return columns.summarise(columns.select(criteria));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The same summary as {@link #summarise} for the trader's trades alone, read from
+     * the trader's running totals without visiting the trades.
+     */
+    public TradeBlotterSummaryDTO summariseTrader(Long traderId) {
+        lock.readLock().lock();
+        try {
+            return columns.summariseTrader(traderId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks each trader's summary against one built from the active trades in the
+     * database, which catches refreshes that were missed or applied stale as well as
+     * running totals gone wrong. The trades of traders that differ are read again and
+     * their totals recomputed. Returns the traders that had drifted, in ID order.
+     */
+    @Scheduled(fixedDelayString = "${trade.blotter.reconcile-interval-ms:900000}",
+               initialDelayString = "${trade.blotter.reconcile-interval-ms:900000}")
+    public List<Long> reconcile() {
+        TradeColumns database = new TradeColumns();
+        load(null).forEach(database::put);
+
+        Set<Long> traderIds = new TreeSet<>(database.traderIds());
+        List<Long> drifted = new ArrayList<>();
+        Set<Long> driftedTrades = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            traderIds.addAll(columns.traderIds());
+            for (Long traderId : traderIds) {
+                if (!columns.sameTraderSummary(traderId, database)) {
+                    drifted.add(traderId);
+                    // Trades the index or the database holds for the trader, in case one moved
+                    driftedTrades.addAll(columns.tradeIdsOfTrader(traderId));
+                    driftedTrades.addAll(database.tradeIdsOfTrader(traderId));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // A trade refreshed while the database was read shows up here too; reading it
+        // again is harmless
+        if (!drifted.isEmpty()) {
+            reindex(driftedTrades);
+            lock.writeLock().lock();
+            try {
+                drifted.forEach(columns::recomputeTraderTotals);
+                version.incrementAndGet();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        reconciledTraders.increment(traderIds.size());
+        driftedTraders.increment(drifted.size());
+        if (drifted.isEmpty()) {
+            logger.debug("Reconciled trade summaries of {} traders", traderIds.size());
+        } else {
+            logger.warn("Repaired drifted trade summaries of traders {}", drifted);
+        }
+        return drifted;
+    }
+
+    /**
+     * Trade IDs of the active trades matching the criteria, in no particular order.
+     */
+    public List<Long> tradeIds(TradeSearchCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            return columns.tradeIds(columns.select(criteria));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Active trades whose UTI code, or a word of it, starts with the query, best match first.
+     */
+    List<PrefixIndex.Match> searchUtiCodes(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return columns.searchUtiCodes(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return columns.estimatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Reads the trades, or all active trades when tradeIds is null, in a transaction of its
+    // own since refreshes run after the calling transaction has committed
+    private List<BlotterTrade> load(Collection<Long> tradeIds) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate.execute(status -> {
+            Map<Long, LegTotals> legTotals = new HashMap<>();
+            for (Object[] leg : query(LEG_QUERY, tradeIds)) {
+                legTotals.computeIfAbsent((Long) leg[0], id -> new LegTotals())
+                        .add((String) leg[1], (String) leg[2], (BigDecimal) leg[3]);
+            }
+
+            List<BlotterTrade> trades = new ArrayList<>();
+            for (Object[] trade : query(TRADE_QUERY, tradeIds)) {
+                LegTotals legs = legTotals.getOrDefault((Long) trade[0], new LegTotals());
+                trades.add(BlotterTrade.builder()
+                        .tradeId((Long) trade[0])
+                        .tradeDate((LocalDate) trade[1])
+                        .maturityDate((LocalDate) trade[2])
+                        .executionDate((LocalDate) trade[3])
+                        .bookId((Long) trade[4]).bookName((String) trade[5])
+                        .counterpartyId((Long) trade[6]).counterpartyName((String) trade[7])
+                        .tradeStatusId((Long) trade[8]).tradeStatus((String) trade[9])
+                        .tradeTypeId((Long) trade[10]).tradeType((String) trade[11])
+                        .traderId((Long) trade[12]).traderLoginId((String) trade[13])
+                        .utiCode((String) trade[14])
+                        .notional(legs.notional)
+                        .exposure(legs.exposure)
+                        .notionalByCurrency(legs.byCurrency)
+                        .build());
+            }
+            return trades;
+        });
+    }
+
+    private List<Object[]> query(String jpql, Collection<Long> tradeIds) {
+        if (tradeIds == null) {
+            return entityManager.createQuery(jpql, Object[].class).getResultList();
+        }
+        return entityManager.createQuery(jpql + FOR_TRADE_IDS, Object[].class)
+                .setParameter("tradeIds", tradeIds)
+                .getResultList();
+    }
+
+    private static final class LegTotals {
+        private BigDecimal notional = BigDecimal.ZERO;
+        private BigDecimal exposure = BigDecimal.ZERO;
+        private final Map<String, BigDecimal> byCurrency = new LinkedHashMap<>();
+
+        void add(String currency, String payRec, BigDecimal legNotional) {
+            if (legNotional == null) {
+                return;
+            }
+            notional = notional.add(legNotional);
+            // Legs without a direction count as pay, as in the dashboard risk exposure
+            exposure = "RECEIVE".equalsIgnoreCase(payRec) ? exposure.add(legNotional) : exposure.subtract(legNotional);
+            if (currency != null) {
+                byCurrency.merge(currency.toUpperCase(), legNotional, BigDecimal::add);
+            }
+        }
+    }
+}
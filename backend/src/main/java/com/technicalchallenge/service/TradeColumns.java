@@ -0,0 +1,548 @@
+package com.technicalchallenge.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.technicalchallenge.dto.TradeBlotterSummaryDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
+
+/**
+ * Column store behind {@link TradeBlotterIndex}, one row per active trade version. Dates
+ * are held as epoch days and amounts as whole cents in primitive arrays. References are
+ * dictionary encoded to int codes, with a bitmap of rows per code, so a filter on any
+ * number of references is a few bitmap ORs and ANDs. Rows freed by removed trades are
+ * reused. Each trader's counts and notionals are also kept as running totals, adjusted
+ * as rows are put and removed, so a trader's summary never has to visit their rows.
+ * Not thread safe; the index guards it.
+ */
+final class TradeColumns {
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 256;
+    // Rough cost of one HashMap entry with boxed key and value
+    private static final int MAP_ENTRY_BYTES = 64;
+
+    private final Map<Long, Integer> rowByTradeId = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private int[] freeRows = new int[16];
+    private int freeCount;
+    private int rowCount;
+
+    private long[] tradeIds = new long[INITIAL_CAPACITY];
+    private int[] tradeDates = new int[INITIAL_CAPACITY];
+    private int[] maturityDates = new int[INITIAL_CAPACITY];
+    private int[] executionDates = new int[INITIAL_CAPACITY];
+    private long[] notionals = new long[INITIAL_CAPACITY];
+    private long[] exposures = new long[INITIAL_CAPACITY];
+
+    // One notional column per currency, indexed by currency code
+    private final Map<String, Integer> currencyCodes = new HashMap<>();
+    private final List<String> currencies = new ArrayList<>();
+    private final List<long[]> currencyNotionals = new ArrayList<>();
+
+    final CodedColumn books = new CodedColumn();
+    final CodedColumn counterparties = new CodedColumn();
+    final CodedColumn statuses = new CodedColumn();
+    final CodedColumn types = new CodedColumn();
+    final CodedColumn traders = new CodedColumn();
+
+    // UTI codes for type-ahead, keyed by trade ID
+    private final PrefixIndex utiCodes = new PrefixIndex(false);
+
+    // Running totals indexed by trader code
+    private final List<TraderTotals> traderTotals = new ArrayList<>();
+
+    int size() {
+        return rowByTradeId.size();
+    }
+
+    boolean contains(long tradeId) {
+        return rowByTradeId.containsKey(tradeId);
+    }
+
+    /**
+     * Adds a trade, or overwrites the row of the version already held for its trade ID.
+     */
+    void put(BlotterTrade trade) {
+        Integer existing = rowByTradeId.get(trade.getTradeId());
+        if (existing != null) {
+            account(existing, -1);
+        }
+        int row = existing != null ? existing : allocateRow();
+        rowByTradeId.put(trade.getTradeId(), row);
+        live.set(row);
+
+        tradeIds[row] = trade.getTradeId();
+        tradeDates[row] = epochDay(trade.getTradeDate());
+        maturityDates[row] = epochDay(trade.getMaturityDate());
+        executionDates[row] = epochDay(trade.getExecutionDate());
+        notionals[row] = cents(trade.getNotional());
+        exposures[row] = cents(trade.getExposure());
+
+        for (long[] column : currencyNotionals) {
+            column[row] = 0;
+        }
+        trade.getNotionalByCurrency().forEach((currency, notional) ->
+                currencyColumn(currency)[row] = cents(notional));
+
+        books.set(row, trade.getBookId(), trade.getBookName());
+        counterparties.set(row, trade.getCounterpartyId(), trade.getCounterpartyName());
+        statuses.set(row, trade.getTradeStatusId(), trade.getTradeStatus());
+        types.set(row, trade.getTradeTypeId(), trade.getTradeType());
+        traders.set(row, trade.getTraderId(), trade.getTraderLoginId());
+        utiCodes.put(trade.getTradeId(), trade.getUtiCode());
+        account(row, 1);
+    }
+
+    void remove(long tradeId) {
+        Integer row = rowByTradeId.remove(tradeId);
+        if (row == null) {
+            return;
+        }
+        account(row, -1);
+        live.clear(row);
+        books.clear(row);
+        counterparties.clear(row);
+        statuses.clear(row);
+        types.clear(row);
+        traders.clear(row);
+        utiCodes.remove(tradeId);
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+    }
+
+    /**
+     * The rows matching every supplied criterion: ID lists match any of their values and
+     * date ranges are inclusive, as in the database trade search.
+     */
+    BitSet select(TradeSearchCriteria criteria) {
+        BitSet selected = (BitSet) live.clone();
+        books.restrict(selected, criteria.getBookIds());
+        counterparties.restrict(selected, criteria.getCounterpartyIds());
+        statuses.restrict(selected, criteria.getTradeStatusIds());
+        traders.restrict(selected, criteria.getTraderIds());
+        restrictRange(selected, tradeDates, criteria.getEarliestTradeDate(), criteria.getLatestTradeDate());
+        restrictRange(selected, maturityDates, criteria.getEarliestMaturityDate(), criteria.getLatestMaturityDate());
+        restrictRange(selected, executionDates, criteria.getEarliestExecutionDate(), criteria.getLatestExecutionDate());
+        return selected;
+    }
+
+    List<Long> tradeIds(BitSet selected) {
+        List<Long> ids = new ArrayList<>(selected.cardinality());
+        for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+            ids.add(tradeIds[row]);
+        }
+        return ids;
+    }
+
+    TradeBlotterSummaryDTO summarise(BitSet selected) {
+        long totalNotional = 0;
+        for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+            totalNotional += notionals[row];
+        }
+
+        Map<String, BigDecimal> notionalByCurrency = new LinkedHashMap<>();
+        for (int code = 0; code < currencies.size(); code++) {
+            long[] column = currencyNotionals.get(code);
+            long total = 0;
+            boolean present = false;
+            for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+                total += column[row];
+                present |= column[row] != 0;
+            }
+            if (present) {
+                notionalByCurrency.put(currencies.get(code), amount(total));
+            }
+        }
+
+        TradeBlotterSummaryDTO summary = new TradeBlotterSummaryDTO();
+        summary.setTradeCount(selected.cardinality());
+        summary.setTotalNotional(amount(totalNotional));
+        summary.setTradeCountByStatus(statuses.countBy(selected));
+        summary.setTradeCountByTradeType(types.countBy(selected));
+        summary.setTradeCountByCounterparty(counterparties.countBy(selected));
+        summary.setTradeCountByBook(books.countBy(selected));
+        summary.setNotionalByBook(books.sumBy(selected, notionals));
+        summary.setNotionalByCurrency(notionalByCurrency);
+        summary.setRiskExposureByBook(books.sumBy(selected, exposures));
+        return summary;
+    }
+
+    /**
+     * The same summary as selecting the trader's rows, read from their running totals.
+     */
+    TradeBlotterSummaryDTO summariseTrader(long traderId) {
+        Integer code = traders.codeOf(traderId);
+        TraderTotals totals = code == null || code >= traderTotals.size() ? new TraderTotals() : traderTotals.get(code);
+
+        Map<String, BigDecimal> notionalByCurrency = new LinkedHashMap<>();
+        for (int currency = 0; currency < currencies.size(); currency++) {
+            if (at(totals.currencyRows, currency) > 0) {
+                notionalByCurrency.put(currencies.get(currency), amount(at(totals.currencyNotionals, currency)));
+            }
+        }
+
+        TradeBlotterSummaryDTO summary = new TradeBlotterSummaryDTO();
+        summary.setTradeCount(totals.tradeCount);
+        summary.setTotalNotional(amount(totals.notional));
+        summary.setTradeCountByStatus(statuses.countsByName(totals.byStatus));
+        summary.setTradeCountByTradeType(types.countsByName(totals.byType));
+        summary.setTradeCountByCounterparty(counterparties.countsByName(totals.byCounterparty));
+        summary.setTradeCountByBook(books.countsByName(totals.byBook));
+        summary.setNotionalByBook(books.sumsByName(totals.notionalByBook, totals.byBook));
+        summary.setNotionalByCurrency(notionalByCurrency);
+        summary.setRiskExposureByBook(books.sumsByName(totals.exposureByBook, totals.byBook));
+        return summary;
+    }
+
+    /**
+     * IDs of every trader seen, including those with no rows left.
+     */
+    List<Long> traderIds() {
+        List<Long> ids = new ArrayList<>(traders.codeCount());
+        for (int code = 0; code < traders.codeCount(); code++) {
+            ids.add(traders.idOf(code));
+        }
+        return ids;
+    }
+
+    List<Long> tradeIdsOfTrader(long traderId) {
+        Integer code = traders.codeOf(traderId);
+        return code == null ? List.of() : tradeIds(traders.rows(code));
+    }
+
+    /**
+     * Whether the trader's summary here is the one the other store gives, reference names
+     * included.
+     */
+    boolean sameTraderSummary(long traderId, TradeColumns other) {
+        TradeBlotterSummaryDTO mine = summariseTrader(traderId);
+        TradeBlotterSummaryDTO theirs = other.summariseTrader(traderId);
+        return mine.getTradeCount() == theirs.getTradeCount()
+                && mine.getTotalNotional().equals(theirs.getTotalNotional())
+                && mine.getTradeCountByStatus().equals(theirs.getTradeCountByStatus())
+                && mine.getTradeCountByTradeType().equals(theirs.getTradeCountByTradeType())
+                && mine.getTradeCountByCounterparty().equals(theirs.getTradeCountByCounterparty())
+                && mine.getTradeCountByBook().equals(theirs.getTradeCountByBook())
+                && mine.getNotionalByBook().equals(theirs.getNotionalByBook())
+                && mine.getNotionalByCurrency().equals(theirs.getNotionalByCurrency())
+                && mine.getRiskExposureByBook().equals(theirs.getRiskExposureByBook());
+    }
+
+    /**
+     * Replaces the trader's running totals with totals recomputed from their rows.
+     */
+    void recomputeTraderTotals(long traderId) {
+        Integer code = traders.codeOf(traderId);
+        if (code == null) {
+            return;
+        }
+        TraderTotals recomputed = new TraderTotals();
+        BitSet rows = traders.rows(code);
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            recomputed.add(this, row, 1);
+        }
+        while (traderTotals.size() <= code) {
+            traderTotals.add(new TraderTotals());
+        }
+        traderTotals.set(code, recomputed);
+    }
+
+    List<PrefixIndex.Match> searchUtiCodes(String query, int limit) {
+        return utiCodes.search(query, limit);
+    }
+
+    /**
+     * Approximate heap held by the columns, bitmaps and lookup maps.
+     */
+    long estimatedBytes() {
+        long capacity = tradeIds.length;
+        long bytes = capacity * (Long.BYTES * 3 + Integer.BYTES * 3)
+                + capacity * Long.BYTES * currencyNotionals.size()
+                + (long) freeRows.length * Integer.BYTES
+                + live.size() / 8
+                + (long) rowByTradeId.size() * MAP_ENTRY_BYTES
+                + utiCodes.estimatedBytes();
+        for (TraderTotals totals : traderTotals) {
+            bytes += totals.estimatedBytes();
+        }
+        for (CodedColumn column : List.of(books, counterparties, statuses, types, traders)) {
+            bytes += column.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    // Adds the row to, or with sign -1 takes it from, its trader's running totals
+    private void account(int row, int sign) {
+        int trader = traders.code(row);
+        if (trader < 0) {
+            return;
+        }
+        while (traderTotals.size() <= trader) {
+            traderTotals.add(new TraderTotals());
+        }
+        traderTotals.get(trader).add(this, row, sign);
+    }
+
+    private int allocateRow() {
+        if (freeCount > 0) {
+            return freeRows[--freeCount];
+        }
+        if (rowCount == tradeIds.length) {
+            grow(rowCount * 2);
+        }
+        return rowCount++;
+    }
+
+    private void grow(int capacity) {
+        tradeIds = Arrays.copyOf(tradeIds, capacity);
+        tradeDates = Arrays.copyOf(tradeDates, capacity);
+        maturityDates = Arrays.copyOf(maturityDates, capacity);
+        executionDates = Arrays.copyOf(executionDates, capacity);
+        notionals = Arrays.copyOf(notionals, capacity);
+        exposures = Arrays.copyOf(exposures, capacity);
+        currencyNotionals.replaceAll(column -> Arrays.copyOf(column, capacity));
+        for (CodedColumn column : List.of(books, counterparties, statuses, types, traders)) {
+            column.grow(capacity);
+        }
+    }
+
+    private long[] currencyColumn(String currency) {
+        Integer code = currencyCodes.get(currency);
+        if (code == null) {
+            code = currencies.size();
+            currencyCodes.put(currency, code);
+            currencies.add(currency);
+            currencyNotionals.add(new long[tradeIds.length]);
+        }
+        return currencyNotionals.get(code);
+    }
+
+    private static void restrictRange(BitSet selected, int[] dates, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return;
+        }
+        int lower = from == null ? NO_DATE + 1 : (int) from.toEpochDay();
+        int upper = to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+        for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+            if (dates[row] < lower || dates[row] > upper) {
+                selected.clear(row);
+            }
+        }
+    }
+
+    private static long at(long[] values, int index) {
+        return index < values.length ? values[index] : 0;
+    }
+
+    // Adds delta at the index, growing the array to fit it
+    private static long[] add(long[] values, int index, long delta) {
+        if (index < 0) {
+            return values;
+        }
+        long[] grown = index < values.length ? values : Arrays.copyOf(values, Math.max(index + 1, values.length * 2));
+        grown[index] += delta;
+        return grown;
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal amount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * A reference column: the code of each row, the dictionary from reference ID to code
+     * and the bitmap of rows holding each code. A row with no reference has code -1.
+     */
+    static final class CodedColumn {
+        private final Map<Long, Integer> codeById = new HashMap<>();
+        private final List<Long> ids = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<BitSet> rowsByCode = new ArrayList<>();
+        private int[] codes = new int[INITIAL_CAPACITY];
+
+        CodedColumn() {
+            Arrays.fill(codes, -1);
+        }
+
+        void set(int row, Long id, String name) {
+            clear(row);
+            if (id == null) {
+                return;
+            }
+            Integer code = codeById.get(id);
+            if (code == null) {
+                code = names.size();
+                codeById.put(id, code);
+                ids.add(id);
+                names.add(name);
+                rowsByCode.add(new BitSet());
+            } else {
+                // Keeps the latest name if the reference was renamed
+                names.set(code, name);
+            }
+            codes[row] = code;
+            rowsByCode.get(code).set(row);
+        }
+
+        void clear(int row) {
+            if (codes[row] >= 0) {
+                rowsByCode.get(codes[row]).clear(row);
+                codes[row] = -1;
+            }
+        }
+
+        int code(int row) {
+            return codes[row];
+        }
+
+        Integer codeOf(long id) {
+            return codeById.get(id);
+        }
+
+        int codeCount() {
+            return names.size();
+        }
+
+        BitSet rows(int code) {
+            return rowsByCode.get(code);
+        }
+
+        long idOf(int code) {
+            return ids.get(code);
+        }
+
+        void restrict(BitSet selected, Collection<Long> ids) {
+            if (ids == null || ids.isEmpty()) {
+                return;
+            }
+            BitSet matching = new BitSet();
+            for (Long id : ids) {
+                Integer code = codeById.get(id);
+                if (code != null) {
+                    matching.or(rowsByCode.get(code));
+                }
+            }
+            selected.and(matching);
+        }
+
+        Map<String, Long> countBy(BitSet selected) {
+            long[] counts = new long[names.size()];
+            for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+                if (codes[row] >= 0) {
+                    counts[codes[row]]++;
+                }
+            }
+            return countsByName(counts);
+        }
+
+        Map<String, BigDecimal> sumBy(BitSet selected, long[] values) {
+            long[] totals = new long[names.size()];
+            long[] counts = new long[names.size()];
+            for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+                if (codes[row] >= 0) {
+                    totals[codes[row]] += values[row];
+                    counts[codes[row]]++;
+                }
+            }
+            return sumsByName(totals, counts);
+        }
+
+        // Counts indexed by code, by name; codes sharing a name are added together
+        Map<String, Long> countsByName(long[] counts) {
+            Map<String, Long> byName = new LinkedHashMap<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    byName.merge(names.get(code), counts[code], Long::sum);
+                }
+            }
+            return byName;
+        }
+
+        // Sums indexed by code, by name, for the codes with a nonzero count
+        Map<String, BigDecimal> sumsByName(long[] totals, long[] counts) {
+            Map<String, BigDecimal> byName = new LinkedHashMap<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    byName.merge(names.get(code), amount(at(totals, code)), BigDecimal::add);
+                }
+            }
+            return byName;
+        }
+
+        private void grow(int capacity) {
+            int previous = codes.length;
+            codes = Arrays.copyOf(codes, capacity);
+            Arrays.fill(codes, previous, capacity, -1);
+        }
+
+        private long estimatedBytes() {
+            long bytes = (long) codes.length * Integer.BYTES + (long) codeById.size() * MAP_ENTRY_BYTES;
+            for (BitSet rows : rowsByCode) {
+                bytes += rows.size() / 8;
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * One trader's trade count and notionals, with counts and sums per reference code.
+     * Arrays grow as codes are first seen.
+     */
+    private static final class TraderTotals {
+        private long tradeCount;
+        private long notional;
+        private long[] byStatus = new long[0];
+        private long[] byType = new long[0];
+        private long[] byCounterparty = new long[0];
+        private long[] byBook = new long[0];
+        private long[] notionalByBook = new long[0];
+        private long[] exposureByBook = new long[0];
+        private long[] currencyNotionals = new long[0];
+        // Rows with a nonzero notional in each currency, as the currency is only reported for those
+        private long[] currencyRows = new long[0];
+
+        private void add(TradeColumns columns, int row, int sign) {
+            tradeCount += sign;
+            notional += sign * columns.notionals[row];
+            byStatus = TradeColumns.add(byStatus, columns.statuses.code(row), sign);
+            byType = TradeColumns.add(byType, columns.types.code(row), sign);
+            byCounterparty = TradeColumns.add(byCounterparty, columns.counterparties.code(row), sign);
+            int book = columns.books.code(row);
+            byBook = TradeColumns.add(byBook, book, sign);
+            notionalByBook = TradeColumns.add(notionalByBook, book, sign * columns.notionals[row]);
+            exposureByBook = TradeColumns.add(exposureByBook, book, sign * columns.exposures[row]);
+            for (int currency = 0; currency < columns.currencyNotionals.size(); currency++) {
+                long amount = columns.currencyNotionals.get(currency)[row];
+                if (amount != 0) {
+                    currencyNotionals = TradeColumns.add(currencyNotionals, currency, sign * amount);
+                    currencyRows = TradeColumns.add(currencyRows, currency, sign);
+                }
+            }
+        }
+
+        private long estimatedBytes() {
+            return (long) Long.BYTES * (byStatus.length + byType.length + byCounterparty.length + byBook.length
+                    + notionalByBook.length + exposureByBook.length + currencyNotionals.length + currencyRows.length)
+                    + MAP_ENTRY_BYTES;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.technicalchallenge.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.technicalchallenge.model.Trade;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Position of the last trade on a keyset page, carried between requests as an opaque
+ * continuation token. The token records the ordering it was issued for, so it cannot be
+ * replayed against a different one.
+ */
+@Getter
+@AllArgsConstructor
+public class TradeCursor {
+
+    public enum Order {
+        // Newest trade first, then newest version
+        TRADE_ID,
+        // Most recently touched first, row ID breaks ties
+        LAST_TOUCH
+    }
+
+    private final Order order;
+    private final Long tradeId;
+    private final Integer version;
+    private final LocalDateTime lastTouchTimestamp;
+    private final Long id;
+
+    public static TradeCursor after(Order order, Trade trade) {
+        return new TradeCursor(order, trade.getTradeId(), trade.getVersion(), trade.getLastTouchTimestamp(), trade.getId());
+    }
+
+    public String encode() {
+        String position = order == Order.TRADE_ID
+                ? tradeId + ":" + version
+                // Untouched trades sort first; their empty timestamp field decodes back to null
+                : (lastTouchTimestamp == null ? "" : lastTouchTimestamp) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((order.name() + "|" + position).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token issued for {@code order}. Throws IllegalArgumentException when the
+     * token is malformed or was issued for another ordering.
+     */
+    public static TradeCursor decode(String token, Order order) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token");
+        }
+        if (!order.name().equals(parts[0])) {
+            throw new IllegalArgumentException("Continuation token was not issued for " + order + " ordering");
+        }
+        try {
+            if (order == Order.TRADE_ID) {
+                String[] key = parts[1].split(":");
+                return new TradeCursor(order, Long.valueOf(key[0]), Integer.valueOf(key[1]), null, null);
+            }
+            LocalDateTime lastTouch = parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]);
+            return new TradeCursor(order, null, null, lastTouch, Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid continuation token");
+        }
+    }
+}
@@ -5,11 +5,11 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.BinaryOperator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,7 +17,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.technicalchallenge.dto.DailySummaryDTO;
+import com.technicalchallenge.dto.DailyWindowStatisticsDTO;
+import com.technicalchallenge.dto.TradeBlotterSummaryDTO;
 import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
 import com.technicalchallenge.dto.TradeSummaryDTO;
 import com.technicalchallenge.mapper.DailySummaryMapper;
 import com.technicalchallenge.mapper.TradeSummaryMapper;
@@ -27,23 +30,29 @@ import com.technicalchallenge.model.BookActivitySummary;
 import com.technicalchallenge.model.Counterparty;
 import com.technicalchallenge.model.DailySummary;
 import com.technicalchallenge.model.Trade;
-import com.technicalchallenge.model.TradeLeg;
 import com.technicalchallenge.model.TradeStatus;
 import com.technicalchallenge.model.TradeSummary;
 import com.technicalchallenge.model.TradeType;
 import com.technicalchallenge.repository.ApplicationUserRepository;
 import com.technicalchallenge.repository.BookRepository;
 import com.technicalchallenge.repository.CounterpartyRepository;
-import com.technicalchallenge.repository.DailySummaryRepository;
 import com.technicalchallenge.repository.TradeRepository;
 import com.technicalchallenge.repository.TradeStatusRepository;
 import com.technicalchallenge.repository.TradeSummaryRepository;
 import com.technicalchallenge.repository.TradeTypeRepository;
+import com.technicalchallenge.validation.Validation;
+
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class TradeDashboardService {
     private static final Logger logger = LoggerFactory.getLogger(TradeDashboardService.class);
 
+    // Daily summary windows when the caller asks for none
+    static final List<Integer> DEFAULT_WINDOW_DAYS = List.of(7, 30, 90);
+    // Window every daily summary is compared with
+    static final int AVERAGE_WINDOW_DAYS = 30;
+
     @Autowired
     private TradeRepository tradeRepository;
 
@@ -66,24 +75,33 @@ public class TradeDashboardService {
     private TradeSummaryRepository tradeSummaryRepository;
 
     @Autowired
-    private DailySummaryRepository dailySummaryRepository;
+    private TraderDailyStatistics traderDailyStatistics;
+
+    @Autowired
+    private TradeBlotterIndex tradeBlotterIndex;
+
+    @Autowired
+    private TradeSummaryQueries tradeSummaryQueries;
+
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
     
     private TradeSummaryMapper tradeSummaryMapper = new TradeSummaryMapper();
     private DailySummaryMapper dailySummaryMapper = new DailySummaryMapper();
 
+    // Refuses to start when the statistics cannot hold the windows every daily summary reads
+    @PostConstruct
+    void init() {
+        int longestWindow = Math.max(Collections.max(DEFAULT_WINDOW_DAYS), AVERAGE_WINDOW_DAYS);
+        if (traderDailyStatistics.getMaxWindowDays() < longestWindow) {
+            throw new IllegalArgumentException("trade.summary.statistics.max-window-days must be at least "
+                + longestWindow + ": " + traderDailyStatistics.getMaxWindowDays());
+        }
+    }
+
     public List<Trade> getPersonalTrades(String traderLoginId) {
         logger.info("Retrieving of user's trades");
-        // Fetch and validate user
-        ApplicationUser user = applicationUserRepository.findByLoginId(traderLoginId)
-            .orElseThrow(() -> {
-                logger.warn("User not found: {}", traderLoginId);
-                return new RuntimeException("User not found with login ID: " + traderLoginId);
-            });
-
-        if (!user.isActive()) {
-            logger.warn("User '{}' is inactive", traderLoginId);
-            throw new RuntimeException("User is inactive: " + traderLoginId);
-        }
+        ApplicationUser user = requireActiveUser(traderLoginId);
         Long traderUserId = user.getId();
         List<Trade> trades = tradeRepository.findByTraderUser_Id(traderUserId);
 
@@ -127,11 +145,15 @@ public class TradeDashboardService {
         return trades;
     }
 
+    /**
+     * The trader's summary as of now. It is computed on every call and not saved; the
+     * snapshots kept for history are written by {@link TradeSummarySnapshotService}.
+     */
     public TradeSummaryDTO getTradeSummaryForUser(String traderLoginId) {
 
         logger.info("Retrieving trade summary");
 
-        TradeSummary tradeSummary = buildTradeSummary(traderLoginId);
+        TradeSummary tradeSummary = buildTradeSummary(requireActiveUser(traderLoginId));
         TradeSummaryDTO tradeSummaryDTO = tradeSummaryMapper.toDto(tradeSummary);
 
         return tradeSummaryDTO;
@@ -161,38 +183,29 @@ public class TradeDashboardService {
         return tradeSummaryDTOs;
     }
 
-    private TradeSummary buildTradeSummary(String userID) {
+    TradeSummary buildTradeSummary(ApplicationUser user) {
 
         logger.info("Building Trade Summary");
-        List<Trade> listOfUsersTrades = getPersonalTrades(userID);
+        TradeBlotterSummaryDTO usersTrades = summaryOf(user);
 
         TradeSummary tradeSummary = new TradeSummary();
+        tradeSummary.setTraderUser(user);
         tradeSummary.setSummaryTimeStamp(LocalTime.now());
         tradeSummary.setSummaryDateStamp(LocalDate.now());
 
         // If the user has no trades, return an empy trade summary
-        if (listOfUsersTrades == null || listOfUsersTrades.isEmpty()) {
+        if (usersTrades.getTradeCount() == 0) {
             logger.info("User has no trades. Returning Empty Trade Summary");
             return tradeSummary;
         }
+
+        // Reference data to zero-fill the counts, from the cached snapshot
+        ReferenceDataSnapshot referenceData = referenceDataResolver.current();
+
         // === Count trades by status (case-insensitive) ===
-        // Convert trade objects into a stream
-        Map<String, Long> tradeCountByStatus = listOfUsersTrades.stream()
-                // Extract TradeStatus Object from each Trade object
-                .map(Trade::getTradeStatus)
-                // Filters out any objects that are null
-                .filter(Objects::nonNull)
-                // Extraacts the TradeStatus string from the TradeStatus Object
-                .map(TradeStatus::getTradeStatus)
-                .filter(Objects::nonNull)
-                // Normalise all strings to uppper case for consistency
-                .map(String::toUpperCase)
-                // Groups statuses by name and counts the occurences of each one
-                .collect(Collectors.groupingBy(s -> s, Collectors.counting()));
-
-        List<TradeStatus> allStatuses = tradeStatusRepository.findAll();
-
-        for (TradeStatus status : allStatuses) {
+        Map<String, Long> tradeCountByStatus = upperCaseKeys(usersTrades.getTradeCountByStatus(), Long::sum);
+
+        for (TradeStatus status : referenceData.getTradeStatuses().all()) {
             String statusName = status.getTradeStatus().toUpperCase();
             // Adds any statuses present in the repo that weren't counted. Gives them count of 0
             tradeCountByStatus.putIfAbsent(statusName, 0L);
@@ -200,208 +213,187 @@ public class TradeDashboardService {
         tradeSummary.setTradeCountByStatus(tradeCountByStatus);
 
         // === Count trades by Trade Type (case-insensitive) ===
-        // Convert trade objects into a stream
-        Map<String, Long> tradeCountByTradeType = listOfUsersTrades.stream()
-                .map(Trade::getTradeType)
-                .filter(Objects::nonNull)
-                .map(TradeType::getTradeType)
-                .filter(Objects::nonNull)
-                .map(String::toUpperCase)
-                .collect(Collectors.groupingBy(s -> s, Collectors.counting()));
-        
-        List<TradeType> allTypes = tradeTypeRepository.findAll();
-        
-        for (TradeType type : allTypes) {
+        Map<String, Long> tradeCountByTradeType = upperCaseKeys(usersTrades.getTradeCountByTradeType(), Long::sum);
+
+        for (TradeType type : referenceData.getTradeTypes().all()) {
             String typeName = type.getTradeType().toUpperCase();
             // Adds any statuses present in the repo that weren't counted. Gives them count of 0
             tradeCountByTradeType.putIfAbsent(typeName, 0L);
         }
         tradeSummary.setTradeCountByTradeType(tradeCountByTradeType);
 
-        // === Count trades by Trade Type (case-insensitive) ===
-        // Convert trade objects into a stream
-        Map<String, Long> tradeCountByCounterparty = listOfUsersTrades.stream()
-                .map(Trade::getCounterparty)
-                .filter(Objects::nonNull)
-                .map(Counterparty::getName)
-                .filter(Objects::nonNull)
-                .map(String::toUpperCase)
-                .collect(Collectors.groupingBy(s -> s, Collectors.counting()));
-        
-        List<Counterparty> allCounterparties = counterpartyRepository.findAll();
-        
-        for (Counterparty counterparty : allCounterparties) {
+        // === Count trades by Counterparty (case-insensitive) ===
+        Map<String, Long> tradeCountByCounterparty = upperCaseKeys(usersTrades.getTradeCountByCounterparty(), Long::sum);
+
+        for (Counterparty counterparty : referenceData.getCounterparties().all()) {
             String counterpartyName = counterparty.getName().toUpperCase();
             // Adds any statuses present in the repo that weren't counted. Gives them count of 0
             tradeCountByCounterparty.putIfAbsent(counterpartyName, 0L);
         }
         tradeSummary.setTradeCountByCounterparty(tradeCountByCounterparty);
 
-        Map<String, BigDecimal> totalNotionalByCurrency = listOfUsersTrades.stream()
-                // Get all non-null tradelegs
-                .flatMap(trade -> trade.getTradeLegs().stream())
-                .filter(Objects::nonNull)
-                .filter(leg -> leg.getCurrency() != null && leg.getNotional() != null)
-                .collect(Collectors.groupingBy(
-                    leg -> leg.getCurrency().getCurrency().toUpperCase(),
-                    Collectors.reducing(BigDecimal.ZERO, leg -> leg.getNotional(), BigDecimal::add)
-            ));
-        tradeSummary.setTotalNotionalByCurrency(totalNotionalByCurrency);
-
-        // Calculate risk exposure
-        Map<String, BigDecimal> riskExposure = listOfUsersTrades.stream()
-            .filter(trade -> trade.getBook() != null)
-            .collect(Collectors.groupingBy(
-                trade -> trade.getBook().getBookName().toUpperCase(),
-                Collectors.mapping(
-                    trade -> trade.getTradeLegs().stream()
-                        .filter(Objects::nonNull)
-                        .map(leg -> {
-                            BigDecimal notional = leg.getNotional() == null ? BigDecimal.ZERO : leg.getNotional();
-                            String payRec = leg.getPayReceiveFlag() != null ? leg.getPayReceiveFlag().getPayRec() : "PAY";
-                            return payRec.equalsIgnoreCase("RECEIVE") ? notional : notional.negate();
-                        })
-                        .reduce(BigDecimal.ZERO, BigDecimal::add),
-                    Collectors.reducing(BigDecimal.ZERO, BigDecimal::add)
-                )
-            ));
-        tradeSummary.setRiskExposure(riskExposure);
-
-        tradeSummaryRepository.save(tradeSummary);
+        tradeSummary.setTotalNotionalByCurrency(usersTrades.getNotionalByCurrency());
+
+        // Risk exposure: receive legs less pay legs, per book
+        tradeSummary.setRiskExposure(upperCaseKeys(usersTrades.getRiskExposureByBook(), BigDecimal::add));
+
         return tradeSummary;
     }
 
+    /**
+     * Counts and notionals of all active trades matching the criteria, answered from the
+     * blotter index.
+     */
+    public TradeBlotterSummaryDTO getBlotterSummary(String traderLoginId, TradeSearchCriteria criteria) {
+        logger.info("Retrieving blotter summary for user '{}'", traderLoginId);
+        requireActiveUser(traderLoginId);
+        // Throws exception if any search parameters are invalid
+        Validation.validateSearchCriteria(criteria, tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository);
+        return tradeBlotterIndex.summarise(criteria);
+    }
+
+    /**
+     * Today's summary for the trader against the previous day and the last 30 days. Like
+     * the trade summary it is computed on every call and not saved.
+     */
     public DailySummaryDTO getDailySummaryForUser(String traderLoginId) {
+        return getDailySummaryForUser(traderLoginId, null);
+    }
+
+    /**
+     * Today's summary with rolling averages over each of the given window lengths in days,
+     * or over 7, 30 and 90 days when none are given. Every window is read from the trader's
+     * running totals, so asking for more windows costs no more queries.
+     */
+    public DailySummaryDTO getDailySummaryForUser(String traderLoginId, List<Integer> windowDays) {
 
         logger.info("Retrieving trade summary");
-        DailySummary dailySummary = buildDailySummary(traderLoginId);
+        ApplicationUser user = requireActiveUser(traderLoginId);
+        DailySummary dailySummary = buildDailySummary(user);
 
 
         DailySummaryDTO dailySummaryDTO = dailySummaryMapper.toDto(dailySummary);
+        List<Integer> days = windowDays == null || windowDays.isEmpty() ? DEFAULT_WINDOW_DAYS : windowDays;
+        dailySummaryDTO.setWindows(days.stream()
+            .distinct()
+            .map(windowLength -> windowStatistics(dailySummary,
+                traderDailyStatistics.window(user.getId(), dailySummary.getSummaryDate(), windowLength)))
+            .toList());
 
         return dailySummaryDTO;
     }
 
-    private DailySummary buildDailySummary(String userId) {
+    DailySummary buildDailySummary(ApplicationUser user) {
         logger.info("Building Daily Summary");
 
         DailySummary dailySummary = new DailySummary();
         dailySummary.setSummaryDate(LocalDate.now());
 
-        List<Trade> listOfUsersTrades = getPersonalTrades(userId);
-        int tradeCount = listOfUsersTrades.size();
-        dailySummary.setTodaysTradeCount(tradeCount);
+        TradeBlotterSummaryDTO usersTrades = summaryOf(user);
+        dailySummary.setTodaysTradeCount((int) usersTrades.getTradeCount());
 
         // Total notional (sum across all legs)
-        BigDecimal totalNotional = listOfUsersTrades.stream()
-            .filter(Objects::nonNull)
-            .flatMap(trade -> {
-                if (trade.getTradeLegs() == null) {
-                    return java.util.stream.Stream.empty();
-                }
-                return trade.getTradeLegs().stream().filter(Objects::nonNull);
-            })
-            .map(leg -> leg.getNotional() == null ? BigDecimal.ZERO : leg.getNotional())
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        dailySummary.setTodaysNotional(totalNotional);
-
-        // Trades by book
-        Map<String, Long> tradesByBook = listOfUsersTrades.stream()
-            .filter(trade -> trade.getBook() != null)
-            .collect(Collectors.groupingBy(
-                trade -> trade.getBook().getBookName().toUpperCase(),
-                Collectors.counting()
-            ));
-        dailySummary.setTradesByBook(tradesByBook);
-
-        // Notional by book
-        Map<String, BigDecimal> notionalByBook = listOfUsersTrades.stream()
-    .filter(trade -> trade.getBook() != null)
-    .collect(Collectors.groupingBy(
-        trade -> trade.getBook().getBookName().toUpperCase(),
-        Collectors.reducing(
-            BigDecimal.ZERO,
-            trade -> (trade.getTradeLegs() == null ? List.<TradeLeg>of() : trade.getTradeLegs()).stream()
-                .map(leg -> leg.getNotional() == null ? BigDecimal.ZERO : leg.getNotional())
-                .reduce(BigDecimal.ZERO, BigDecimal::add),
-            BigDecimal::add
-        )
-    ));
-        dailySummary.setNotionalByBook(notionalByBook);
-
-        // Find User so I can get the id
-        ApplicationUser user = applicationUserRepository.findByLoginId(userId)
-            .orElseThrow(() -> {
-                    logger.warn("User not found: {}", userId);
-                    return new RuntimeException("User not found with login ID: " + userId);
-                });
+        dailySummary.setTodaysNotional(usersTrades.getTotalNotional());
+
+        // Trades and notional by book
+        dailySummary.setTradesByBook(upperCaseKeys(usersTrades.getTradeCountByBook(), Long::sum));
+        dailySummary.setNotionalByBook(upperCaseKeys(usersTrades.getNotionalByBook(), BigDecimal::add));
         dailySummary.setTraderUser(user);
-        
-        // Find the summary of the previous day
-        Optional<DailySummary> previousDayOpt = dailySummaryRepository.findByTraderUser_IdAndSummaryDate(user.getId(), LocalDate.now().minusDays(1));
-        
-        if (previousDayOpt.isPresent()) {
-            DailySummary previousSummary = previousDayOpt.get();
 
-            dailySummary.setPreviousDayNotional(previousSummary.getTodaysNotional());
-            dailySummary.setPreviousDayTradeCount(previousSummary.getTodaysTradeCount());
+        // The previous day is the one-day window
+        TraderDailyStatistics.Window previousDay = traderDailyStatistics.window(user.getId(), dailySummary.getSummaryDate(), 1);
+
+        if (!previousDay.isEmpty()) {
+            dailySummary.setPreviousDayNotional(previousDay.getNotional());
+            dailySummary.setPreviousDayTradeCount((int) previousDay.getTradeCount());
 
             // Calculate % change
-            BigDecimal notionalChange = previousSummary.getTodaysNotional().compareTo(BigDecimal.ZERO) == 0
-                ? BigDecimal.ZERO
-                : dailySummary.getTodaysNotional()
-                    .subtract(previousSummary.getTodaysNotional())
-                    .divide(previousSummary.getTodaysNotional(), 2, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100));
-
-            BigDecimal tradeCountChange = previousSummary.getTodaysTradeCount() == 0
-                ? BigDecimal.ZERO
-                : BigDecimal.valueOf(
-                    ((double) (dailySummary.getTodaysTradeCount() - previousSummary.getTodaysTradeCount())
-                    / previousSummary.getTodaysTradeCount()) * 100
-                );
-
-            dailySummary.setNotionalChangePercentage(notionalChange);
-            dailySummary.setTradeCountChangePercentage(tradeCountChange);
+            dailySummary.setNotionalChangePercentage(percentChange(dailySummary.getTodaysNotional(), previousDay.getNotional()));
+            dailySummary.setTradeCountChangePercentage(tradeCountChange(dailySummary.getTodaysTradeCount(), previousDay.getTradeCount()));
         }
 
-        LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
-        List<DailySummary> last30Days =
-            dailySummaryRepository.findByTraderUser_IdAndSummaryDateBetween(
-                user.getId(), thirtyDaysAgo, LocalDate.now().minusDays(1));
+        TraderDailyStatistics.Window last30Days = traderDailyStatistics.window(user.getId(), dailySummary.getSummaryDate(), AVERAGE_WINDOW_DAYS);
 
         if (!last30Days.isEmpty()) {
-            BigDecimal avgNotional30Days = last30Days.stream()
-                .map(DailySummary::getTodaysNotional)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(last30Days.size()), 2, RoundingMode.HALF_UP);
-
-            double avgTradeCount30Days = last30Days.stream()
-                .mapToInt(DailySummary::getTodaysTradeCount)
-                .average()
-                .orElse(0);
-
-            BigDecimal notionalChange30Days = avgNotional30Days.compareTo(BigDecimal.ZERO) == 0
-                ? BigDecimal.ZERO
-                : dailySummary.getTodaysNotional()
-                    .subtract(avgNotional30Days)
-                    .divide(avgNotional30Days, 2, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100));
-
-            BigDecimal tradeCountChange30Days = avgTradeCount30Days == 0
-                ? BigDecimal.ZERO
-                : BigDecimal.valueOf(((double)
-                    (dailySummary.getTodaysTradeCount() - avgTradeCount30Days)
-                    / avgTradeCount30Days) * 100);
+            BigDecimal avgNotional30Days = last30Days.averageNotional();
+            double avgTradeCount30Days = last30Days.averageTradeCount();
 
             dailySummary.setAvgNotional30Days(avgNotional30Days);
             dailySummary.setAvgTradeCount30Days(BigDecimal.valueOf(avgTradeCount30Days));
-            dailySummary.setNotionalChange30Days(notionalChange30Days);
-            dailySummary.setTradeCountChange30Days(tradeCountChange30Days);
+            dailySummary.setNotionalChange30Days(percentChange(dailySummary.getTodaysNotional(), avgNotional30Days));
+            dailySummary.setTradeCountChange30Days(tradeCountChange(dailySummary.getTodaysTradeCount(), avgTradeCount30Days));
         }
-        
-        dailySummaryRepository.save(dailySummary);
+
         return dailySummary;
     }
+
+    private static DailyWindowStatisticsDTO windowStatistics(DailySummary today, TraderDailyStatistics.Window window) {
+        DailyWindowStatisticsDTO statistics = new DailyWindowStatisticsDTO();
+        statistics.setWindowDays(window.getDays());
+        statistics.setSummaryDays(window.getSummaryDays());
+        if (window.isEmpty()) {
+            return statistics;
+        }
+        BigDecimal avgNotional = window.averageNotional();
+        BigDecimal avgTradeCount = BigDecimal.valueOf(window.getTradeCount())
+            .divide(BigDecimal.valueOf(window.getSummaryDays()), 2, RoundingMode.HALF_UP);
+        BigDecimal todaysNotional = today.getTodaysNotional() == null ? BigDecimal.ZERO : today.getTodaysNotional();
+
+        statistics.setAvgNotional(avgNotional);
+        statistics.setAvgTradeCount(avgTradeCount);
+        statistics.setNotionalDelta(todaysNotional.subtract(avgNotional));
+        statistics.setTradeCountDelta(BigDecimal.valueOf(today.getTodaysTradeCount()).subtract(avgTradeCount));
+        statistics.setNotionalChangePercentage(percentChange(todaysNotional, avgNotional));
+        // The rounded average, so the percentage agrees with the delta reported beside it
+        statistics.setTradeCountChangePercentage(percentChange(BigDecimal.valueOf(today.getTodaysTradeCount()), avgTradeCount));
+        return statistics;
+    }
+
+    // Change on the reference in percent, or zero when there is nothing to compare against
+    private static BigDecimal percentChange(BigDecimal today, BigDecimal reference) {
+        return reference.compareTo(BigDecimal.ZERO) == 0
+            ? BigDecimal.ZERO
+            : today
+                .subtract(reference)
+                .divide(reference, 2, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100));
+    }
+
+    private static BigDecimal tradeCountChange(int today, double reference) {
+        return reference == 0
+            ? BigDecimal.ZERO
+            : BigDecimal.valueOf(((today - reference) / reference) * 100);
+    }
+
+    private ApplicationUser requireActiveUser(String traderLoginId) {
+        ApplicationUser user = applicationUserRepository.findByLoginId(traderLoginId)
+            .orElseThrow(() -> {
+                logger.warn("User not found: {}", traderLoginId);
+                return new RuntimeException("User not found with login ID: " + traderLoginId);
+            });
+
+        if (!user.isActive()) {
+            logger.warn("User '{}' is inactive", traderLoginId);
+            throw new RuntimeException("User is inactive: " + traderLoginId);
+        }
+        return user;
+    }
+
+    // The index answers without touching the database once loaded; until then the same
+    // figures are grouped in the database
+    private TradeBlotterSummaryDTO summaryOf(ApplicationUser user) {
+        if (tradeBlotterIndex.isLoaded()) {
+            return tradeBlotterIndex.summariseTrader(user.getId());
+        }
+        logger.info("Trade blotter index not loaded yet, summarising trades in the database");
+        return tradeSummaryQueries.summariseTrader(user.getId());
+    }
+
+    // The index reports names as stored; the dashboard groups them case-insensitively
+    private static <V> Map<String, V> upperCaseKeys(Map<String, V> byName, BinaryOperator<V> merge) {
+        Map<String, V> upperCased = new HashMap<>();
+        byName.forEach((name, value) -> upperCased.merge(name == null ? null : name.toUpperCase(), value, merge));
+        upperCased.remove(null);
+        return upperCased;
+    }
 }
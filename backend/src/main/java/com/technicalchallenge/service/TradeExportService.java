@@ -0,0 +1,189 @@
+package com.technicalchallenge.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.Trade;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Writes trade versions straight from a database cursor to an output stream. Rows are
+ * fetched in batches of {@code trade.export.fetch-size} and the persistence context is
+ * cleared every {@code trade.export.clear-interval} rows, so memory use does not depend
+ * on how many trades are exported. Legs and cashflows are not included.
+ */
+@Service
+public class TradeExportService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeExportService.class);
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    static final String[] COLUMNS = {
+            "id", "tradeId", "version", "tradeDate", "tradeStartDate", "tradeMaturityDate", "tradeExecutionDate",
+            "utiCode", "tradeStatus", "bookName", "counterpartyName", "traderUserName", "inputterUserName",
+            "tradeType", "tradeSubType", "active", "lastTouchTimestamp", "createdDate"
+    };
+
+    // To-one references are fetched with the trade so each row needs no further queries
+    private static final String EXPORT_QUERY = """
+            SELECT t FROM Trade t
+            LEFT JOIN FETCH t.tradeStatus LEFT JOIN FETCH t.book LEFT JOIN FETCH t.counterparty
+            LEFT JOIN FETCH t.traderUser LEFT JOIN FETCH t.tradeInputterUser
+            LEFT JOIN FETCH t.tradeType LEFT JOIN FETCH t.tradeSubType
+            WHERE (:activeOnly = false OR t.active = true)
+            ORDER BY t.id
+            """;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${trade.export.fetch-size:500}")
+    private int fetchSize = 500;
+
+    @Value("${trade.export.clear-interval:1000}")
+    private int clearInterval = 1000;
+
+    /**
+     * Streams every trade version, or only live versions when {@code activeOnly} is set,
+     * to {@code out} and returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, boolean activeOnly, OutputStream out) throws IOException {
+        TypedQuery<Trade> query = entityManager.createQuery(EXPORT_QUERY, Trade.class)
+                .setParameter("activeOnly", activeOnly)
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true);
+
+        long rows = 0;
+        try (Stream<Trade> trades = query.getResultStream()) {
+            Iterator<Trade> iterator = trades.iterator();
+            if (format == Format.CSV) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writer.write(String.join(",", COLUMNS));
+                writer.write('\n');
+                while (iterator.hasNext()) {
+                    writeCsvRow(writer, iterator.next());
+                    rows = clearIfDue(rows + 1);
+                }
+                writer.flush();
+            } else {
+                JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+                // One object per line rather than an enclosing array
+                generator.setRootValueSeparator(null);
+                while (iterator.hasNext()) {
+                    writeJsonRow(generator, iterator.next());
+                    rows = clearIfDue(rows + 1);
+                }
+                generator.flush();
+            }
+        }
+        logger.info("Exported {} trades as {}", rows, format);
+        return rows;
+    }
+
+    private long clearIfDue(long rows) {
+        if (rows % clearInterval == 0) {
+            entityManager.clear();
+        }
+        return rows;
+    }
+
+    private static Object[] values(Trade trade) {
+        return new Object[] {
+                trade.getId(), trade.getTradeId(), trade.getVersion(), trade.getTradeDate(), trade.getTradeStartDate(),
+                trade.getTradeMaturityDate(), trade.getTradeExecutionDate(), trade.getUtiCode(),
+                trade.getTradeStatus() == null ? null : trade.getTradeStatus().getTradeStatus(),
+                trade.getBook() == null ? null : trade.getBook().getBookName(),
+                trade.getCounterparty() == null ? null : trade.getCounterparty().getName(),
+                userName(trade.getTraderUser()),
+                userName(trade.getTradeInputterUser()),
+                trade.getTradeType() == null ? null : trade.getTradeType().getTradeType(),
+                trade.getTradeSubType() == null ? null : trade.getTradeSubType().getTradeSubType(),
+                trade.getActive(), trade.getLastTouchTimestamp(), trade.getCreatedDate()
+        };
+    }
+
+    // Same format as TradeDTO's user names
+    private static String userName(ApplicationUser user) {
+        return user == null ? null : user.getFirstName() + " " + user.getLastName();
+    }
+
+    private static void writeCsvRow(Writer writer, Trade trade) throws IOException {
+        Object[] values = values(trade);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(csvField(values[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void writeJsonRow(JsonGenerator generator, Trade trade) throws IOException {
+        Object[] values = values(trade);
+        generator.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                generator.writeNullField(COLUMNS[i]);
+            } else if (value instanceof Number number) {
+                generator.writeNumberField(COLUMNS[i], number.longValue());
+            } else if (value instanceof Boolean bool) {
+                generator.writeBooleanField(COLUMNS[i], bool);
+            } else {
+                generator.writeStringField(COLUMNS[i], value.toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,54 @@
+package com.technicalchallenge.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.repository.TradeLegRepository;
+import com.technicalchallenge.repository.TradeRepository;
+
+/**
+ * Loads the legs and cashflows of a list of trades ahead of mapping, so that the mapper
+ * finds everything it reads already in the persistence context. The trades themselves
+ * come from list queries that fetch their reference data through
+ * {@link Trade#REFERENCES_GRAPH}; this adds one query for the legs and one for the
+ * cashflows per {@value #CHUNK_SIZE} trades, instead of a lazy load per association.
+ *
+ * Collections are fetched in separate queries rather than joined onto the list query,
+ * which would multiply its rows and stop the database from applying page limits.
+ */
+@Component
+public class TradeFetchPlan {
+
+    static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeLegRepository tradeLegRepository;
+
+    /**
+     * Initialises the legs and cashflows of the given trades, which must be attached to
+     * the current persistence context, and returns the same list.
+     */
+    public List<Trade> withLegs(List<Trade> trades) {
+        for (int from = 0; from < trades.size(); from += CHUNK_SIZE) {
+            List<Trade> chunk = trades.subList(from, Math.min(from + CHUNK_SIZE, trades.size()));
+            List<Long> tradeIds = chunk.stream().map(Trade::getId).toList();
+            List<Long> legIds = new ArrayList<>();
+            for (Trade trade : tradeRepository.fetchLegsByIdIn(tradeIds)) {
+                if (trade.getTradeLegs() != null) {
+                    trade.getTradeLegs().forEach(leg -> legIds.add(leg.getLegId()));
+                }
+            }
+            if (!legIds.isEmpty()) {
+                tradeLegRepository.fetchCashflowsByLegIdIn(legIds);
+            }
+        }
+        return trades;
+    }
+}
@@ -0,0 +1,178 @@
+package com.technicalchallenge.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.technicalchallenge.dto.TradeRowsDTO;
+import com.technicalchallenge.dto.TradeRowsRequestDTO;
+import com.technicalchallenge.model.Trade;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Serves the trade blotter grid one block of rows at a time, following the ag-Grid
+ * server-side row model. Filters, sorting, grouping and group aggregates all run in the
+ * database through {@link TradeProjection}; a block reads one row past its end to tell
+ * whether more follow instead of counting every match.
+ *
+ * Blocks are cached for {@code trade.grid.cache-ttl-seconds} under the blotter index
+ * version, so scrolling back or re-expanding a group does not query again, and a block
+ * is never served once a committed trade change has moved the version on.
+ */
+@Service
+public class TradeGridService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeGridService.class);
+
+    static final int MAX_BLOCK_SIZE = 1000;
+    // Column the grid sorts group rows by when all groups share one auto column
+    static final String AUTO_GROUP_COLUMN = "ag-Grid-AutoColumn";
+    // Leaf row columns when the request does not name its own
+    static final List<String> BLOTTER_FIELDS = List.of("tradeId", "version", "tradeDate", "startDate", "maturityDate",
+            "bookName", "counterpartyName", "traderUserName", "tradeType", "tradeSubType", "tradeStatus", "utiCode");
+
+    @Autowired
+    private TradeProjection tradeProjection;
+
+    @Autowired
+    private TradeBlotterIndex tradeBlotterIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${trade.grid.cache-size:200}")
+    private int cacheSize = 200;
+
+    @Value("${trade.grid.cache-ttl-seconds:30}")
+    private long cacheTtlSeconds = 30;
+
+    private ExpiringCache<List<Object>, TradeRowsDTO> blocks;
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        blocks = new ExpiringCache<>(cacheSize, Duration.ofSeconds(cacheTtlSeconds));
+        hits = Counter.builder("trade.grid.cache.gets")
+                .description("Grid row block lookups in the block cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        misses = Counter.builder("trade.grid.cache.gets")
+                .description("Grid row block lookups in the block cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("trade.grid.cache.size", blocks, ExpiringCache::size)
+                .description("Grid row blocks held")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The block of rows the request asks for: group rows while the request is above the
+     * last row group column, otherwise trade rows within the expanded groups.
+     */
+    @Transactional(readOnly = true)
+    public TradeRowsDTO getRows(TradeRowsRequestDTO request) {
+        normalise(request);
+        int startRow = request.getStartRow();
+        int blockSize = request.getEndRow() - startRow;
+        if (startRow < 0 || blockSize < 1 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("Requested rows must be a block of 1 to " + MAX_BLOCK_SIZE
+                    + " rows starting at row 0 or later");
+        }
+        List<String> groupFields = request.getRowGroupCols().stream().map(TradeGridService::field).toList();
+        if (request.getGroupKeys().size() > groupFields.size()) {
+            throw new IllegalArgumentException("More group keys than row group columns");
+        }
+
+        List<Object> key = List.of(tradeBlotterIndex.version(), request);
+        TradeRowsDTO cached = blocks.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        Specification<Trade> specification = TradeGridSpecification.of(request.getFilterModel(), groupFields,
+                request.getGroupKeys());
+        int level = request.getGroupKeys().size();
+        List<Map<String, Object>> rows;
+        if (level < groupFields.size()) {
+            String groupField = groupFields.get(level);
+            Map<String, String> aggregates = new LinkedHashMap<>();
+            for (TradeRowsRequestDTO.Column column : request.getValueCols()) {
+                // The grid sums value columns unless told otherwise
+                aggregates.put(field(column), column.getAggFunc() == null ? "sum" : column.getAggFunc());
+            }
+            rows = tradeProjection.groups(specification, groupField, aggregates, sort(request, groupField),
+                    startRow, blockSize + 1);
+        } else {
+            List<String> fields = request.getFields().isEmpty() ? BLOTTER_FIELDS : request.getFields();
+            Sort sort = sort(request, null);
+            rows = tradeProjection.find(specification, fields, sort.isSorted() ? sort : Sort.by("tradeId"),
+                    startRow, blockSize + 1);
+        }
+
+        Integer lastRow = null;
+        if (rows.size() > blockSize) {
+            rows = new ArrayList<>(rows.subList(0, blockSize));
+        } else {
+            lastRow = startRow + rows.size();
+        }
+        logger.debug("Read grid rows {} to {} at group level {}", startRow, startRow + rows.size(), level);
+        TradeRowsDTO block = new TradeRowsDTO(rows, lastRow);
+        blocks.put(key, block);
+        return block;
+    }
+
+    // The auto group column sorts by the field grouped on at this level, and is ignored for trade rows
+    private static Sort sort(TradeRowsRequestDTO request, String groupField) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (TradeRowsRequestDTO.SortModel sortModel : request.getSortModel()) {
+            String field = AUTO_GROUP_COLUMN.equals(sortModel.getColId()) ? groupField : sortModel.getColId();
+            if (field != null) {
+                orders.add("desc".equalsIgnoreCase(sortModel.getSort()) ? Sort.Order.desc(field) : Sort.Order.asc(field));
+            }
+        }
+        return Sort.by(orders);
+    }
+
+    private static String field(TradeRowsRequestDTO.Column column) {
+        return column.getField() != null ? column.getField() : column.getId();
+    }
+
+    // The grid leaves out or nulls the parts of a request it is not using
+    private static void normalise(TradeRowsRequestDTO request) {
+        if (request.getRowGroupCols() == null) {
+            request.setRowGroupCols(new ArrayList<>());
+        }
+        if (request.getValueCols() == null) {
+            request.setValueCols(new ArrayList<>());
+        }
+        if (request.getGroupKeys() == null) {
+            request.setGroupKeys(new ArrayList<>());
+        }
+        if (request.getSortModel() == null) {
+            request.setSortModel(new ArrayList<>());
+        }
+        if (request.getFilterModel() == null) {
+            request.setFilterModel(new LinkedHashMap<>());
+        }
+        if (request.getFields() == null) {
+            request.setFields(new ArrayList<>());
+        }
+    }
+}
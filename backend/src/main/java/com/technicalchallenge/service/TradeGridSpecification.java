@@ -0,0 +1,196 @@
+package com.technicalchallenge.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.technicalchallenge.dto.TradeRowsRequestDTO;
+import com.technicalchallenge.model.Trade;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Translates an ag-Grid filter model and the keys of the groups being expanded into a
+ * trade query. Columns are the {@link TradeProjection} fields and use the same joins, so
+ * filtering on a name that is also selected joins its reference once. Text filters ignore
+ * case, and inRange excludes both ends, as the grid does when filtering client side.
+ * Only active trade versions are returned unless the filter model filters on active.
+ */
+public final class TradeGridSpecification {
+
+    private TradeGridSpecification() {
+    }
+
+    public static Specification<Trade> of(Map<String, TradeRowsRequestDTO.Filter> filterModel,
+                                          List<String> groupFields, List<String> groupKeys) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (!filterModel.containsKey("active")) {
+                predicates.add(builder.isTrue(root.get("active")));
+            }
+            filterModel.forEach((field, filter) -> predicates.add(filter(root, builder, field, filter)));
+            for (int i = 0; i < groupKeys.size(); i++) {
+                Expression<?> expression = TradeProjection.expression(root, builder, groupFields.get(i));
+                Object key = convert(groupFields.get(i), expression.getJavaType(), groupKeys.get(i));
+                predicates.add(key == null ? builder.isNull(expression) : builder.equal(expression, key));
+            }
+            return builder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static Predicate filter(Root<Trade> root, CriteriaBuilder builder, String field, TradeRowsRequestDTO.Filter filter) {
+        if (filter.getConditions() != null && !filter.getConditions().isEmpty()) {
+            Predicate[] conditions = filter.getConditions().stream()
+                    .map(condition -> filter(root, builder, field, condition))
+                    .toArray(Predicate[]::new);
+            return "OR".equalsIgnoreCase(filter.getOperator()) ? builder.or(conditions) : builder.and(conditions);
+        }
+        Expression<?> expression = TradeProjection.expression(root, builder, field);
+        String filterType = filter.getFilterType() == null ? "text" : filter.getFilterType();
+        switch (filterType) {
+            case "set":
+                return set(builder, expression, field, filter.getValues());
+            case "text":
+                return text(builder, expression, filter.getType(), filter.getFilter());
+            case "number":
+                return compare(builder, expression, field, filter.getType(), filter.getFilter(), filter.getFilterTo());
+            case "date":
+                return compare(builder, expression, field, filter.getType(), filter.getDateFrom(), filter.getDateTo());
+            default:
+                throw new IllegalArgumentException("Unknown filter type " + filterType + " for " + field);
+        }
+    }
+
+    private static Predicate set(CriteriaBuilder builder, Expression<?> expression, String field, List<String> values) {
+        if (values == null) {
+            return builder.conjunction();
+        }
+        List<Object> keys = new ArrayList<>();
+        boolean blank = false;
+        for (String value : values) {
+            Object key = convert(field, expression.getJavaType(), value);
+            if (key == null) {
+                blank = true;
+            } else {
+                keys.add(key);
+            }
+        }
+        Predicate in = keys.isEmpty() ? builder.disjunction() : expression.in(keys);
+        return blank ? builder.or(in, builder.isNull(expression)) : in;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate text(CriteriaBuilder builder, Expression<?> expression, String type, Object value) {
+        // Text filters on other columns, such as a trade ID, compare its text
+        Expression<String> text = builder.lower(expression.getJavaType() == String.class
+                ? (Expression<String>) expression : expression.as(String.class));
+        if ("blank".equals(type)) {
+            return builder.or(builder.isNull(expression), builder.equal(text, ""));
+        }
+        if ("notBlank".equals(type)) {
+            return builder.and(builder.isNotNull(expression), builder.notEqual(text, ""));
+        }
+        String lower = value == null ? "" : value.toString().toLowerCase(Locale.ROOT);
+        String term = escape(lower);
+        switch (type == null ? "contains" : type) {
+            case "equals":
+                return builder.equal(text, lower);
+            case "notEqual":
+                return builder.or(builder.isNull(expression), builder.notEqual(text, lower));
+            case "contains":
+                return builder.like(text, "%" + term + "%", '\\');
+            case "notContains":
+                return builder.or(builder.isNull(expression), builder.notLike(text, "%" + term + "%", '\\'));
+            case "startsWith":
+                return builder.like(text, term + "%", '\\');
+            case "endsWith":
+                return builder.like(text, "%" + term, '\\');
+            default:
+                throw new IllegalArgumentException("Unknown text filter: " + type);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(CriteriaBuilder builder, Expression<?> expression, String field, String type,
+                                     Object from, Object to) {
+        if ("blank".equals(type)) {
+            return builder.isNull(expression);
+        }
+        if ("notBlank".equals(type)) {
+            return builder.isNotNull(expression);
+        }
+        Expression<Comparable> comparable = (Expression<Comparable>) expression;
+        Comparable value = (Comparable) convert(field, expression.getJavaType(), from);
+        if (value == null) {
+            throw new IllegalArgumentException("Filter on " + field + " needs a value");
+        }
+        switch (type == null ? "equals" : type) {
+            case "equals":
+                return builder.equal(comparable, value);
+            case "notEqual":
+                return builder.or(builder.isNull(expression), builder.notEqual(comparable, value));
+            case "lessThan":
+                return builder.lessThan(comparable, value);
+            case "lessThanOrEqual":
+                return builder.lessThanOrEqualTo(comparable, value);
+            case "greaterThan":
+                return builder.greaterThan(comparable, value);
+            case "greaterThanOrEqual":
+                return builder.greaterThanOrEqualTo(comparable, value);
+            case "inRange":
+                Comparable upper = (Comparable) convert(field, expression.getJavaType(), to);
+                if (upper == null) {
+                    throw new IllegalArgumentException("Range filter on " + field + " needs two values");
+                }
+                return builder.and(builder.greaterThan(comparable, value), builder.lessThan(comparable, upper));
+            default:
+                throw new IllegalArgumentException("Unknown filter " + type + " for " + field);
+        }
+    }
+
+    // Filter and group values arrive as JSON numbers or strings; dates as "yyyy-MM-dd" with an optional time
+    static Object convert(String field, Class<?> type, Object value) {
+        if (value == null || (value instanceof String text && text.isEmpty() && type != String.class)) {
+            return null;
+        }
+        String text = value.toString().trim();
+        try {
+            if (type == String.class) {
+                return value.toString();
+            }
+            if (type == Long.class) {
+                return value instanceof Number number ? number.longValue() : Long.valueOf(text);
+            }
+            if (type == Integer.class) {
+                return value instanceof Number number ? number.intValue() : Integer.valueOf(text);
+            }
+            if (type == Boolean.class) {
+                if (!text.equalsIgnoreCase("true") && !text.equalsIgnoreCase("false")) {
+                    throw new IllegalArgumentException(text);
+                }
+                return Boolean.valueOf(text);
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text);
+            }
+            if (type == LocalDateTime.class) {
+                return text.length() == 10 ? LocalDate.parse(text).atStartOfDay() : LocalDateTime.parse(text.replace(' ', 'T'));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value for " + field + ": " + value);
+        }
+        throw new IllegalArgumentException("Cannot filter on " + field);
+    }
+
+    private static String escape(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,119 @@
+package com.technicalchallenge.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.technicalchallenge.model.TradeIdSequence;
+import com.technicalchallenge.repository.TradeIdSequenceRepository;
+import com.technicalchallenge.repository.TradeRepository;
+
+/**
+ * Hands out business trade IDs. IDs are reserved from the trade_id_sequence table a
+ * block at a time and then served from memory with a single atomic increment, so a
+ * booking never has to query the trade table to get its ID.
+ */
+@Service
+public class TradeIdAllocator {
+    private static final Logger logger = LoggerFactory.getLogger(TradeIdAllocator.class);
+
+    public static final String TRADE_ID_SEQUENCE = "TRADE_ID";
+    public static final long FIRST_TRADE_ID = 10000L;
+
+    @Autowired
+    private TradeIdSequenceRepository tradeIdSequenceRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${trade.id.block-size:100}")
+    private int blockSize = 100;
+
+    private final AtomicReference<IdBlock> currentBlock = new AtomicReference<>(IdBlock.EMPTY);
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    public long nextTradeId() {
+        while (true) {
+            IdBlock block = currentBlock.get();
+            long id = block.next.getAndIncrement();
+            if (id < block.end) {
+                return id;
+            }
+            refill(block);
+        }
+    }
+
+    private void refill(IdBlock exhausted) {
+        refillLock.lock();
+        try {
+            // Another thread may already have swapped in a fresh block while we waited
+            if (currentBlock.get() == exhausted) {
+                currentBlock.set(reserveBlock());
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private IdBlock reserveBlock() {
+        // Runs in its own transaction so the row lock is released as soon as the block is taken,
+        // and a rolled back booking never returns IDs that another node may already be using
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        try {
+            return transactionTemplate.execute(status -> reserveBlockInTransaction());
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the sequence row first, it can now be locked and advanced
+            logger.info("Trade ID sequence was initialised concurrently, retrying reservation");
+            return transactionTemplate.execute(status -> reserveBlockInTransaction());
+        }
+    }
+
+    private IdBlock reserveBlockInTransaction() {
+        TradeIdSequence sequence = tradeIdSequenceRepository.findForUpdate(TRADE_ID_SEQUENCE)
+                .orElseGet(this::initialiseSequence);
+
+        long start = sequence.getNextValue();
+        sequence.setNextValue(start + blockSize);
+        tradeIdSequenceRepository.save(sequence);
+
+        logger.debug("Reserved trade IDs {} to {}", start, start + blockSize - 1);
+        return new IdBlock(start, start + blockSize);
+    }
+
+    private TradeIdSequence initialiseSequence() {
+        // Start after any trade IDs already in the database, e.g. seeded or migrated trades
+        long firstId = tradeRepository.findMaxTradeId()
+                .map(maxTradeId -> Math.max(maxTradeId + 1, FIRST_TRADE_ID))
+                .orElse(FIRST_TRADE_ID);
+
+        logger.info("Initialising trade ID sequence at {}", firstId);
+        return tradeIdSequenceRepository.saveAndFlush(new TradeIdSequence(TRADE_ID_SEQUENCE, firstId));
+    }
+
+    private static final class IdBlock {
+        private static final IdBlock EMPTY = new IdBlock(0, 0);
+
+        private final AtomicLong next;
+        private final long end;
+
+        private IdBlock(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
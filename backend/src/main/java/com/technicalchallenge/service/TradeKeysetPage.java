@@ -0,0 +1,20 @@
+package com.technicalchallenge.service;
+
+import java.util.List;
+
+import com.technicalchallenge.model.Trade;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One page of trades read by keyset. The continuation token is null on the last page and
+ * the total is null unless it was asked for.
+ */
+@Getter
+@AllArgsConstructor
+public class TradeKeysetPage {
+    private final List<Trade> trades;
+    private final String continuationToken;
+    private final Long totalElements;
+}
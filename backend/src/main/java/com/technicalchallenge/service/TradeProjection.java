@@ -0,0 +1,334 @@
+package com.technicalchallenge.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import com.technicalchallenge.model.Trade;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Reads only the requested trade properties, named as in the {@code TradeDTO} JSON, as
+ * one tuple query. A reference is joined only when one of its names is requested; its ID
+ * comes from the trade's own foreign key column. Legs and additional fields cannot be
+ * selected, so a projection never loads collections; callers wanting those ask for whole
+ * trades instead.
+ */
+@Component
+public class TradeProjection {
+
+    // Name of the number of trade versions in each group returned by groups
+    public static final String CHILD_COUNT = "childCount";
+    public static final List<String> AGGREGATES = List.of("count", "min", "max", "sum", "avg");
+
+    private static final Map<String, Field> FIELDS = new LinkedHashMap<>();
+
+    static {
+        column("id", "id");
+        column("tradeId", "tradeId");
+        column("version", "version");
+        column("tradeDate", "tradeDate");
+        column("startDate", "tradeStartDate");
+        column("maturityDate", "tradeMaturityDate");
+        column("executionDate", "tradeExecutionDate");
+        column("utiCode", "utiCode");
+        column("lastTouchTimestamp", "lastTouchTimestamp");
+        column("validityStartDate", "validityStartDate");
+        column("validityEndDate", "validityEndDate");
+        column("active", "active");
+        column("createdDate", "createdDate");
+        column("deactivatedDate", "deactivatedDate");
+        reference("bookId", "bookName", "book", "bookName");
+        reference("counterpartyId", "counterpartyName", "counterparty", "name");
+        user("traderUserId", "traderUserName", "traderUser");
+        user("tradeInputterUserId", "inputterUserName", "tradeInputterUser");
+        reference("tradeTypeId", "tradeType", "tradeType", "tradeType");
+        reference("tradeSubTypeId", "tradeSubType", "tradeSubType", "tradeSubType");
+        reference("tradeStatusId", "tradeStatus", "tradeStatus", "tradeStatus");
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Checks the requested field names and returns them without duplicates, in the order
+     * given. Throws IllegalArgumentException naming any field that cannot be selected.
+     */
+    public List<String> fields(List<String> requested) {
+        List<String> fields = new ArrayList<>();
+        for (String name : requested) {
+            String field = name.trim();
+            if (field.equals("tradeLegs") || field.equals("additionalFields")) {
+                throw new IllegalArgumentException("Field " + field + " cannot be selected; omit fields to get whole trades");
+            }
+            if (!FIELDS.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown trade field: " + field);
+            }
+            if (!fields.contains(field)) {
+                fields.add(field);
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be given");
+        }
+        return fields;
+    }
+
+    /**
+     * The requested properties of every trade version matching the specification, or of
+     * all versions when it is null, one map per trade in field order.
+     */
+    public List<Map<String, Object>> find(Specification<Trade> specification, List<String> requested) {
+        return find(specification, requested, Sort.unsorted(), 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * As {@link #find(Specification, List)}, but ordered by the given trade fields and
+     * limited to the rows from offset. Rows are finally ordered by their database ID, so
+     * consecutive pages of the same query neither repeat nor skip a row.
+     */
+    public List<Map<String, Object>> find(Specification<Trade> specification, List<String> requested, Sort sort,
+                                          long offset, int limit) {
+        List<String> fields = fields(requested);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Trade> root = query.from(Trade.class);
+
+        Joins joins = new Joins(root, builder);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : fields) {
+            selections.addAll(FIELDS.get(field).select(joins));
+        }
+        query.multiselect(selections);
+        where(query, root, builder, specification);
+        if (sort.isSorted()) {
+            List<Order> orders = orders(joins, sort);
+            orders.add(builder.asc(root.get("id")));
+            query.orderBy(orders);
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : page(query, offset, limit)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            int position = 0;
+            for (String field : fields) {
+                Field definition = FIELDS.get(field);
+                Object[] values = new Object[definition.width];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = tuple.get(position++);
+                }
+                row.put(field, definition.value.apply(values));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * One row per distinct value of the group field among the trade versions matching the
+     * specification: the value under the field name, the number of versions under
+     * {@link #CHILD_COUNT} and each requested aggregate under its field name. Aggregates
+     * map a field to one of {@link #AGGREGATES}. Ordered by the group value unless the
+     * sort names the group field, {@link #CHILD_COUNT} or an aggregated field.
+     */
+    public List<Map<String, Object>> groups(Specification<Trade> specification, String groupField,
+                                            Map<String, String> aggregates, Sort sort, long offset, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Trade> root = query.from(Trade.class);
+        Joins joins = new Joins(root, builder);
+
+        Expression<?> group = definition(groupField).expression(joins);
+        Map<String, Expression<?>> columns = new LinkedHashMap<>();
+        columns.put(groupField, group);
+        columns.put(CHILD_COUNT, builder.count(root));
+        aggregates.forEach((field, function) -> columns.put(field, aggregate(builder, definition(field).expression(joins), field, function)));
+
+        List<Selection<?>> selections = new ArrayList<>();
+        columns.forEach((name, expression) -> selections.add(expression.alias(name)));
+        query.multiselect(selections);
+        where(query, root, builder, specification);
+        query.groupBy(group);
+
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Expression<?> expression = columns.get(order.getProperty());
+            if (expression != null) {
+                orders.add(order.isAscending() ? builder.asc(expression) : builder.desc(expression));
+            }
+        }
+        orders.add(builder.asc(group));
+        query.orderBy(orders);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : page(query, offset, limit)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            columns.keySet().forEach(name -> row.put(name, tuple.get(name)));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * The expression a trade field is compared, sorted and grouped by, for specifications
+     * applied to {@link #find} and {@link #groups}. Names are joined the same way as when
+     * selected, so filtering on a selected name adds no join. User names compare as
+     * "first last".
+     */
+    static Expression<?> expression(Root<Trade> root, CriteriaBuilder builder, String field) {
+        return definition(field).expression(new Joins(root, builder));
+    }
+
+    private static Field definition(String field) {
+        Field definition = FIELDS.get(field);
+        if (definition == null) {
+            throw new IllegalArgumentException("Unknown trade field: " + field);
+        }
+        return definition;
+    }
+
+    private static void where(CriteriaQuery<Tuple> query, Root<Trade> root, CriteriaBuilder builder,
+                              Specification<Trade> specification) {
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+    }
+
+    private List<Tuple> page(CriteriaQuery<Tuple> query, long offset, int limit) {
+        TypedQuery<Tuple> typed = entityManager.createQuery(query).setHint("org.hibernate.readOnly", true);
+        if (offset > 0) {
+            typed.setFirstResult(Math.toIntExact(offset));
+        }
+        if (limit < Integer.MAX_VALUE) {
+            typed.setMaxResults(limit);
+        }
+        return typed.getResultList();
+    }
+
+    private static List<Order> orders(Joins joins, Sort sort) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            // Names sort by their selected columns, so a user name sorts by first then last name
+            for (Expression<?> expression : definition(order.getProperty()).select(joins)) {
+                orders.add(order.isAscending() ? joins.builder.asc(expression) : joins.builder.desc(expression));
+            }
+        }
+        return orders;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Expression<?> aggregate(CriteriaBuilder builder, Expression<?> expression, String field, String function) {
+        boolean numeric = Number.class.isAssignableFrom(expression.getJavaType());
+        switch (function) {
+            case "count":
+                return builder.count(expression);
+            case "min":
+                return builder.least((Expression<Comparable<Object>>) expression);
+            case "max":
+                return builder.greatest((Expression<Comparable<Object>>) expression);
+            case "sum":
+            case "avg":
+                if (!numeric) {
+                    throw new IllegalArgumentException("Cannot " + function + " non-numeric field " + field);
+                }
+                return function.equals("sum") ? builder.sum((Expression<Number>) expression)
+                        : builder.avg((Expression<Number>) expression);
+            default:
+                throw new IllegalArgumentException("Unknown aggregate function: " + function);
+        }
+    }
+
+    private static void column(String field, String attribute) {
+        single(field, joins -> joins.root.get(attribute));
+    }
+
+    private static void reference(String idField, String nameField, String association, String nameAttribute) {
+        single(idField, joins -> joins.root.get(association).get("id"));
+        single(nameField, joins -> joins.join(association).get(nameAttribute));
+    }
+
+    // User names are shown as first and last name, the same as TradeMapper
+    private static void user(String idField, String nameField, String association) {
+        single(idField, joins -> joins.root.get(association).get("id"));
+        Function<Joins, List<Path<?>>> names = joins -> List.of(joins.join(association).get("firstName"),
+                joins.join(association).get("lastName"));
+        FIELDS.put(nameField, new Field(2, names,
+                values -> values[0] == null && values[1] == null ? null : values[0] + " " + values[1],
+                joins -> joins.builder.concat(joins.builder.concat(joins.join(association).<String>get("firstName"), " "),
+                        joins.join(association).<String>get("lastName"))));
+    }
+
+    private static void single(String field, Function<Joins, Path<?>> path) {
+        FIELDS.put(field, new Field(1, joins -> List.of(path.apply(joins)), values -> values[0], path::apply));
+    }
+
+    private static final class Field {
+        // Number of selected columns the value is built from
+        private final int width;
+        private final Function<Joins, List<Path<?>>> paths;
+        private final Function<Object[], Object> value;
+        // Single expression for filters and grouping
+        private final Function<Joins, Expression<?>> expression;
+
+        private Field(int width, Function<Joins, List<Path<?>>> paths, Function<Object[], Object> value,
+                      Function<Joins, Expression<?>> expression) {
+            this.width = width;
+            this.paths = paths;
+            this.value = value;
+            this.expression = expression;
+        }
+
+        private List<Path<?>> select(Joins joins) {
+            return paths.apply(joins);
+        }
+
+        private Expression<?> expression(Joins joins) {
+            return expression.apply(joins);
+        }
+    }
+
+    // Left joins created on first use and found again on the root, so each reference is
+    // joined at most once however many selections, filters and orders use it
+    private static final class Joins {
+        private final Root<Trade> root;
+        private final CriteriaBuilder builder;
+
+        private Joins(Root<Trade> root, CriteriaBuilder builder) {
+            this.root = root;
+            this.builder = builder;
+        }
+
+        private From<Trade, ?> join(String association) {
+            for (Join<Trade, ?> join : root.getJoins()) {
+                if (join.getJoinType() == JoinType.LEFT && join.getAttribute().getName().equals(association)) {
+                    return join;
+                }
+            }
+            return root.join(association, JoinType.LEFT);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.technicalchallenge.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.technicalchallenge.dto.TradeSearchCriteria;
+import com.technicalchallenge.model.Trade;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Builds the trade search query from only the criteria that were supplied, so the
+ * database plans for the filters actually in use and can pick the index that serves them.
+ * References are matched on their foreign key columns, which needs no joins.
+ */
+public final class TradeSearchSpecification {
+
+    private TradeSearchSpecification() {
+    }
+
+    public static Specification<Trade> of(TradeSearchCriteria criteria) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            addRange(predicates, builder, root.get("tradeDate"), criteria.getEarliestTradeDate(), criteria.getLatestTradeDate());
+            addRange(predicates, builder, root.get("tradeMaturityDate"), criteria.getEarliestMaturityDate(), criteria.getLatestMaturityDate());
+            addRange(predicates, builder, root.get("tradeExecutionDate"), criteria.getEarliestExecutionDate(), criteria.getLatestExecutionDate());
+            addIdMatch(predicates, builder, root.get("tradeStatus").get("id"), criteria.getTradeStatusIds());
+            addIdMatch(predicates, builder, root.get("traderUser").get("id"), criteria.getTraderIds());
+            addIdMatch(predicates, builder, root.get("book").get("id"), criteria.getBookIds());
+            addIdMatch(predicates, builder, root.get("counterparty").get("id"), criteria.getCounterpartyIds());
+            // No criteria at all leaves the query without a WHERE clause
+            return predicates.isEmpty() ? null : builder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static void addRange(List<Predicate> predicates, CriteriaBuilder builder, Path<LocalDate> path, LocalDate from, LocalDate to) {
+        if (from != null && to != null) {
+            predicates.add(builder.between(path, from, to));
+        } else if (from != null) {
+            predicates.add(builder.greaterThanOrEqualTo(path, from));
+        } else if (to != null) {
+            predicates.add(builder.lessThanOrEqualTo(path, to));
+        }
+    }
+
+    private static void addIdMatch(List<Predicate> predicates, CriteriaBuilder builder, Path<Long> path, List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        // A single id is an equality, which plans the same as any other lookup on the column
+        predicates.add(ids.size() == 1 ? builder.equal(path, ids.get(0)) : path.in(ids));
+    }
+}
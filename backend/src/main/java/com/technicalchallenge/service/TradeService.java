@@ -1,14 +1,15 @@
 package com.technicalchallenge.service;
 
+import com.technicalchallenge.dto.CashflowGenerationStatusDTO;
+import com.technicalchallenge.dto.TradeAmendmentSummaryDTO;
 import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
 import com.technicalchallenge.dto.TradeLegDTO;
 import com.technicalchallenge.model.*;
 import com.technicalchallenge.repository.*;
-import com.technicalchallenge.rsql.CustomRsqlVisitor;
+import com.technicalchallenge.validation.TradeValidationEngine;
 import com.technicalchallenge.validation.Validation;
 
-import cz.jirutka.rsql.parser.RSQLParser;
-import cz.jirutka.rsql.parser.ast.Node;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -21,26 +22,42 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class TradeService {
     private static final Logger logger = LoggerFactory.getLogger(TradeService.class);
 
+    private static final int MAX_KEYSET_PAGE_SIZE = 1000;
+
+    private static final long TRADE_COUNT_TTL_NANOS = Duration.ofSeconds(30).toNanos();
+
+    // Blotter total for keyset pages, refreshed at most every few seconds
+    private final AtomicReference<CachedCount> tradeCount = new AtomicReference<>();
+
     @Autowired
     private TradeRepository tradeRepository;
     @Autowired
     private TradeLegRepository tradeLegRepository;
     @Autowired
-    private CashflowRepository cashflowRepository;
+    private CashflowGenerator cashflowGenerator;
+    @Autowired
+    private CashflowGenerationPipeline cashflowGenerationPipeline;
     @Autowired
     private TradeStatusRepository tradeStatusRepository;
     @Autowired
@@ -50,23 +67,19 @@ public class TradeService {
     @Autowired
     private ApplicationUserRepository applicationUserRepository;
     @Autowired
-    private TradeTypeRepository tradeTypeRepository;
-    @Autowired
-    private TradeSubTypeRepository tradeSubTypeRepository;
-    @Autowired
-    private CurrencyRepository currencyRepository;
+    private TradeIdAllocator tradeIdAllocator;
     @Autowired
-    private LegTypeRepository legTypeRepository;
+    private TradeValidationEngine tradeValidationEngine;
     @Autowired
-    private IndexRepository indexRepository;
+    private ReferenceDataResolver referenceDataResolver;
     @Autowired
-    private HolidayCalendarRepository holidayCalendarRepository;
+    private TradeFetchPlan tradeFetchPlan;
     @Autowired
-    private ScheduleRepository scheduleRepository;
+    private RsqlQueryCache rsqlQueryCache;
     @Autowired
-    private BusinessDayConventionRepository businessDayConventionRepository;
+    private TradeBlotterIndex tradeBlotterIndex;
     @Autowired
-    private PayRecRepository payRecRepository;
+    private TradeProjection tradeProjection;
 
     // Define permissions
     private static Map<String, List<String>> rolePermissions = Map.of(
@@ -78,38 +91,121 @@ public class TradeService {
         "SUPERUSER",    List.of("CREATE", "AMEND", "TERMINATE", "CANCEL", "VIEW")
     );
 
+    @Transactional(readOnly = true)
     public List<Trade> getTradesWithRSQL(String query) {
         logger.info("Retrieving trades");
-        
-        // Parse RQSL
-        Node rootNode = new RSQLParser().parse(query);
 
-        //Build JPA specification
-        Specification<Trade> spec = rootNode.accept(new CustomRsqlVisitor<Trade>());
+        // Parsed and compiled JPA specification, reused across calls with the same query
+        Specification<Trade> spec = rsqlQueryCache.specification(query);
+
+        return tradeFetchPlan.withLegs(tradeRepository.findAll(spec));
+    }
 
-        return tradeRepository.findAll(spec);
+    /**
+     * As {@link #getTradesWithRSQL(String)}, but reads only the given TradeDTO fields.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTradesWithRSQL(String query, List<String> fields) {
+        logger.info("Retrieving trade fields {}", fields);
+        return tradeProjection.find(rsqlQueryCache.specification(query), fields);
     }
 
-    public List<Trade> searchTrades(LocalDate earliestTradeDate, LocalDate latestTradeDate, Long tradeStatusId, Long traderId, Long bookId, Long counterpartyId) {
+    @Transactional(readOnly = true)
+    public List<Trade> searchTrades(TradeSearchCriteria criteria) {
         logger.info("Retrieving trades");
         
         // Throws exception if any search parameters are invalid
-        Validation.validateSearchParameters(earliestTradeDate, latestTradeDate, tradeStatusId, traderId, bookId, counterpartyId,
-                    tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository);
+        Validation.validateSearchCriteria(criteria, tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository);
 
-        return tradeRepository.searchTradesUsingSearchCriteria(earliestTradeDate, latestTradeDate, tradeStatusId, traderId, bookId, counterpartyId);
+        return tradeFetchPlan.withLegs(tradeRepository.findAll(TradeSearchSpecification.of(criteria)));
     }
 
+    /**
+     * As {@link #searchTrades(TradeSearchCriteria)}, but reads only the given TradeDTO fields.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchTrades(TradeSearchCriteria criteria, List<String> fields) {
+        logger.info("Retrieving trade fields {}", fields);
+
+        // Throws exception if any search parameters are invalid
+        Validation.validateSearchCriteria(criteria, tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository);
+
+        return tradeProjection.find(TradeSearchSpecification.of(criteria), fields);
+    }
+
+    @Transactional(readOnly = true)
     public Page<Trade> paginateTrades(int pageNum, int pageSize) {
         // Throws exception if any pagination parameters are invalid
         Validation.validatePaginationParams(pageNum,pageSize);
         Pageable pageable = PageRequest.of(pageNum, pageSize);
-        return tradeRepository.findAll(pageable);
+        Page<Trade> page = tradeRepository.findAll(pageable);
+        tradeFetchPlan.withLegs(page.getContent());
+        return page;
     }
 
+    /**
+     * Reads one page of the blotter by keyset: each page continues from the position in
+     * the previous page's token rather than from an offset, so it costs the same however
+     * deep it is. The total is only counted when asked for, and then comes from a
+     * short-lived cache.
+     */
+    @Transactional(readOnly = true)
+    public TradeKeysetPage paginateTradesByKeyset(int pageSize, TradeCursor.Order order, String continuationToken, boolean includeTotal) {
+        Validation.validatePaginationParams(0, pageSize);
+        if (pageSize > MAX_KEYSET_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must not exceed " + MAX_KEYSET_PAGE_SIZE);
+        }
+
+        // One extra row tells us whether there is a next page
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        TradeCursor cursor = continuationToken == null || continuationToken.isBlank() ? null
+                : TradeCursor.decode(continuationToken, order);
+        List<Trade> trades;
+        if (order == TradeCursor.Order.LAST_TOUCH) {
+            if (cursor == null) {
+                trades = tradeRepository.findKeysetFirstPageByLastTouch(limit);
+            } else if (cursor.getLastTouchTimestamp() == null) {
+                trades = tradeRepository.findKeysetPageByLastTouchAfterUntouched(cursor.getId(), limit);
+            } else {
+                trades = tradeRepository.findKeysetPageByLastTouchAfter(cursor.getLastTouchTimestamp(), cursor.getId(), limit);
+            }
+        } else {
+            trades = cursor == null ? tradeRepository.findKeysetFirstPageByTradeId(limit)
+                    : tradeRepository.findKeysetPageByTradeIdAfter(cursor.getTradeId(), cursor.getVersion(), limit);
+        }
+
+        String nextToken = null;
+        if (trades.size() > pageSize) {
+            trades = trades.subList(0, pageSize);
+            nextToken = TradeCursor.after(order, trades.get(pageSize - 1)).encode();
+        }
+        tradeFetchPlan.withLegs(trades);
+        return new TradeKeysetPage(trades, nextToken, includeTotal ? countTrades() : null);
+    }
+
+    private long countTrades() {
+        long now = System.nanoTime();
+        CachedCount cached = tradeCount.get();
+        if (cached == null || now - cached.expiresAt() >= 0) {
+            cached = new CachedCount(tradeRepository.count(), now + TRADE_COUNT_TTL_NANOS);
+            tradeCount.set(cached);
+        }
+        return cached.value();
+    }
+
+    private record CachedCount(long value, long expiresAt) {
+    }
+
+    @Transactional(readOnly = true)
     public List<Trade> getAllTrades() {
         logger.info("Retrieving all trades");
-        return tradeRepository.findAll();
+        return tradeFetchPlan.withLegs(tradeRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllTrades(List<String> fields) {
+        logger.info("Retrieving trade fields {}", fields);
+        return tradeProjection.find(null, fields);
     }
 
     public Optional<Trade> getTradeById(Long tradeId) {
@@ -117,6 +213,12 @@ public class TradeService {
         return tradeRepository.findByTradeIdAndActiveTrue(tradeId);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<CashflowGenerationStatusDTO> getCashflowGenerationStatus(Long tradeId) {
+        return tradeRepository.findByTradeIdAndActiveTrue(tradeId)
+                .map(cashflowGenerationPipeline::statusOf);
+    }
+
     public boolean validateUserPrivileges(String userId, String operation) {
         logger.info("Validating privileges for user: {} | operation: {}", userId, operation);
 
@@ -203,10 +305,38 @@ public class TradeService {
 
         logger.info("Creating new trade with ID: {}", tradeDTO.getTradeId());
 
+        // Reject malformed trades before allocating an ID or resolving reference data
+        rejectIfInvalid(tradeValidationEngine.validateStructure(tradeDTO));
+
+        Trade trade = buildNewTrade(tradeDTO);
+
+        //Check if any of the validations have failed
+        ValidationResult validationResult = tradeValidationEngine.validateReferenceData(tradeDTO, trade);
+        if (!validationResult.isValid()) {
+            String combinedErrors = getValidationResultErrorMessages(validationResult);
+            logger.warn("Trade creation failed: {}", combinedErrors);
+            throw new RuntimeException("TRADE VALIDATION FAILED: " + combinedErrors);
+        }
+
+        Trade savedTrade = tradeRepository.save(trade);
+
+        // Create trade legs and cashflows
+        createTradeLegsWithCashflows(tradeDTO, savedTrade);
+        tradeBlotterIndex.refresh(savedTrade.getTradeId());
+
+        logger.info("Successfully created trade with ID: {}", savedTrade.getTradeId());
+        return savedTrade;
+    }
+
+    /**
+     * Builds an unsaved version 1 trade from the DTO, generating a trade ID if none was
+     * supplied and resolving all reference data. Nothing is persisted.
+     */
+    public Trade buildNewTrade(TradeDTO tradeDTO) {
         // Generate trade ID if not provided
         if (tradeDTO.getTradeId() == null) {
-            // Generate sequential trade ID starting from 10000
-            Long generatedTradeId = generateNextTradeId();
+            // Allocate the next trade ID from the reserved block
+            Long generatedTradeId = tradeIdAllocator.nextTradeId();
             tradeDTO.setTradeId(generatedTradeId);
             logger.info("Generated trade ID: {}", generatedTradeId);
         }
@@ -226,37 +356,23 @@ public class TradeService {
 
         // Populate reference data
         populateReferenceDataByName(trade, tradeDTO);
+        return trade;
+    }
 
-        // Validate business rules
-        ValidationResult validationResultBusiness = Validation.validateTradeBusinessRules(tradeDTO);
-        // Validate tradeleg consistensies
-        ValidationResult validationResultLegs = Validation.validateTradeLegConsistency(tradeDTO.getTradeLegs());
-        // Validate reference data
-        ValidationResult validationResultReferenceData = Validation.validateReferenceData(trade);
+    /**
+     * Runs the business rule, leg consistency and reference data validations and
+     * combines their errors into a single result.
+     */
+    public ValidationResult validateTrade(TradeDTO tradeDTO, Trade trade) {
+        return tradeValidationEngine.validate(tradeDTO, trade);
+    }
 
-        //Check if any of the validations have failed
-        if (!validationResultBusiness.isValid() || !validationResultLegs.isValid() || !validationResultReferenceData.isValid()) {
-            // Collect validation errors
-            List<String> errorMessages = Stream.of(
-                    getValidationResultErrorMessages(validationResultBusiness),
-                    getValidationResultErrorMessages(validationResultLegs),
-                    getValidationResultErrorMessages(validationResultReferenceData)
-                )
-                .filter(msg -> msg != null && !msg.isBlank())  // remove empty or null messages
-                .toList();
-
-            String combinedErrors = String.join("; ", errorMessages);
-            logger.warn("Trade creation failed: {}", combinedErrors);
+    private void rejectIfInvalid(ValidationResult validationResult) {
+        if (!validationResult.isValid()) {
+            String combinedErrors = getValidationResultErrorMessages(validationResult);
+            logger.warn("Trade validation failed: {}", combinedErrors);
             throw new RuntimeException("TRADE VALIDATION FAILED: " + combinedErrors);
         }
-
-        Trade savedTrade = tradeRepository.save(trade);
-
-        // Create trade legs and cashflows
-        createTradeLegsWithCashflows(tradeDTO, savedTrade);
-
-        logger.info("Successfully created trade with ID: {}", savedTrade.getTradeId());
-        return savedTrade;
     }
 
     // NEW METHOD: For controller compatibility
@@ -266,7 +382,7 @@ public class TradeService {
 
         // If this is an existing trade (has ID), handle as amendment
         if (trade.getId() != null) {
-            return amendTrade(trade.getTradeId(), tradeDTO);
+            return amendTrade(trade.getTradeId(), tradeDTO).getTrade();
         } else {
             return createTrade(tradeDTO);
         }
@@ -275,135 +391,66 @@ public class TradeService {
     // FIXED: Populate reference data by names from DTO
     public void populateReferenceDataByName(Trade trade, TradeDTO tradeDTO) {
         logger.debug("Populating reference data for trade");
+        ReferenceDataSnapshot referenceData = referenceDataResolver.current();
 
-        // Populate Book
-        if (tradeDTO.getBookName() != null) {
-            bookRepository.findByBookName(tradeDTO.getBookName())
-                    .ifPresent(trade::setBook);
-        } else if (tradeDTO.getBookId() != null) {
-            bookRepository.findById(tradeDTO.getBookId())
-                    .ifPresent(trade::setBook);
-        } else {
+        // Book and counterparty must be given by name or ID
+        if (tradeDTO.getBookName() == null && tradeDTO.getBookId() == null) {
             throw new RuntimeException("Book and Counterparty are required");
         }
+        referenceData.getBooks().resolve(tradeDTO.getBookName(), tradeDTO.getBookId())
+                .ifPresent(trade::setBook);
 
-
-        // Populate Counterparty
-        if (tradeDTO.getCounterpartyName() != null) {
-            counterpartyRepository.findByName(tradeDTO.getCounterpartyName())
-                    .ifPresent(trade::setCounterparty);
-        } else if (tradeDTO.getCounterpartyId() != null) {
-            counterpartyRepository.findById(tradeDTO.getCounterpartyId())
-                    .ifPresent(trade::setCounterparty);
-        } else {
+        if (tradeDTO.getCounterpartyName() == null && tradeDTO.getCounterpartyId() == null) {
             throw new RuntimeException("Book and Counterparty are required");
         }
+        referenceData.getCounterparties().resolve(tradeDTO.getCounterpartyName(), tradeDTO.getCounterpartyId())
+                .ifPresent(trade::setCounterparty);
+
+        referenceData.getTradeStatuses().resolve(tradeDTO.getTradeStatus(), tradeDTO.getTradeStatusId())
+                .ifPresent(trade::setTradeStatus);
+
+        // Populate other reference data
+        populateUserReferences(trade, tradeDTO, referenceData);
+        populateTradeTypeReferences(trade, tradeDTO, referenceData);
+    }
 
+    private void populateUserReferences(Trade trade, TradeDTO tradeDTO, ReferenceDataSnapshot referenceData) {
+        resolveUser(tradeDTO.getTraderUserName(), tradeDTO.getTraderUserId(), referenceData)
+                .ifPresent(trade::setTraderUser);
+        resolveUser(tradeDTO.getInputterUserName(), tradeDTO.getTradeInputterUserId(), referenceData)
+                .ifPresent(trade::setTradeInputterUser);
+    }
 
-        // Populate TradeStatus
-        if (tradeDTO.getTradeStatus() != null) {
-            tradeStatusRepository.findByTradeStatus(tradeDTO.getTradeStatus())
-                    .ifPresent(trade::setTradeStatus);
-        } else if (tradeDTO.getTradeStatusId() != null) {
-            tradeStatusRepository.findById(tradeDTO.getTradeStatusId())
-                    .ifPresent(trade::setTradeStatus);
+    private Optional<ApplicationUser> resolveUser(String userName, Long userId, ReferenceDataSnapshot referenceData) {
+        if (userName == null) {
+            return referenceData.getUsersByFirstName().byId(userId);
         }
 
-        // Populate other reference data
-        populateUserReferences(trade, tradeDTO);
-        populateTradeTypeReferences(trade, tradeDTO);
-    }
-
-    private void populateUserReferences(Trade trade, TradeDTO tradeDTO) {
-        // Handle trader user by name or ID with enhanced logging
-        if (tradeDTO.getTraderUserName() != null) {
-            logger.debug("Looking up trader user by name: {}", tradeDTO.getTraderUserName());
-            String[] nameParts = tradeDTO.getTraderUserName().trim().split("\\s+");
-            if (nameParts.length >= 1) {
-                String firstName = nameParts[0];
-                logger.debug("Searching for user with firstName: {}", firstName);
-                Optional<ApplicationUser> userOpt = applicationUserRepository.findByFirstName(firstName);
-                if (userOpt.isPresent()) {
-                    trade.setTraderUser(userOpt.get());
-                    logger.debug("Found trader user: {} {}", userOpt.get().getFirstName(), userOpt.get().getLastName());
-                } else {
-                    logger.warn("Trader user not found with firstName: {}", firstName);
-                    // Try with loginId as fallback
-                    Optional<ApplicationUser> byLoginId = applicationUserRepository.findByLoginId(tradeDTO.getTraderUserName().toLowerCase());
-                    if (byLoginId.isPresent()) {
-                        trade.setTraderUser(byLoginId.get());
-                        logger.debug("Found trader user by loginId: {}", tradeDTO.getTraderUserName());
-                    } else {
-                        logger.warn("Trader user not found by loginId either: {}", tradeDTO.getTraderUserName());
-                    }
-                }
-            }
-        } else if (tradeDTO.getTraderUserId() != null) {
-            applicationUserRepository.findById(tradeDTO.getTraderUserId())
-                    .ifPresent(trade::setTraderUser);
-        }
-
-        // Handle inputter user by name or ID with enhanced logging
-        if (tradeDTO.getInputterUserName() != null) {
-            logger.debug("Looking up inputter user by name: {}", tradeDTO.getInputterUserName());
-            String[] nameParts = tradeDTO.getInputterUserName().trim().split("\\s+");
-            if (nameParts.length >= 1) {
-                String firstName = nameParts[0];
-                logger.debug("Searching for inputter with firstName: {}", firstName);
-                Optional<ApplicationUser> userOpt = applicationUserRepository.findByFirstName(firstName);
-                if (userOpt.isPresent()) {
-                    trade.setTradeInputterUser(userOpt.get());
-                    logger.debug("Found inputter user: {} {}", userOpt.get().getFirstName(), userOpt.get().getLastName());
-                } else {
-                    logger.warn("Inputter user not found with firstName: {}", firstName);
-                    // Try with loginId as fallback
-                    Optional<ApplicationUser> byLoginId = applicationUserRepository.findByLoginId(tradeDTO.getInputterUserName().toLowerCase());
-                    if (byLoginId.isPresent()) {
-                        trade.setTradeInputterUser(byLoginId.get());
-                        logger.debug("Found inputter user by loginId: {}", tradeDTO.getInputterUserName());
-                    } else {
-                        logger.warn("Inputter user not found by loginId either: {}", tradeDTO.getInputterUserName());
-                    }
-                }
-            }
-        } else if (tradeDTO.getTradeInputterUserId() != null) {
-            applicationUserRepository.findById(tradeDTO.getTradeInputterUserId())
-                    .ifPresent(trade::setTradeInputterUser);
+        // Match on the first name, falling back to the login ID
+        String firstName = userName.trim().split("\\s+")[0];
+        Optional<ApplicationUser> user = referenceData.getUsersByFirstName().byName(firstName)
+                .or(() -> referenceData.getUsersByLoginId().byName(userName));
+        if (user.isEmpty()) {
+            logger.warn("User not found by first name or login ID: {}", userName);
         }
+        return user;
     }
 
-    private void populateTradeTypeReferences(Trade trade, TradeDTO tradeDTO) {
-        if (tradeDTO.getTradeType() != null) {
-            logger.debug("Looking up trade type: {}", tradeDTO.getTradeType());
-            Optional<TradeType> tradeTypeOpt = tradeTypeRepository.findByTradeType(tradeDTO.getTradeType());
-            if (tradeTypeOpt.isPresent()) {
-                trade.setTradeType(tradeTypeOpt.get());
-                logger.debug("Found trade type: {} with ID: {}", tradeTypeOpt.get().getTradeType(), tradeTypeOpt.get().getId());
-            } else {
-                logger.warn("Trade type not found: {}", tradeDTO.getTradeType());
-            }
-        } else if (tradeDTO.getTradeTypeId() != null) {
-            tradeTypeRepository.findById(tradeDTO.getTradeTypeId())
-                    .ifPresent(trade::setTradeType);
+    private void populateTradeTypeReferences(Trade trade, TradeDTO tradeDTO, ReferenceDataSnapshot referenceData) {
+        Optional<TradeType> tradeType = referenceData.getTradeTypes().resolve(tradeDTO.getTradeType(), tradeDTO.getTradeTypeId());
+        if (tradeType.isPresent()) {
+            trade.setTradeType(tradeType.get());
+        } else if (tradeDTO.getTradeType() != null) {
+            logger.warn("Trade type not found: {}", tradeDTO.getTradeType());
         }
 
-        if (tradeDTO.getTradeSubType() != null) {
-            Optional<TradeSubType> tradeSubTypeOpt = tradeSubTypeRepository.findByTradeSubType(tradeDTO.getTradeSubType());
-            if (tradeSubTypeOpt.isPresent()) {
-                trade.setTradeSubType(tradeSubTypeOpt.get());
-            } else {
-                List<TradeSubType> allSubTypes = tradeSubTypeRepository.findAll();
-                for (TradeSubType subType : allSubTypes) {
-                    if (subType.getTradeSubType().equalsIgnoreCase(tradeDTO.getTradeSubType())) {
-                        trade.setTradeSubType(subType);
-                        break;
-                    }
-                }
-            }
-        } else if (tradeDTO.getTradeSubTypeId() != null) {
-            tradeSubTypeRepository.findById(tradeDTO.getTradeSubTypeId())
-                    .ifPresent(trade::setTradeSubType);
-        }
+        referenceData.getTradeSubTypes().resolve(tradeDTO.getTradeSubType(), tradeDTO.getTradeSubTypeId())
+                .ifPresent(trade::setTradeSubType);
+    }
+
+    private TradeStatus requireTradeStatus(String status) {
+        return referenceDataResolver.current().getTradeStatuses().byName(status)
+                .orElseThrow(() -> new RuntimeException(status + " status not found"));
     }
 
     // NEW METHOD: Delete trade (mark as cancelled)
@@ -413,10 +460,19 @@ public class TradeService {
         cancelTrade(tradeId);
     }
 
+    /**
+     * Amends a trade by creating a new version. Every leg is written again for the new
+     * version: legs whose economic terms are unchanged are copied row for row with their
+     * existing cashflows, which saves regenerating the schedule but not the inserts, and
+     * only legs whose terms changed have their cashflows generated. Every leg of the
+     * superseded version stays with it as history.
+     */
     @Transactional
-    public Trade amendTrade(Long tradeId, TradeDTO tradeDTO) {
+    public TradeAmendment amendTrade(Long tradeId, TradeDTO tradeDTO) {
         logger.info("Amending trade with ID: {}", tradeId);
 
+        rejectIfInvalid(tradeValidationEngine.validateStructure(tradeDTO));
+
         Optional<Trade> existingTradeOpt = getTradeById(tradeId);
         if (existingTradeOpt.isEmpty()) {
             throw new RuntimeException("Trade not found: " + tradeId);
@@ -440,41 +496,203 @@ public class TradeService {
         // Populate reference data
         populateReferenceDataByName(amendedTrade, tradeDTO);
 
-        // Validate business rules
-        ValidationResult validationResultBusiness = Validation.validateTradeBusinessRules(tradeDTO);
-        // Validate tradeleg consistensies
-        ValidationResult validationResultLegs = Validation.validateTradeLegConsistency(tradeDTO.getTradeLegs());
-        // Validate reference data
-        ValidationResult validationResultReferenceData = Validation.validateReferenceData(amendedTrade);
+        ValidationResult validationResult = tradeValidationEngine.validateReferenceData(tradeDTO, amendedTrade);
 
         // Set status to AMENDED
-        TradeStatus amendedStatus = tradeStatusRepository.findByTradeStatus("AMENDED")
-                .orElseThrow(() -> new RuntimeException("AMENDED status not found"));
+        TradeStatus amendedStatus = requireTradeStatus("AMENDED");
         amendedTrade.setTradeStatus(amendedStatus);
 
         //Check if any of the validations have failed
-        if (!validationResultBusiness.isValid() || !validationResultLegs.isValid() || !validationResultReferenceData.isValid()) {
-            // Collect validation errors
-            List<String> errorMessages = Stream.of(
-                    getValidationResultErrorMessages(validationResultBusiness),
-                    getValidationResultErrorMessages(validationResultLegs),
-                    getValidationResultErrorMessages(validationResultReferenceData)
-                )
-                .filter(msg -> msg != null && !msg.isBlank())  // remove empty or null messages
-                .toList();
-
-            String combinedErrors = String.join("; ", errorMessages);
+        if (!validationResult.isValid()) {
+            String combinedErrors = getValidationResultErrorMessages(validationResult);
             logger.warn("Trade creation failed: {}", combinedErrors);
             throw new RuntimeException("TRADE VALIDATION FAILED: " + combinedErrors);
         }
 
         Trade savedTrade = tradeRepository.save(amendedTrade);
 
-        // Create new trade legs and cashflows
-        createTradeLegsWithCashflows(tradeDTO, savedTrade);
+        TradeAmendmentSummaryDTO summary = new TradeAmendmentSummaryDTO();
+        summary.setPreviousVersion(existingTrade.getVersion());
+        summary.setNewVersion(savedTrade.getVersion());
+        summary.setChangedFields(changedTradeFields(existingTrade, savedTrade));
 
-        logger.info("Successfully amended trade with ID: {}", savedTrade.getTradeId());
-        return savedTrade;
+        // Rewrite only the legs that changed
+        amendTradeLegs(tradeDTO, existingTrade, savedTrade, summary);
+        tradeBlotterIndex.refresh(tradeId);
+
+        logger.info("Successfully amended trade with ID: {} ({} legs copied, {} regenerated, {} cashflows generated)",
+                savedTrade.getTradeId(), summary.getLegsCopied(), summary.getLegsRegenerated(), summary.getCashflowsGenerated());
+        return new TradeAmendment(savedTrade, summary);
+    }
+
+    private void amendTradeLegs(TradeDTO tradeDTO, Trade existingTrade, Trade savedTrade, TradeAmendmentSummaryDTO summary) {
+        List<TradeLeg> existingLegs = existingTrade.getTradeLegs() == null ? new ArrayList<>()
+                : existingTrade.getTradeLegs().stream()
+                        .sorted(Comparator.comparing(TradeLeg::getLegId, Comparator.nullsLast(Comparator.naturalOrder())))
+                        .collect(Collectors.toList());
+        Map<Long, TradeLeg> existingLegsById = new HashMap<>();
+        for (TradeLeg leg : existingLegs) {
+            existingLegsById.put(leg.getLegId(), leg);
+        }
+
+        // Moving the schedule dates changes every leg's cashflows
+        boolean scheduleDatesChanged = !Objects.equals(existingTrade.getTradeStartDate(), savedTrade.getTradeStartDate())
+                || !Objects.equals(existingTrade.getTradeMaturityDate(), savedTrade.getTradeMaturityDate());
+
+        List<TradeLeg> amendedLegs = new ArrayList<>();
+        List<TradeLeg> regeneratedLegs = new ArrayList<>();
+        List<Cashflow> copiedCashflows = new ArrayList<>();
+        Set<TradeLeg> copied = new HashSet<>();
+        Set<TradeLeg> replaced = new HashSet<>();
+        List<TradeLegDTO> legDTOs = tradeDTO.getTradeLegs() == null ? List.of() : tradeDTO.getTradeLegs();
+
+        for (int i = 0; i < legDTOs.size(); i++) {
+            TradeLegDTO legDTO = legDTOs.get(i);
+            TradeLeg incomingLeg = buildTradeLeg(legDTO, savedTrade);
+
+            // Match on leg ID when the client sent one, otherwise on position
+            TradeLeg previousLeg = legDTO.getLegId() != null ? existingLegsById.get(legDTO.getLegId())
+                    : i < existingLegs.size() ? existingLegs.get(i) : null;
+
+            if (previousLeg != null && (copied.contains(previousLeg) || replaced.contains(previousLeg))) {
+                // Already matched by an earlier leg, so this one is new
+                previousLeg = null;
+            }
+
+            // Legs still waiting for or missing cashflows have none to copy
+            if (previousLeg != null && !scheduleDatesChanged && hasCashflows(previousLeg)
+                    && sameEconomicTerms(previousLeg, incomingLeg)) {
+                amendedLegs.add(copyLeg(previousLeg, savedTrade, copiedCashflows));
+                copied.add(previousLeg);
+                summary.getCopiedLegIds().add(previousLeg.getLegId());
+                continue;
+            }
+
+            if (previousLeg != null) {
+                replaced.add(previousLeg);
+                summary.getReplacedLegIds().add(previousLeg.getLegId());
+            }
+            TradeLeg savedLeg = tradeLegRepository.save(incomingLeg);
+            amendedLegs.add(savedLeg);
+            regeneratedLegs.add(savedLeg);
+            summary.getRegeneratedLegIds().add(savedLeg.getLegId());
+        }
+        cashflowGenerator.persist(copiedCashflows);
+        int cashflowsGenerated = cashflowGenerationPipeline.generate(regeneratedLegs,
+                tradeDTO.getTradeStartDate(), tradeDTO.getTradeMaturityDate());
+
+        savedTrade.setTradeLegs(amendedLegs);
+        summary.setLegsCopied(copied.size());
+        summary.setLegsRegenerated(summary.getRegeneratedLegIds().size());
+        summary.setLegsReplaced(replaced.size());
+        summary.setLegsRemoved(existingLegs.size() - copied.size() - replaced.size());
+        summary.setCashflowsGenerated(cashflowsGenerated);
+        summary.setLegsPendingCashflows(cashflowGenerationPipeline.isAsyncEnabled() ? regeneratedLegs.size() : 0);
+    }
+
+    private static boolean hasCashflows(TradeLeg leg) {
+        return leg.getCashflowStatus() == null || CashflowGenerationPipeline.DONE.equals(leg.getCashflowStatus());
+    }
+
+    // Copies an unchanged leg onto the new version; its cashflows are copied into
+    // copiedCashflows to be saved together, and the original keeps its own
+    private TradeLeg copyLeg(TradeLeg previous, Trade savedTrade, List<Cashflow> copiedCashflows) {
+        LocalDateTime now = LocalDateTime.now();
+        TradeLeg copy = new TradeLeg();
+        copy.setTrade(savedTrade);
+        copy.setNotional(previous.getNotional());
+        copy.setRate(previous.getRate());
+        copy.setCurrency(previous.getCurrency());
+        copy.setLegRateType(previous.getLegRateType());
+        copy.setIndex(previous.getIndex());
+        copy.setHolidayCalendar(previous.getHolidayCalendar());
+        copy.setCalculationPeriodSchedule(previous.getCalculationPeriodSchedule());
+        copy.setPaymentBusinessDayConvention(previous.getPaymentBusinessDayConvention());
+        copy.setFixingBusinessDayConvention(previous.getFixingBusinessDayConvention());
+        copy.setPayReceiveFlag(previous.getPayReceiveFlag());
+        copy.setCashflowStatus(CashflowGenerationPipeline.DONE);
+        copy.setActive(true);
+        copy.setCreatedDate(now);
+        TradeLeg savedCopy = tradeLegRepository.save(copy);
+
+        List<Cashflow> cashflows = new ArrayList<>();
+        for (Cashflow cashflow : previous.getCashflows() == null ? List.<Cashflow>of() : previous.getCashflows()) {
+            Cashflow copied = new Cashflow();
+            copied.setTradeLeg(savedCopy);
+            copied.setPaymentValue(cashflow.getPaymentValue());
+            copied.setValueDate(cashflow.getValueDate());
+            copied.setRate(cashflow.getRate());
+            copied.setPayRec(cashflow.getPayRec());
+            copied.setPaymentType(cashflow.getPaymentType());
+            copied.setPaymentBusinessDayConvention(cashflow.getPaymentBusinessDayConvention());
+            copied.setActive(cashflow.getActive());
+            copied.setCreatedDate(now);
+            copied.setValidityStartDate(cashflow.getValidityStartDate());
+            copied.setValidityEndDate(cashflow.getValidityEndDate());
+            cashflows.add(copied);
+        }
+        savedCopy.setCashflows(cashflows);
+        copiedCashflows.addAll(cashflows);
+        return savedCopy;
+    }
+
+    private boolean sameEconomicTerms(TradeLeg previous, TradeLeg incoming) {
+        return sameAmount(previous.getNotional(), incoming.getNotional())
+                && Objects.equals(previous.getRate(), incoming.getRate())
+                && sameReference(previous.getCurrency(), incoming.getCurrency(), Currency::getId)
+                && sameReference(previous.getLegRateType(), incoming.getLegRateType(), LegType::getId)
+                && sameReference(previous.getIndex(), incoming.getIndex(), Index::getId)
+                && sameReference(previous.getHolidayCalendar(), incoming.getHolidayCalendar(), HolidayCalendar::getId)
+                && sameReference(previous.getCalculationPeriodSchedule(), incoming.getCalculationPeriodSchedule(), Schedule::getId)
+                && sameReference(previous.getPaymentBusinessDayConvention(), incoming.getPaymentBusinessDayConvention(), BusinessDayConvention::getId)
+                && sameReference(previous.getFixingBusinessDayConvention(), incoming.getFixingBusinessDayConvention(), BusinessDayConvention::getId)
+                && sameReference(previous.getPayReceiveFlag(), incoming.getPayReceiveFlag(), PayRec::getId);
+    }
+
+    private List<String> changedTradeFields(Trade previous, Trade amended) {
+        List<String> changed = new ArrayList<>();
+        addIfChanged(changed, "tradeDate", previous.getTradeDate(), amended.getTradeDate());
+        addIfChanged(changed, "startDate", previous.getTradeStartDate(), amended.getTradeStartDate());
+        addIfChanged(changed, "maturityDate", previous.getTradeMaturityDate(), amended.getTradeMaturityDate());
+        addIfChanged(changed, "executionDate", previous.getTradeExecutionDate(), amended.getTradeExecutionDate());
+        addIfChanged(changed, "utiCode", previous.getUtiCode(), amended.getUtiCode());
+        if (!sameReference(previous.getBook(), amended.getBook(), Book::getId)) {
+            changed.add("book");
+        }
+        if (!sameReference(previous.getCounterparty(), amended.getCounterparty(), Counterparty::getId)) {
+            changed.add("counterparty");
+        }
+        if (!sameReference(previous.getTraderUser(), amended.getTraderUser(), ApplicationUser::getId)) {
+            changed.add("traderUser");
+        }
+        if (!sameReference(previous.getTradeInputterUser(), amended.getTradeInputterUser(), ApplicationUser::getId)) {
+            changed.add("tradeInputterUser");
+        }
+        if (!sameReference(previous.getTradeType(), amended.getTradeType(), TradeType::getId)) {
+            changed.add("tradeType");
+        }
+        if (!sameReference(previous.getTradeSubType(), amended.getTradeSubType(), TradeSubType::getId)) {
+            changed.add("tradeSubType");
+        }
+        return changed;
+    }
+
+    private static void addIfChanged(List<String> changed, String field, Object previous, Object amended) {
+        if (!Objects.equals(previous, amended)) {
+            changed.add(field);
+        }
+    }
+
+    private static boolean sameAmount(BigDecimal previous, BigDecimal amended) {
+        return previous == null ? amended == null : amended != null && previous.compareTo(amended) == 0;
+    }
+
+    // Compares by ID so lazy proxies on the stored version are not initialised
+    private static <T> boolean sameReference(T previous, T amended, Function<T, Long> idFunction) {
+        if (previous == null || amended == null) {
+            return previous == amended;
+        }
+        return Objects.equals(idFunction.apply(previous), idFunction.apply(amended));
     }
 
     @Transactional
@@ -487,13 +705,14 @@ public class TradeService {
         }
 
         Trade trade = tradeOpt.get();
-        TradeStatus terminatedStatus = tradeStatusRepository.findByTradeStatus("TERMINATED")
-                .orElseThrow(() -> new RuntimeException("TERMINATED status not found"));
+        TradeStatus terminatedStatus = requireTradeStatus("TERMINATED");
 
         trade.setTradeStatus(terminatedStatus);
         trade.setLastTouchTimestamp(LocalDateTime.now());
 
-        return tradeRepository.save(trade);
+        Trade savedTrade = tradeRepository.save(trade);
+        tradeBlotterIndex.refresh(tradeId);
+        return savedTrade;
     }
 
     @Transactional
@@ -506,13 +725,14 @@ public class TradeService {
         }
 
         Trade trade = tradeOpt.get();
-        TradeStatus cancelledStatus = tradeStatusRepository.findByTradeStatus("CANCELLED")
-                .orElseThrow(() -> new RuntimeException("CANCELLED status not found"));
+        TradeStatus cancelledStatus = requireTradeStatus("CANCELLED");
 
         trade.setTradeStatus(cancelledStatus);
         trade.setLastTouchTimestamp(LocalDateTime.now());
 
-        return tradeRepository.save(trade);
+        Trade savedTrade = tradeRepository.save(trade);
+        tradeBlotterIndex.refresh(tradeId);
+        return savedTrade;
     }
 
     private Trade mapDTOToEntity(TradeDTO dto) {
@@ -529,206 +749,72 @@ public class TradeService {
     }
 
     private void createTradeLegsWithCashflows(TradeDTO tradeDTO, Trade savedTrade) {
-        for (int i = 0; i < tradeDTO.getTradeLegs().size(); i++) {
-            var legDTO = tradeDTO.getTradeLegs().get(i);
-
-            TradeLeg tradeLeg = new TradeLeg();
-            tradeLeg.setTrade(savedTrade);
-            tradeLeg.setNotional(legDTO.getNotional());
-            tradeLeg.setRate(legDTO.getRate());
-            tradeLeg.setActive(true);
-            tradeLeg.setCreatedDate(LocalDateTime.now());
-
-            // Populate reference data for leg
-            populateLegReferenceData(tradeLeg, legDTO);
-
-            TradeLeg savedLeg = tradeLegRepository.save(tradeLeg);
-
-            // Generate cashflows for this leg
-            if (tradeDTO.getTradeStartDate() != null && tradeDTO.getTradeMaturityDate() != null) {
-                generateCashflows(savedLeg, tradeDTO.getTradeStartDate(), tradeDTO.getTradeMaturityDate());
-            }
+        List<TradeLeg> savedLegs = new ArrayList<>();
+        for (TradeLegDTO legDTO : tradeDTO.getTradeLegs()) {
+            savedLegs.add(tradeLegRepository.save(buildTradeLeg(legDTO, savedTrade)));
         }
-    }
 
-    private void populateLegReferenceData(TradeLeg leg, TradeLegDTO legDTO) {
-        // Populate currency by name or ID
-        if (legDTO.getCurrency() != null) {
-            currencyRepository.findByCurrency(legDTO.getCurrency())
-                    .ifPresent(leg::setCurrency);
-        } else if (legDTO.getCurrencyId() != null) {
-            currencyRepository.findById(legDTO.getCurrencyId())
-                    .ifPresent(leg::setCurrency);
-        }
-
-        // Populate leg type by name or ID
-        if (legDTO.getLegType() != null) {
-            legTypeRepository.findByType(legDTO.getLegType())
-                    .ifPresent(leg::setLegRateType);
-        } else if (legDTO.getLegTypeId() != null) {
-            legTypeRepository.findById(legDTO.getLegTypeId())
-                    .ifPresent(leg::setLegRateType);
-        }
-
-        // Populate index by name or ID
-        if (legDTO.getIndexName() != null) {
-            indexRepository.findByIndex(legDTO.getIndexName())
-                    .ifPresent(leg::setIndex);
-        } else if (legDTO.getIndexId() != null) {
-            indexRepository.findById(legDTO.getIndexId())
-                    .ifPresent(leg::setIndex);
-        }
-
-        // Populate holiday calendar by name or ID
-        if (legDTO.getHolidayCalendar() != null) {
-            holidayCalendarRepository.findByHolidayCalendar(legDTO.getHolidayCalendar())
-                    .ifPresent(leg::setHolidayCalendar);
-        } else if (legDTO.getHolidayCalendarId() != null) {
-            holidayCalendarRepository.findById(legDTO.getHolidayCalendarId())
-                    .ifPresent(leg::setHolidayCalendar);
-        }
-
-        // Populate schedule by name or ID
-        if (legDTO.getCalculationPeriodSchedule() != null) {
-            scheduleRepository.findBySchedule(legDTO.getCalculationPeriodSchedule())
-                    .ifPresent(leg::setCalculationPeriodSchedule);
-        } else if (legDTO.getScheduleId() != null) {
-            scheduleRepository.findById(legDTO.getScheduleId())
-                    .ifPresent(leg::setCalculationPeriodSchedule);
-        }
-
-        // Populate payment business day convention by name or ID
-        if (legDTO.getPaymentBusinessDayConvention() != null) {
-            businessDayConventionRepository.findByBdc(legDTO.getPaymentBusinessDayConvention())
-                    .ifPresent(leg::setPaymentBusinessDayConvention);
-        } else if (legDTO.getPaymentBdcId() != null) {
-            businessDayConventionRepository.findById(legDTO.getPaymentBdcId())
-                    .ifPresent(leg::setPaymentBusinessDayConvention);
-        }
-
-        // Populate fixing business day convention by name or ID
-        if (legDTO.getFixingBusinessDayConvention() != null) {
-            businessDayConventionRepository.findByBdc(legDTO.getFixingBusinessDayConvention())
-                    .ifPresent(leg::setFixingBusinessDayConvention);
-        } else if (legDTO.getFixingBdcId() != null) {
-            businessDayConventionRepository.findById(legDTO.getFixingBdcId())
-                    .ifPresent(leg::setFixingBusinessDayConvention);
-        }
-
-        // Populate pay/receive flag by name or ID
-        if (legDTO.getPayReceiveFlag() != null) {
-            payRecRepository.findByPayRec(legDTO.getPayReceiveFlag())
-                    .ifPresent(leg::setPayReceiveFlag);
-        } else if (legDTO.getPayRecId() != null) {
-            payRecRepository.findById(legDTO.getPayRecId())
-                    .ifPresent(leg::setPayReceiveFlag);
+        // Cashflows for every leg go to the database together, either now or after commit
+        int cashflowsGenerated = cashflowGenerationPipeline.generate(savedLegs,
+                tradeDTO.getTradeStartDate(), tradeDTO.getTradeMaturityDate());
+        if (cashflowGenerationPipeline.isAsyncEnabled()) {
+            logger.info("Queued cashflow generation for {} legs of trade {}", savedLegs.size(), savedTrade.getTradeId());
+        } else {
+            logger.info("Generated {} cashflows for trade {}", cashflowsGenerated, savedTrade.getTradeId());
         }
     }
 
     /**
-     * FIXED: Generate cashflows based on schedule and maturity date
+     * Attaches legs and their cashflows to an unsaved trade so the whole graph is
+     * persisted by cascade when the trade is saved. Used by bulk booking, where
+     * inserts are batched per chunk rather than issued row by row.
      */
-    private void generateCashflows(TradeLeg leg, LocalDate startDate, LocalDate maturityDate) {
-        logger.info("Generating cashflows for leg {} from {} to {}", leg.getLegId(), startDate, maturityDate);
-
-        // Use default schedule if not set
-        String schedule = "3M"; // Default to quarterly
-        if (leg.getCalculationPeriodSchedule() != null) {
-            schedule = leg.getCalculationPeriodSchedule().getSchedule();
-        }
-
-        int monthsInterval = parseSchedule(schedule);
-        List<LocalDate> paymentDates = calculatePaymentDates(startDate, maturityDate, monthsInterval);
-
-        for (LocalDate paymentDate : paymentDates) {
-            Cashflow cashflow = new Cashflow();
-            cashflow.setTradeLeg(leg); // Fixed field name
-            cashflow.setValueDate(paymentDate);
-            cashflow.setRate(leg.getRate());
-
-            // Calculate value based on leg type
-            BigDecimal cashflowValue = calculateCashflowValue(leg, monthsInterval);
-            cashflow.setPaymentValue(cashflowValue);
-
-            cashflow.setPayRec(leg.getPayReceiveFlag());
-            cashflow.setPaymentBusinessDayConvention(leg.getPaymentBusinessDayConvention());
-            cashflow.setCreatedDate(LocalDateTime.now());
-            cashflow.setActive(true);
-
-            cashflowRepository.save(cashflow);
-        }
-
-        logger.info("Generated {} cashflows for leg {}", paymentDates.size(), leg.getLegId());
-    }
-
-    private int parseSchedule(String schedule) {
-        if (schedule == null || schedule.trim().isEmpty()) {
-            return 3; // Default to quarterly
-        }
-        schedule = schedule.trim();
-
-        // Handle common schedule names
-        switch (schedule.toLowerCase()) {
-            case "monthly":
-                return 1;
-            case "quarterly":
-                return 3;
-            case "semi-annually":
-            case "semiannually":
-            case "half-yearly":
-                return 6;
-            case "annually":
-            case "yearly":
-                return 12;
-            default:
-                // Parse "1M", "3M", "12M" format
-                if (schedule.endsWith("M") || schedule.endsWith("m")) {
-                    try {
-                        return Integer.parseInt(schedule.substring(0, schedule.length() - 1));
-                    } catch (NumberFormatException e) {
-                        throw new RuntimeException("Invalid schedule format: " + schedule);
-                    }
-                }
-                throw new RuntimeException("Invalid schedule format: " + schedule + ". Supported formats: Monthly, Quarterly, Semi-annually, Annually, or 1M, 3M, 6M, 12M");
-        }
-    }
-
-    private List<LocalDate> calculatePaymentDates(LocalDate startDate, LocalDate maturityDate, int monthsInterval) {
-        List<LocalDate> dates = new ArrayList<>();
-        LocalDate currentDate = startDate.plusMonths(monthsInterval);
-
-        while (!currentDate.isAfter(maturityDate)) {
-            dates.add(currentDate);
-            currentDate = currentDate.plusMonths(monthsInterval);
+    public void attachTradeLegsWithCashflows(TradeDTO tradeDTO, Trade trade) {
+        List<TradeLeg> legs = new ArrayList<>();
+        for (TradeLegDTO legDTO : tradeDTO.getTradeLegs()) {
+            TradeLeg tradeLeg = buildTradeLeg(legDTO, trade);
+            List<Cashflow> cashflows = new ArrayList<>();
+            if (tradeDTO.getTradeStartDate() != null && tradeDTO.getTradeMaturityDate() != null) {
+                cashflows = cashflowGenerator.generate(tradeLeg, tradeDTO.getTradeStartDate(), tradeDTO.getTradeMaturityDate());
+            }
+            tradeLeg.setCashflows(cashflows);
+            tradeLeg.setCashflowStatus(CashflowGenerationPipeline.DONE);
+            legs.add(tradeLeg);
         }
-        return dates;
+        trade.setTradeLegs(legs);
     }
 
-    private BigDecimal calculateCashflowValue(TradeLeg leg, int monthsInterval) {
-        if (leg.getLegRateType() == null) {
-            return BigDecimal.ZERO;
-        }
-
-        String legType = leg.getLegRateType().getType();
-
-        if ("Fixed".equals(legType)) {
-            double notional = leg.getNotional().doubleValue();
-            double rate = leg.getRate();
-            double months = monthsInterval;
-
-            double result = (notional * rate * months) / 12;
-
-            return BigDecimal.valueOf(result);
-        } else if ("Floating".equals(legType)) {
-            return BigDecimal.ZERO;
-        }
-
-        return BigDecimal.ZERO;
+    private TradeLeg buildTradeLeg(TradeLegDTO legDTO, Trade trade) {
+        TradeLeg tradeLeg = new TradeLeg();
+        tradeLeg.setTrade(trade);
+        tradeLeg.setNotional(legDTO.getNotional());
+        tradeLeg.setRate(legDTO.getRate());
+        tradeLeg.setActive(true);
+        tradeLeg.setCreatedDate(LocalDateTime.now());
+
+        // Populate reference data for leg
+        populateLegReferenceData(tradeLeg, legDTO);
+        return tradeLeg;
     }
 
-    // NEW METHOD: Generate the next trade ID (sequential)
-    private Long generateNextTradeId() {
-        // For simplicity, using a static variable. In real scenario, this should be atomic and thread-safe.
-        return 10000L + tradeRepository.count();
+    private void populateLegReferenceData(TradeLeg leg, TradeLegDTO legDTO) {
+        ReferenceDataSnapshot referenceData = referenceDataResolver.current();
+
+        referenceData.getCurrencies().resolve(legDTO.getCurrency(), legDTO.getCurrencyId())
+                .ifPresent(leg::setCurrency);
+        referenceData.getLegTypes().resolve(legDTO.getLegType(), legDTO.getLegTypeId())
+                .ifPresent(leg::setLegRateType);
+        referenceData.getIndices().resolve(legDTO.getIndexName(), legDTO.getIndexId())
+                .ifPresent(leg::setIndex);
+        referenceData.getHolidayCalendars().resolve(legDTO.getHolidayCalendar(), legDTO.getHolidayCalendarId())
+                .ifPresent(leg::setHolidayCalendar);
+        referenceData.getSchedules().resolve(legDTO.getCalculationPeriodSchedule(), legDTO.getScheduleId())
+                .ifPresent(leg::setCalculationPeriodSchedule);
+        referenceData.getBusinessDayConventions().resolve(legDTO.getPaymentBusinessDayConvention(), legDTO.getPaymentBdcId())
+                .ifPresent(leg::setPaymentBusinessDayConvention);
+        referenceData.getBusinessDayConventions().resolve(legDTO.getFixingBusinessDayConvention(), legDTO.getFixingBdcId())
+                .ifPresent(leg::setFixingBusinessDayConvention);
+        referenceData.getPayRecs().resolve(legDTO.getPayReceiveFlag(), legDTO.getPayRecId())
+                .ifPresent(leg::setPayReceiveFlag);
     }
 }
@@ -18,6 +18,9 @@ public class TradeStatusService {
     @Autowired
     private TradeStatusRepository tradeStatusRepository;
 
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
+
     public List<TradeStatus> findAll() {
         logger.info("Retrieving all trade statuses");
         return tradeStatusRepository.findAll();
@@ -30,11 +33,14 @@ public class TradeStatusService {
 
     public TradeStatus save(TradeStatus tradeStatus) {
         logger.info("Saving trade status: {}", tradeStatus);
-        return tradeStatusRepository.save(tradeStatus);
+        TradeStatus saved = tradeStatusRepository.save(tradeStatus);
+        referenceDataResolver.refresh();
+        return saved;
     }
 
     public void deleteById(Long id) {
         logger.warn("Deleting trade status with id: {}", id);
         tradeStatusRepository.deleteById(id);
+        referenceDataResolver.refresh();
     }
 }
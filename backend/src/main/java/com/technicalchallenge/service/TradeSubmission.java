@@ -0,0 +1,17 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.dto.TradeDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of an idempotent trade submission: the booked trade, and whether it was booked
+ * by an earlier submission with the same key rather than by this one.
+ */
+@Getter
+@AllArgsConstructor
+public class TradeSubmission {
+    private final TradeDTO trade;
+    private final boolean replayed;
+}
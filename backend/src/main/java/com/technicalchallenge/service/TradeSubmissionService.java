@@ -0,0 +1,198 @@
+package com.technicalchallenge.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.mapper.TradeMapper;
+import com.technicalchallenge.model.TradeSubmissionKey;
+import com.technicalchallenge.repository.TradeRepository;
+import com.technicalchallenge.repository.TradeSubmissionKeyRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Makes trade submission safe to retry. A submission is identified by the client's
+ * Idempotency-Key header, scoped to the submitting user, or failing that by the trade's
+ * UTI. The first submission for a key books the trade and records the key in the same
+ * transaction; any later one gets the originally booked trade back without validating
+ * or persisting anything.
+ *
+ * Recent keys are answered from a bounded in-memory cache and older ones from the
+ * trade_submission_key table, from which keys past {@code trade.idempotency.ttl-hours}
+ * are purged every {@code trade.idempotency.purge-interval-ms}. Concurrent duplicates on this node wait for the first
+ * submission to finish; duplicates racing on another node are stopped by the key's
+ * primary key, which rolls the second booking back and answers it with the first.
+ */
+@Service
+public class TradeSubmissionService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeSubmissionService.class);
+
+    @Autowired
+    private TradeSubmissionKeyRepository tradeSubmissionKeyRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeMapper tradeMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${trade.idempotency.cache-size:10000}")
+    private int cacheSize = 10000;
+
+    @Value("${trade.idempotency.ttl-hours:24}")
+    private long ttlHours = 24;
+
+    private ExpiringCache<String, TradeDTO> recentSubmissions;
+    private final ConcurrentHashMap<String, CompletableFuture<TradeDTO>> inFlight = new ConcurrentHashMap<>();
+    private Counter replayedCounter;
+
+    @PostConstruct
+    void init() {
+        recentSubmissions = new ExpiringCache<>(cacheSize, Duration.ofHours(ttlHours));
+        replayedCounter = Counter.builder("trade.submission.replayed")
+                .description("Duplicate trade submissions answered with the original trade")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The key identifying a submission, or null when the request carries neither an
+     * Idempotency-Key header nor a UTI and so cannot be deduplicated.
+     */
+    public String submissionKey(String userId, String idempotencyKey, TradeDTO tradeDTO) {
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            return "key:" + userId + ":" + idempotencyKey.trim();
+        }
+        if (tradeDTO.getUtiCode() != null && !tradeDTO.getUtiCode().isBlank()) {
+            return "uti:" + tradeDTO.getUtiCode().trim();
+        }
+        return null;
+    }
+
+    /**
+     * Books the trade through {@code booking} unless a submission with the same key has
+     * already booked one, in which case that trade is returned instead.
+     */
+    public TradeSubmission submit(String key, Supplier<TradeDTO> booking) {
+        TradeDTO recent = recentSubmissions.get(key);
+        if (recent != null) {
+            return replay(key, recent);
+        }
+
+        CompletableFuture<TradeDTO> claim = new CompletableFuture<>();
+        CompletableFuture<TradeDTO> running = inFlight.putIfAbsent(key, claim);
+        if (running != null) {
+            // Same key is being booked by another request on this node
+            try {
+                return replay(key, running.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            TradeSubmission submission = book(key, booking);
+            recentSubmissions.put(key, submission.getTrade());
+            claim.complete(submission.getTrade());
+            if (submission.isReplayed()) {
+                replayedCounter.increment();
+            }
+            return submission;
+        } catch (RuntimeException e) {
+            claim.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, claim);
+        }
+    }
+
+    private TradeSubmission book(String key, Supplier<TradeDTO> booking) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            return transactionTemplate.execute(status -> bookOnce(key, booking));
+        } catch (DataIntegrityViolationException | ObjectOptimisticLockingFailureException e) {
+            // Another node recorded the key first, and its booking stands instead of this one
+            Optional<TradeDTO> original = transactionTemplate.execute(status -> findOriginal(key));
+            if (original == null || original.isEmpty()) {
+                throw e;
+            }
+            logger.info("Submission {} was booked on another node as trade {}", key, original.get().getTradeId());
+            return new TradeSubmission(original.get(), true);
+        }
+    }
+
+    private TradeSubmission bookOnce(String key, Supplier<TradeDTO> booking) {
+        Optional<TradeSubmissionKey> stored = tradeSubmissionKeyRepository.findById(key);
+        Optional<TradeDTO> original = stored.flatMap(this::originalTrade);
+        if (original.isPresent()) {
+            logger.info("Submission {} already booked trade {}", key, original.get().getTradeId());
+            return new TradeSubmission(original.get(), true);
+        }
+
+        TradeDTO booked = booking.get();
+        // An expired key is removed so the key can be reused once its TTL has passed
+        stored.ifPresent(expired -> {
+            tradeSubmissionKeyRepository.delete(expired);
+            tradeSubmissionKeyRepository.flush();
+        });
+        // Inserted and flushed here, so a key recorded meanwhile fails this booking
+        tradeSubmissionKeyRepository.saveAndFlush(new TradeSubmissionKey(key, booked.getId(), booked.getTradeId(), LocalDateTime.now()));
+        return new TradeSubmission(booked, false);
+    }
+
+    private Optional<TradeDTO> findOriginal(String key) {
+        return tradeSubmissionKeyRepository.findById(key).flatMap(this::originalTrade);
+    }
+
+    private Optional<TradeDTO> originalTrade(TradeSubmissionKey stored) {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(ttlHours);
+        return Optional.of(stored)
+                .filter(key -> key.getCreatedDate().isAfter(cutoff))
+                .flatMap(key -> tradeRepository.findById(key.getTradeRowId()))
+                .map(tradeMapper::toDto);
+    }
+
+    /**
+     * Deletes the stored keys older than the TTL, which no submission is answered from any
+     * more. Returns the number of keys deleted.
+     */
+    @Scheduled(fixedDelayString = "${trade.idempotency.purge-interval-ms:3600000}",
+               initialDelayString = "${trade.idempotency.purge-interval-ms:3600000}")
+    public int purgeExpiredKeys() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(ttlHours);
+        Integer purged = new TransactionTemplate(transactionManager).execute(status ->
+                tradeSubmissionKeyRepository.deleteRecordedBefore(cutoff));
+        logger.info("Purged {} submission keys recorded before {}", purged, cutoff);
+        return purged == null ? 0 : purged;
+    }
+
+    private TradeSubmission replay(String key, TradeDTO original) {
+        logger.info("Submission {} already booked trade {}", key, original.getTradeId());
+        replayedCounter.increment();
+        return new TradeSubmission(original, true);
+    }
+}
@@ -0,0 +1,101 @@
+package com.technicalchallenge.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.technicalchallenge.dto.TradeBlotterSummaryDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Computes a trader's summary with GROUP BY queries over their active trades and legs,
+ * the same figures {@link TradeBlotterIndex#summariseTrader} keeps in memory. Legs are
+ * signed in SQL: receive legs add to the exposure and all others, including legs without
+ * a direction, subtract. Only grouped totals leave the database, so no trade or leg
+ * entity is loaded. Used while the blotter index has not finished loading.
+ */
+@Component
+public class TradeSummaryQueries {
+
+    private static final String TRADER_TRADES = " WHERE t.active = true AND t.traderUser.id = :traderId";
+
+    private static final String TOTALS = "SELECT COUNT(DISTINCT t.id), SUM(l.notional)"
+            + " FROM Trade t LEFT JOIN t.tradeLegs l" + TRADER_TRADES;
+
+    private static final String BY_STATUS = "SELECT s.tradeStatus, COUNT(t)"
+            + " FROM Trade t JOIN t.tradeStatus s" + TRADER_TRADES + " GROUP BY s.tradeStatus";
+
+    private static final String BY_TYPE = "SELECT ty.tradeType, COUNT(t)"
+            + " FROM Trade t JOIN t.tradeType ty" + TRADER_TRADES + " GROUP BY ty.tradeType";
+
+    private static final String BY_COUNTERPARTY = "SELECT cp.name, COUNT(t)"
+            + " FROM Trade t JOIN t.counterparty cp" + TRADER_TRADES + " GROUP BY cp.name";
+
+    private static final String BY_BOOK = "SELECT b.bookName, COUNT(DISTINCT t.id), SUM(l.notional),"
+            + " SUM(CASE WHEN UPPER(p.payRec) = 'RECEIVE' THEN l.notional ELSE -l.notional END)"
+            + " FROM Trade t JOIN t.book b LEFT JOIN t.tradeLegs l LEFT JOIN l.payReceiveFlag p"
+            + TRADER_TRADES + " GROUP BY b.bookName";
+
+    private static final String BY_CURRENCY = "SELECT UPPER(c.currency), SUM(l.notional)"
+            + " FROM TradeLeg l JOIN l.trade t JOIN l.currency c" + TRADER_TRADES + " AND l.notional <> 0"
+            + " GROUP BY UPPER(c.currency)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public TradeBlotterSummaryDTO summariseTrader(Long traderId) {
+        Object[] totals = query(TOTALS, traderId).get(0);
+
+        TradeBlotterSummaryDTO summary = new TradeBlotterSummaryDTO();
+        summary.setTradeCount((Long) totals[0]);
+        summary.setTotalNotional(amount(totals[1]));
+        summary.setTradeCountByStatus(counts(query(BY_STATUS, traderId)));
+        summary.setTradeCountByTradeType(counts(query(BY_TYPE, traderId)));
+        summary.setTradeCountByCounterparty(counts(query(BY_COUNTERPARTY, traderId)));
+
+        Map<String, Long> tradeCountByBook = new LinkedHashMap<>();
+        Map<String, BigDecimal> notionalByBook = new LinkedHashMap<>();
+        Map<String, BigDecimal> riskExposureByBook = new LinkedHashMap<>();
+        for (Object[] book : query(BY_BOOK, traderId)) {
+            String bookName = (String) book[0];
+            tradeCountByBook.put(bookName, (Long) book[1]);
+            notionalByBook.put(bookName, amount(book[2]));
+            riskExposureByBook.put(bookName, amount(book[3]));
+        }
+        summary.setTradeCountByBook(tradeCountByBook);
+        summary.setNotionalByBook(notionalByBook);
+        summary.setRiskExposureByBook(riskExposureByBook);
+
+        Map<String, BigDecimal> notionalByCurrency = new LinkedHashMap<>();
+        for (Object[] currency : query(BY_CURRENCY, traderId)) {
+            notionalByCurrency.put((String) currency[0], amount(currency[1]));
+        }
+        summary.setNotionalByCurrency(notionalByCurrency);
+        return summary;
+    }
+
+    private List<Object[]> query(String jpql, Long traderId) {
+        return entityManager.createQuery(jpql, Object[].class)
+                .setParameter("traderId", traderId)
+                .getResultList();
+    }
+
+    private static Map<String, Long> counts(List<Object[]> rows) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        rows.forEach(row -> counts.put((String) row[0], (Long) row[1]));
+        return counts;
+    }
+
+    // Sums of no legs are null; amounts are reported to the cent, as the index holds them
+    private static BigDecimal amount(Object sum) {
+        return sum == null ? new BigDecimal("0.00") : ((BigDecimal) sum).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,176 @@
+package com.technicalchallenge.service;
+
+import java.time.LocalTime;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.DailySummary;
+import com.technicalchallenge.model.TradeSummary;
+import com.technicalchallenge.repository.ApplicationUserRepository;
+import com.technicalchallenge.repository.DailySummaryRepository;
+import com.technicalchallenge.repository.TradeSummaryRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Saves the summary snapshots the dashboard history is read from, so that dashboard reads
+ * never write. Every {@code trade.summary.snapshot.intraday-interval-ms} each active trader
+ * with trades gets a trade summary stamped with the start of the current period. At
+ * {@code trade.summary.snapshot.end-of-day-cron} every active trader, with trades or not,
+ * also gets a daily summary, which is added to the trader's rolling window statistics.
+ *
+ * Snapshots coalesce to one row per trader per period: a second run in the same period,
+ * after a restart or a late end of day, updates that period's row instead of adding one.
+ * An intraday run that finds another snapshot still running is skipped, as the running one
+ * covers the same period; the end of day run waits for it instead.
+ */
+@Service
+public class TradeSummarySnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(TradeSummarySnapshotService.class);
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    @Autowired
+    private TradeDashboardService tradeDashboardService;
+
+    @Autowired
+    private ApplicationUserRepository applicationUserRepository;
+
+    @Autowired
+    private TradeSummaryRepository tradeSummaryRepository;
+
+    @Autowired
+    private DailySummaryRepository dailySummaryRepository;
+
+    @Autowired
+    private TraderDailyStatistics traderDailyStatistics;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${trade.summary.snapshot.intraday-interval-ms:3600000}")
+    private long intradayIntervalMs = 3_600_000;
+
+    private final ReentrantLock running = new ReentrantLock();
+    private Counter intradaySnapshots;
+    private Counter endOfDaySnapshots;
+    private Counter failedSnapshots;
+
+    @PostConstruct
+    void init() {
+        intradaySnapshots = Counter.builder("trade.summary.snapshots")
+                .description("Trader summary snapshots saved")
+                .tag("kind", "intraday")
+                .register(meterRegistry);
+        endOfDaySnapshots = Counter.builder("trade.summary.snapshots")
+                .description("Trader summary snapshots saved")
+                .tag("kind", "end-of-day")
+                .register(meterRegistry);
+        failedSnapshots = Counter.builder("trade.summary.snapshot.failures")
+                .description("Trader summary snapshots that could not be saved")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Saves each trader's trade summary for the current period. Returns the number of
+     * traders snapshotted, or 0 when skipped because a snapshot is already running.
+     */
+    @Scheduled(fixedRateString = "${trade.summary.snapshot.intraday-interval-ms:3600000}",
+               initialDelayString = "${trade.summary.snapshot.intraday-interval-ms:3600000}")
+    public int snapshotIntraday() {
+        if (!running.tryLock()) {
+            logger.info("Summary snapshot already running, skipping this intraday snapshot");
+            return 0;
+        }
+        try {
+            return snapshot(false);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    /**
+     * Saves each trader's trade summary for the current period and their daily summary
+     * for today. Returns the number of traders snapshotted.
+     */
+    @Scheduled(cron = "${trade.summary.snapshot.end-of-day-cron:0 55 23 * * *}")
+    public int snapshotEndOfDay() {
+        running.lock();
+        try {
+            return snapshot(true);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private int snapshot(boolean endOfDay) {
+        long start = System.currentTimeMillis();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int snapshotted = 0;
+        for (ApplicationUser trader : applicationUserRepository.findByActiveTrue()) {
+            try {
+                // Each trader in their own transaction, so one failure does not lose the others
+                Boolean saved = transactionTemplate.execute(status -> {
+                    boolean tradeSummarySaved = saveTradeSummary(trader);
+                    // Every trader gets a daily summary, so a day without trades still counts as a day
+                    boolean dailySummarySaved = endOfDay && saveDailySummary(trader);
+                    return tradeSummarySaved || dailySummarySaved;
+                });
+                if (Boolean.TRUE.equals(saved)) {
+                    snapshotted++;
+                }
+            } catch (RuntimeException e) {
+                failedSnapshots.increment();
+                logger.error("Could not save summary snapshot for trader '{}'", trader.getLoginId(), e);
+            }
+        }
+        (endOfDay ? endOfDaySnapshots : intradaySnapshots).increment(snapshotted);
+        logger.info("Saved {} summary snapshots for {} traders in {} ms", endOfDay ? "end of day" : "intraday",
+                snapshotted, System.currentTimeMillis() - start);
+        return snapshotted;
+    }
+
+    // Traders without trades get an empty summary, which is not kept
+    private boolean saveTradeSummary(ApplicationUser trader) {
+        TradeSummary summary = tradeDashboardService.buildTradeSummary(trader);
+        if (summary.getTradeCountByStatus() == null) {
+            return false;
+        }
+        summary.setSummaryTimeStamp(periodStart(summary.getSummaryTimeStamp()));
+        tradeSummaryRepository.findByTraderUser_IdAndSummaryDateStampAndSummaryTimeStamp(trader.getId(),
+                        summary.getSummaryDateStamp(), summary.getSummaryTimeStamp())
+                .ifPresent(existing -> summary.setId(existing.getId()));
+        tradeSummaryRepository.save(summary);
+        return true;
+    }
+
+    private boolean saveDailySummary(ApplicationUser trader) {
+        DailySummary summary = tradeDashboardService.buildDailySummary(trader);
+        dailySummaryRepository.findByTraderUser_IdAndSummaryDate(trader.getId(), summary.getSummaryDate())
+                .ifPresent(existing -> summary.setId(existing.getId()));
+        dailySummaryRepository.save(summary);
+        // Moves the trader's rolling window statistics on to today
+        traderDailyStatistics.record(summary);
+        return true;
+    }
+
+    // Periods are counted from midnight, so the same times recur every day
+    LocalTime periodStart(LocalTime time) {
+        long periodSeconds = Math.max(1, Math.min(intradayIntervalMs / 1000, SECONDS_PER_DAY));
+        return LocalTime.ofSecondOfDay(time.toSecondOfDay() / periodSeconds * periodSeconds);
+    }
+}
@@ -18,6 +18,9 @@ public class TradeTypeService {
     @Autowired
     private TradeTypeRepository tradeTypeRepository;
 
+    @Autowired
+    private ReferenceDataResolver referenceDataResolver;
+
     public List<TradeType> findAll() {
         logger.info("Retrieving all trade types");
         return tradeTypeRepository.findAll();
@@ -30,11 +33,14 @@ public class TradeTypeService {
 
     public TradeType save(TradeType tradeType) {
         logger.info("Saving trade type: {}", tradeType);
-        return tradeTypeRepository.save(tradeType);
+        TradeType saved = tradeTypeRepository.save(tradeType);
+        referenceDataResolver.refresh();
+        return saved;
     }
 
     public void deleteById(Long id) {
         logger.warn("Deleting trade type with id: {}", id);
         tradeTypeRepository.deleteById(id);
+        referenceDataResolver.refresh();
     }
 }
@@ -0,0 +1,246 @@
+package com.technicalchallenge.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.technicalchallenge.model.DailySummary;
+import com.technicalchallenge.repository.DailySummaryRepository;
+
+/**
+ * Rolling statistics over each trader's saved daily summaries, for windows of up to
+ * {@code trade.summary.statistics.max-window-days} days ending yesterday.
+ *
+ * Each trader has a ring buffer with one slot per calendar day holding running totals of
+ * trade count, notional and days with a summary. The totals of any window are the
+ * difference of two slots, so a window of any length costs the same. A trader's buffer is
+ * loaded with one query the first time they are asked for, then moved on by the end of day
+ * snapshot recording each summary it saves. When a day is missing, because the snapshot
+ * ran on another node or did not run, the buffer is loaded again on the next request.
+ */
+@Component
+public class TraderDailyStatistics {
+    private static final Logger logger = LoggerFactory.getLogger(TraderDailyStatistics.class);
+
+    @Autowired
+    private DailySummaryRepository dailySummaryRepository;
+
+    @Value("${trade.summary.statistics.max-window-days:365}")
+    private int maxWindowDays = 365;
+
+    private final Map<Long, History> histories = new ConcurrentHashMap<>();
+
+    public int getMaxWindowDays() {
+        return maxWindowDays;
+    }
+
+    /**
+     * Totals of the trader's daily summaries from {@code days} days before {@code today}
+     * up to yesterday. The one-day window is the previous day.
+     */
+    public Window window(Long traderId, LocalDate today, int days) {
+        if (days < 1 || days > maxWindowDays) {
+            throw new IllegalArgumentException("Window must be between 1 and " + maxWindowDays + " days: " + days);
+        }
+        long yesterday = today.toEpochDay() - 1;
+        History history = histories.get(traderId);
+        if (history == null || !history.covers(yesterday)) {
+            history = load(traderId, yesterday);
+            histories.put(traderId, history);
+        }
+        return history.window(yesterday, days);
+    }
+
+    /**
+     * Adds a saved daily summary to its trader's buffer, after the surrounding transaction
+     * commits if there is one. A summary for a day already held replaces that day.
+     */
+    public void record(DailySummary summary) {
+        Long traderId = summary.getTraderUser().getId();
+        long day = summary.getSummaryDate().toEpochDay();
+        int tradeCount = summary.getTodaysTradeCount();
+        BigDecimal notional = orZero(summary.getTodaysNotional());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(traderId, day, tradeCount, notional);
+                }
+            });
+        } else {
+            record(traderId, day, tradeCount, notional);
+        }
+    }
+
+    private void record(Long traderId, long day, int tradeCount, BigDecimal notional) {
+        History history = histories.get(traderId);
+        // Traders not asked for yet read the saved summary when they are
+        if (history != null && !history.record(day, tradeCount, notional)) {
+            histories.remove(traderId, history);
+        }
+    }
+
+    private History load(Long traderId, long through) {
+        History history = new History(maxWindowDays + 2, through);
+        LocalDate from = LocalDate.ofEpochDay(history.oldestDay());
+        List<DailySummary> summaries = dailySummaryRepository.findByTraderUser_IdAndSummaryDateBetween(
+                traderId, from, LocalDate.ofEpochDay(through));
+        Map<Long, DailySummary> byDay = new HashMap<>();
+        summaries.forEach(summary -> byDay.put(summary.getSummaryDate().toEpochDay(), summary));
+        history.fill(byDay);
+        logger.debug("Loaded {} daily summaries for trader {} from {}", summaries.size(), traderId, from);
+        return history;
+    }
+
+    private static BigDecimal orZero(BigDecimal amount) {
+        return amount == null ? BigDecimal.ZERO : amount;
+    }
+
+    /**
+     * Totals over a window of days; averages are per day with a saved summary.
+     */
+    public static final class Window {
+        private final int days;
+        private final int summaryDays;
+        private final long tradeCount;
+        private final BigDecimal notional;
+
+        Window(int days, int summaryDays, long tradeCount, BigDecimal notional) {
+            this.days = days;
+            this.summaryDays = summaryDays;
+            this.tradeCount = tradeCount;
+            this.notional = notional;
+        }
+
+        public int getDays() {
+            return days;
+        }
+
+        public int getSummaryDays() {
+            return summaryDays;
+        }
+
+        public boolean isEmpty() {
+            return summaryDays == 0;
+        }
+
+        public long getTradeCount() {
+            return tradeCount;
+        }
+
+        public BigDecimal getNotional() {
+            return notional;
+        }
+
+        public double averageTradeCount() {
+            return isEmpty() ? 0 : (double) tradeCount / summaryDays;
+        }
+
+        public BigDecimal averageNotional() {
+            return isEmpty() ? BigDecimal.ZERO : notional.divide(BigDecimal.valueOf(summaryDays), 2, RoundingMode.HALF_UP);
+        }
+    }
+
+    // Running totals by day in a ring of slots; slot (day % capacity) holds the totals of
+    // every day from the oldest held up to and including that day
+    private static final class History {
+        private final int capacity;
+        private final int[] summaryDays;
+        private final long[] tradeCounts;
+        private final BigDecimal[] notionals;
+        private long through;
+
+        History(int capacity, long through) {
+            this.capacity = capacity;
+            this.summaryDays = new int[capacity];
+            this.tradeCounts = new long[capacity];
+            this.notionals = new BigDecimal[capacity];
+            this.through = through;
+        }
+
+        long oldestDay() {
+            return through - capacity + 1;
+        }
+
+        // Windows end at the given day and reach back as far as the longest window
+        synchronized boolean covers(long day) {
+            return day <= through && day >= through - 1;
+        }
+
+        synchronized void fill(Map<Long, DailySummary> byDay) {
+            int days = 0;
+            long count = 0;
+            BigDecimal notional = BigDecimal.ZERO;
+            for (long day = oldestDay(); day <= through; day++) {
+                DailySummary summary = byDay.get(day);
+                if (summary != null) {
+                    days++;
+                    count += summary.getTodaysTradeCount();
+                    notional = notional.add(orZero(summary.getTodaysNotional()));
+                }
+                set(day, days, count, notional);
+            }
+        }
+
+        synchronized Window window(long lastDay, int days) {
+            int slot = slot(lastDay);
+            int before = slot(lastDay - days);
+            return new Window(days,
+                    summaryDays[slot] - summaryDays[before],
+                    tradeCounts[slot] - tradeCounts[before],
+                    notionals[slot].subtract(notionals[before]));
+        }
+
+        /**
+         * Moves the buffer on to the day, or replaces a day it holds. Returns false when the
+         * buffer can no longer be kept current and has to be loaded again.
+         */
+        synchronized boolean record(long day, int tradeCount, BigDecimal notional) {
+            if (day == through + 1) {
+                int last = slot(through);
+                through = day;
+                set(day, summaryDays[last] + 1, tradeCounts[last] + tradeCount, notionals[last].add(notional));
+                return true;
+            }
+            if (day > through || day <= oldestDay()) {
+                return false;
+            }
+            // A day already held: shift it and every later day by the difference
+            int slot = slot(day);
+            int previous = slot(day - 1);
+            int daysChange = 1 - (summaryDays[slot] - summaryDays[previous]);
+            long countChange = tradeCount - (tradeCounts[slot] - tradeCounts[previous]);
+            BigDecimal notionalChange = notional.subtract(notionals[slot].subtract(notionals[previous]));
+            for (long later = day; later <= through; later++) {
+                int laterSlot = slot(later);
+                summaryDays[laterSlot] += daysChange;
+                tradeCounts[laterSlot] += countChange;
+                notionals[laterSlot] = notionals[laterSlot].add(notionalChange);
+            }
+            return true;
+        }
+
+        private void set(long day, int days, long count, BigDecimal notional) {
+            int slot = slot(day);
+            summaryDays[slot] = days;
+            tradeCounts[slot] = count;
+            notionals[slot] = notional;
+        }
+
+        private int slot(long day) {
+            return (int) Math.floorMod(day, (long) capacity);
+        }
+    }
+}
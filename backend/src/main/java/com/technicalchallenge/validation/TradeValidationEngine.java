@@ -0,0 +1,197 @@
+package com.technicalchallenge.validation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.model.FieldValidationError;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.ValidationResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Runs trade validation rules as a pipeline compiled once at startup. Rules are ordered
+ * by stage and then by cost, so cheap checks on the submitted DTO run first and a
+ * malformed trade can be rejected before any database or reference data work is done.
+ *
+ * With {@code trade.validation.fail-fast} set, evaluation stops at the first rule that
+ * reports an error. Every rule has a timer and a failure counter tagged with its name.
+ */
+@Component
+public class TradeValidationEngine {
+    private static final Logger logger = LoggerFactory.getLogger(TradeValidationEngine.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Extra rules contributed as beans, run alongside the built-in ones
+    @Autowired(required = false)
+    private List<TradeValidationRule> customRules = List.of();
+
+    @Value("${trade.validation.fail-fast:false}")
+    private boolean failFast;
+
+    private CompiledRule[] structureRules;
+    private CompiledRule[] referenceDataRules;
+    // Structure rules split by group, in pipeline order, for evaluating batches
+    private List<CompiledRule[]> structureGroups;
+
+    @PostConstruct
+    void init() {
+        List<TradeValidationRule> rules = new ArrayList<>(TradeValidationRules.defaults());
+        rules.addAll(customRules);
+        structureRules = compile(rules, ValidationStage.STRUCTURE);
+        referenceDataRules = compile(rules, ValidationStage.REFERENCE_DATA);
+
+        Map<String, List<CompiledRule>> groups = new LinkedHashMap<>();
+        for (CompiledRule rule : structureRules) {
+            groups.computeIfAbsent(rule.rule.getGroup(), group -> new ArrayList<>()).add(rule);
+        }
+        structureGroups = groups.values().stream().map(group -> group.toArray(new CompiledRule[0])).toList();
+
+        logger.info("Compiled {} structure and {} reference data validation rules (fail fast: {})",
+                structureRules.length, referenceDataRules.length, failFast);
+    }
+
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    /**
+     * Runs the rules that only need the submitted DTO.
+     */
+    public ValidationResult validateStructure(TradeDTO tradeDTO) {
+        ValidationResult result = new ValidationResult();
+        run(structureRules, tradeDTO, null, result);
+        return result;
+    }
+
+    /**
+     * Runs the structure rules for every trade in a batch. Each rule group works through
+     * the whole batch in parallel with the other groups; the results are then merged per
+     * trade in pipeline order, so they match what {@link #validateStructure(TradeDTO)} gives.
+     */
+    public List<ValidationResult> validateStructure(List<TradeDTO> tradeDTOs) {
+        if (tradeDTOs.size() < 2 || structureGroups.size() < 2) {
+            return tradeDTOs.stream().map(this::validateStructure).toList();
+        }
+
+        List<ValidationResult[]> groupResults = structureGroups.parallelStream().map(group -> {
+            ValidationResult[] results = new ValidationResult[tradeDTOs.size()];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = new ValidationResult();
+                run(group, tradeDTOs.get(i), null, results[i]);
+            }
+            return results;
+        }).toList();
+
+        List<ValidationResult> merged = new ArrayList<>(tradeDTOs.size());
+        for (int i = 0; i < tradeDTOs.size(); i++) {
+            ValidationResult result = new ValidationResult();
+            for (ValidationResult[] results : groupResults) {
+                addAll(result, results[i]);
+                if (failFast && !result.isValid()) {
+                    break;
+                }
+            }
+            merged.add(result);
+        }
+        return merged;
+    }
+
+    /**
+     * Runs the rules that need the trade's reference data resolved.
+     */
+    public ValidationResult validateReferenceData(TradeDTO tradeDTO, Trade trade) {
+        ValidationResult result = new ValidationResult();
+        run(referenceDataRules, tradeDTO, trade, result);
+        return result;
+    }
+
+    /**
+     * Runs both stages; in fail fast mode the reference data stage is skipped once the
+     * structure stage has failed.
+     */
+    public ValidationResult validate(TradeDTO tradeDTO, Trade trade) {
+        ValidationResult result = validateStructure(tradeDTO);
+        if (!failFast || result.isValid()) {
+            run(referenceDataRules, tradeDTO, trade, result);
+        }
+        return result;
+    }
+
+    private void run(CompiledRule[] rules, TradeDTO tradeDTO, Trade trade, ValidationResult result) {
+        for (CompiledRule rule : rules) {
+            int errorsBefore = result.getValidationErrors().size();
+            long start = System.nanoTime();
+            rule.rule.validate(tradeDTO, trade, result);
+            rule.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            if (addedError(result, errorsBefore)) {
+                rule.failures.increment();
+                if (failFast) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean addedError(ValidationResult result, int errorsBefore) {
+        List<FieldValidationError> errors = result.getValidationErrors();
+        for (int i = errorsBefore; i < errors.size(); i++) {
+            if ("ERROR".equalsIgnoreCase(errors.get(i).getSeverity())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addAll(ValidationResult target, ValidationResult source) {
+        for (FieldValidationError error : source.getValidationErrors()) {
+            target.addError(error.getFieldName(), error.getErrorMessage(), error.getSeverity());
+        }
+    }
+
+    private CompiledRule[] compile(List<TradeValidationRule> rules, ValidationStage stage) {
+        // Stable sort, so rules of equal cost keep their registration order
+        return rules.stream()
+                .filter(rule -> rule.getStage() == stage)
+                .sorted(Comparator.comparingInt(TradeValidationRule::getCost))
+                .map(rule -> new CompiledRule(rule,
+                        Timer.builder("trade.validation.rule.duration")
+                                .description("Time taken to evaluate a trade validation rule")
+                                .tag("rule", rule.getName())
+                                .register(meterRegistry),
+                        Counter.builder("trade.validation.rule.failures")
+                                .description("Trades rejected by a validation rule")
+                                .tag("rule", rule.getName())
+                                .register(meterRegistry)))
+                .toArray(CompiledRule[]::new);
+    }
+
+    private static final class CompiledRule {
+        private final TradeValidationRule rule;
+        private final Timer timer;
+        private final Counter failures;
+
+        private CompiledRule(TradeValidationRule rule, Timer timer, Counter failures) {
+            this.rule = rule;
+            this.timer = timer;
+            this.failures = failures;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.technicalchallenge.validation;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.ValidationResult;
+
+/**
+ * A single check applied to trades by {@link TradeValidationEngine}. Beans implementing
+ * this interface are picked up alongside the built-in rules in {@link TradeValidationRules}.
+ */
+public interface TradeValidationRule {
+
+    // Used as the metric tag, so keep it short and stable
+    String getName();
+
+    // Rules in different groups do not depend on each other and may run concurrently
+    String getGroup();
+
+    ValidationStage getStage();
+
+    // Relative cost; cheaper rules run first within a stage
+    int getCost();
+
+    /**
+     * Adds any errors to {@code result}. The trade is null for STRUCTURE rules.
+     */
+    void validate(TradeDTO tradeDTO, Trade trade, ValidationResult result);
+}
@@ -0,0 +1,66 @@
+package com.technicalchallenge.validation;
+
+import java.util.List;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.ValidationResult;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The built-in trade validation rules, each wrapping one of the checks in {@link Validation}.
+ */
+public final class TradeValidationRules {
+
+    public static final String TRADE_GROUP = "trade";
+    public static final String LEG_GROUP = "legs";
+    public static final String REFERENCE_DATA_GROUP = "reference-data";
+
+    private TradeValidationRules() {
+    }
+
+    public static List<TradeValidationRule> defaults() {
+        return List.of(
+                new Rule("trade-dates", TRADE_GROUP, ValidationStage.STRUCTURE, 1,
+                        (tradeDTO, trade, result) -> Validation.validateTradeDates(tradeDTO, result)),
+                new Rule("leg-pairing", LEG_GROUP, ValidationStage.STRUCTURE, 1,
+                        (tradeDTO, trade, result) -> Validation.validateLegPairing(tradeDTO.getTradeLegs(), result)),
+                // Only meaningful once there are exactly two legs; leg-pairing reports otherwise
+                new Rule("leg-fields", LEG_GROUP, ValidationStage.STRUCTURE, 2, (tradeDTO, trade, result) -> {
+                    List<?> legs = tradeDTO.getTradeLegs();
+                    if (legs != null && legs.size() == 2) {
+                        Validation.validateLegFields(tradeDTO.getTradeLegs(), result);
+                    }
+                }),
+                new Rule("book", REFERENCE_DATA_GROUP, ValidationStage.REFERENCE_DATA, 2,
+                        (tradeDTO, trade, result) -> Validation.validateBook(trade, result)),
+                new Rule("counterparty", REFERENCE_DATA_GROUP, ValidationStage.REFERENCE_DATA, 1,
+                        (tradeDTO, trade, result) -> Validation.validateCounterparty(trade, result)),
+                new Rule("trader-user", REFERENCE_DATA_GROUP, ValidationStage.REFERENCE_DATA, 1,
+                        (tradeDTO, trade, result) -> Validation.validateTraderUser(trade, result)),
+                new Rule("trade-classification", REFERENCE_DATA_GROUP, ValidationStage.REFERENCE_DATA, 1,
+                        (tradeDTO, trade, result) -> Validation.validateTradeClassification(trade, result)));
+    }
+
+    @FunctionalInterface
+    interface Check {
+        void validate(TradeDTO tradeDTO, Trade trade, ValidationResult result);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Rule implements TradeValidationRule {
+        private final String name;
+        private final String group;
+        private final ValidationStage stage;
+        private final int cost;
+        private final Check check;
+
+        @Override
+        public void validate(TradeDTO tradeDTO, Trade trade, ValidationResult result) {
+            check.validate(tradeDTO, trade, result);
+        }
+    }
+}
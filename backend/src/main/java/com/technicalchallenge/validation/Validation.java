@@ -2,13 +2,18 @@ package com.technicalchallenge.validation;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.ToLongFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
 import com.technicalchallenge.model.CostCenter;
 import com.technicalchallenge.model.Desk;
 import com.technicalchallenge.model.SubDesk;
@@ -24,24 +29,30 @@ public class Validation {
 
     private static final Logger logger = LoggerFactory.getLogger(TradeService.class);
     
-    public static void validateSearchParameters(LocalDate earliestTradeDate, LocalDate latestTradeDate, Long tradeStatusId, Long traderId, Long bookId, Long counterpartyId,
+    public static void validateSearchCriteria(TradeSearchCriteria criteria,
                     TradeStatusRepository tradeStatusRepository, ApplicationUserRepository applicationUserRepository, BookRepository bookRepository, CounterpartyRepository counterpartyRepository) {
         logger.info("Validating search parameters");
 
         String errorMessage = "";
-        if (latestTradeDate != null && earliestTradeDate != null && latestTradeDate.isBefore(earliestTradeDate)) {
+        if (isBefore(criteria.getLatestTradeDate(), criteria.getEarliestTradeDate())) {
             errorMessage += "\n Earliest date must be before latest date";
         }
-        if (tradeStatusId != null && !tradeStatusRepository.existsById(tradeStatusId)) {
+        if (isBefore(criteria.getLatestMaturityDate(), criteria.getEarliestMaturityDate())) {
+            errorMessage += "\n Earliest maturity date must be before latest maturity date";
+        }
+        if (isBefore(criteria.getLatestExecutionDate(), criteria.getEarliestExecutionDate())) {
+            errorMessage += "\n Earliest execution date must be before latest execution date";
+        }
+        if (!allExist(criteria.getTradeStatusIds(), tradeStatusRepository::countByIdIn)) {
             errorMessage += "\n Trade status ID does not exist in the database";
         }
-        if (traderId != null && !applicationUserRepository.existsById(traderId)) {
+        if (!allExist(criteria.getTraderIds(), applicationUserRepository::countByIdIn)) {
             errorMessage += "\n Trader user ID does not exist in the database";
         }
-        if (bookId != null && !bookRepository.existsById(bookId)) {
+        if (!allExist(criteria.getBookIds(), bookRepository::countByIdIn)) {
             errorMessage += "\n Book ID does not exist in the database";
         }
-        if (counterpartyId != null && !counterpartyRepository.existsById(counterpartyId)) {
+        if (!allExist(criteria.getCounterpartyIds(), counterpartyRepository::countByIdIn)) {
             errorMessage += "\n Counterparty ID does not exist in the database";
         }
         if (!errorMessage.equals("")) {
@@ -49,6 +60,19 @@ public class Validation {
         }
     }
 
+    private static boolean isBefore(LocalDate latest, LocalDate earliest) {
+        return latest != null && earliest != null && latest.isBefore(earliest);
+    }
+
+    // One count per list of ids, which matches their number when every one exists
+    private static boolean allExist(List<Long> ids, ToLongFunction<Collection<Long>> countExisting) {
+        if (ids == null || ids.isEmpty()) {
+            return true;
+        }
+        Set<Long> distinct = new HashSet<>(ids);
+        return countExisting.applyAsLong(distinct) == distinct.size();
+    }
+
     public static void validatePaginationParams(int pageNum, int pageSize) {
         logger.info("Validating search parameters");
 
@@ -67,6 +91,11 @@ public class Validation {
     public static ValidationResult validateTradeBusinessRules(TradeDTO tradeDTO) {
 
         ValidationResult validationResult = new ValidationResult();
+        validateTradeDates(tradeDTO, validationResult);
+        return validationResult;
+    }
+
+    public static void validateTradeDates(TradeDTO tradeDTO, ValidationResult validationResult) {
 
         LocalDate tradeDate = tradeDTO.getTradeDate();
         LocalDate startDate = tradeDTO.getTradeStartDate();
@@ -96,17 +125,26 @@ public class Validation {
         } else {
             validationResult.addError("tradeMaturityDate", "Trade maturity date is required", "ERROR");
         }
-
-        return validationResult;
     }
 
     public static ValidationResult validateTradeLegConsistency(List<TradeLegDTO> legs) {
 
         ValidationResult validationResult = new ValidationResult();
+        if (validateLegPairing(legs, validationResult)) {
+            validateLegFields(legs, validationResult);
+        }
+        return validationResult;
+    }
+
+    /**
+     * Checks there are exactly two legs with opposite pay/receive flags. Returns false
+     * when the leg count is wrong, in which case the individual legs are not worth checking.
+     */
+    public static boolean validateLegPairing(List<TradeLegDTO> legs, ValidationResult validationResult) {
         // === Basic structure validation ===
         if (legs == null || legs.size() != 2) {
             validationResult.addError("tradeLegs", "Trade must have exactly two legs", "ERROR");
-            return validationResult;
+            return false;
         }
         
         TradeLegDTO leg1 = legs.get(0);
@@ -120,6 +158,10 @@ public class Validation {
         } else {
             validationResult.addError("payReceiveFlag", "Both legs must specify a pay/receive flag", "ERROR");
         }
+        return true;
+    }
+
+    public static void validateLegFields(List<TradeLegDTO> legs, ValidationResult validationResult) {
         // === Iterate and validate each leg ===
         int legIndex = 1;
         for (TradeLegDTO leg : legs) {
@@ -184,13 +226,19 @@ public class Validation {
 
             legIndex++;
         }
-        return validationResult;
     }
 
     public static ValidationResult validateReferenceData(Trade trade) {
 
         ValidationResult validationResult = new ValidationResult();
+        validateBook(trade, validationResult);
+        validateCounterparty(trade, validationResult);
+        validateTraderUser(trade, validationResult);
+        validateTradeClassification(trade, validationResult);
+        return validationResult;
+    }
 
+    public static void validateBook(Trade trade, ValidationResult validationResult) {
         // === Book validation ===
         if (trade.getBook() == null) {
             validationResult.addError("book", "Book not found or not set", "ERROR");
@@ -214,6 +262,9 @@ public class Validation {
                 }
             }
         }
+    }
+
+    public static void validateCounterparty(Trade trade, ValidationResult validationResult) {
         // === Counterparty validation ===
         if (trade.getCounterparty() == null) {
             validationResult.addError("counterparty", "Counterparty not found or not set", "ERROR");
@@ -222,6 +273,9 @@ public class Validation {
                 validationResult.addError("counterparty", "Counterparty must be active", "ERROR");
             }
         }
+    }
+
+    public static void validateTraderUser(Trade trade, ValidationResult validationResult) {
         // === Trader user validation ===
         if (trade.getTraderUser() == null) {
             validationResult.addError("traderUser", "Trader User not found or not set", "ERROR");
@@ -230,6 +284,10 @@ public class Validation {
                 validationResult.addError("traderUser", "Trader User must be active", "ERROR");
             }
         }
+    }
+
+    // Status, type and sub-type must all have been resolved
+    public static void validateTradeClassification(Trade trade, ValidationResult validationResult) {
         // === Trade Status validation ===
         if (trade.getTradeStatus() == null) {
             validationResult.addError("tradeStatus", "Trade status not found or not set", "ERROR");
@@ -242,6 +300,5 @@ public class Validation {
         if (trade.getTradeSubType() == null) {
             validationResult.addError("tradeSubType", "Trade sub-type not found or not set", "ERROR");
         }
-        return validationResult;
     }
 }
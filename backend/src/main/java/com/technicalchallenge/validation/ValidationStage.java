@@ -0,0 +1,11 @@
+package com.technicalchallenge.validation;
+
+/**
+ * When a trade validation rule can run. STRUCTURE rules look only at the submitted DTO
+ * and run before any ID allocation or reference data resolution; REFERENCE_DATA rules
+ * need the trade entity with its book, counterparty and other references resolved.
+ */
+public enum ValidationStage {
+    STRUCTURE,
+    REFERENCE_DATA
+}
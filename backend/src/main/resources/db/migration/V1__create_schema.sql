@@ -0,0 +1,356 @@
+-- Baseline schema, as previously generated from the entity mappings
+
+-- Sequences behind the batched entity ids
+create sequence cashflow_seq start with 10000 increment by 50;
+create sequence trade_leg_seq start with 10000 increment by 50;
+create sequence trade_seq start with 10000 increment by 50;
+
+create table additional_info (
+    id bigint generated by default as identity,
+    active boolean not null,
+    version integer not null,
+    created_date timestamp(6) not null,
+    deactivated_date timestamp(6),
+    entity_id bigint not null,
+    last_modified_date timestamp(6),
+    entity_type varchar(255) not null,
+    field_name varchar(255) not null,
+    field_type varchar(255) not null,
+    field_value TEXT,
+    primary key (id)
+);
+
+create table application_user (
+    id bigint generated by default as identity,
+    active boolean not null,
+    version integer not null,
+    last_modified_timestamp timestamp(6),
+    user_profile_id bigint,
+    first_name varchar(255),
+    last_name varchar(255),
+    login_id varchar(255) not null unique,
+    password varchar(255),
+    primary key (id)
+);
+
+create table book (
+    id bigint generated by default as identity,
+    active boolean not null,
+    version integer not null,
+    cost_center_id bigint,
+    book_name varchar(255),
+    primary key (id)
+);
+
+create table book_activity_summary (
+    id bigint generated by default as identity,
+    total_notional numeric(38,2),
+    trade_count integer not null,
+    primary key (id)
+);
+
+create table business_day_convention (
+    id bigint generated by default as identity,
+    bdc varchar(255),
+    primary key (id)
+);
+
+create table cashflow (
+    id bigint not null,
+    active boolean,
+    payment_value numeric(38,2),
+    rate float(53),
+    validity_end_date date,
+    validity_start_date date,
+    value_date date,
+    created_date timestamp(6),
+    leg_id bigint,
+    pay_rec_id bigint,
+    payment_business_day_convention_id bigint,
+    payment_type_id bigint,
+    primary key (id)
+);
+
+create table cost_center (
+    id bigint generated by default as identity,
+    subdesk_id bigint,
+    cost_center_name varchar(255),
+    primary key (id)
+);
+
+create table counterparty (
+    id bigint generated by default as identity,
+    active boolean not null,
+    created_date date,
+    last_modified_date date,
+    internal_code bigint,
+    address varchar(255),
+    name varchar(255),
+    phone_number varchar(255),
+    primary key (id)
+);
+
+create table currency (
+    id bigint generated by default as identity,
+    currency varchar(255),
+    primary key (id)
+);
+
+create table daily_summary (
+    id bigint generated by default as identity,
+    avg_notional30days numeric(38,2),
+    avg_trade_count30days numeric(38,2),
+    notional_change30days numeric(38,2),
+    notional_change_percentage numeric(38,2),
+    previous_day_notional numeric(38,2),
+    previous_day_trade_count integer not null,
+    summary_date date,
+    todays_notional numeric(38,2),
+    todays_trade_count integer not null,
+    trade_count_change30days numeric(38,2),
+    trade_count_change_percentage numeric(38,2),
+    trader_id bigint,
+    primary key (id)
+);
+
+create table daily_summary_notional_by_book (
+    daily_summary_id bigint not null,
+    book_name varchar(255) not null,
+    total_notional numeric(38,2),
+    primary key (daily_summary_id, book_name)
+);
+
+create table daily_summary_trades_by_book (
+    daily_summary_id bigint not null,
+    book_name varchar(255) not null,
+    trade_count bigint,
+    primary key (daily_summary_id, book_name)
+);
+
+create table desk (
+    id bigint generated by default as identity,
+    desk_name varchar(255),
+    primary key (id)
+);
+
+create table holiday (
+    id bigint generated by default as identity,
+    holiday_date date not null,
+    holiday_calendar_id bigint not null,
+    description varchar(255),
+    primary key (id),
+    constraint uk_holiday_calendar_date unique (holiday_calendar_id, holiday_date)
+);
+
+create table holiday_calendar (
+    id bigint generated by default as identity,
+    holiday_calendar varchar(255),
+    primary key (id)
+);
+
+create table index_table (
+    id bigint generated by default as identity,
+    index varchar(255),
+    primary key (id)
+);
+
+create table leg_type (
+    id bigint generated by default as identity,
+    type varchar(255),
+    primary key (id)
+);
+
+create table pay_rec (
+    id bigint generated by default as identity,
+    pay_rec varchar(255),
+    primary key (id)
+);
+
+create table privilege (
+    id bigint generated by default as identity,
+    name varchar(255),
+    primary key (id)
+);
+
+create table schedule (
+    id bigint generated by default as identity,
+    schedule varchar(255),
+    primary key (id)
+);
+
+create table sub_desk (
+    id bigint generated by default as identity,
+    desk_id bigint,
+    subdesk_name varchar(255),
+    primary key (id)
+);
+
+create table trade (
+    id bigint not null,
+    active boolean,
+    trade_date date,
+    trade_execution_date date,
+    trade_maturity_date date,
+    trade_start_date date,
+    validity_end_date date,
+    validity_start_date date,
+    version integer,
+    additional_fields_id bigint,
+    book_id bigint,
+    counterparty_id bigint,
+    created_date timestamp(6),
+    deactivated_date timestamp(6),
+    inputter_user_id bigint,
+    last_touch_timestamp timestamp(6),
+    trade_id bigint,
+    trade_status_id bigint,
+    trade_sub_type_id bigint,
+    trade_type_id bigint,
+    trader_user_id bigint,
+    uti_code varchar(255),
+    primary key (id)
+);
+
+create table trade_id_sequence (
+    sequence_name varchar(255) not null,
+    next_value bigint not null,
+    primary key (sequence_name)
+);
+
+create table trade_leg (
+    leg_id bigint not null,
+    active boolean,
+    notional numeric(38,2),
+    rate float(53),
+    calculation_period_schedule_id bigint,
+    created_date timestamp(6),
+    currency_id bigint,
+    deactivated_date timestamp(6),
+    fixing_business_day_convention_id bigint,
+    holiday_calendar_id bigint,
+    index_id bigint,
+    leg_rate_type_id bigint,
+    pay_rec_id bigint,
+    payment_business_day_convention_id bigint,
+    trade_id bigint,
+    cashflow_status varchar(10),
+    cashflow_status_message varchar(500),
+    primary key (leg_id)
+);
+
+create table trade_status (
+    id bigint generated by default as identity,
+    trade_status varchar(255),
+    primary key (id)
+);
+
+create table trade_sub_type (
+    id bigint generated by default as identity,
+    trade_sub_type varchar(255),
+    primary key (id)
+);
+
+create table trade_submission_key (
+    submission_key varchar(200) not null,
+    created_date timestamp(6) not null,
+    trade_id bigint not null,
+    trade_row_id bigint not null,
+    primary key (submission_key)
+);
+
+create table trade_summary (
+    id bigint generated by default as identity,
+    summary_date_stamp date,
+    summary_time_stamp time(6),
+    trader_id bigint,
+    primary key (id)
+);
+
+create table trade_summary_by_counterparty (
+    summary_id bigint not null,
+    counterparty varchar(255) not null,
+    trade_count bigint,
+    primary key (summary_id, counterparty)
+);
+
+create table trade_summary_notional_by_currency (
+    summary_id bigint not null,
+    currency varchar(255) not null,
+    total_notional numeric(38,2),
+    primary key (summary_id, currency)
+);
+
+create table trade_summary_risk (
+    summary_id bigint not null,
+    book_name varchar(255) not null,
+    exposure numeric(38,2),
+    primary key (summary_id, book_name)
+);
+
+create table trade_summary_status_count (
+    summary_id bigint not null,
+    status varchar(255) not null,
+    count bigint,
+    primary key (summary_id, status)
+);
+
+create table trade_summary_trade_type (
+    summary_id bigint not null,
+    trade_type varchar(255) not null,
+    count bigint,
+    primary key (summary_id, trade_type)
+);
+
+create table trade_type (
+    id bigint generated by default as identity,
+    trade_type varchar(255),
+    primary key (id)
+);
+
+create table user_privilege (
+    privilege_id bigint not null,
+    user_id bigint not null,
+    primary key (privilege_id, user_id)
+);
+
+create table user_profile (
+    id bigint generated by default as identity,
+    user_type varchar(255),
+    primary key (id)
+);
+
+-- Foreign keys
+alter table application_user add constraint fk_application_user_user_profile_id foreign key (user_profile_id) references user_profile;
+alter table book add constraint fk_book_cost_center_id foreign key (cost_center_id) references cost_center;
+alter table cashflow add constraint fk_cashflow_pay_rec_id foreign key (pay_rec_id) references pay_rec;
+alter table cashflow add constraint fk_cashflow_payment_business_day_convention_id foreign key (payment_business_day_convention_id) references business_day_convention;
+alter table cashflow add constraint fk_cashflow_payment_type_id foreign key (payment_type_id) references leg_type;
+alter table cashflow add constraint fk_cashflow_leg_id foreign key (leg_id) references trade_leg;
+alter table cost_center add constraint fk_cost_center_subdesk_id foreign key (subdesk_id) references sub_desk;
+alter table daily_summary add constraint fk_daily_summary_trader_id foreign key (trader_id) references application_user;
+alter table daily_summary_notional_by_book add constraint fk_daily_summary_notional_by_book_daily_summary_id foreign key (daily_summary_id) references daily_summary;
+alter table daily_summary_trades_by_book add constraint fk_daily_summary_trades_by_book_daily_summary_id foreign key (daily_summary_id) references daily_summary;
+alter table holiday add constraint fk_holiday_holiday_calendar_id foreign key (holiday_calendar_id) references holiday_calendar;
+alter table sub_desk add constraint fk_sub_desk_desk_id foreign key (desk_id) references desk;
+alter table trade add constraint fk_trade_book_id foreign key (book_id) references book;
+alter table trade add constraint fk_trade_counterparty_id foreign key (counterparty_id) references counterparty;
+alter table trade add constraint fk_trade_inputter_user_id foreign key (inputter_user_id) references application_user;
+alter table trade add constraint fk_trade_trade_status_id foreign key (trade_status_id) references trade_status;
+alter table trade add constraint fk_trade_trade_sub_type_id foreign key (trade_sub_type_id) references trade_sub_type;
+alter table trade add constraint fk_trade_trade_type_id foreign key (trade_type_id) references trade_type;
+alter table trade add constraint fk_trade_trader_user_id foreign key (trader_user_id) references application_user;
+alter table trade_leg add constraint fk_trade_leg_calculation_period_schedule_id foreign key (calculation_period_schedule_id) references schedule;
+alter table trade_leg add constraint fk_trade_leg_currency_id foreign key (currency_id) references currency;
+alter table trade_leg add constraint fk_trade_leg_fixing_business_day_convention_id foreign key (fixing_business_day_convention_id) references business_day_convention;
+alter table trade_leg add constraint fk_trade_leg_holiday_calendar_id foreign key (holiday_calendar_id) references holiday_calendar;
+alter table trade_leg add constraint fk_trade_leg_index_id foreign key (index_id) references index_table;
+alter table trade_leg add constraint fk_trade_leg_leg_rate_type_id foreign key (leg_rate_type_id) references leg_type;
+alter table trade_leg add constraint fk_trade_leg_pay_rec_id foreign key (pay_rec_id) references pay_rec;
+alter table trade_leg add constraint fk_trade_leg_payment_business_day_convention_id foreign key (payment_business_day_convention_id) references business_day_convention;
+alter table trade_leg add constraint fk_trade_leg_trade_id foreign key (trade_id) references trade;
+alter table trade_summary add constraint fk_trade_summary_trader_id foreign key (trader_id) references application_user;
+alter table trade_summary_by_counterparty add constraint fk_trade_summary_by_counterparty_summary_id foreign key (summary_id) references trade_summary;
+alter table trade_summary_notional_by_currency add constraint fk_trade_summary_notional_by_currency_summary_id foreign key (summary_id) references trade_summary;
+alter table trade_summary_risk add constraint fk_trade_summary_risk_summary_id foreign key (summary_id) references trade_summary;
+alter table trade_summary_status_count add constraint fk_trade_summary_status_count_summary_id foreign key (summary_id) references trade_summary;
+alter table trade_summary_trade_type add constraint fk_trade_summary_trade_type_summary_id foreign key (summary_id) references trade_summary;
@@ -0,0 +1,51 @@
+-- Indexes for the repository query methods. Each one names the lookups it serves; a
+-- composite index also serves lookups on its leading columns alone.
+--
+-- Reference tables (desk, book, currency, trade_status, ...) are a few dozen rows read
+-- whole into a page or two, so their findByName-style lookups are left to a scan.
+-- application_user.login_id is already covered by its unique constraint, holiday by its
+-- (holiday_calendar_id, holiday_date) unique constraint, and the summary child tables by
+-- primary keys that lead with the parent id.
+--
+-- H2 adds its own index for every foreign key; the foreign key indexes below are declared
+-- anyway so the design does not depend on that.
+
+-- TradeRepository.findByTradeId, findMaxVersionByTradeId, keyset pages by trade id
+create index idx_trade_trade_id_version on trade (trade_id, version);
+
+-- TradeRepository.findByActiveTrueOrderByTradeIdDesc, and with both columns matched on
+-- equality findByTradeIdAndActiveTrue and findLatestActiveVersionByTradeId
+create index idx_trade_active_trade_id on trade (active, trade_id);
+
+-- TradeRepository keyset pages by last touch
+create index idx_trade_last_touch_id on trade (last_touch_timestamp, id);
+
+-- Trade search and RSQL filters on dates
+create index idx_trade_trade_date on trade (trade_date);
+create index idx_trade_maturity_date on trade (trade_maturity_date);
+create index idx_trade_execution_date on trade (trade_execution_date);
+
+-- Trade search by reference, alone or narrowed to a trade date range. The book and trader
+-- indexes also serve findByTraderUser_Id and the book_id foreign key.
+create index idx_trade_book_trade_date on trade (book_id, trade_date);
+create index idx_trade_counterparty_trade_date on trade (counterparty_id, trade_date);
+create index idx_trade_trader_trade_date on trade (trader_user_id, trade_date);
+create index idx_trade_status_trade_date on trade (trade_status_id, trade_date);
+
+-- TradeRepository.findByTraderUser_IdAndBook_Id
+create index idx_trade_trader_book on trade (trader_user_id, book_id);
+
+-- Legs of a trade, loaded by TradeRepository.fetchLegsByIdIn
+create index idx_trade_leg_trade_id on trade_leg (trade_id);
+
+-- Cashflows of a leg, loaded by TradeLegRepository.fetchCashflowsByLegIdIn
+create index idx_cashflow_leg_id on cashflow (leg_id);
+
+-- AdditionalInfoRepository lookups by entity, and by entity and field name
+create index idx_additional_info_entity_field on additional_info (entity_type, entity_id, field_name);
+
+-- DailySummaryRepository.findByTraderUser_IdAndSummaryDate and its date range variant
+create index idx_daily_summary_trader_date on daily_summary (trader_id, summary_date);
+
+-- TradeSummaryRepository.findByTraderUser_IdAndSummaryDateStamp
+create index idx_trade_summary_trader_date on trade_summary (trader_id, summary_date_stamp);
@@ -0,0 +1,33 @@
+-- Dashboard summaries are saved as one snapshot per trader per period by
+-- TradeSummarySnapshotService; dashboard reads no longer save them.
+--
+-- Reads used to save a trade summary without its trader on every refresh. Nothing can
+-- look those rows up, so they are dropped with their breakdowns.
+delete from trade_summary_status_count where summary_id in (select id from trade_summary where trader_id is null);
+delete from trade_summary_notional_by_currency where summary_id in (select id from trade_summary where trader_id is null);
+delete from trade_summary_trade_type where summary_id in (select id from trade_summary where trader_id is null);
+delete from trade_summary_by_counterparty where summary_id in (select id from trade_summary where trader_id is null);
+delete from trade_summary_risk where summary_id in (select id from trade_summary where trader_id is null);
+delete from trade_summary where trader_id is null;
+
+-- Daily summaries were saved by every read too; keep the last one saved each day
+delete from daily_summary_trades_by_book where daily_summary_id in (
+    select d.id from daily_summary d where exists (
+        select 1 from daily_summary later
+        where later.trader_id = d.trader_id and later.summary_date = d.summary_date and later.id > d.id));
+delete from daily_summary_notional_by_book where daily_summary_id in (
+    select d.id from daily_summary d where exists (
+        select 1 from daily_summary later
+        where later.trader_id = d.trader_id and later.summary_date = d.summary_date and later.id > d.id));
+delete from daily_summary where id in (
+    select d.id from daily_summary d where exists (
+        select 1 from daily_summary later
+        where later.trader_id = d.trader_id and later.summary_date = d.summary_date and later.id > d.id));
+
+-- The unique constraints' indexes lead with the columns of the V3 lookup indexes they replace
+drop index idx_daily_summary_trader_date;
+alter table daily_summary add constraint uk_daily_summary_trader_date unique (trader_id, summary_date);
+
+drop index idx_trade_summary_trader_date;
+alter table trade_summary add constraint uk_trade_summary_trader_period
+    unique (trader_id, summary_date_stamp, summary_time_stamp);
@@ -0,0 +1,7 @@
+-- Asynchronous cashflow generation claims a PENDING leg by moving it to RUNNING before
+-- generating it, so a leg queued on more than one node is generated once. The claim time
+-- lets a starting node hand back legs left RUNNING by a node that stopped mid-generation.
+alter table trade_leg add column cashflow_claimed_at timestamp(6);
+
+-- Startup looks legs up by generation state
+create index idx_trade_leg_cashflow_status on trade_leg (cashflow_status);
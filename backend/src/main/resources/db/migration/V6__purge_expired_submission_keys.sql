@@ -0,0 +1,3 @@
+-- TradeSubmissionService deletes submission keys once they are older than
+-- trade.idempotency.ttl-hours, looking them up by when they were recorded
+create index idx_trade_submission_key_created_date on trade_submission_key (created_date);
@@ -8,7 +8,9 @@ import com.technicalchallenge.mapper.CashflowMapper;
 import com.technicalchallenge.model.Cashflow;
 import com.technicalchallenge.model.PayRec;
 import com.technicalchallenge.model.TradeLeg;
+import com.technicalchallenge.service.BusinessCalendar;
 import com.technicalchallenge.service.CashflowService;
+import com.technicalchallenge.service.HolidayCalendarEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -45,6 +47,9 @@ public class CashflowControllerTest {
     @MockBean
     private CashflowMapper cashflowMapper;
 
+    @MockBean
+    private HolidayCalendarEngine holidayCalendarEngine;
+
     private ObjectMapper objectMapper;
     private CashflowDTO cashflowDTO;
     private Cashflow cashflow;
@@ -238,4 +243,33 @@ public class CashflowControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void testGenerateCashflowsAdjustsPaymentDatesToBusinessDays() throws Exception {
+        // Given a monthly leg whose first payment falls on a Sunday before a London bank holiday
+        CashflowGenerationRequest request = new CashflowGenerationRequest();
+        request.setTradeStartDate(LocalDate.of(2026, 4, 3));
+        request.setTradeMaturityDate(LocalDate.of(2026, 6, 3));
+
+        CashflowGenerationRequest.TradeLegDTO legDTO = new CashflowGenerationRequest.TradeLegDTO();
+        legDTO.setNotional(BigDecimal.valueOf(1000000.0));
+        legDTO.setLegType("Fixed");
+        legDTO.setRate(0.05);
+        legDTO.setCalculationPeriodSchedule("Monthly");
+        legDTO.setPaymentBusinessDayConvention("Following");
+        legDTO.setHolidayCalendar("LON");
+        request.setLegs(Arrays.asList(legDTO));
+
+        when(holidayCalendarEngine.forName("LON"))
+                .thenReturn(BusinessCalendar.compile("LON", List.of(LocalDate.of(2026, 5, 4))));
+
+        // When/Then
+        mockMvc.perform(post("/api/cashflows/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].valueDate", is("2026-05-05")))
+                .andExpect(jsonPath("$[1].valueDate", is("2026-06-03")));
+    }
 }
@@ -0,0 +1,68 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.dto.SuggestionDTO;
+import com.technicalchallenge.service.SuggestionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(SuggestionController.class)
+public class SuggestionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SuggestionService suggestionService;
+
+    @Test
+    void testSuggest_Success() throws Exception {
+        when(suggestionService.suggest("big", List.of("COUNTERPARTY", "BOOK"), 5))
+                .thenReturn(List.of(new SuggestionDTO("COUNTERPARTY", 1000L, "BigBank")));
+
+        mockMvc.perform(get("/api/suggestions")
+                        .param("q", "big")
+                        .param("type", "COUNTERPARTY,BOOK")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].type", is("COUNTERPARTY")))
+                .andExpect(jsonPath("$[0].id", is(1000)))
+                .andExpect(jsonPath("$[0].value", is("BigBank")));
+    }
+
+    @Test
+    void testSuggest_DefaultsToAllTypesAndTenResults() throws Exception {
+        when(suggestionService.suggest("uti", null, 10)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/suggestions").param("q", "uti"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        verify(suggestionService).suggest("uti", null, 10);
+    }
+
+    @Test
+    void testSuggest_InvalidType() throws Exception {
+        when(suggestionService.suggest(eq("big"), any(), eq(10)))
+                .thenThrow(new RuntimeException("Unknown suggestion type: DESK"));
+
+        mockMvc.perform(get("/api/suggestions").param("q", "big").param("type", "DESK"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Error fetching suggestions: Unknown suggestion type: DESK"));
+    }
+}
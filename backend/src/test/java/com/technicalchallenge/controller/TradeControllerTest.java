@@ -2,13 +2,29 @@ package com.technicalchallenge.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.technicalchallenge.dto.CashflowGenerationStatusDTO;
+import com.technicalchallenge.dto.TradeAmendmentSummaryDTO;
+import com.technicalchallenge.dto.TradeBatchItemResultDTO;
+import com.technicalchallenge.dto.TradeBatchResultDTO;
 import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeRowsDTO;
+import com.technicalchallenge.dto.TradeRowsRequestDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
 import com.technicalchallenge.mapper.TradeMapper;
 import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.service.TradeAmendment;
+import com.technicalchallenge.service.TradeBatchService;
+import com.technicalchallenge.service.TradeCursor;
+import com.technicalchallenge.service.TradeExportService;
+import com.technicalchallenge.service.TradeGridService;
+import com.technicalchallenge.service.TradeKeysetPage;
 import com.technicalchallenge.service.TradeService;
+import com.technicalchallenge.service.TradeSubmission;
+import com.technicalchallenge.service.TradeSubmissionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -18,14 +34,19 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -44,10 +65,23 @@ public class TradeControllerTest {
     @MockBean
     private TradeMapper tradeMapper;
 
+    @MockBean
+    private TradeBatchService tradeBatchService;
+
+    @MockBean
+    private TradeSubmissionService tradeSubmissionService;
+
+    @MockBean
+    private TradeExportService tradeExportService;
+
+    @MockBean
+    private TradeGridService tradeGridService;
+
     private ObjectMapper objectMapper;
     private TradeDTO tradeDTO;
     private Trade trade;
     private String userId;
+    private TradeAmendmentSummaryDTO amendmentSummary;
 
     @BeforeEach
     void setUp() {
@@ -56,6 +90,10 @@ public class TradeControllerTest {
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
 
+        amendmentSummary = new TradeAmendmentSummaryDTO();
+        amendmentSummary.setLegsCopied(1);
+        amendmentSummary.getChangedFields().add("counterparty");
+
         // Create a sample TradeDTO for testing
         tradeDTO = new TradeDTO();
         tradeDTO.setTradeId(1001L);
@@ -125,9 +163,7 @@ public class TradeControllerTest {
         List<Trade> trades = List.of(trade);
 
         when(tradeService.validateUserPrivileges(eq(userId), eq("VIEW"))).thenReturn(true);
-        when(tradeService.searchTrades(
-                any(), any(), any(), any(), any(), any()))
-                .thenReturn(trades);
+        when(tradeService.searchTrades(any(TradeSearchCriteria.class))).thenReturn(trades);
 
         // When/Then
         mockMvc.perform(get("/api/trades/search")
@@ -146,7 +182,32 @@ public class TradeControllerTest {
                 .andExpect(jsonPath("$[0].counterpartyName", is("TestCounterparty")));
 
         verify(tradeService).validateUserPrivileges(eq(userId), eq("VIEW"));
-        verify(tradeService).searchTrades(any(), any(), any(), any(), any(), any());
+        verify(tradeService).searchTrades(any(TradeSearchCriteria.class));
+    }
+
+    @Test
+    void testSearchTrades_MultipleValuesAndDateRanges() throws Exception {
+        // Given
+        when(tradeService.validateUserPrivileges(eq(userId), eq("VIEW"))).thenReturn(true);
+        when(tradeService.searchTrades(any(TradeSearchCriteria.class))).thenReturn(List.of(trade));
+
+        // When/Then
+        mockMvc.perform(get("/api/trades/search")
+                        .param("userId", userId)
+                        .param("bookId", "3", "5")
+                        .param("counterpartyId", "4,6")
+                        .param("earliestMaturityDate", "2026-01-01")
+                        .param("latestExecutionDate", "2025-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        ArgumentCaptor<TradeSearchCriteria> captor = ArgumentCaptor.forClass(TradeSearchCriteria.class);
+        verify(tradeService).searchTrades(captor.capture());
+        assertEquals(List.of(3L, 5L), captor.getValue().getBookIds());
+        assertEquals(List.of(4L, 6L), captor.getValue().getCounterpartyIds());
+        assertEquals(LocalDate.of(2026, 1, 1), captor.getValue().getEarliestMaturityDate());
+        assertEquals(LocalDate.of(2025, 12, 31), captor.getValue().getLatestExecutionDate());
+        assertNull(captor.getValue().getTradeStatusIds());
     }
 
     @Test
@@ -168,8 +229,7 @@ public class TradeControllerTest {
     void testSearchTrades_BadRequest() throws Exception {
         // Given
         when(tradeService.validateUserPrivileges(eq(userId), eq("VIEW"))).thenReturn(true);
-        when(tradeService.searchTrades(
-                any(), any(), any(), any(), any(), any()))
+        when(tradeService.searchTrades(any(TradeSearchCriteria.class)))
                 .thenThrow(new RuntimeException("Bad Request"));
 
         // When/Then
@@ -180,7 +240,83 @@ public class TradeControllerTest {
                 .andExpect(content().string("Error fetching trades: Bad Request"));
 
         verify(tradeService).validateUserPrivileges(eq(userId), eq("VIEW"));
-        verify(tradeService).searchTrades(any(), any(), any(), any(), any(), any());
+        verify(tradeService).searchTrades(any(TradeSearchCriteria.class));
+    }
+
+    @Test
+    void testSearchTrades_WithFieldsReturnsOnlyThoseProperties() throws Exception {
+        // Given
+        when(tradeService.validateUserPrivileges(eq(userId), eq("VIEW"))).thenReturn(true);
+        when(tradeService.searchTrades(any(TradeSearchCriteria.class), eq(List.of("tradeId", "bookName"))))
+                .thenReturn(List.of(Map.of("tradeId", 1001L, "bookName", "TestBook")));
+
+        // When/Then
+        mockMvc.perform(get("/api/trades/search")
+                        .param("userId", userId)
+                        .param("bookId", "3")
+                        .param("fields", "tradeId,bookName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tradeId", is(1001)))
+                .andExpect(jsonPath("$[0].bookName", is("TestBook")))
+                .andExpect(jsonPath("$[0].tradeLegs").doesNotExist());
+
+        verify(tradeService, never()).searchTrades(any(TradeSearchCriteria.class));
+        verify(tradeMapper, never()).toDto(any(Trade.class));
+    }
+
+    @Test
+    void testGetAllTrades_UnknownField() throws Exception {
+        // Given
+        when(tradeService.validateUserPrivileges(eq(userId), eq("VIEW"))).thenReturn(true);
+        when(tradeService.getAllTrades(List.of("notional")))
+                .thenThrow(new IllegalArgumentException("Unknown trade field: notional"));
+
+        // When/Then
+        mockMvc.perform(get("/api/trades")
+                        .param("userId", userId)
+                        .param("fields", "notional"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Error fetching trades: Unknown trade field: notional"));
+    }
+
+    @Test
+    void testGetTradeRows_ReturnsBlock() throws Exception {
+        // Given
+        when(tradeService.validateUserPrivileges(eq(userId), eq("VIEW"))).thenReturn(true);
+        when(tradeGridService.getRows(any(TradeRowsRequestDTO.class)))
+                .thenReturn(new TradeRowsDTO(List.of(Map.of("bookName", "TestBook", "childCount", 2)), 1));
+
+        // When/Then
+        mockMvc.perform(post("/api/trades/rows")
+                        .param("userId", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"startRow\":0,\"endRow\":100,\"rowGroupCols\":[{\"id\":\"bookName\",\"field\":\"bookName\"}],"
+                                + "\"groupKeys\":[],\"sortModel\":[{\"colId\":\"bookName\",\"sort\":\"desc\"}],\"pivotMode\":false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows[0].bookName", is("TestBook")))
+                .andExpect(jsonPath("$.lastRow", is(1)));
+
+        ArgumentCaptor<TradeRowsRequestDTO> request = ArgumentCaptor.forClass(TradeRowsRequestDTO.class);
+        verify(tradeGridService).getRows(request.capture());
+        assertEquals(100, request.getValue().getEndRow());
+        assertEquals("bookName", request.getValue().getRowGroupCols().get(0).getField());
+        assertEquals("desc", request.getValue().getSortModel().get(0).getSort());
+    }
+
+    @Test
+    void testGetTradeRows_InvalidRequest() throws Exception {
+        // Given
+        when(tradeService.validateUserPrivileges(eq(userId), eq("VIEW"))).thenReturn(true);
+        when(tradeGridService.getRows(any(TradeRowsRequestDTO.class)))
+                .thenThrow(new IllegalArgumentException("More group keys than row group columns"));
+
+        // When/Then
+        mockMvc.perform(post("/api/trades/rows")
+                        .param("userId", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"startRow\":0,\"endRow\":100,\"groupKeys\":[\"FX-BOOK-1\"]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Error fetching trade rows: More group keys than row group columns"));
     }
 
     @Test
@@ -342,6 +478,38 @@ public class TradeControllerTest {
         verify(tradeService).paginateTrades(pageNum, pageSize);
     }
 
+    @Test
+    void testPaginateTradesByKeyset() throws Exception {
+        // Given
+        when(tradeService.validateUserPrivileges(eq(userId), eq("VIEW"))).thenReturn(true);
+        when(tradeService.paginateTradesByKeyset(2, TradeCursor.Order.TRADE_ID, null, false))
+                .thenReturn(new TradeKeysetPage(List.of(trade), "next-token", null));
+
+        // When / Then
+        mockMvc.perform(get("/api/trades/filter/keyset")
+                        .param("pageSize", "2")
+                        .param("userId", userId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].tradeId", is(1001)))
+                .andExpect(jsonPath("$.continuationToken", is("next-token")))
+                .andExpect(jsonPath("$.hasNext", is(true)));
+    }
+
+    @Test
+    void testPaginateTradesByKeyset_InvalidOrder() throws Exception {
+        when(tradeService.validateUserPrivileges(eq(userId), eq("VIEW"))).thenReturn(true);
+
+        mockMvc.perform(get("/api/trades/filter/keyset")
+                        .param("order", "BOOK")
+                        .param("userId", userId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(tradeService, never()).paginateTradesByKeyset(anyInt(), any(), any(), anyBoolean());
+    }
+
     @Test
     void testPaginateTrades_ForbiddenUserId() throws Exception {
         // Given
@@ -427,6 +595,43 @@ public class TradeControllerTest {
         verify(tradeService).getTradeById(1001L);
     }
 
+    @Test
+    void testExportTrades_StreamsCsv() throws Exception {
+        // Given
+        when(tradeService.validateUserPrivileges(eq(userId), eq("VIEW"))).thenReturn(true);
+        when(tradeExportService.export(eq(TradeExportService.Format.CSV), eq(false), any())).thenAnswer(invocation -> {
+            invocation.<java.io.OutputStream>getArgument(2).write("id,tradeId\n1000,100001\n".getBytes());
+            return 1L;
+        });
+
+        // When / Then
+        MvcResult result = mockMvc.perform(get("/api/trades/export")
+                        .param("userId", userId)
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"trades.csv\""))
+                .andExpect(content().string("id,tradeId\n1000,100001\n"));
+    }
+
+    @Test
+    void testExportTrades_UnsupportedFormat() throws Exception {
+        when(tradeService.validateUserPrivileges(eq(userId), eq("VIEW"))).thenReturn(true);
+
+        MvcResult result = mockMvc.perform(get("/api/trades/export")
+                        .param("userId", userId)
+                        .param("format", "xlsx"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unsupported export format: xlsx"));
+
+        verifyNoInteractions(tradeExportService);
+    }
+
     @Test
     void testGetTradeByIdNotFound() throws Exception {
         // Given
@@ -442,6 +647,60 @@ public class TradeControllerTest {
         verify(tradeService).getTradeById(9999L);
     }
 
+    @Test
+    void testCreateTrade_DuplicateSubmissionReturnsOriginal() throws Exception {
+        // Given
+        when(tradeService.validateUserPrivileges(eq(userId), eq("CREATE"))).thenReturn(true);
+        when(tradeSubmissionService.submissionKey(eq(userId), eq("retry-1"), any(TradeDTO.class))).thenReturn("key:1000:retry-1");
+        when(tradeSubmissionService.submit(eq("key:1000:retry-1"), any())).thenReturn(new TradeSubmission(tradeDTO, true));
+
+        // When/Then
+        mockMvc.perform(post("/api/trades")
+                        .param("userId", String.valueOf(userId))
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(tradeDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.tradeId", is(1001)));
+
+        verify(tradeService, never()).saveTrade(any(Trade.class), any(TradeDTO.class));
+    }
+
+    @Test
+    void testGetCashflowGenerationStatus() throws Exception {
+        // Given
+        CashflowGenerationStatusDTO cashflowStatus = new CashflowGenerationStatusDTO();
+        cashflowStatus.setTradeId(1001L);
+        cashflowStatus.setStatus("PENDING");
+        cashflowStatus.getLegs().add(new CashflowGenerationStatusDTO.LegStatus(1L, "PENDING", null));
+        when(tradeService.getCashflowGenerationStatus(1001L)).thenReturn(Optional.of(cashflowStatus));
+        when(tradeService.validateUserPrivileges(eq(userId), eq("VIEW"))).thenReturn(true);
+
+        // When/Then
+        mockMvc.perform(get("/api/trades/1001/cashflow-status")
+                        .param("userId", String.valueOf(userId))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("PENDING")))
+                .andExpect(jsonPath("$.legs", hasSize(1)));
+
+        verify(tradeService).getCashflowGenerationStatus(1001L);
+    }
+
+    @Test
+    void testGetCashflowGenerationStatusNotFound() throws Exception {
+        // Given
+        when(tradeService.getCashflowGenerationStatus(9999L)).thenReturn(Optional.empty());
+        when(tradeService.validateUserPrivileges(eq(userId), eq("VIEW"))).thenReturn(true);
+
+        // When/Then
+        mockMvc.perform(get("/api/trades/9999/cashflow-status")
+                        .param("userId", String.valueOf(userId))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testCreateTrade() throws Exception {
         // Given
@@ -517,7 +776,7 @@ public class TradeControllerTest {
         Long tradeId = 1001L;
         tradeDTO.setTradeId(tradeId);
 
-        when(tradeService.amendTrade(eq(tradeId), any(TradeDTO.class))).thenReturn(trade);
+        when(tradeService.amendTrade(eq(tradeId), any(TradeDTO.class))).thenReturn(new TradeAmendment(trade, amendmentSummary));
         when(tradeMapper.toDto(any(Trade.class))).thenReturn(tradeDTO);
         
         when(tradeService.validateUserPrivileges(eq(userId), eq("AMEND"), any(TradeDTO.class))).thenReturn(true);
@@ -528,7 +787,9 @@ public class TradeControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(tradeDTO)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.tradeId", is(1001)));
+                .andExpect(jsonPath("$.tradeId", is(1001)))
+                .andExpect(jsonPath("$.amendment.legsCopied", is(1)))
+                .andExpect(jsonPath("$.amendment.changedFields[0]", is("counterparty")));
         
         verify(tradeService).amendTrade(eq(tradeId), any(TradeDTO.class));
     }
@@ -540,7 +801,7 @@ public class TradeControllerTest {
         tradeDTO.setTradeId(tradeId);
         String forbiddenId = "403";
 
-        when(tradeService.amendTrade(eq(tradeId), any(TradeDTO.class))).thenReturn(trade);
+        when(tradeService.amendTrade(eq(tradeId), any(TradeDTO.class))).thenReturn(new TradeAmendment(trade, amendmentSummary));
         when(tradeMapper.toDto(any(Trade.class))).thenReturn(tradeDTO);
         when(tradeService.validateUserPrivileges(eq(forbiddenId), eq("AMEND"), any(TradeDTO.class))).thenReturn(false);
 
@@ -621,4 +882,57 @@ public class TradeControllerTest {
 
         verify(tradeService, never()).createTrade(any(TradeDTO.class));
     }
+
+    @Test
+    void testCreateTradesBatch_Success() throws Exception {
+        // Given
+        TradeBatchItemResultDTO booked = new TradeBatchItemResultDTO(0, "BOOKED", 1001L, 1L, List.of());
+        TradeBatchItemResultDTO rejected = new TradeBatchItemResultDTO(1, "REJECTED", null, null, List.of("Book not found or not set"));
+        TradeBatchResultDTO result = new TradeBatchResultDTO(2, 1, 1, 12L, 83.3, List.of(booked, rejected));
+
+        when(tradeService.validateUserPrivileges(eq(userId), eq("CREATE"))).thenReturn(true);
+        when(tradeBatchService.bookTrades(anyList())).thenReturn(result);
+
+        // When/Then
+        mockMvc.perform(post("/api/trades/batch")
+                        .param("userId", String.valueOf(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(tradeDTO, new TradeDTO()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.submitted", is(2)))
+                .andExpect(jsonPath("$.booked", is(1)))
+                .andExpect(jsonPath("$.results", hasSize(2)))
+                .andExpect(jsonPath("$.results[0].status", is("BOOKED")))
+                .andExpect(jsonPath("$.results[1].errors[0]", is("Book not found or not set")));
+
+        verify(tradeBatchService).bookTrades(anyList());
+    }
+
+    @Test
+    void testCreateTradesBatch_EmptyBatch() throws Exception {
+        when(tradeService.validateUserPrivileges(eq(userId), eq("CREATE"))).thenReturn(true);
+
+        mockMvc.perform(post("/api/trades/batch")
+                        .param("userId", String.valueOf(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Batch must contain at least one trade"));
+
+        verify(tradeBatchService, never()).bookTrades(anyList());
+    }
+
+    @Test
+    void testCreateTradesBatch_ForbiddenUserId() throws Exception {
+        when(tradeService.validateUserPrivileges(eq(userId), eq("CREATE"))).thenReturn(false);
+
+        mockMvc.perform(post("/api/trades/batch")
+                        .param("userId", String.valueOf(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(tradeDTO))))
+                .andExpect(status().isForbidden())
+                .andExpect(content().string("User 1000 is not authorized to CREATE trades."));
+
+        verify(tradeBatchService, never()).bookTrades(anyList());
+    }
 }
@@ -3,7 +3,10 @@ package com.technicalchallenge.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.technicalchallenge.dto.DailySummaryDTO;
+import com.technicalchallenge.dto.DailyWindowStatisticsDTO;
+import com.technicalchallenge.dto.TradeBlotterSummaryDTO;
 import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
 import com.technicalchallenge.dto.TradeSummaryDTO;
 import com.technicalchallenge.mapper.TradeMapper;
 import com.technicalchallenge.model.Trade;
@@ -11,6 +14,7 @@ import com.technicalchallenge.service.TradeDashboardService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -24,8 +28,10 @@ import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -138,7 +144,7 @@ public class TradeDashboardControllerTest {
 
     @Test
     void testGetDailySummary_Success() throws Exception {
-        when(tradeDashboardService.getDailySummaryForUser("user123"))
+        when(tradeDashboardService.getDailySummaryForUser("user123", null))
                 .thenReturn(dailySummaryDTO);
 
         mockMvc.perform(get("/api/dashboard/daily-summary")
@@ -150,7 +156,27 @@ public class TradeDashboardControllerTest {
                 .andExpect(jsonPath("$.tradesByBook.EQUITY-BOOK", is(2)))
                 .andExpect(jsonPath("$.notionalByBook.EQUITY-BOOK", is(2000000)));
 
-        verify(tradeDashboardService).getDailySummaryForUser("user123");
+        verify(tradeDashboardService).getDailySummaryForUser("user123", null);
+    }
+
+    @Test
+    void testGetDailySummary_PassesWindowDays() throws Exception {
+        dailySummaryDTO.setWindows(List.of(
+                new DailyWindowStatisticsDTO(7, 5, new BigDecimal("1.60"), new BigDecimal("1500000.00"),
+                        new BigDecimal("0.40"), new BigDecimal("500000.00"), new BigDecimal("25.0"), new BigDecimal("33.00"))));
+        when(tradeDashboardService.getDailySummaryForUser("user123", List.of(7, 30)))
+                .thenReturn(dailySummaryDTO);
+
+        mockMvc.perform(get("/api/dashboard/daily-summary")
+                        .param("userId", "user123")
+                        .param("windowDays", "7,30")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.windows[0].windowDays", is(7)))
+                .andExpect(jsonPath("$.windows[0].summaryDays", is(5)))
+                .andExpect(jsonPath("$.windows[0].avgTradeCount", is(1.60)));
+
+        verify(tradeDashboardService).getDailySummaryForUser("user123", List.of(7, 30));
     }
 
     @Test
@@ -210,7 +236,7 @@ public class TradeDashboardControllerTest {
 
     @Test
     void testGetDailySummary_UserNotFound() throws Exception {
-        when(tradeDashboardService.getDailySummaryForUser("invalidUser"))
+        when(tradeDashboardService.getDailySummaryForUser("invalidUser", null))
                 .thenThrow(new RuntimeException("User not found"));
 
         mockMvc.perform(get("/api/dashboard/daily-summary")
@@ -219,7 +245,40 @@ public class TradeDashboardControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string("Error fetching trades: User not found"));
 
-        verify(tradeDashboardService).getDailySummaryForUser("invalidUser");
+        verify(tradeDashboardService).getDailySummaryForUser("invalidUser", null);
+    }
+
+    @Test
+    void testGetBlotterSummary_PassesFilters() throws Exception {
+        TradeBlotterSummaryDTO blotter = new TradeBlotterSummaryDTO();
+        blotter.setTradeCount(3);
+        blotter.setTradeCountByBook(Map.of("EQUITY-BOOK", 3L));
+        when(tradeDashboardService.getBlotterSummary(eq("user123"), any(TradeSearchCriteria.class)))
+                .thenReturn(blotter);
+
+        mockMvc.perform(get("/api/dashboard/blotter")
+                        .param("userId", "user123")
+                        .param("bookId", "1000,1001")
+                        .param("earliestTradeDate", "2024-06-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tradeCount", is(3)))
+                .andExpect(jsonPath("$.tradeCountByBook.EQUITY-BOOK", is(3)));
+
+        ArgumentCaptor<TradeSearchCriteria> criteria = ArgumentCaptor.forClass(TradeSearchCriteria.class);
+        verify(tradeDashboardService).getBlotterSummary(eq("user123"), criteria.capture());
+        assertEquals(List.of(1000L, 1001L), criteria.getValue().getBookIds());
+        assertEquals(LocalDate.of(2024, 6, 1), criteria.getValue().getEarliestTradeDate());
+    }
+
+    @Test
+    void testGetBlotterSummary_UserNotFound() throws Exception {
+        when(tradeDashboardService.getBlotterSummary(eq("invalidUser"), any(TradeSearchCriteria.class)))
+                .thenThrow(new RuntimeException("User not found"));
+
+        mockMvc.perform(get("/api/dashboard/blotter")
+                        .param("userId", "invalidUser"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Error fetching trades: User not found"));
     }
 
 }
@@ -0,0 +1,71 @@
+package com.technicalchallenge.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Applies the migrations to an empty database, which Hibernate then validates the entity
+ * mappings against, and checks the hot repository lookups are planned on their indexes.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:schemamigration;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // H2 names the index a query is planned on, or tableScan when none fits
+    private void assertIndexed(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void testMigrations_AppliedInOrderWithSeedData() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" AND \"version\" IS NOT NULL ORDER BY \"installed_rank\"", String.class);
+
+        assertEquals(List.of("1", "2", "3", "4", "5", "6"), versions);
+        assertEquals(8, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trade", Integer.class));
+    }
+
+    @Test
+    void testTradeLookups_UseIndexes() {
+        assertIndexed("SELECT * FROM trade WHERE trade_id = 100001 AND active = true ORDER BY version DESC");
+        assertIndexed("SELECT * FROM trade WHERE trader_user_id = 1003 AND book_id = 1000");
+        assertIndexed("SELECT * FROM trade_leg WHERE trade_id = 1000");
+        assertIndexed("SELECT * FROM cashflow WHERE leg_id = 1000");
+        assertIndexed("SELECT * FROM trade_leg WHERE cashflow_status = 'PENDING'");
+    }
+
+    @Test
+    void testAdditionalInfoAndSummaryLookups_UseIndexes() {
+        assertIndexed("SELECT * FROM additional_info WHERE entity_type = 'TRADE' AND entity_id = 100001 AND field_name = 'x' AND active = true");
+        assertIndexed("SELECT * FROM daily_summary WHERE trader_id = 1003 AND summary_date BETWEEN DATE '2025-01-01' AND DATE '2025-01-31'");
+        assertIndexed("SELECT * FROM trade_summary WHERE trader_id = 1003 AND summary_date_stamp = DATE '2025-01-01'");
+        assertIndexed("SELECT * FROM trade_submission_key WHERE created_date < TIMESTAMP '2025-01-01 00:00:00'");
+    }
+
+    @Test
+    void testSummarySnapshots_OnePerTraderPerPeriod() {
+        jdbcTemplate.update("INSERT INTO daily_summary (trader_id, summary_date, todays_trade_count, previous_day_trade_count) VALUES (1003, DATE '2025-01-01', 1, 0)");
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO daily_summary (trader_id, summary_date, todays_trade_count, previous_day_trade_count) VALUES (1003, DATE '2025-01-01', 2, 0)"));
+
+        jdbcTemplate.update("INSERT INTO trade_summary (trader_id, summary_date_stamp, summary_time_stamp) VALUES (1003, DATE '2025-01-01', TIME '10:00:00')");
+        jdbcTemplate.update("INSERT INTO trade_summary (trader_id, summary_date_stamp, summary_time_stamp) VALUES (1003, DATE '2025-01-01', TIME '11:00:00')");
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO trade_summary (trader_id, summary_date_stamp, summary_time_stamp) VALUES (1003, DATE '2025-01-01', TIME '10:00:00')"));
+    }
+}
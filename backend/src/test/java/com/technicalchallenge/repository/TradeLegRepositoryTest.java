@@ -0,0 +1,60 @@
+package com.technicalchallenge.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Claims on cashflow generation against the seeded database, as two nodes would take them.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:tradelegclaims;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+class TradeLegRepositoryTest {
+
+    private static final LocalDateTime CLAIMED_AT = LocalDateTime.of(2025, 3, 14, 9, 0);
+
+    @Autowired
+    private TradeLegRepository tradeLegRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("UPDATE trade_leg SET cashflow_status = 'PENDING' WHERE leg_id = 1000");
+    }
+
+    private String status() {
+        return jdbcTemplate.queryForObject("SELECT cashflow_status FROM trade_leg WHERE leg_id = 1000", String.class);
+    }
+
+    @Test
+    void testClaimCashflowGeneration_OnlyTheFirstClaimWins() {
+        assertEquals(1, tradeLegRepository.claimCashflowGeneration(1000L, "PENDING", "RUNNING", CLAIMED_AT));
+        assertEquals(0, tradeLegRepository.claimCashflowGeneration(1000L, "PENDING", "RUNNING", CLAIMED_AT));
+
+        assertEquals("RUNNING", status());
+    }
+
+    @Test
+    void testReleaseStaleCashflowClaims_OnlyReleasesClaimsTakenBeforeTheCutOff() {
+        tradeLegRepository.claimCashflowGeneration(1000L, "PENDING", "RUNNING", CLAIMED_AT);
+
+        assertEquals(0, tradeLegRepository.releaseStaleCashflowClaims("RUNNING", "PENDING", CLAIMED_AT));
+        assertEquals("RUNNING", status());
+
+        assertEquals(1, tradeLegRepository.releaseStaleCashflowClaims("RUNNING", "PENDING", CLAIMED_AT.plusMinutes(10)));
+        assertEquals("PENDING", status());
+        assertNull(jdbcTemplate.queryForObject("SELECT cashflow_claimed_at FROM trade_leg WHERE leg_id = 1000", LocalDateTime.class));
+    }
+}
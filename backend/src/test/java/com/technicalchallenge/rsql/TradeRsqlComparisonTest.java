@@ -0,0 +1,191 @@
+package com.technicalchallenge.rsql;
+
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.repository.TradeRepository;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs RSQL filters against the seeded schema and checks the SQL they compile to: columns
+ * compared in their own type rather than cast to text, one join per association and
+ * EXISTS for selectors through collections.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rsqlcomparison;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.technicalchallenge.rsql.TradeRsqlComparisonTest$SqlCapture",
+        // Statement logging would dominate the benchmark timings
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+class TradeRsqlComparisonTest {
+
+    // Collects the SQL Hibernate sends, so tests can look at the predicates it generated
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        SqlCapture.statements.clear();
+    }
+
+    private static Specification<Trade> rsql(String query) {
+        return new RSQLParser().parse(query).accept(new CustomRsqlVisitor<Trade>(Trade.class));
+    }
+
+    private static List<Long> tradeIds(List<Trade> trades) {
+        return trades.stream().map(Trade::getTradeId).sorted().toList();
+    }
+
+    private static String lastSelect() {
+        return SqlCapture.statements.get(SqlCapture.statements.size() - 1).toLowerCase();
+    }
+
+    @Test
+    void testDateRange_ComparesDatesWithoutCast() {
+        List<Trade> trades = tradeRepository.findAll(rsql("tradeDate>=2024-09-10;tradeDate<2024-12-12"));
+
+        assertEquals(List.of(100005L, 100006L, 100007L), tradeIds(trades));
+        assertFalse(lastSelect().contains("cast("), lastSelect());
+    }
+
+    @Test
+    void testDateTimeRange_ComparesTimestamps() {
+        List<Trade> trades = tradeRepository.findAll(rsql("lastTouchTimestamp>2024-11-20T08:30:00"));
+
+        assertEquals(List.of(100008L), tradeIds(trades));
+    }
+
+    @Test
+    void testDecimalRangeThroughLegs_ComparesNumbersAndReturnsEachTradeOnce() {
+        // Compared as text, "5000000.00" would sort below "900000"
+        List<Trade> trades = tradeRepository.findAll(rsql("tradeLegs.notional>900000"));
+
+        assertEquals(List.of(100001L, 100002L), tradeIds(trades));
+        assertFalse(lastSelect().contains("cast("), lastSelect());
+    }
+
+    @Test
+    void testSameAssociation_JoinedOnceAcrossComparisons() {
+        Specification<Trade> spec = rsql("counterparty.name==BigBank;counterparty.active==true");
+
+        assertEquals(List.of(100001L, 100004L, 100006L, 100008L), tradeIds(tradeRepository.findAll(spec)));
+        assertEquals(4, tradeRepository.count(spec));
+        assertEquals(1, lastSelect().split("join counterparty").length - 1, lastSelect());
+        assertFalse(lastSelect().contains("cast("), lastSelect());
+    }
+
+    @Test
+    void testCollectionSelectors_BecomeExistsWithoutDistinct() {
+        List<Trade> trades = tradeRepository.findAll(rsql("tradeLegs.notional>=1000000;tradeLegs.currency.currency==USD"));
+
+        assertEquals(List.of(100001L), tradeIds(trades));
+        assertTrue(lastSelect().contains("exists("), lastSelect());
+        assertFalse(lastSelect().contains("distinct"), lastSelect());
+        assertFalse(lastSelect().contains("join trade_leg"), lastSelect());
+    }
+
+    @Test
+    void testUnparseableDate_RejectedWhenCompiled() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> rsql("tradeDate>yesterday"));
+
+        assertEquals("Invalid value for property 'tradeDate': yesterday", exception.getMessage());
+    }
+
+    /**
+     * Times a narrow trade date range over a large trade table, typed against the previous
+     * text comparison. Run with -Drsql.benchmark=true, optionally -Drsql.benchmark.rows=N.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "rsql.benchmark", matches = "true")
+    // Committed rows, as H2 reads through its undo log for rows written in an open transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void benchmarkTradeDateRange() {
+        try {
+            runTradeDateRangeBenchmark();
+        } finally {
+            jdbcTemplate.update("DELETE FROM trade WHERE id >= 1000000");
+        }
+    }
+
+    private void runTradeDateRangeBenchmark() {
+        int rows = Integer.getInteger("rsql.benchmark.rows", 200_000);
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[] {1_000_000L + i, 1_000_000L + i, start.plusDays(i % 3650), true});
+            if (batch.size() == 10_000 || i == rows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO trade (id, trade_id, version, trade_date, active) VALUES (?, ?, 1, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+
+        // A different week on every run, since H2 reuses the result of an identical query
+        Function<LocalDate, Specification<Trade>> typed = from ->
+                rsql("tradeDate>=" + from + ";tradeDate<" + from.plusDays(7));
+        Function<LocalDate, Specification<Trade>> text = from -> (root, query, builder) -> builder.and(
+                builder.greaterThanOrEqualTo(root.get("tradeDate").as(String.class), from.toString()),
+                builder.lessThan(root.get("tradeDate").as(String.class), from.plusDays(7).toString()));
+
+        LocalDate week = LocalDate.of(2024, 12, 1);
+        long matches = tradeRepository.count(typed.apply(week));
+        assertEquals(matches, tradeRepository.count(text.apply(week)));
+
+        long typedNanos = time(typed);
+        long textNanos = time(text);
+        System.out.printf("RSQL trade date range over %d trades (%d matches): typed %.2f ms, text %.2f ms per query%n",
+                rows, matches, typedNanos / 1e6, textNanos / 1e6);
+        assertTrue(typedNanos < textNanos);
+    }
+
+    private long time(Function<LocalDate, Specification<Trade>> spec) {
+        int warmup = 5;
+        int iterations = 50;
+        LocalDate from = LocalDate.of(2016, 1, 4);
+        for (int i = 0; i < warmup; i++) {
+            tradeRepository.count(spec.apply(from.plusWeeks(i)));
+        }
+        long start = System.nanoTime();
+        for (int i = warmup; i < warmup + iterations; i++) {
+            tradeRepository.count(spec.apply(from.plusWeeks(i)));
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+}
@@ -21,6 +21,8 @@ public class BookServiceTest {
     private BookRepository bookRepository;
     @Mock
     private BookMapper bookMapper;
+    @Mock
+    private ReferenceDataResolver referenceDataResolver;
     @InjectMocks
     private BookService bookService;
 
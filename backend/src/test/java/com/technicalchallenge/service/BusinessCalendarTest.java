@@ -0,0 +1,93 @@
+package com.technicalchallenge.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusinessCalendarTest {
+
+    private BusinessCalendar newYork;
+    private BusinessCalendar london;
+
+    @BeforeEach
+    void setUp() {
+        newYork = BusinessCalendar.compile("NY", List.of(
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 5, 25), LocalDate.of(2026, 7, 3)));
+        london = BusinessCalendar.compile("LON", List.of(
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 4, 3), LocalDate.of(2026, 4, 6),
+                LocalDate.of(2026, 8, 31)));
+    }
+
+    @Test
+    void testIsBusinessDay_WeekendsAndHolidays() {
+        assertFalse(newYork.isBusinessDay(LocalDate.of(2026, 7, 3)));
+        assertFalse(newYork.isBusinessDay(LocalDate.of(2026, 7, 4)));
+        assertFalse(newYork.isBusinessDay(LocalDate.of(2026, 7, 5)));
+        assertTrue(newYork.isBusinessDay(LocalDate.of(2026, 7, 6)));
+        assertTrue(newYork.isBusinessDay(LocalDate.of(2026, 4, 3)));
+        assertEquals(3, newYork.getHolidayCount());
+    }
+
+    @Test
+    void testIsBusinessDay_MatchesDayOfWeekAcrossWholeRange() {
+        BusinessCalendar weekends = BusinessCalendar.weekendsOnly("");
+        for (LocalDate date = LocalDate.of(1969, 12, 1); date.isBefore(LocalDate.of(1971, 1, 1)); date = date.plusDays(1)) {
+            boolean weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            assertEquals(!weekend, weekends.isBusinessDay(date), date.toString());
+        }
+        assertTrue(weekends.isBusinessDay(LocalDate.of(BusinessCalendar.LAST_YEAR + 1, 1, 1)));
+        assertFalse(weekends.isBusinessDay(LocalDate.of(BusinessCalendar.LAST_YEAR + 1, 1, 4)));
+    }
+
+    @Test
+    void testAdjust_FollowingAndPreceding() {
+        LocalDate saturday = LocalDate.of(2026, 7, 4);
+
+        assertEquals(LocalDate.of(2026, 7, 6), newYork.adjust(saturday, DateRollConvention.FOLLOWING));
+        assertEquals(LocalDate.of(2026, 7, 2), newYork.adjust(saturday, DateRollConvention.PRECEDING));
+        assertSame(saturday, newYork.adjust(saturday, DateRollConvention.UNADJUSTED));
+    }
+
+    @Test
+    void testAdjust_ModifiedConventionsStayInMonth() {
+        // 2026-05-30 is a Saturday and the following Monday is in June
+        assertEquals(LocalDate.of(2026, 5, 29), newYork.adjust(LocalDate.of(2026, 5, 30), DateRollConvention.MODIFIED_FOLLOWING));
+        assertEquals(LocalDate.of(2026, 6, 1), newYork.adjust(LocalDate.of(2026, 5, 30), DateRollConvention.FOLLOWING));
+
+        // 2026-08-01 is a Saturday and the previous Friday is in July
+        assertEquals(LocalDate.of(2026, 8, 3), newYork.adjust(LocalDate.of(2026, 8, 1), DateRollConvention.MODIFIED_PRECEDING));
+    }
+
+    @Test
+    void testAddBusinessDays_SkipsHolidays() {
+        // Thursday before Good Friday and Easter Monday in London
+        LocalDate thursday = LocalDate.of(2026, 4, 2);
+
+        assertEquals(LocalDate.of(2026, 4, 7), london.addBusinessDays(thursday, 1));
+        assertEquals(LocalDate.of(2026, 4, 2), london.addBusinessDays(LocalDate.of(2026, 4, 7), -1));
+        assertSame(thursday, london.addBusinessDays(thursday, 0));
+    }
+
+    @Test
+    void testJoin_IsBusinessDayOnlyWhenBusinessDayInAll() {
+        BusinessCalendar joint = BusinessCalendar.join("LON+NY", List.of(london, newYork));
+
+        assertFalse(joint.isBusinessDay(LocalDate.of(2026, 4, 3)));
+        assertFalse(joint.isBusinessDay(LocalDate.of(2026, 7, 3)));
+        assertTrue(joint.isBusinessDay(LocalDate.of(2026, 7, 2)));
+        assertEquals(6, joint.getHolidayCount());
+    }
+
+    @Test
+    void testDateRollConvention_FromName() {
+        assertEquals(DateRollConvention.MODIFIED_FOLLOWING, DateRollConvention.fromName("Modified Following"));
+        assertEquals(DateRollConvention.FOLLOWING, DateRollConvention.fromName("following"));
+        assertEquals(DateRollConvention.UNADJUSTED, DateRollConvention.fromName(null));
+        assertEquals(DateRollConvention.UNADJUSTED, DateRollConvention.fromName("Nearest"));
+    }
+}
@@ -0,0 +1,263 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.dto.CashflowGenerationStatusDTO;
+import com.technicalchallenge.model.Cashflow;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.TradeLeg;
+import com.technicalchallenge.repository.TradeLegRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CashflowGenerationPipelineTest {
+
+    @Mock
+    private CashflowGenerator cashflowGenerator;
+
+    @Mock
+    private TradeLegRepository tradeLegRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CashflowGenerationPipeline pipeline;
+
+    private TradeLeg leg1;
+    private TradeLeg leg2;
+    private LocalDate startDate;
+    private LocalDate maturityDate;
+
+    @BeforeEach
+    void setUp() {
+        leg1 = new TradeLeg();
+        leg1.setLegId(1L);
+        leg2 = new TradeLeg();
+        leg2.setLegId(2L);
+
+        startDate = LocalDate.of(2026, 1, 15);
+        maturityDate = LocalDate.of(2027, 1, 15);
+    }
+
+    private void enableAsync(int poolSize, int queueCapacity) {
+        ReflectionTestUtils.setField(pipeline, "asyncEnabled", true);
+        ReflectionTestUtils.setField(pipeline, "poolSize", poolSize);
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", queueCapacity);
+        pipeline.start();
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        claimsSucceed();
+    }
+
+    // No other node holds the legs
+    private void claimsSucceed() {
+        lenient().when(tradeLegRepository.claimCashflowGeneration(anyLong(),
+                eq(CashflowGenerationPipeline.PENDING), eq(CashflowGenerationPipeline.RUNNING), any())).thenReturn(1);
+    }
+
+    @Test
+    void testGenerate_SynchronousPersistsAllLegsTogether() {
+        when(cashflowGenerator.generate(any(TradeLeg.class), eq(startDate), eq(maturityDate)))
+                .thenReturn(List.of(new Cashflow(), new Cashflow()));
+
+        int generated = pipeline.generate(List.of(leg1, leg2), startDate, maturityDate);
+
+        assertEquals(4, generated);
+        assertEquals(CashflowGenerationPipeline.DONE, leg1.getCashflowStatus());
+        assertEquals(CashflowGenerationPipeline.DONE, leg2.getCashflowStatus());
+        verify(cashflowGenerator, times(1)).persist(anyList());
+        verifyNoInteractions(tradeLegRepository);
+    }
+
+    @Test
+    void testGenerate_AsyncMarksPendingThenDone() throws Exception {
+        enableAsync(2, 10);
+        when(tradeLegRepository.findById(1L)).thenReturn(Optional.of(leg1));
+        when(tradeLegRepository.findById(2L)).thenReturn(Optional.of(leg2));
+        CountDownLatch release = new CountDownLatch(1);
+        when(cashflowGenerator.generate(any(TradeLeg.class), eq(startDate), eq(maturityDate))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new Cashflow());
+        });
+
+        int generated = pipeline.generate(List.of(leg1, leg2), startDate, maturityDate);
+
+        assertEquals(0, generated);
+        assertEquals(CashflowGenerationPipeline.PENDING, leg1.getCashflowStatus());
+        assertEquals(CashflowGenerationPipeline.PENDING, leg2.getCashflowStatus());
+
+        release.countDown();
+        pipeline.stop();
+
+        assertEquals(CashflowGenerationPipeline.DONE, leg1.getCashflowStatus());
+        assertEquals(CashflowGenerationPipeline.DONE, leg2.getCashflowStatus());
+        verify(cashflowGenerator, times(2)).persist(anyList());
+    }
+
+    @Test
+    void testGenerate_AsyncFailureMarksLegFailed() throws Exception {
+        enableAsync(1, 10);
+        when(tradeLegRepository.findById(1L)).thenReturn(Optional.of(leg1));
+        when(cashflowGenerator.generate(leg1, startDate, maturityDate))
+                .thenThrow(new RuntimeException("Unsupported schedule format: Fortnightly"));
+
+        pipeline.generate(List.of(leg1), startDate, maturityDate);
+        pipeline.stop();
+
+        assertEquals(CashflowGenerationPipeline.FAILED, leg1.getCashflowStatus());
+        assertEquals("Unsupported schedule format: Fortnightly", leg1.getCashflowStatusMessage());
+        verify(cashflowGenerator, never()).persist(anyList());
+    }
+
+    @Test
+    void testGenerate_SaturatedPoolRunsOnCallerThread() throws Exception {
+        enableAsync(1, 1);
+        TradeLeg leg3 = new TradeLeg();
+        leg3.setLegId(3L);
+        when(tradeLegRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(
+                List.of(leg1, leg2, leg3).get(invocation.<Long>getArgument(0).intValue() - 1)));
+        // Hold the only worker so the second leg waits in the queue and the third is rejected
+        CountDownLatch release = new CountDownLatch(1);
+        when(cashflowGenerator.generate(any(TradeLeg.class), eq(startDate), eq(maturityDate))).thenAnswer(invocation -> {
+            if (Thread.currentThread().getName().startsWith("cashflow-gen-")) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return List.of(new Cashflow());
+        });
+
+        pipeline.generate(List.of(leg1, leg2, leg3), startDate, maturityDate);
+
+        assertEquals(CashflowGenerationPipeline.DONE, leg3.getCashflowStatus());
+        assertEquals(1.0, meterRegistry.get("cashflow.async.saturated").counter().count());
+        assertEquals(1.0, meterRegistry.get("cashflow.async.queue.depth").gauge().value());
+
+        release.countDown();
+        pipeline.stop();
+
+        assertEquals(CashflowGenerationPipeline.DONE, leg1.getCashflowStatus());
+        assertEquals(CashflowGenerationPipeline.DONE, leg2.getCashflowStatus());
+    }
+
+    @Test
+    void testGenerate_AfterShutdownLeavesLegPendingForRestart() throws Exception {
+        enableAsync(1, 10);
+        pipeline.stop();
+
+        pipeline.generate(List.of(leg1), startDate, maturityDate);
+
+        assertEquals(CashflowGenerationPipeline.PENDING, leg1.getCashflowStatus());
+        assertEquals(0.0, meterRegistry.get("cashflow.async.saturated").counter().count());
+        verify(tradeLegRepository, never()).findById(any());
+    }
+
+    // Leg 1 left PENDING by an earlier run
+    private void pendingLeg() {
+        Trade trade = new Trade();
+        trade.setTradeStartDate(startDate);
+        trade.setTradeMaturityDate(maturityDate);
+        leg1.setTrade(trade);
+        leg1.setCashflowStatus(CashflowGenerationPipeline.PENDING);
+        when(tradeLegRepository.findWithTradeByCashflowStatus(CashflowGenerationPipeline.PENDING)).thenReturn(List.of(leg1));
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    }
+
+    @Test
+    void testRequeuePending_GeneratesLegsLeftPendingByEarlierRun() {
+        pendingLeg();
+        claimsSucceed();
+        when(tradeLegRepository.findById(1L)).thenReturn(Optional.of(leg1));
+        when(cashflowGenerator.generate(leg1, startDate, maturityDate)).thenReturn(List.of(new Cashflow()));
+
+        // Asynchronous generation is off now, so the leg is generated straight away
+        assertEquals(1, pipeline.requeuePending());
+
+        assertEquals(CashflowGenerationPipeline.DONE, leg1.getCashflowStatus());
+        verify(cashflowGenerator).persist(anyList());
+    }
+
+    @Test
+    void testRequeuePending_ReleasesOnlyStaleClaims() {
+        pendingLeg();
+        claimsSucceed();
+        when(tradeLegRepository.findById(1L)).thenReturn(Optional.of(leg1));
+        LocalDateTime before = LocalDateTime.now().minusSeconds(600);
+
+        pipeline.requeuePending();
+
+        // Legs RUNNING since before the claim timeout go back to PENDING to be requeued
+        verify(tradeLegRepository).releaseStaleCashflowClaims(eq(CashflowGenerationPipeline.RUNNING),
+                eq(CashflowGenerationPipeline.PENDING), argThat(staleBefore ->
+                        !staleBefore.isBefore(before) && staleBefore.isBefore(LocalDateTime.now().minusSeconds(590))));
+    }
+
+    @Test
+    void testRequeuePending_SkipsLegClaimedByAnotherNode() {
+        pendingLeg();
+        when(tradeLegRepository.claimCashflowGeneration(eq(1L), eq(CashflowGenerationPipeline.PENDING),
+                eq(CashflowGenerationPipeline.RUNNING), any())).thenReturn(0);
+
+        pipeline.requeuePending();
+
+        // The live node generating it finishes the leg; nothing is generated twice
+        assertEquals(CashflowGenerationPipeline.PENDING, leg1.getCashflowStatus());
+        verify(tradeLegRepository, never()).findById(any());
+        verifyNoInteractions(cashflowGenerator);
+    }
+
+    @Test
+    void testStatusOf_RunningLegIsStillPending() {
+        leg1.setCashflowStatus(CashflowGenerationPipeline.RUNNING);
+        Trade trade = new Trade();
+        trade.setTradeLegs(List.of(leg1, leg2));
+
+        CashflowGenerationStatusDTO status = pipeline.statusOf(trade);
+
+        assertEquals(CashflowGenerationPipeline.PENDING, status.getStatus());
+        assertEquals(CashflowGenerationPipeline.RUNNING, status.getLegs().get(0).getStatus());
+    }
+
+    @Test
+    void testStatusOf_FailedLegFailsTrade() {
+        leg1.setCashflowStatus(CashflowGenerationPipeline.FAILED);
+        leg1.setCashflowStatusMessage("boom");
+        Trade trade = new Trade();
+        trade.setTradeId(100001L);
+        trade.setVersion(2);
+        trade.setTradeLegs(List.of(leg1, leg2));
+
+        CashflowGenerationStatusDTO status = pipeline.statusOf(trade);
+
+        assertEquals(CashflowGenerationPipeline.FAILED, status.getStatus());
+        assertEquals(2, status.getLegs().size());
+        // Legs without a recorded status were generated synchronously
+        assertEquals(CashflowGenerationPipeline.DONE, status.getLegs().get(1).getStatus());
+    }
+}
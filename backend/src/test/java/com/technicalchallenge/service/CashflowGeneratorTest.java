@@ -0,0 +1,169 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.model.BusinessDayConvention;
+import com.technicalchallenge.model.Cashflow;
+import com.technicalchallenge.model.HolidayCalendar;
+import com.technicalchallenge.model.LegType;
+import com.technicalchallenge.model.Schedule;
+import com.technicalchallenge.model.TradeLeg;
+import com.technicalchallenge.repository.CashflowRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CashflowGeneratorTest {
+
+    @Mock
+    private CashflowRepository cashflowRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private HolidayCalendarEngine holidayCalendarEngine;
+
+    @InjectMocks
+    private CashflowGenerator cashflowGenerator;
+
+    private TradeLeg tradeLeg;
+    private LocalDate startDate;
+
+    @BeforeEach
+    void setUp() {
+        LegType fixed = new LegType();
+        fixed.setType("Fixed");
+
+        Schedule monthly = new Schedule();
+        monthly.setSchedule("Monthly");
+
+        tradeLeg = new TradeLeg();
+        tradeLeg.setNotional(BigDecimal.valueOf(1_200_000));
+        tradeLeg.setRate(0.05);
+        tradeLeg.setLegRateType(fixed);
+        tradeLeg.setCalculationPeriodSchedule(monthly);
+
+        startDate = LocalDate.of(2025, 1, 15);
+    }
+
+    @Test
+    void testComputeSchedule_ThirtyYearMonthlyLeg() {
+        // When
+        CashflowSchedule schedule = cashflowGenerator.computeSchedule(tradeLeg, startDate, startDate.plusYears(30));
+
+        // Then
+        assertEquals(360, schedule.size());
+        assertEquals(LocalDate.of(2025, 2, 15), schedule.getValueDates()[0]);
+        assertEquals(LocalDate.of(2055, 1, 15), schedule.getValueDates()[359]);
+        assertEquals(0, BigDecimal.valueOf(5000.0).compareTo(schedule.getPaymentValue()));
+    }
+
+    @Test
+    void testComputeSchedule_DefaultsToQuarterlyAndKeepsMonthEndRolling() {
+        // Given
+        tradeLeg.setCalculationPeriodSchedule(null);
+        LocalDate monthEnd = LocalDate.of(2025, 1, 31);
+
+        // When
+        CashflowSchedule schedule = cashflowGenerator.computeSchedule(tradeLeg, monthEnd, monthEnd.plusYears(1));
+
+        // Then
+        assertEquals(3, schedule.getMonthsInterval());
+        assertArrayEquals(new LocalDate[] {
+                LocalDate.of(2025, 4, 30), LocalDate.of(2025, 7, 30),
+                LocalDate.of(2025, 10, 30), LocalDate.of(2026, 1, 30)
+        }, schedule.getValueDates());
+    }
+
+    @Test
+    void testComputeSchedule_AdjustsPaymentDatesWithLegCalendar() {
+        // Given 2026-05-03 is a Sunday and 2026-05-04 a London bank holiday
+        HolidayCalendar london = new HolidayCalendar();
+        london.setHolidayCalendar("LON");
+        BusinessDayConvention following = new BusinessDayConvention();
+        following.setBdc("Following");
+        tradeLeg.setHolidayCalendar(london);
+        tradeLeg.setPaymentBusinessDayConvention(following);
+        when(holidayCalendarEngine.forCalendar(london))
+                .thenReturn(BusinessCalendar.compile("LON", List.of(LocalDate.of(2026, 5, 4))));
+
+        // When
+        CashflowSchedule schedule = cashflowGenerator.computeSchedule(tradeLeg, LocalDate.of(2026, 4, 3), LocalDate.of(2026, 7, 3));
+
+        // Then the Sunday rolls past the holiday and the unadjusted dates keep driving the schedule
+        assertArrayEquals(new LocalDate[] {
+                LocalDate.of(2026, 5, 5), LocalDate.of(2026, 6, 3), LocalDate.of(2026, 7, 3)
+        }, schedule.getValueDates());
+    }
+
+    @Test
+    void testComputeSchedule_MaturityBeforeFirstPayment() {
+        // When
+        CashflowSchedule schedule = cashflowGenerator.computeSchedule(tradeLeg, startDate, startDate.plusDays(10));
+
+        // Then
+        assertEquals(0, schedule.size());
+    }
+
+    @Test
+    void testComputeSchedule_InvalidScheduleThrowsException() {
+        // Given
+        tradeLeg.getCalculationPeriodSchedule().setSchedule("Fortnightly");
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                cashflowGenerator.computeSchedule(tradeLeg, startDate, startDate.plusYears(1)));
+        assertTrue(exception.getMessage().contains("Invalid schedule format"));
+    }
+
+    @Test
+    void testGenerate_BuildsCashflowsAndRecordsCount() {
+        // When
+        List<Cashflow> cashflows = cashflowGenerator.generate(tradeLeg, startDate, startDate.plusYears(2));
+
+        // Then
+        assertEquals(24, cashflows.size());
+        assertTrue(cashflows.stream().allMatch(cashflow -> cashflow.getTradeLeg() == tradeLeg));
+        assertEquals(1, cashflows.stream().map(Cashflow::getCreatedDate).distinct().count());
+        assertEquals(24.0, meterRegistry.get("cashflow.generated").counter().count());
+        verifyNoInteractions(cashflowRepository, holidayCalendarEngine);
+    }
+
+    @Test
+    void testPersist_SavesAllCashflowsInOneCall() {
+        // Given
+        List<Cashflow> cashflows = cashflowGenerator.generate(tradeLeg, startDate, startDate.plusYears(1));
+        when(cashflowRepository.saveAll(anyList())).thenReturn(cashflows);
+
+        // When
+        cashflowGenerator.persist(cashflows);
+
+        // Then
+        verify(cashflowRepository, times(1)).saveAll(cashflows);
+    }
+
+    @Test
+    void testPersist_EmptyListSkipsRepository() {
+        // When
+        cashflowGenerator.persist(List.of());
+
+        // Then
+        verifyNoInteractions(cashflowRepository);
+    }
+}
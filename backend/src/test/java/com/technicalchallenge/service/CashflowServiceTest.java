@@ -1,12 +1,10 @@
 package com.technicalchallenge.service;
 
+import com.technicalchallenge.dto.CashflowDTO;
 import com.technicalchallenge.model.Cashflow;
 import com.technicalchallenge.model.PayRec;
 import com.technicalchallenge.model.TradeLeg;
 import com.technicalchallenge.repository.CashflowRepository;
-import com.technicalchallenge.repository.BusinessDayConventionRepository;
-import com.technicalchallenge.repository.LegTypeRepository;
-import com.technicalchallenge.repository.PayRecRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,13 +28,7 @@ public class CashflowServiceTest {
     private CashflowRepository cashflowRepository;
 
     @Mock
-    private PayRecRepository payRecRepository;
-
-    @Mock
-    private LegTypeRepository legTypeRepository;
-
-    @Mock
-    private BusinessDayConventionRepository businessDayConventionRepository;
+    private ReferenceDataResolver referenceDataResolver;
 
     @InjectMocks
     private CashflowService cashflowService;
@@ -189,4 +181,24 @@ public class CashflowServiceTest {
         // Then
         verify(cashflowRepository).deleteById(cashflowId);
     }
+
+    @Test
+    void testPopulateReferenceDataByName_ResolvesNamesIgnoringCase() {
+        // Given
+        ReferenceDataSnapshot referenceData = ReferenceDataSnapshot.builder()
+                .payRecs(ReferenceIndex.of(List.of(payRec), PayRec::getId, PayRec::getPayRec))
+                .build();
+        when(referenceDataResolver.current()).thenReturn(referenceData);
+
+        CashflowDTO dto = new CashflowDTO();
+        dto.setPayRec("pay");
+        Cashflow cashflow = new Cashflow();
+
+        // When
+        cashflowService.populateReferenceDataByName(cashflow, dto);
+
+        // Then
+        assertEquals(payRec, cashflow.getPayRec());
+        verifyNoInteractions(cashflowRepository);
+    }
 }
@@ -0,0 +1,139 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.model.Holiday;
+import com.technicalchallenge.model.HolidayCalendar;
+import com.technicalchallenge.repository.HolidayRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayCalendarEngineTest {
+
+    @Mock
+    private HolidayRepository holidayRepository;
+
+    @InjectMocks
+    private HolidayCalendarEngine holidayCalendarEngine;
+
+    private HolidayCalendar newYork;
+    private HolidayCalendar london;
+
+    @BeforeEach
+    void setUp() {
+        newYork = new HolidayCalendar();
+        newYork.setId(1000L);
+        newYork.setHolidayCalendar("NY");
+
+        london = new HolidayCalendar();
+        london.setId(1001L);
+        london.setHolidayCalendar("LON");
+    }
+
+    @Test
+    void testForName_CompilesStoredHolidaysOnce() {
+        // Given
+        when(holidayRepository.findAllWithCalendar()).thenReturn(List.of(
+                new Holiday(1L, newYork, LocalDate.of(2026, 7, 3), "Independence Day")));
+
+        // When
+        BusinessCalendar first = holidayCalendarEngine.forCalendar(newYork);
+        BusinessCalendar second = holidayCalendarEngine.forName("ny");
+
+        // Then
+        assertSame(first, second);
+        assertFalse(first.isBusinessDay(LocalDate.of(2026, 7, 3)));
+        verify(holidayRepository, times(1)).findAllWithCalendar();
+    }
+
+    @Test
+    void testForName_JointCalendarIsCachedRegardlessOfOrder() {
+        // Given
+        when(holidayRepository.findAllWithCalendar()).thenReturn(List.of(
+                new Holiday(1L, newYork, LocalDate.of(2026, 7, 3), "Independence Day"),
+                new Holiday(2L, london, LocalDate.of(2026, 8, 31), "Summer Bank Holiday")));
+
+        // When
+        BusinessCalendar joint = holidayCalendarEngine.forName("NY+LON");
+
+        // Then
+        assertSame(joint, holidayCalendarEngine.forName("lon + ny"));
+        assertEquals("LON+NY", joint.getName());
+        assertFalse(joint.isBusinessDay(LocalDate.of(2026, 7, 3)));
+        assertFalse(joint.isBusinessDay(LocalDate.of(2026, 8, 31)));
+    }
+
+    @Test
+    void testForName_ComponentsWithoutHolidaysDoNotMakeNewJointCalendars() {
+        // Given
+        when(holidayRepository.findAllWithCalendar()).thenReturn(List.of(
+                new Holiday(1L, newYork, LocalDate.of(2026, 7, 3), "Independence Day"),
+                new Holiday(2L, london, LocalDate.of(2026, 8, 31), "Summer Bank Holiday")));
+
+        // When
+        BusinessCalendar joint = holidayCalendarEngine.forName("NY+LON");
+
+        // Then
+        assertSame(joint, holidayCalendarEngine.forName("NY+LON+TKY+NY"));
+        assertSame(holidayCalendarEngine.forName("NY"), holidayCalendarEngine.forName("NY+TKY+SYD"));
+        assertTrue(holidayCalendarEngine.forName("TKY+SYD").isBusinessDay(LocalDate.of(2026, 7, 3)));
+    }
+
+    @Test
+    void testForName_JointCalendarsBeyondTheCacheSizeAreRebuilt() {
+        // Given
+        HolidayCalendar tokyo = new HolidayCalendar();
+        tokyo.setId(1002L);
+        tokyo.setHolidayCalendar("TKY");
+        ReflectionTestUtils.setField(holidayCalendarEngine, "jointCacheSize", 1);
+        when(holidayRepository.findAllWithCalendar()).thenReturn(List.of(
+                new Holiday(1L, newYork, LocalDate.of(2026, 7, 3), "Independence Day"),
+                new Holiday(2L, london, LocalDate.of(2026, 8, 31), "Summer Bank Holiday"),
+                new Holiday(3L, tokyo, LocalDate.of(2026, 5, 5), "Children's Day")));
+
+        // When
+        BusinessCalendar first = holidayCalendarEngine.forName("NY+LON");
+        holidayCalendarEngine.forName("NY+TKY");
+
+        // Then
+        BusinessCalendar rebuilt = holidayCalendarEngine.forName("NY+LON");
+        assertNotSame(first, rebuilt);
+        assertFalse(rebuilt.isBusinessDay(LocalDate.of(2026, 8, 31)));
+    }
+
+    @Test
+    void testForName_UnknownOrMissingCalendarOnlySkipsWeekends() {
+        // Given
+        when(holidayRepository.findAllWithCalendar()).thenReturn(List.of());
+
+        // When/Then
+        assertTrue(holidayCalendarEngine.forName("TKY").isBusinessDay(LocalDate.of(2026, 7, 3)));
+        assertFalse(holidayCalendarEngine.forName("TKY").isBusinessDay(LocalDate.of(2026, 7, 4)));
+        assertTrue(holidayCalendarEngine.forCalendar(null).isBusinessDay(LocalDate.of(2026, 7, 3)));
+    }
+
+    @Test
+    void testRefresh_RecompilesWithNewHolidays() {
+        // Given
+        when(holidayRepository.findAllWithCalendar()).thenReturn(List.of(),
+                List.of(new Holiday(1L, london, LocalDate.of(2026, 8, 31), "Summer Bank Holiday")));
+        assertTrue(holidayCalendarEngine.forCalendar(london).isBusinessDay(LocalDate.of(2026, 8, 31)));
+
+        // When
+        holidayCalendarEngine.refresh();
+
+        // Then
+        assertFalse(holidayCalendarEngine.forCalendar(london).isBusinessDay(LocalDate.of(2026, 8, 31)));
+    }
+}
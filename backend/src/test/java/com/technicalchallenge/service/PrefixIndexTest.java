@@ -0,0 +1,84 @@
+package com.technicalchallenge.service;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    private PrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PrefixIndex(true);
+        index.put(1L, "BigBank");
+        index.put(2L, "MegaFund");
+        index.put(3L, "Big Capital Partners");
+        index.put(4L, "Bank of Nowhere");
+    }
+
+    private List<String> labels(String query, int limit) {
+        return index.search(query, limit).stream().map(PrefixIndex.Match::getLabel).toList();
+    }
+
+    @Test
+    void testSearch_RanksWholeLabelThenPrefixThenWord() {
+        List<PrefixIndex.Match> matches = index.search("bank", 10);
+
+        // "Bank of Nowhere" starts with the query; "BigBank" has it as a camel-case word
+        assertEquals(List.of("Bank of Nowhere", "BigBank"), matches.stream().map(PrefixIndex.Match::getLabel).toList());
+        assertEquals(PrefixIndex.PREFIX, matches.get(0).getRank());
+        assertEquals(PrefixIndex.WORD, matches.get(1).getRank());
+
+        assertEquals(PrefixIndex.EXACT, index.search("BIGBANK", 10).get(0).getRank());
+    }
+
+    @Test
+    void testSearch_FindsWordsAndSubstrings() {
+        assertEquals(List.of("Big Capital Partners"), labels("partn", 10));
+        assertEquals(List.of("MegaFund"), labels("fund", 10));
+        // "apit" is inside "Capital" but starts no word
+        assertEquals(List.of("Big Capital Partners"), labels("apit", 10));
+        assertEquals(List.of(), labels("zzz", 10));
+    }
+
+    @Test
+    void testSearch_StopsAtLimitInLabelOrder() {
+        assertEquals(List.of("Big Capital Partners", "BigBank"), labels("big", 10));
+        assertEquals(List.of("Big Capital Partners"), labels("big", 1));
+        assertEquals(List.of(), labels(" ", 10));
+    }
+
+    @Test
+    void testPutAndRemove_UpdateInPlace() {
+        long bytes = index.estimatedBytes();
+        index.put(2L, "MegaFund Holdings");
+        assertEquals(List.of("MegaFund Holdings"), labels("hold", 10));
+
+        index.remove(2L);
+        assertEquals(List.of(), labels("mega", 10));
+        assertEquals(3, index.size());
+        assertTrue(index.estimatedBytes() < bytes);
+    }
+
+    @Test
+    void testAliases_AreMatchedButNotReturned() {
+        index.put(5L, "simon", "Simon", "King");
+
+        assertEquals(List.of("simon"), labels("king", 10));
+    }
+
+    @Test
+    void testPrefixOnlyIndex_SkipsSubstrings() {
+        PrefixIndex utiCodes = new PrefixIndex(false);
+        utiCodes.put(100001L, "UTI-001");
+        utiCodes.put(100002L, "UTI-002");
+
+        assertEquals(2, utiCodes.search("uti-00", 10).size());
+        assertEquals(List.of(100002L), utiCodes.search("002", 10).stream().map(PrefixIndex.Match::getId).toList());
+        assertEquals(List.of(), utiCodes.search("I-00", 10));
+    }
+}
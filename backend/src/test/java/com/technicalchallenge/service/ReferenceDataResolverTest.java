@@ -0,0 +1,162 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.Book;
+import com.technicalchallenge.repository.ApplicationUserRepository;
+import com.technicalchallenge.repository.BookRepository;
+import com.technicalchallenge.repository.BusinessDayConventionRepository;
+import com.technicalchallenge.repository.CostCenterRepository;
+import com.technicalchallenge.repository.CounterpartyRepository;
+import com.technicalchallenge.repository.CurrencyRepository;
+import com.technicalchallenge.repository.DeskRepository;
+import com.technicalchallenge.repository.HolidayCalendarRepository;
+import com.technicalchallenge.repository.IndexRepository;
+import com.technicalchallenge.repository.LegTypeRepository;
+import com.technicalchallenge.repository.PayRecRepository;
+import com.technicalchallenge.repository.ScheduleRepository;
+import com.technicalchallenge.repository.SubDeskRepository;
+import com.technicalchallenge.repository.TradeStatusRepository;
+import com.technicalchallenge.repository.TradeSubTypeRepository;
+import com.technicalchallenge.repository.TradeTypeRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataResolverTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private ApplicationUserRepository applicationUserRepository;
+
+    @Mock
+    private DeskRepository deskRepository;
+
+    @Mock
+    private SubDeskRepository subDeskRepository;
+
+    @Mock
+    private CostCenterRepository costCenterRepository;
+
+    @Mock
+    private CounterpartyRepository counterpartyRepository;
+
+    @Mock
+    private TradeStatusRepository tradeStatusRepository;
+
+    @Mock
+    private TradeTypeRepository tradeTypeRepository;
+
+    @Mock
+    private TradeSubTypeRepository tradeSubTypeRepository;
+
+    @Mock
+    private CurrencyRepository currencyRepository;
+
+    @Mock
+    private LegTypeRepository legTypeRepository;
+
+    @Mock
+    private IndexRepository indexRepository;
+
+    @Mock
+    private HolidayCalendarRepository holidayCalendarRepository;
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @Mock
+    private BusinessDayConventionRepository businessDayConventionRepository;
+
+    @Mock
+    private PayRecRepository payRecRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ReferenceDataResolver referenceDataResolver;
+
+    private Book book;
+    private ApplicationUser user;
+
+    @BeforeEach
+    void setUp() {
+        book = new Book();
+        book.setId(1000L);
+        book.setBookName("FX-BOOK-1");
+
+        user = new ApplicationUser();
+        user.setId(1003L);
+        user.setFirstName("Simon");
+        user.setLoginId("simon");
+    }
+
+    @Test
+    void testCurrent_LoadsSnapshotOnceAndIndexesByIdAndName() {
+        // Given
+        when(bookRepository.findAll()).thenReturn(List.of(book));
+        when(applicationUserRepository.findAll()).thenReturn(List.of(user));
+
+        // When
+        ReferenceDataSnapshot first = referenceDataResolver.current();
+        ReferenceDataSnapshot second = referenceDataResolver.current();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1L, first.getVersion());
+        assertSame(book, first.getBooks().byName("fx-book-1").orElseThrow());
+        assertSame(book, first.getBooks().byId(1000L).orElseThrow());
+        assertSame(user, first.getUsersByFirstName().byName("SIMON").orElseThrow());
+        assertSame(user, first.getUsersByLoginId().byName("simon").orElseThrow());
+        verify(bookRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testRefresh_SwapsInNewSnapshotWithHigherVersion() {
+        // Given
+        Book newBook = new Book();
+        newBook.setId(1001L);
+        newBook.setBookName("RATES-BOOK-1");
+        when(bookRepository.findAll()).thenReturn(List.of(book), List.of(book, newBook));
+        when(applicationUserRepository.findAll()).thenReturn(List.of(user));
+
+        ReferenceDataSnapshot before = referenceDataResolver.current();
+
+        // When
+        referenceDataResolver.refresh();
+        ReferenceDataSnapshot after = referenceDataResolver.current();
+
+        // Then
+        assertNotSame(before, after);
+        assertEquals(before.getVersion() + 1, after.getVersion());
+        assertTrue(before.getBooks().byName("RATES-BOOK-1").isEmpty());
+        assertTrue(after.getBooks().byName("RATES-BOOK-1").isPresent());
+    }
+
+    @Test
+    void testResolve_PrefersNameOverId() {
+        // Given
+        Book other = new Book();
+        other.setId(1001L);
+        other.setBookName("RATES-BOOK-1");
+        ReferenceIndex<Book> books = ReferenceIndex.of(List.of(book, other), Book::getId, Book::getBookName);
+
+        // When/Then
+        assertSame(other, books.resolve("rates-book-1", 1000L).orElseThrow());
+        assertSame(book, books.resolve(null, 1000L).orElseThrow());
+        assertTrue(books.resolve("UNKNOWN", 1000L).isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.model.Trade;
+
+import cz.jirutka.rsql.parser.RSQLParserException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RsqlQueryCacheTest {
+
+    private RsqlQueryCache rsqlQueryCache;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rsqlQueryCache = new RsqlQueryCache();
+        ReflectionTestUtils.setField(rsqlQueryCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(rsqlQueryCache, "cacheSize", 2);
+        rsqlQueryCache.init();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("trade.rsql.cache.gets").tag("result", result).counter().count();
+    }
+
+    @Test
+    void testSpecification_RepeatedQueryIsServedFromCache() {
+        Specification<Trade> first = rsqlQueryCache.specification("book.bookName==FX-BOOK-1;active==true");
+        Specification<Trade> second = rsqlQueryCache.specification(" book.bookName==FX-BOOK-1;active==true ");
+
+        assertSame(first, second);
+        assertEquals(1.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+        assertEquals(0.5, meterRegistry.get("trade.rsql.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void testSpecification_EvictsLeastRecentlyUsedQuery() {
+        Specification<Trade> byBook = rsqlQueryCache.specification("book.bookName==FX-BOOK-1");
+        rsqlQueryCache.specification("tradeId==100001");
+        rsqlQueryCache.specification("book.bookName==FX-BOOK-1");
+        rsqlQueryCache.specification("version==1");
+
+        assertSame(byBook, rsqlQueryCache.specification("book.bookName==FX-BOOK-1"));
+        assertEquals(2.0, meterRegistry.get("trade.rsql.cache.size").gauge().value());
+        rsqlQueryCache.specification("tradeId==100001");
+        assertEquals(4.0, gets("miss"));
+    }
+
+    @Test
+    void testSpecification_UnknownSelectorRejectedWhenCompiled() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> rsqlQueryCache.specification("book.owner==alice"));
+
+        assertEquals("Unknown property: book.owner", exception.getMessage());
+        assertEquals(0.0, meterRegistry.get("trade.rsql.cache.size").gauge().value());
+    }
+
+    @Test
+    void testSpecification_ArgumentOfWrongTypeRejectedWhenCompiled() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> rsqlQueryCache.specification("tradeId==abc"));
+
+        assertEquals("Invalid value for property 'tradeId': abc", exception.getMessage());
+    }
+
+    @Test
+    void testSpecification_MalformedQueryIsNotCached() {
+        assertThrows(RSQLParserException.class, () -> rsqlQueryCache.specification("INVALID QUERY"));
+        assertThrows(RSQLParserException.class, () -> rsqlQueryCache.specification("INVALID QUERY"));
+
+        assertEquals(2.0, gets("miss"));
+        assertEquals(0.0, gets("hit"));
+    }
+}
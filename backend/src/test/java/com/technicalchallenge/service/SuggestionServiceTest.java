@@ -0,0 +1,124 @@
+package com.technicalchallenge.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.technicalchallenge.dto.SuggestionDTO;
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.Book;
+import com.technicalchallenge.model.Counterparty;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestionServiceTest {
+
+    @Mock
+    private ReferenceDataResolver referenceDataResolver;
+
+    @Mock
+    private TradeBlotterIndex tradeBlotterIndex;
+
+    @InjectMocks
+    private SuggestionService suggestionService;
+
+    private ReferenceDataSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = snapshot(1L, "BigBank", "MegaFund");
+    }
+
+    private static ReferenceDataSnapshot snapshot(long version, String... counterpartyNames) {
+        List<Counterparty> counterparties = new ArrayList<>();
+        for (int i = 0; i < counterpartyNames.length; i++) {
+            Counterparty counterparty = new Counterparty();
+            counterparty.setId(1000L + i);
+            counterparty.setName(counterpartyNames[i]);
+            counterparties.add(counterparty);
+        }
+        Book book = new Book();
+        book.setId(1000L);
+        book.setBookName("FX-BOOK-1");
+        ApplicationUser user = new ApplicationUser();
+        user.setId(1003L);
+        user.setLoginId("simon");
+        user.setFirstName("Simon");
+        user.setLastName("King");
+
+        return ReferenceDataSnapshot.builder()
+                .version(version)
+                .counterparties(ReferenceIndex.of(counterparties, Counterparty::getId, Counterparty::getName))
+                .books(ReferenceIndex.of(List.of(book), Book::getId, Book::getBookName))
+                .usersByLoginId(ReferenceIndex.of(List.of(user), ApplicationUser::getId, ApplicationUser::getLoginId))
+                .build();
+    }
+
+    private static List<String> values(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(suggestion -> suggestion.getType() + ":" + suggestion.getValue()).toList();
+    }
+
+    @Test
+    void testSuggest_MergesTypesBestMatchFirst() {
+        when(referenceDataResolver.current()).thenReturn(snapshot);
+        when(tradeBlotterIndex.searchUtiCodes("fx", 10)).thenReturn(List.of());
+
+        assertEquals(List.of("BOOK:FX-BOOK-1"), values(suggestionService.suggest("fx", null, 10)));
+
+        PrefixIndex uti = new PrefixIndex(false);
+        uti.put(100001L, "BANK-UTI-1");
+        when(tradeBlotterIndex.searchUtiCodes("bank", 10)).thenReturn(uti.search("bank", 10));
+
+        // The UTI starts with the query, so it outranks the camel-case word in BigBank
+        List<SuggestionDTO> result = suggestionService.suggest("bank", null, 10);
+        assertEquals(List.of("UTI:BANK-UTI-1", "COUNTERPARTY:BigBank"), values(result));
+        assertEquals(100001L, result.get(0).getId());
+    }
+
+    @Test
+    void testSuggest_OnlySearchesRequestedTypes() {
+        when(referenceDataResolver.current()).thenReturn(snapshot);
+
+        assertEquals(List.of("USER:simon"), values(suggestionService.suggest("king", List.of("user", "counterparty"), 10)));
+        verify(tradeBlotterIndex, never()).searchUtiCodes(anyString(), anyInt());
+    }
+
+    @Test
+    void testSuggest_ReindexesNewerSnapshot() {
+        when(referenceDataResolver.current()).thenReturn(snapshot);
+        assertEquals(List.of(), values(suggestionService.suggest("alpha", List.of("COUNTERPARTY"), 10)));
+
+        when(referenceDataResolver.current()).thenReturn(snapshot(2L, "BigBank", "Alpha Markets"));
+        assertEquals(List.of("COUNTERPARTY:Alpha Markets"), values(suggestionService.suggest("alpha", List.of("COUNTERPARTY"), 10)));
+    }
+
+    @Test
+    void testSuggest_RejectsUnknownTypeAndBadLimit() {
+        RuntimeException type = assertThrows(RuntimeException.class,
+                () -> suggestionService.suggest("big", List.of("DESK"), 10));
+        assertEquals("Unknown suggestion type: DESK", type.getMessage());
+
+        RuntimeException limit = assertThrows(RuntimeException.class,
+                () -> suggestionService.suggest("big", null, 0));
+        assertEquals("Limit must be between 1 and 50", limit.getMessage());
+    }
+
+    @Test
+    void testSuggest_BlankQueryReturnsNothing() {
+        assertEquals(List.of(), suggestionService.suggest("  ", null, 10));
+        verify(referenceDataResolver, never()).current();
+    }
+}
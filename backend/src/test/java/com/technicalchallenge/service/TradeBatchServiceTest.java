@@ -0,0 +1,166 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.dto.TradeBatchResultDTO;
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.ValidationResult;
+import com.technicalchallenge.repository.TradeRepository;
+import com.technicalchallenge.validation.TradeValidationEngine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradeBatchServiceTest {
+
+    @Mock
+    private TradeService tradeService;
+
+    @Mock
+    private TradeRepository tradeRepository;
+
+    @Mock
+    private TradeValidationEngine tradeValidationEngine;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TradeBlotterIndex tradeBlotterIndex;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TradeBatchService tradeBatchService;
+
+    private List<TradeDTO> tradeDTOs;
+
+    @BeforeEach
+    void setUp() {
+        tradeDTOs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TradeDTO tradeDTO = new TradeDTO();
+            tradeDTO.setTradeDate(LocalDate.now());
+            tradeDTOs.add(tradeDTO);
+        }
+
+        long[] nextTradeId = {10000L};
+        when(tradeService.buildNewTrade(any(TradeDTO.class))).thenAnswer(invocation -> {
+            Trade trade = new Trade();
+            trade.setTradeId(nextTradeId[0]++);
+            return trade;
+        });
+    }
+
+    private void structurallyValid() {
+        when(tradeValidationEngine.validateStructure(anyList()))
+                .thenReturn(List.of(new ValidationResult(), new ValidationResult(), new ValidationResult()));
+    }
+
+    @Test
+    void testBookTrades_BooksAllValidTradesInOneChunk() {
+        // Given
+        structurallyValid();
+        when(tradeValidationEngine.validateReferenceData(any(TradeDTO.class), any(Trade.class))).thenReturn(new ValidationResult());
+
+        // When
+        TradeBatchResultDTO result = tradeBatchService.bookTrades(tradeDTOs);
+
+        // Then
+        assertEquals(3, result.getSubmitted());
+        assertEquals(3, result.getBooked());
+        assertEquals(0, result.getRejected());
+        assertEquals(List.of(10000L, 10001L, 10002L),
+                result.getResults().stream().map(r -> r.getTradeId()).toList());
+        verify(tradeRepository, times(1)).saveAll(anyList());
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+        verify(tradeBlotterIndex).refresh(List.of(10000L, 10001L, 10002L));
+        assertEquals(3.0, meterRegistry.counter("trade.batch.trades", "outcome", "booked").count());
+    }
+
+    @Test
+    void testBookTrades_RejectsInvalidTradesWithoutPersistingThem() {
+        // Given
+        structurallyValid();
+        ValidationResult invalid = new ValidationResult();
+        invalid.addError("bookName", "Book not found or not set", "ERROR");
+        when(tradeValidationEngine.validateReferenceData(any(TradeDTO.class), any(Trade.class)))
+                .thenReturn(new ValidationResult(), invalid, new ValidationResult());
+
+        // When
+        TradeBatchResultDTO result = tradeBatchService.bookTrades(tradeDTOs);
+
+        // Then
+        assertEquals(2, result.getBooked());
+        assertEquals(1, result.getRejected());
+        assertEquals(TradeBatchService.REJECTED, result.getResults().get(1).getStatus());
+        assertEquals(List.of("Book not found or not set"), result.getResults().get(1).getErrors());
+        verify(tradeService, times(2)).attachTradeLegsWithCashflows(any(TradeDTO.class), any(Trade.class));
+        verify(tradeRepository).saveAll(argThat(trades -> ((List<Trade>) trades).size() == 2));
+    }
+
+    @Test
+    void testBookTrades_PersistsInChunksAndRejectsFailedChunk() {
+        // Given
+        ReflectionTestUtils.setField(tradeBatchService, "chunkSize", 2);
+        structurallyValid();
+        when(tradeValidationEngine.validateReferenceData(any(TradeDTO.class), any(Trade.class))).thenReturn(new ValidationResult());
+        when(tradeRepository.saveAll(anyList()))
+                .thenReturn(List.of())
+                .thenThrow(new RuntimeException("Database unavailable"));
+
+        // When
+        TradeBatchResultDTO result = tradeBatchService.bookTrades(tradeDTOs);
+
+        // Then
+        assertEquals(2, result.getBooked());
+        assertEquals(1, result.getRejected());
+        assertEquals(TradeBatchService.BOOKED, result.getResults().get(1).getStatus());
+        assertEquals(List.of("Error persisting trade: Database unavailable"), result.getResults().get(2).getErrors());
+        verify(tradeRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void testBookTrades_RejectsMalformedTradesBeforeBuildingThem() {
+        // Given
+        ValidationResult malformed = new ValidationResult();
+        malformed.addError("tradeLegs", "Trade must have exactly two legs", "ERROR");
+        when(tradeValidationEngine.validateStructure(anyList()))
+                .thenReturn(List.of(malformed, new ValidationResult(), new ValidationResult()));
+        when(tradeValidationEngine.validateReferenceData(any(TradeDTO.class), any(Trade.class))).thenReturn(new ValidationResult());
+
+        // When
+        TradeBatchResultDTO result = tradeBatchService.bookTrades(tradeDTOs);
+
+        // Then
+        assertEquals(2, result.getBooked());
+        assertEquals(List.of("Trade must have exactly two legs"), result.getResults().get(0).getErrors());
+        assertNull(result.getResults().get(0).getTradeId());
+        verify(tradeService, times(2)).buildNewTrade(any(TradeDTO.class));
+    }
+}
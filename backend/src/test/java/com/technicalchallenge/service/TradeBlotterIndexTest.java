@@ -0,0 +1,235 @@
+package com.technicalchallenge.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.technicalchallenge.dto.TradeBlotterSummaryDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Builds the blotter index from the seed trades and checks its filters and aggregates
+ * against what the seed data holds.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TradeBlotterIndex.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:tradeblotterindex;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+class TradeBlotterIndexTest {
+
+    @Autowired
+    private TradeBlotterIndex tradeBlotterIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        tradeBlotterIndex.rebuild();
+    }
+
+    private static TradeSearchCriteria criteria() {
+        return new TradeSearchCriteria();
+    }
+
+    @Test
+    void testRebuild_AggregatesSeedTrades() {
+        TradeBlotterSummaryDTO summary = tradeBlotterIndex.summarise(criteria());
+
+        assertEquals(8, summary.getTradeCount());
+        assertEquals(new BigDecimal("7000000.00"), summary.getTotalNotional());
+        assertEquals(Map.of("USD", new BigDecimal("2000000.00"), "EUR", new BigDecimal("5000000.00")),
+                summary.getNotionalByCurrency());
+        assertEquals(Map.of("FX-BOOK-1", 4L, "RATES-BOOK-1", 4L), summary.getTradeCountByBook());
+        assertEquals(3L, summary.getTradeCountByStatus().get("LIVE"));
+
+        // Trade 100001 pays and receives 1M on FX-BOOK-1; trade 100002 pays 5M on RATES-BOOK-1
+        assertEquals(new BigDecimal("0.00"), summary.getRiskExposureByBook().get("FX-BOOK-1"));
+        assertEquals(new BigDecimal("-5000000.00"), summary.getRiskExposureByBook().get("RATES-BOOK-1"));
+    }
+
+    @Test
+    void testSummarise_FiltersByReferenceAndDate() {
+        TradeSearchCriteria criteria = criteria();
+        criteria.setCounterpartyIds(List.of(1000L));
+        assertEquals(4, tradeBlotterIndex.summarise(criteria).getTradeCount());
+
+        criteria.setBookIds(List.of(1001L));
+        assertEquals(List.of(100004L, 100006L, 100008L),
+                tradeBlotterIndex.tradeIds(criteria).stream().sorted().toList());
+
+        criteria.setEarliestTradeDate(LocalDate.of(2024, 10, 1));
+        criteria.setLatestTradeDate(LocalDate.of(2024, 10, 31));
+        assertEquals(List.of(100006L), tradeBlotterIndex.tradeIds(criteria));
+    }
+
+    @Test
+    void testPut_ReplacesTradeAndReusesFreedRow() {
+        long bytes = tradeBlotterIndex.estimatedBytes();
+        tradeBlotterIndex.put(BlotterTrade.builder().tradeId(100001L).utiCode("UTI-001").bookId(1001L).bookName("RATES-BOOK-1")
+                .notional(new BigDecimal("10.00")).build());
+
+        TradeSearchCriteria rates = criteria();
+        rates.setBookIds(List.of(1001L));
+        assertEquals(8, tradeBlotterIndex.size());
+        assertEquals(5, tradeBlotterIndex.summarise(rates).getTradeCount());
+        assertEquals(bytes, tradeBlotterIndex.estimatedBytes());
+    }
+
+    @Test
+    void testRefresh_WaitsForCommit() {
+        jdbcTemplate.update("UPDATE trade SET active = false WHERE trade_id = 100001");
+        tradeBlotterIndex.refresh(100001L);
+
+        // The test transaction never commits, so the index still holds the trade
+        assertEquals(8, tradeBlotterIndex.size());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testRefresh_PicksUpCommittedChanges() {
+        try {
+            jdbcTemplate.update("UPDATE trade SET trade_status_id = 1003 WHERE trade_id = 100002");
+            jdbcTemplate.update("UPDATE trade SET active = false WHERE trade_id = 100003");
+            tradeBlotterIndex.refresh(List.of(100002L, 100003L));
+
+            TradeSearchCriteria cancelled = criteria();
+            cancelled.setTradeStatusIds(List.of(1003L));
+            assertEquals(List.of(100002L, 100006L),
+                    tradeBlotterIndex.tradeIds(cancelled).stream().sorted().toList());
+            assertEquals(7, tradeBlotterIndex.size());
+        } finally {
+            jdbcTemplate.update("UPDATE trade SET trade_status_id = 1004 WHERE trade_id = 100002");
+            jdbcTemplate.update("UPDATE trade SET active = true WHERE trade_id = 100003");
+        }
+    }
+
+    @Test
+    void testSearchUtiCodes_FollowsIndexedTrades() {
+        assertEquals(8, tradeBlotterIndex.searchUtiCodes("uti-00", 10).size());
+        assertEquals(List.of(100006L),
+                tradeBlotterIndex.searchUtiCodes("006", 10).stream().map(PrefixIndex.Match::getId).toList());
+
+        tradeBlotterIndex.put(BlotterTrade.builder().tradeId(100006L).utiCode("UTI-RENAMED").build());
+        assertEquals(List.of(), tradeBlotterIndex.searchUtiCodes("006", 10));
+        assertEquals(List.of("UTI-RENAMED"),
+                tradeBlotterIndex.searchUtiCodes("renamed", 10).stream().map(PrefixIndex.Match::getLabel).toList());
+    }
+
+    private void assertTraderTotalsMatchTrades(long traderId) {
+        TradeSearchCriteria criteria = criteria();
+        criteria.setTraderIds(List.of(traderId));
+        TradeBlotterSummaryDTO expected = tradeBlotterIndex.summarise(criteria);
+        TradeBlotterSummaryDTO actual = tradeBlotterIndex.summariseTrader(traderId);
+
+        assertEquals(expected.getTradeCount(), actual.getTradeCount());
+        assertEquals(expected.getTotalNotional(), actual.getTotalNotional());
+        assertEquals(expected.getTradeCountByStatus(), actual.getTradeCountByStatus());
+        assertEquals(expected.getTradeCountByTradeType(), actual.getTradeCountByTradeType());
+        assertEquals(expected.getTradeCountByCounterparty(), actual.getTradeCountByCounterparty());
+        assertEquals(expected.getTradeCountByBook(), actual.getTradeCountByBook());
+        assertEquals(expected.getNotionalByBook(), actual.getNotionalByBook());
+        assertEquals(expected.getNotionalByCurrency(), actual.getNotionalByCurrency());
+        assertEquals(expected.getRiskExposureByBook(), actual.getRiskExposureByBook());
+    }
+
+    @Test
+    void testSummariseTrader_FollowsTradeChanges() {
+        // Simon King (1003) trades on FX-BOOK-1, including trade 100001 with its USD legs
+        TradeBlotterSummaryDTO simon = tradeBlotterIndex.summariseTrader(1003L);
+        assertEquals(4, simon.getTradeCount());
+        assertEquals(Map.of("FX-BOOK-1", 4L), simon.getTradeCountByBook());
+        assertEquals(Map.of("USD", new BigDecimal("2000000.00")), simon.getNotionalByCurrency());
+        for (long trader : List.of(1003L, 1004L, 1005L)) {
+            assertTraderTotalsMatchTrades(trader);
+        }
+
+        // Trade 100001 moves to Joey Tribbiani (1005) on RATES-BOOK-1 in EUR
+        tradeBlotterIndex.put(BlotterTrade.builder().tradeId(100001L).traderId(1005L).traderLoginId("joey")
+                .bookId(1001L).bookName("RATES-BOOK-1").tradeStatusId(1004L).tradeStatus("LIVE")
+                .notional(new BigDecimal("250.00")).exposure(new BigDecimal("-250.00"))
+                .notionalByCurrency(Map.of("EUR", new BigDecimal("250.00"))).build());
+        // A trade held only in the index is dropped when re-read from the database
+        tradeBlotterIndex.put(BlotterTrade.builder().tradeId(900001L).traderId(1003L).traderLoginId("simon")
+                .bookId(1000L).bookName("FX-BOOK-1").notional(new BigDecimal("7.00")).build());
+        assertEquals(4, tradeBlotterIndex.summariseTrader(1003L).getTradeCount());
+        tradeBlotterIndex.reindex(List.of(900001L));
+
+        assertEquals(3, tradeBlotterIndex.summariseTrader(1003L).getTradeCount());
+        assertEquals(Map.of(), tradeBlotterIndex.summariseTrader(1003L).getNotionalByCurrency());
+        assertEquals(new BigDecimal("5000250.00"), tradeBlotterIndex.summariseTrader(1005L).getNotionalByCurrency().get("EUR"));
+        for (long trader : List.of(1003L, 1004L, 1005L)) {
+            assertTraderTotalsMatchTrades(trader);
+        }
+        assertEquals(0, tradeBlotterIndex.summariseTrader(4242L).getTradeCount());
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @Test
+    void testReconcile_RepairsIndexRowsTheDatabaseDisagreesWith() {
+        double reconciled = counter("trade.blotter.index.reconciled");
+        // Trade 100002 belongs to Joey Tribbiani (1005) in the database
+        tradeBlotterIndex.put(BlotterTrade.builder().tradeId(100002L).traderId(1004L).traderLoginId("ashley")
+                .notional(new BigDecimal("1.00")).build());
+
+        assertEquals(List.of(1004L, 1005L), tradeBlotterIndex.reconcile());
+
+        assertEquals(1, tradeBlotterIndex.summariseTrader(1004L).getTradeCount());
+        assertEquals(3, tradeBlotterIndex.summariseTrader(1005L).getTradeCount());
+        for (long trader : List.of(1003L, 1004L, 1005L)) {
+            assertTraderTotalsMatchTrades(trader);
+        }
+        assertEquals(List.of(), tradeBlotterIndex.reconcile());
+        assertEquals(reconciled + 6, counter("trade.blotter.index.reconciled"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testReconcile_PicksUpACommittedChangeThatWasNeverRefreshed() {
+        double drifted = counter("trade.blotter.index.drifted");
+        try {
+            jdbcTemplate.update("UPDATE trade SET trade_status_id = 1003 WHERE trade_id = 100002");
+
+            assertEquals(List.of(1005L), tradeBlotterIndex.reconcile());
+
+            TradeSearchCriteria cancelled = criteria();
+            cancelled.setTradeStatusIds(List.of(1003L));
+            assertEquals(List.of(100002L, 100006L),
+                    tradeBlotterIndex.tradeIds(cancelled).stream().sorted().toList());
+            assertEquals(drifted + 1, counter("trade.blotter.index.drifted"));
+        } finally {
+            jdbcTemplate.update("UPDATE trade SET trade_status_id = 1004 WHERE trade_id = 100002");
+        }
+    }
+
+    @Test
+    void testMetrics_ReportSizeAndMemory() {
+        assertEquals(8.0, meterRegistry.get("trade.blotter.index.trades").gauge().value());
+        assertTrue(meterRegistry.get("trade.blotter.index.memory").gauge().value() > 0);
+    }
+}
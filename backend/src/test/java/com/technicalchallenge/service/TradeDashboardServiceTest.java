@@ -7,36 +7,41 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.technicalchallenge.dto.DailySummaryDTO;
+import com.technicalchallenge.dto.DailyWindowStatisticsDTO;
+import com.technicalchallenge.dto.TradeBlotterSummaryDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
 import com.technicalchallenge.dto.TradeSummaryDTO;
 import com.technicalchallenge.mapper.TradeSummaryMapper;
 import com.technicalchallenge.model.ApplicationUser;
 import com.technicalchallenge.model.Book;
 import com.technicalchallenge.model.Counterparty;
-import com.technicalchallenge.model.Currency;
 import com.technicalchallenge.model.DailySummary;
-import com.technicalchallenge.model.PayRec;
 import com.technicalchallenge.model.Trade;
 import com.technicalchallenge.model.TradeLeg;
 import com.technicalchallenge.model.TradeStatus;
@@ -80,6 +85,20 @@ public class TradeDashboardServiceTest {
     @Mock
     private TradeSummaryMapper tradeSummaryMapper;
 
+    // A real index, filled through put() rather than loaded from the database
+    @Spy
+    private TradeBlotterIndex tradeBlotterIndex = new TradeBlotterIndex();
+
+    @Mock
+    private TradeSummaryQueries tradeSummaryQueries;
+
+    @Mock
+    private ReferenceDataResolver referenceDataResolver;
+
+    // Real rolling statistics over the mocked daily summary repository
+    @Spy
+    private TraderDailyStatistics traderDailyStatistics = new TraderDailyStatistics();
+
     @InjectMocks
     private TradeDashboardService tradeDashboardService;
 
@@ -94,6 +113,10 @@ public class TradeDashboardServiceTest {
 
     @BeforeEach
     void setUp() {
+        // The spied index is never loaded from the database, so report it loaded
+        lenient().doReturn(true).when(tradeBlotterIndex).isLoaded();
+        ReflectionTestUtils.setField(traderDailyStatistics, "dailySummaryRepository", dailySummaryRepository);
+
         activeUser = new ApplicationUser();
         activeUser.setId(15L);
         activeUser.setLoginId("user123");
@@ -130,6 +153,22 @@ public class TradeDashboardServiceTest {
         trade2.setTradeLegs(List.of(leg2));
     }
 
+    @Test
+    void testInit_RejectsStatisticsShorterThanTheDefaultWindows() {
+        ReflectionTestUtils.setField(traderDailyStatistics, "maxWindowDays", 60);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> tradeDashboardService.init());
+
+        assertEquals("trade.summary.statistics.max-window-days must be at least 90: 60", ex.getMessage());
+    }
+
+    @Test
+    void testInit_AcceptsStatisticsCoveringTheDefaultWindows() {
+        ReflectionTestUtils.setField(traderDailyStatistics, "maxWindowDays", 90);
+
+        tradeDashboardService.init();
+    }
+
     @Test
     void testGetPersonalTrades_Success() {
         when(applicationUserRepository.findByLoginId("user123")).thenReturn(Optional.of(activeUser));
@@ -216,38 +255,27 @@ public class TradeDashboardServiceTest {
                 .thenReturn(Optional.of(activeUser));
 
         TradeStatus status = new TradeStatus();
+        status.setId(1L);
         status.setTradeStatus("NEW");
 
         TradeType type = new TradeType();
+        type.setId(1L);
         type.setTradeType("SPOT");
 
         Counterparty cp = new Counterparty();
+        cp.setId(1L);
         cp.setName("ABC_BANK");
 
-        // TradeLeg with notional + currency
-        TradeLeg leg = new TradeLeg();
-        Currency currency = new Currency();
-        currency.setCurrency("USD");
-        leg.setCurrency(currency);
-        leg.setNotional(BigDecimal.valueOf(1000));
-        PayRec flag = new PayRec();
-        flag.setPayRec("RECEIVE");
-        leg.setPayReceiveFlag(flag);
-
-        trade.setTradeStatus(status);
-        trade.setTradeType(type);
-        trade.setCounterparty(cp);
-        trade.setTradeLegs(List.of(leg));
-
-        when(tradeRepository.findByTraderUser_Id(activeUser.getId()))
-                .thenReturn(List.of(trade));
+        // One RECEIVE leg of 1000 USD
+        index(blotterTrade(101L)
+                .tradeStatusId(1L).tradeStatus("NEW")
+                .tradeTypeId(1L).tradeType("SPOT")
+                .counterpartyId(1L).counterpartyName("ABC_BANK")
+                .notional(BigDecimal.valueOf(1000))
+                .exposure(BigDecimal.valueOf(1000))
+                .notionalByCurrency(Map.of("USD", BigDecimal.valueOf(1000))));
 
-        when(tradeStatusRepository.findAll()).thenReturn(List.of(status));
-        when(tradeTypeRepository.findAll()).thenReturn(List.of(type));
-        when(counterpartyRepository.findAll()).thenReturn(List.of(cp));
-
-        when(tradeSummaryRepository.save(any(TradeSummary.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(referenceDataResolver.current()).thenReturn(referenceData(List.of(status), List.of(type), List.of(cp)));
 
         TradeSummaryDTO dto = new TradeSummaryDTO();
         when(tradeSummaryMapper.toDto(any(TradeSummary.class))).thenReturn(dto);
@@ -257,8 +285,9 @@ public class TradeDashboardServiceTest {
 
         // then
         assertNotNull(result);
-        verify(tradeSummaryRepository).save(any(TradeSummary.class));
-        verify(tradeSummaryMapper).toDto(any(TradeSummary.class));
+        // Reads compute the summary; snapshots are saved by the scheduler
+        verify(tradeSummaryRepository, never()).save(any(TradeSummary.class));
+        verify(tradeSummaryMapper).toDto(argThat(summary -> summary.getTraderUser() == activeUser));
     }
 
     @Test
@@ -267,15 +296,53 @@ public class TradeDashboardServiceTest {
         when(applicationUserRepository.findByLoginId("user123"))
                 .thenReturn(Optional.of(activeUser));
 
-        when(tradeRepository.findByTraderUser_Id(activeUser.getId()))
-                .thenReturn(Collections.emptyList());
-
         when(tradeSummaryMapper.toDto(any(TradeSummary.class))).thenReturn(new TradeSummaryDTO());
 
         TradeSummaryDTO result = tradeDashboardService.getTradeSummaryForUser("user123");
 
         assertNotNull(result);
-        verify(tradeRepository).findByTraderUser_Id(activeUser.getId());
+        verify(tradeSummaryRepository, never()).save(any(TradeSummary.class));
+    }
+
+    @Test
+    void testGetTradeSummaryForUser_OtherTradersTradesExcluded() {
+        when(applicationUserRepository.findByLoginId("user123"))
+                .thenReturn(Optional.of(activeUser));
+        when(tradeSummaryMapper.toDto(any(TradeSummary.class))).thenReturn(new TradeSummaryDTO());
+
+        tradeBlotterIndex.put(blotterTrade(102L).traderId(99L).build());
+
+        tradeDashboardService.getTradeSummaryForUser("user123");
+
+        verify(tradeSummaryRepository, never()).save(any(TradeSummary.class));
+    }
+
+    @Test
+    void testGetTradeSummaryForUser_GroupsInDatabaseUntilIndexLoaded() {
+        when(applicationUserRepository.findByLoginId("user123"))
+                .thenReturn(Optional.of(activeUser));
+        doReturn(false).when(tradeBlotterIndex).isLoaded();
+
+        TradeBlotterSummaryDTO grouped = new TradeBlotterSummaryDTO(1, new BigDecimal("1000.00"),
+                Map.of("NEW", 1L), Map.of("SPOT", 1L), Map.of("ABC_BANK", 1L), Map.of("EQUITY-DESK", 1L),
+                Map.of("EQUITY-DESK", new BigDecimal("1000.00")), Map.of("USD", new BigDecimal("1000.00")),
+                Map.of("EQUITY-DESK", new BigDecimal("-1000.00")));
+        when(tradeSummaryQueries.summariseTrader(15L)).thenReturn(grouped);
+        when(referenceDataResolver.current()).thenReturn(referenceData(List.of(), List.of(), List.of()));
+        when(tradeSummaryMapper.toDto(any(TradeSummary.class)))
+                .thenAnswer(invocation -> {
+                    TradeSummary summary = invocation.getArgument(0);
+                    TradeSummaryDTO dto = new TradeSummaryDTO();
+                    dto.setTradeCountByStatus(summary.getTradeCountByStatus());
+                    dto.setRiskExposure(summary.getRiskExposure());
+                    return dto;
+                });
+
+        TradeSummaryDTO result = tradeDashboardService.getTradeSummaryForUser("user123");
+
+        assertEquals(Map.of("NEW", 1L), result.getTradeCountByStatus());
+        assertEquals(Map.of("EQUITY-DESK", new BigDecimal("-1000.00")), result.getRiskExposure());
+        verify(tradeBlotterIndex, never()).summariseTrader(anyLong());
     }
 
     @Test
@@ -330,68 +397,50 @@ public class TradeDashboardServiceTest {
         when(applicationUserRepository.findByLoginId("user123"))
                 .thenReturn(Optional.of(activeUser));
 
-        // --- Trade setup ---
         TradeStatus status1 = new TradeStatus();
+        status1.setId(1L);
         status1.setTradeStatus("NEW");
 
         TradeStatus status2 = new TradeStatus();
+        status2.setId(2L);
         status2.setTradeStatus("CANCELLED");
 
         TradeType type1 = new TradeType();
+        type1.setId(1L);
         type1.setTradeType("SPOT");
 
         Counterparty cp1 = new Counterparty();
+        cp1.setId(1L);
         cp1.setName("BankA");
 
         Counterparty cp2 = new Counterparty();
+        cp2.setId(2L);
         cp2.setName("BankB");
 
-        Currency usd = new Currency();
-        usd.setCurrency("USD");
-
-        // TradeLeg 1 — PAY 1000 USD
-        TradeLeg leg1 = new TradeLeg();
-        leg1.setCurrency(usd);
-        leg1.setNotional(BigDecimal.valueOf(1000));
-        PayRec payFlag = new PayRec();
-        payFlag.setPayRec("PAY");
-        leg1.setPayReceiveFlag(payFlag);
-
-        // TradeLeg 2 — RECEIVE 500 USD
-        TradeLeg leg2 = new TradeLeg();
-        leg2.setCurrency(usd);
-        leg2.setNotional(BigDecimal.valueOf(500));
-        PayRec recFlag = new PayRec();
-        recFlag.setPayRec("RECEIVE");
-        leg2.setPayReceiveFlag(recFlag);
-
-        // Trade #1 (NEW / SPOT / BankA)
-        Trade trade1 = new Trade();
-        trade1.setTradeStatus(status1);
-        trade1.setTradeType(type1);
-        trade1.setCounterparty(cp1);
-        trade1.setBook(activeBook);
-        trade1.setTradeLegs(List.of(leg1, leg2));
-
-        // Trade #2 (CANCELLED / SPOT / BankB)
-        Trade trade2 = new Trade();
-        trade2.setTradeStatus(status2);
-        trade2.setTradeType(type1);
-        trade2.setCounterparty(cp2);
-        trade2.setBook(activeBook);
-        trade2.setTradeLegs(List.of(leg1)); // PAY leg only
-
-        // Repositories return
-        when(tradeRepository.findByTraderUser_Id(activeUser.getId()))
-                .thenReturn(List.of(trade1, trade2));
-
-        when(tradeStatusRepository.findAll()).thenReturn(List.of(status1, status2));
-        when(tradeTypeRepository.findAll()).thenReturn(List.of(type1));
-        when(counterpartyRepository.findAll()).thenReturn(List.of(cp1, cp2));
+        // Trade #1 (NEW / SPOT / BankA): PAY 1000 USD, RECEIVE 500 USD
+        index(blotterTrade(201L)
+                .tradeStatusId(1L).tradeStatus("NEW")
+                .tradeTypeId(1L).tradeType("SPOT")
+                .counterpartyId(1L).counterpartyName("BankA")
+                .bookId(activeBook.getId()).bookName(activeBook.getBookName())
+                .notional(BigDecimal.valueOf(1500))
+                .exposure(BigDecimal.valueOf(-500))
+                .notionalByCurrency(Map.of("USD", BigDecimal.valueOf(1500))));
+
+        // Trade #2 (CANCELLED / SPOT / BankB): PAY 1000 USD only
+        index(blotterTrade(202L)
+                .tradeStatusId(2L).tradeStatus("CANCELLED")
+                .tradeTypeId(1L).tradeType("SPOT")
+                .counterpartyId(2L).counterpartyName("BankB")
+                .bookId(activeBook.getId()).bookName(activeBook.getBookName())
+                .notional(BigDecimal.valueOf(1000))
+                .exposure(BigDecimal.valueOf(-1000))
+                .notionalByCurrency(Map.of("USD", BigDecimal.valueOf(1000))));
+
+        when(referenceDataResolver.current())
+                .thenReturn(referenceData(List.of(status1, status2), List.of(type1), List.of(cp1, cp2)));
 
         // Mapper behavior — return DTO with content copied from TradeSummary
-        when(tradeSummaryRepository.save(any(TradeSummary.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
         when(tradeSummaryMapper.toDto(any(TradeSummary.class)))
                 .thenAnswer(invocation -> {
                     TradeSummary summary = invocation.getArgument(0);
@@ -425,32 +474,54 @@ public class TradeDashboardServiceTest {
         assertEquals(1L, result.getTradeCountByCounterparty().get("BANKB"));
 
         // Total notional by currency: USD = 1000 + 500 + 1000 = 2500
-        assertEquals(BigDecimal.valueOf(2500),
+        assertEquals(new BigDecimal("2500.00"),
                 result.getTotalNotionalByCurrency().get("USD"));
 
         // Risk exposure by book:
         // Book "EQUITY-DESK" = RECEIVE(500) - PAY(1000 + 1000) = -1500
         BigDecimal exposure = result.getRiskExposure().get("EQUITY-DESK");
-        assertEquals(BigDecimal.valueOf(-1500), exposure);
+        assertEquals(new BigDecimal("-1500.00"), exposure);
     }
 
     // Helper methods for Daily Summary Tests
 
-    private DailySummary previousDaySummary() {
-        DailySummary prev = new DailySummary();
-        prev.setTodaysNotional(new BigDecimal("50.00"));
-        prev.setTodaysTradeCount(1);
-        return prev;
+    private static ReferenceDataSnapshot referenceData(List<TradeStatus> statuses, List<TradeType> types,
+                                                       List<Counterparty> counterparties) {
+        return ReferenceDataSnapshot.builder()
+                .tradeStatuses(ReferenceIndex.of(statuses, TradeStatus::getId, TradeStatus::getTradeStatus))
+                .tradeTypes(ReferenceIndex.of(types, TradeType::getId, TradeType::getTradeType))
+                .counterparties(ReferenceIndex.of(counterparties, Counterparty::getId, Counterparty::getName))
+                .build();
+    }
+
+    private BlotterTrade.BlotterTradeBuilder blotterTrade(long tradeId) {
+        return BlotterTrade.builder().tradeId(tradeId).traderLoginId(activeUser.getLoginId());
     }
 
-    private List<DailySummary> last30DaysSummaries() {
-        DailySummary s1 = new DailySummary();
-        s1.setTodaysNotional(new BigDecimal("200.00"));
-        s1.setTodaysTradeCount(1);
-        DailySummary s2 = new DailySummary();
-        s2.setTodaysNotional(new BigDecimal("100.00"));
-        s2.setTodaysTradeCount(3);
-        return List.of(s1, s2);
+    // Adds a trade booked by the active user to the blotter index
+    private void index(BlotterTrade.BlotterTradeBuilder trade) {
+        tradeBlotterIndex.put(trade.traderId(activeUser.getId()).build());
+    }
+
+    private void indexTradesOnActiveBook(BigDecimal... notionals) {
+        for (int i = 0; i < notionals.length; i++) {
+            index(blotterTrade(300L + i)
+                    .bookId(activeBook.getId()).bookName(activeBook.getBookName())
+                    .notional(notionals[i]));
+        }
+    }
+
+    private static DailySummary daysAgo(int days, String notional, int tradeCount) {
+        DailySummary summary = new DailySummary();
+        summary.setSummaryDate(LocalDate.now().minusDays(days));
+        summary.setTodaysNotional(new BigDecimal(notional));
+        summary.setTodaysTradeCount(tradeCount);
+        return summary;
+    }
+
+    // Yesterday and the two days before
+    private List<DailySummary> recentSummaries() {
+        return List.of(daysAgo(1, "50.00", 1), daysAgo(2, "250.00", 2), daysAgo(3, "150.00", 3));
     }
 
     @Test
@@ -459,21 +530,15 @@ public class TradeDashboardServiceTest {
         when(applicationUserRepository.findByLoginId("user123"))
                 .thenReturn(Optional.of(activeUser));
 
-        when(dailySummaryRepository.findByTraderUser_IdAndSummaryDate(
-                eq(15L), any(LocalDate.class)))
-                .thenReturn(Optional.of(previousDaySummary()));
-
         when(dailySummaryRepository.findByTraderUser_IdAndSummaryDateBetween(
                 eq(15L), any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(last30DaysSummaries());
+                .thenReturn(recentSummaries());
 
-        // Mock current trades returned by getPersonalTrades()
-        TradeDashboardService spyService = spy(tradeDashboardService);
-        doReturn(List.of(trade, trade2))
-                .when(spyService).getPersonalTrades("user123");
+        // Current trades held by the blotter index
+        indexTradesOnActiveBook(new BigDecimal("100.00"), new BigDecimal("200.00"));
 
         // Act
-        DailySummaryDTO resultDto = spyService.getDailySummaryForUser("user123");
+        DailySummaryDTO resultDto = tradeDashboardService.getDailySummaryForUser("user123");
 
         // Assert
         assertNotNull(resultDto);
@@ -498,7 +563,10 @@ public class TradeDashboardServiceTest {
         assertNotNull(resultDto.getNotionalChange30Days());
         assertNotNull(resultDto.getTradeCountChange30Days());
 
-        verify(dailySummaryRepository).save(any(DailySummary.class));
+        // Every window is read from the one load of the trader's history
+        verify(dailySummaryRepository, times(1)).findByTraderUser_IdAndSummaryDateBetween(
+                eq(15L), any(LocalDate.class), any(LocalDate.class));
+        verify(dailySummaryRepository, never()).save(any(DailySummary.class));
     }
 
     @Test
@@ -506,51 +574,103 @@ public class TradeDashboardServiceTest {
         when(applicationUserRepository.findByLoginId("user123"))
                 .thenReturn(Optional.of(activeUser));
 
-        // No previous day found
-        when(dailySummaryRepository.findByTraderUser_IdAndSummaryDate(eq(15L), any(LocalDate.class)))
-                .thenReturn(Optional.empty());
-
-        // Some 30-day data still exists
+        // No previous day, but some 30-day data still exists
         when(dailySummaryRepository.findByTraderUser_IdAndSummaryDateBetween(eq(15L), any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(last30DaysSummaries());
+                .thenReturn(List.of(daysAgo(2, "200.00", 1), daysAgo(3, "100.00", 3)));
 
-        TradeDashboardService spyService = spy(tradeDashboardService);
-        doReturn(List.of(trade))
-                .when(spyService).getPersonalTrades("user123");
+        indexTradesOnActiveBook(new BigDecimal("100.00"));
 
-        DailySummaryDTO result = spyService.getDailySummaryForUser("user123");
+        DailySummaryDTO result = tradeDashboardService.getDailySummaryForUser("user123");
 
         assertNotNull(result);
         assertEquals(1, result.getTodaysTradeCount());
         assertNull(result.getPreviousDayNotional(), "Should not have previous-day data");
         assertNotNull(result.getAvgNotional30Days(), "Should still calculate 30-day average");
 
-        verify(dailySummaryRepository).save(any(DailySummary.class));
+        verify(dailySummaryRepository, never()).save(any(DailySummary.class));
     }
 
     @Test
-    void testGetDailySummaryForUser_No30DayData() {
+    void testGetDailySummaryForUser_NoHistory() {
         when(applicationUserRepository.findByLoginId("user123"))
                 .thenReturn(Optional.of(activeUser));
 
-        when(dailySummaryRepository.findByTraderUser_IdAndSummaryDate(eq(15L), any(LocalDate.class)))
-                .thenReturn(Optional.of(previousDaySummary()));
-
-        // No 30-day summaries
+        // No saved summaries
         when(dailySummaryRepository.findByTraderUser_IdAndSummaryDateBetween(eq(15L), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(List.of());
 
-        TradeDashboardService spyService = spy(tradeDashboardService);
-        doReturn(List.of(trade))
-                .when(spyService).getPersonalTrades("user123");
+        indexTradesOnActiveBook(new BigDecimal("100.00"));
 
-        DailySummaryDTO result = spyService.getDailySummaryForUser("user123");
+        DailySummaryDTO result = tradeDashboardService.getDailySummaryForUser("user123");
 
         assertNotNull(result);
         assertEquals(1, result.getTodaysTradeCount());
-        assertEquals(new BigDecimal("50.00"), result.getPreviousDayNotional());
+        assertNull(result.getPreviousDayNotional(), "No history should have no previous day");
         assertNull(result.getAvgNotional30Days(), "No 30-day data should result in null");
-        verify(dailySummaryRepository).save(any(DailySummary.class));
+        assertEquals(List.of(7, 30, 90), result.getWindows().stream().map(DailyWindowStatisticsDTO::getWindowDays).toList());
+        assertTrue(result.getWindows().stream().allMatch(window -> window.getAvgNotional() == null));
+        verify(dailySummaryRepository, never()).save(any(DailySummary.class));
+    }
+
+    @Test
+    void testGetDailySummaryForUser_RequestedWindows() {
+        when(applicationUserRepository.findByLoginId("user123"))
+                .thenReturn(Optional.of(activeUser));
+        when(dailySummaryRepository.findByTraderUser_IdAndSummaryDateBetween(eq(15L), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.of(daysAgo(1, "100.00", 2), daysAgo(2, "300.00", 4), daysAgo(10, "800.00", 6)));
+
+        indexTradesOnActiveBook(new BigDecimal("150.00"), new BigDecimal("150.00"));
+
+        DailySummaryDTO result = tradeDashboardService.getDailySummaryForUser("user123", List.of(2, 14, 2));
+
+        // Repeated lengths are answered once
+        assertEquals(2, result.getWindows().size());
+
+        DailyWindowStatisticsDTO twoDays = result.getWindows().get(0);
+        assertEquals(2, twoDays.getWindowDays());
+        assertEquals(2, twoDays.getSummaryDays());
+        assertEquals(new BigDecimal("200.00"), twoDays.getAvgNotional());
+        assertEquals(new BigDecimal("3.00"), twoDays.getAvgTradeCount());
+        assertEquals(new BigDecimal("100.00"), twoDays.getNotionalDelta());
+        assertEquals(new BigDecimal("-1.00"), twoDays.getTradeCountDelta());
+        assertEquals(new BigDecimal("50.00"), twoDays.getNotionalChangePercentage());
+
+        DailyWindowStatisticsDTO twoWeeks = result.getWindows().get(1);
+        assertEquals(14, twoWeeks.getWindowDays());
+        assertEquals(3, twoWeeks.getSummaryDays());
+        assertEquals(new BigDecimal("400.00"), twoWeeks.getAvgNotional());
+        assertEquals(new BigDecimal("4.00"), twoWeeks.getAvgTradeCount());
+        assertEquals(new BigDecimal("-100.00"), twoWeeks.getNotionalDelta());
+    }
+
+    @Test
+    void testGetDailySummaryForUser_TradeCountChangeUsesTheReportedAverage() {
+        when(applicationUserRepository.findByLoginId("user123"))
+                .thenReturn(Optional.of(activeUser));
+        when(dailySummaryRepository.findByTraderUser_IdAndSummaryDateBetween(eq(15L), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.of(daysAgo(1, "100.00", 1), daysAgo(2, "100.00", 2), daysAgo(3, "100.00", 2)));
+
+        indexTradesOnActiveBook(new BigDecimal("50.00"), new BigDecimal("50.00"));
+
+        DailyWindowStatisticsDTO week = tradeDashboardService.getDailySummaryForUser("user123", List.of(7)).getWindows().get(0);
+
+        // 5 trades over 3 days averages 1.67, which today's 2 trades are 0.33 and 20% above
+        assertEquals(new BigDecimal("1.67"), week.getAvgTradeCount());
+        assertEquals(new BigDecimal("0.33"), week.getTradeCountDelta());
+        assertEquals(new BigDecimal("20.00"), week.getTradeCountChangePercentage());
+    }
+
+    @Test
+    void testGetDailySummaryForUser_WindowTooLong() {
+        when(applicationUserRepository.findByLoginId("user123"))
+                .thenReturn(Optional.of(activeUser));
+        when(dailySummaryRepository.findByTraderUser_IdAndSummaryDateBetween(eq(15L), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.of());
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> tradeDashboardService.getDailySummaryForUser("user123", List.of(400)));
+
+        assertEquals("Window must be between 1 and 365 days: 400", ex.getMessage());
     }
 
     @Test
@@ -558,12 +678,8 @@ public class TradeDashboardServiceTest {
         when(applicationUserRepository.findByLoginId("missingUser"))
                 .thenReturn(Optional.empty());
 
-        TradeDashboardService spyService = spy(tradeDashboardService);
-        doReturn(List.of(trade))
-                .when(spyService).getPersonalTrades("missingUser");
-
         RuntimeException ex = assertThrows(RuntimeException.class,
-                () -> spyService.getDailySummaryForUser("missingUser"));
+                () -> tradeDashboardService.getDailySummaryForUser("missingUser"));
 
         assertTrue(ex.getMessage().contains("User not found"));
         verify(dailySummaryRepository, never()).save(any());
@@ -574,26 +690,45 @@ public class TradeDashboardServiceTest {
         when(applicationUserRepository.findByLoginId("user123"))
                 .thenReturn(Optional.of(activeUser));
 
-        when(dailySummaryRepository.findByTraderUser_IdAndSummaryDate(eq(15L), any(LocalDate.class)))
-                .thenReturn(Optional.empty());
         when(dailySummaryRepository.findByTraderUser_IdAndSummaryDateBetween(eq(15L), any(LocalDate.class), any(LocalDate.class)))
                 .thenReturn(List.of());
 
-        Trade tradeWithoutBook = new Trade();
-        tradeWithoutBook.setBook(null);
-        TradeLeg leg = new TradeLeg();
-        leg.setNotional(new BigDecimal("500"));
-        tradeWithoutBook.setTradeLegs(List.of(leg));
-
-        TradeDashboardService spyService = spy(tradeDashboardService);
-        doReturn(List.of(tradeWithoutBook))
-                .when(spyService).getPersonalTrades("user123");
+        index(blotterTrade(400L).notional(new BigDecimal("500")));
 
-        DailySummaryDTO result = spyService.getDailySummaryForUser("user123");
+        DailySummaryDTO result = tradeDashboardService.getDailySummaryForUser("user123");
 
         assertEquals(1, result.getTodaysTradeCount());
-        assertEquals(new BigDecimal("500"), result.getTodaysNotional());
+        assertEquals(new BigDecimal("500.00"), result.getTodaysNotional());
         assertTrue(result.getTradesByBook().isEmpty(), "Null book should be excluded from grouping");
     }
-   
+
+    @Test
+    void testGetBlotterSummary_FiltersIndexedTrades() {
+        when(applicationUserRepository.findByLoginId("user123"))
+                .thenReturn(Optional.of(activeUser));
+        when(bookRepository.countByIdIn(Set.of(1L))).thenReturn(1L);
+
+        indexTradesOnActiveBook(new BigDecimal("100.00"), new BigDecimal("200.00"));
+        tradeBlotterIndex.put(blotterTrade(500L).bookId(2L).bookName("RATES-BOOK")
+                .notional(new BigDecimal("900.00")).build());
+
+        TradeSearchCriteria criteria = new TradeSearchCriteria();
+        criteria.setBookIds(List.of(1L));
+        TradeBlotterSummaryDTO result = tradeDashboardService.getBlotterSummary("user123", criteria);
+
+        assertEquals(2, result.getTradeCount());
+        assertEquals(new BigDecimal("300.00"), result.getTotalNotional());
+        assertEquals(Map.of("EQUITY-DESK", 2L), result.getTradeCountByBook());
+    }
+
+    @Test
+    void testGetBlotterSummary_UserInactive() {
+        when(applicationUserRepository.findByLoginId("inactiveUser")).thenReturn(Optional.of(inactiveUser));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                tradeDashboardService.getBlotterSummary("inactiveUser", new TradeSearchCriteria()));
+
+        assertEquals("User is inactive: inactiveUser", exception.getMessage());
+        verify(tradeBlotterIndex, never()).summarise(any());
+    }
 }
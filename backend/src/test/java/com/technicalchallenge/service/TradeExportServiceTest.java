@@ -0,0 +1,106 @@
+package com.technicalchallenge.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technicalchallenge.model.Book;
+import com.technicalchallenge.model.Trade;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradeExportServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<Trade> query;
+
+    @InjectMocks
+    private TradeExportService tradeExportService;
+
+    private ByteArrayOutputStream out;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManager.createQuery(anyString(), eq(Trade.class))).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.setHint(anyString(), any())).thenReturn(query);
+        out = new ByteArrayOutputStream();
+    }
+
+    private static Trade trade(long tradeId, String bookName) {
+        Trade trade = new Trade();
+        trade.setId(tradeId - 90001L);
+        trade.setTradeId(tradeId);
+        trade.setVersion(1);
+        trade.setTradeDate(LocalDate.of(2026, 10, 1));
+        trade.setActive(true);
+        Book book = new Book();
+        book.setBookName(bookName);
+        trade.setBook(book);
+        return trade;
+    }
+
+    @Test
+    void testExport_NdjsonWritesOneObjectPerLine() throws Exception {
+        when(query.getResultStream()).thenReturn(Stream.of(trade(100001L, "FX-BOOK-1"), trade(100002L, "RATES-BOOK-1")));
+
+        long rows = tradeExportService.export(TradeExportService.Format.NDJSON, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals(100001L, first.get("tradeId").asLong());
+        assertEquals("FX-BOOK-1", first.get("bookName").asText());
+        assertEquals("2026-10-01", first.get("tradeDate").asText());
+        assertTrue(first.get("active").asBoolean());
+        verify(query).setHint("org.hibernate.fetchSize", 500);
+    }
+
+    @Test
+    void testExport_CsvQuotesFieldsThatNeedIt() throws Exception {
+        when(query.getResultStream()).thenReturn(Stream.of(trade(100001L, "Book, \"A\"")));
+
+        tradeExportService.export(TradeExportService.Format.CSV, true, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(String.join(",", TradeExportService.COLUMNS), lines[0]);
+        assertTrue(lines[1].startsWith("10000,100001,1,2026-10-01,"));
+        assertTrue(lines[1].contains(",\"Book, \"\"A\"\"\","));
+        verify(query).setParameter("activeOnly", true);
+    }
+
+    @Test
+    void testExport_ClearsPersistenceContextPeriodically() throws Exception {
+        ReflectionTestUtils.setField(tradeExportService, "clearInterval", 2);
+        when(query.getResultStream()).thenReturn(Stream.of(
+                trade(100001L, "B"), trade(100002L, "B"), trade(100003L, "B"), trade(100004L, "B"), trade(100005L, "B")));
+
+        long rows = tradeExportService.export(TradeExportService.Format.CSV, false, out);
+
+        assertEquals(5, rows);
+        verify(entityManager, times(2)).clear();
+    }
+}
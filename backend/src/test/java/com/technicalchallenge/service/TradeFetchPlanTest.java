@@ -0,0 +1,131 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.config.ModelMapperConfig;
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
+import com.technicalchallenge.mapper.TradeMapper;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.repository.TradeRepository;
+import com.technicalchallenge.rsql.CustomRsqlVisitor;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements each trade list endpoint needs to load and map its trades,
+ * against the seeded database.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TradeFetchPlan.class, TradeMapper.class, ModelMapperConfig.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fetchplan;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TradeFetchPlanTest {
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeFetchPlan tradeFetchPlan;
+
+    @Autowired
+    private TradeMapper tradeMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Loads and maps the trades from an empty persistence context, returning the statements run
+    private long statementsToMap(Supplier<List<Trade>> load, int expectedTrades) {
+        entityManager.clear();
+        statistics.clear();
+
+        List<TradeDTO> dtos = tradeFetchPlan.withLegs(load.get()).stream().map(tradeMapper::toDto).toList();
+
+        assertEquals(expectedTrades, dtos.size());
+        TradeDTO first = dtos.stream().filter(dto -> dto.getTradeId() == 100001L).findFirst().orElseThrow();
+        assertEquals("FX-BOOK-1", first.getBookName());
+        assertEquals(2, first.getTradeLegs().size());
+        assertEquals(2, first.getTradeLegs().stream().mapToInt(leg -> leg.getCashflows().size()).sum());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static TradeSearchCriteria bookCriteria(Long bookId) {
+        TradeSearchCriteria criteria = new TradeSearchCriteria();
+        criteria.setBookIds(List.of(bookId));
+        return criteria;
+    }
+
+    @Test
+    void testGetAllTrades_LoadsInThreeStatements() {
+        assertEquals(3, statementsToMap(tradeRepository::findAll, 8));
+    }
+
+    @Test
+    void testSearchTrades_LoadsInThreeStatements() {
+        assertEquals(3, statementsToMap(
+                () -> tradeRepository.findAll(TradeSearchSpecification.of(bookCriteria(1000L))), 4));
+    }
+
+    @Test
+    void testGetTradesWithRSQL_LoadsInThreeStatements() {
+        assertEquals(3, statementsToMap(
+                () -> tradeRepository.findAll(new RSQLParser().parse("book.bookName==FX-BOOK-1")
+                        .accept(new CustomRsqlVisitor<Trade>())), 4));
+    }
+
+    @Test
+    void testPaginateTrades_LoadsPageAndCountInFourStatements() {
+        assertEquals(4, statementsToMap(
+                () -> tradeRepository.findAll(PageRequest.of(0, 5)).getContent(), 5));
+    }
+
+    @Test
+    void testPaginateTradesByKeyset_LoadsInThreeStatements() {
+        assertEquals(3, statementsToMap(
+                () -> tradeRepository.findKeysetFirstPageByTradeId(PageRequest.of(0, 8)), 8));
+    }
+
+    @Test
+    void testPaginateTradesByLastTouch_UntouchedTradesComeFirstAndAreNotSkipped() {
+        entityManager.createQuery("UPDATE Trade t SET t.lastTouchTimestamp = null WHERE t.id IN (1001, 1004)")
+                .executeUpdate();
+        entityManager.clear();
+
+        List<Long> first = tradeRepository.findKeysetFirstPageByLastTouch(PageRequest.of(0, 1))
+                .stream().map(Trade::getId).toList();
+        List<Long> rest = tradeRepository.findKeysetPageByLastTouchAfterUntouched(1004L, PageRequest.of(0, 8))
+                .stream().map(Trade::getId).toList();
+
+        assertEquals(List.of(1004L), first);
+        assertEquals(List.of(1001L, 1007L, 1006L, 1005L, 1003L, 1002L, 1000L), rest);
+    }
+}
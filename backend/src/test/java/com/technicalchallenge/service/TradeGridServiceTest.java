@@ -0,0 +1,176 @@
+package com.technicalchallenge.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import com.technicalchallenge.dto.TradeRowsDTO;
+import com.technicalchallenge.dto.TradeRowsRequestDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Requests grid blocks over the seed trades and checks the rows, groups and aggregates
+ * against what the seed data holds.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TradeGridService.class, TradeProjection.class, TradeBlotterIndex.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:tradegrid;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+class TradeGridServiceTest {
+
+    @Autowired
+    private TradeGridService tradeGridService;
+
+    @Autowired
+    private TradeBlotterIndex tradeBlotterIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static TradeRowsRequestDTO request(int startRow, int endRow) {
+        TradeRowsRequestDTO request = new TradeRowsRequestDTO();
+        request.setStartRow(startRow);
+        request.setEndRow(endRow);
+        return request;
+    }
+
+    private static TradeRowsRequestDTO.Column column(String field) {
+        return new TradeRowsRequestDTO.Column(field, field, null);
+    }
+
+    private static TradeRowsRequestDTO.Filter filter(String filterType, String type, Object value) {
+        TradeRowsRequestDTO.Filter filter = new TradeRowsRequestDTO.Filter();
+        filter.setFilterType(filterType);
+        filter.setType(type);
+        filter.setFilter(value);
+        return filter;
+    }
+
+    private static List<Object> values(TradeRowsDTO block, String field) {
+        List<Object> values = new ArrayList<>();
+        block.getRows().forEach(row -> values.add(row.get(field)));
+        return values;
+    }
+
+    @Test
+    void testGetRows_PagesSortedTradeRows() {
+        TradeRowsRequestDTO first = request(0, 3);
+        first.getSortModel().add(new TradeRowsRequestDTO.SortModel("maturityDate", "desc"));
+
+        TradeRowsDTO block = tradeGridService.getRows(first);
+        assertEquals(List.of(100007L, 100003L, 100001L), values(block, "tradeId"));
+        assertEquals(TradeGridService.BLOTTER_FIELDS, List.copyOf(block.getRows().get(0).keySet()));
+        assertNull(block.getLastRow());
+
+        TradeRowsRequestDTO last = request(6, 9);
+        last.setSortModel(first.getSortModel());
+        last.setFields(List.of("tradeId", "maturityDate"));
+        block = tradeGridService.getRows(last);
+        assertEquals(List.of(100005L, 100002L), values(block, "tradeId"));
+        assertEquals(LocalDate.of(2024, 6, 4), block.getRows().get(1).get("maturityDate"));
+        assertEquals(8, block.getLastRow());
+    }
+
+    @Test
+    void testGetRows_GroupsWithCountsAndAggregates() {
+        TradeRowsRequestDTO books = request(0, 100);
+        books.setRowGroupCols(List.of(column("bookName"), column("traderUserName")));
+        books.setValueCols(List.of(new TradeRowsRequestDTO.Column("maturityDate", "maturityDate", "max")));
+
+        TradeRowsDTO block = tradeGridService.getRows(books);
+        assertEquals(List.of("FX-BOOK-1", "RATES-BOOK-1"), values(block, "bookName"));
+        assertEquals(List.of(4L, 4L), values(block, TradeProjection.CHILD_COUNT));
+        assertEquals(List.of(LocalDate.of(2029, 11, 21), LocalDate.of(2028, 12, 13)), values(block, "maturityDate"));
+        assertEquals(2, block.getLastRow());
+
+        TradeRowsRequestDTO traders = request(0, 100);
+        traders.setRowGroupCols(books.getRowGroupCols());
+        traders.setGroupKeys(List.of("RATES-BOOK-1"));
+        traders.getSortModel().add(new TradeRowsRequestDTO.SortModel(TradeGridService.AUTO_GROUP_COLUMN, "desc"));
+        block = tradeGridService.getRows(traders);
+        assertEquals(List.of("Joey Tribbiani", "Ashley Lovegood"), values(block, "traderUserName"));
+        assertEquals(List.of(3L, 1L), values(block, TradeProjection.CHILD_COUNT));
+
+        TradeRowsRequestDTO trades = request(0, 100);
+        trades.setRowGroupCols(books.getRowGroupCols());
+        trades.setGroupKeys(List.of("RATES-BOOK-1", "Joey Tribbiani"));
+        assertEquals(List.of(100002L, 100004L, 100006L), values(tradeGridService.getRows(trades), "tradeId"));
+    }
+
+    @Test
+    void testGetRows_AppliesFilterModel() {
+        TradeRowsRequestDTO request = request(0, 100);
+        Map<String, TradeRowsRequestDTO.Filter> filterModel = new LinkedHashMap<>();
+
+        TradeRowsRequestDTO.Filter counterparties = filter("set", null, null);
+        counterparties.setValues(List.of("BigBank"));
+        filterModel.put("counterpartyName", counterparties);
+
+        TradeRowsRequestDTO.Filter tradeDates = filter("date", "inRange", null);
+        tradeDates.setDateFrom("2024-08-01 00:00:00");
+        tradeDates.setDateTo("2024-12-31 00:00:00");
+        filterModel.put("tradeDate", tradeDates);
+
+        filterModel.put("tradeId", filter("number", "notEqual", 100006));
+
+        TradeRowsRequestDTO.Filter traders = new TradeRowsRequestDTO.Filter();
+        traders.setOperator("OR");
+        traders.setConditions(List.of(filter("text", "startsWith", "JOEY"), filter("text", "equals", "ashley lovegood")));
+        filterModel.put("traderUserName", traders);
+        request.setFilterModel(filterModel);
+
+        assertEquals(List.of(100004L, 100008L), values(tradeGridService.getRows(request), "tradeId"));
+
+        filterModel.put("utiCode", filter("text", "endsWith", "_4"));
+        assertEquals(List.of(), tradeGridService.getRows(request).getRows());
+    }
+
+    @Test
+    void testGetRows_CachesBlocksUntilIndexChanges() {
+        TradeRowsDTO first = tradeGridService.getRows(request(0, 10));
+        assertSame(first, tradeGridService.getRows(request(0, 10)));
+        assertEquals(1.0, meterRegistry.get("trade.grid.cache.gets").tag("result", "hit").counter().count());
+
+        tradeBlotterIndex.put(BlotterTrade.builder().tradeId(100001L).build());
+        assertNotSame(first, tradeGridService.getRows(request(0, 10)));
+    }
+
+    @Test
+    void testGetRows_RejectsInvalidRequests() {
+        assertThrows(IllegalArgumentException.class, () -> tradeGridService.getRows(request(5, 5)));
+        assertThrows(IllegalArgumentException.class, () -> tradeGridService.getRows(request(0, 5000)));
+
+        TradeRowsRequestDTO keys = request(0, 10);
+        keys.setGroupKeys(List.of("FX-BOOK-1"));
+        IllegalArgumentException tooManyKeys = assertThrows(IllegalArgumentException.class, () -> tradeGridService.getRows(keys));
+        assertEquals("More group keys than row group columns", tooManyKeys.getMessage());
+
+        TradeRowsRequestDTO sort = request(0, 10);
+        sort.getSortModel().add(new TradeRowsRequestDTO.SortModel("notional", "asc"));
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class, () -> tradeGridService.getRows(sort));
+        assertEquals("Unknown trade field: notional", unknown.getMessage());
+
+        TradeRowsRequestDTO sum = request(0, 10);
+        sum.setRowGroupCols(List.of(column("bookName")));
+        sum.setValueCols(List.of(new TradeRowsRequestDTO.Column("utiCode", "utiCode", "sum")));
+        assertThrows(IllegalArgumentException.class, () -> tradeGridService.getRows(sum));
+    }
+}
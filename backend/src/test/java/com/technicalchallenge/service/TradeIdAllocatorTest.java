@@ -0,0 +1,143 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.model.TradeIdSequence;
+import com.technicalchallenge.repository.TradeIdSequenceRepository;
+import com.technicalchallenge.repository.TradeRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradeIdAllocatorTest {
+
+    @Mock
+    private TradeIdSequenceRepository tradeIdSequenceRepository;
+
+    @Mock
+    private TradeRepository tradeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TradeIdAllocator tradeIdAllocator;
+
+    private TradeIdSequence sequence;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tradeIdAllocator, "blockSize", 10);
+        sequence = new TradeIdSequence(TradeIdAllocator.TRADE_ID_SEQUENCE, 20000L);
+    }
+
+    @Test
+    void testNextTradeId_ServesReservedBlockFromMemory() {
+        // Given
+        when(tradeIdSequenceRepository.findForUpdate(anyString())).thenReturn(Optional.of(sequence));
+
+        // When
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(tradeIdAllocator.nextTradeId());
+        }
+
+        // Then
+        assertEquals(20000L, ids.get(0));
+        assertEquals(20009L, ids.get(9));
+        assertEquals(20010L, sequence.getNextValue());
+        verify(tradeIdSequenceRepository, times(1)).findForUpdate(TradeIdAllocator.TRADE_ID_SEQUENCE);
+        verifyNoInteractions(tradeRepository);
+    }
+
+    @Test
+    void testNextTradeId_ReservesNewBlockWhenExhausted() {
+        // Given
+        when(tradeIdSequenceRepository.findForUpdate(anyString())).thenReturn(Optional.of(sequence));
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            tradeIdAllocator.nextTradeId();
+        }
+        long firstOfSecondBlock = tradeIdAllocator.nextTradeId();
+
+        // Then
+        assertEquals(20010L, firstOfSecondBlock);
+        assertEquals(20020L, sequence.getNextValue());
+        verify(tradeIdSequenceRepository, times(2)).findForUpdate(TradeIdAllocator.TRADE_ID_SEQUENCE);
+    }
+
+    @Test
+    void testNextTradeId_InitialisesSequenceAfterHighestExistingTradeId() {
+        // Given
+        when(tradeIdSequenceRepository.findForUpdate(anyString())).thenReturn(Optional.empty());
+        when(tradeRepository.findMaxTradeId()).thenReturn(Optional.of(100008L));
+        when(tradeIdSequenceRepository.saveAndFlush(any(TradeIdSequence.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        long tradeId = tradeIdAllocator.nextTradeId();
+
+        // Then
+        assertEquals(100009L, tradeId);
+    }
+
+    @Test
+    void testNextTradeId_StartsAtFirstTradeIdForEmptyDatabase() {
+        // Given
+        when(tradeIdSequenceRepository.findForUpdate(anyString())).thenReturn(Optional.empty());
+        when(tradeRepository.findMaxTradeId()).thenReturn(Optional.empty());
+        when(tradeIdSequenceRepository.saveAndFlush(any(TradeIdSequence.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When/Then
+        assertEquals(TradeIdAllocator.FIRST_TRADE_ID, tradeIdAllocator.nextTradeId());
+    }
+
+    @Test
+    void testNextTradeId_UniqueAcrossConcurrentCallers() throws Exception {
+        // Given
+        when(tradeIdSequenceRepository.findForUpdate(anyString())).thenReturn(Optional.of(sequence));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 250; i++) {
+                    ids.add(tradeIdAllocator.nextTradeId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(2000, ids.size());
+        assertEquals(200, mockingDetails(tradeIdSequenceRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("findForUpdate"))
+                .count());
+    }
+}
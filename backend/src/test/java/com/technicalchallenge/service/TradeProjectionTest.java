@@ -0,0 +1,135 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.dto.TradeSearchCriteria;
+import com.technicalchallenge.model.Trade;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Projects trade fields from the seeded schema and checks that the query reads only the
+ * columns and references the fields need.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TradeProjection.class, RsqlQueryCache.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tradeprojection;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.technicalchallenge.service.TradeProjectionTest$SqlCapture"
+})
+class TradeProjectionTest {
+
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TradeProjection tradeProjection;
+
+    @Autowired
+    private RsqlQueryCache rsqlQueryCache;
+
+    @BeforeEach
+    void setUp() {
+        SqlCapture.statements.clear();
+    }
+
+    private static String lastStatement() {
+        return SqlCapture.statements.get(SqlCapture.statements.size() - 1).toLowerCase();
+    }
+
+    private static List<Map<String, Object>> byTradeId(List<Map<String, Object>> rows) {
+        return rows.stream().sorted(Comparator.comparing(row -> (Long) row.get("tradeId"))).toList();
+    }
+
+    @Test
+    void testFind_ReturnsRequestedFieldsInOrder() {
+        TradeSearchCriteria criteria = new TradeSearchCriteria();
+        criteria.setCounterpartyIds(List.of(1000L));
+
+        List<Map<String, Object>> rows = byTradeId(tradeProjection.find(TradeSearchSpecification.of(criteria),
+                List.of("tradeId", "maturityDate", "bookName", "traderUserName", "tradeStatus")));
+
+        assertEquals(4, rows.size());
+        assertEquals(List.of("tradeId", "maturityDate", "bookName", "traderUserName", "tradeStatus"),
+                List.copyOf(rows.get(0).keySet()));
+        assertEquals(Map.of("tradeId", 100001L, "maturityDate", LocalDate.of(2029, 6, 3), "bookName", "FX-BOOK-1",
+                "traderUserName", "Simon King", "tradeStatus", "LIVE"), rows.get(0));
+        assertEquals("Ashley Lovegood", rows.get(3).get("traderUserName"));
+        assertEquals(1, SqlCapture.statements.size());
+    }
+
+    @Test
+    void testFind_JoinsOnlyReferencesWhoseNamesAreRequested() {
+        tradeProjection.find(null, List.of("tradeId", "version", "bookId", "counterpartyId"));
+
+        String sql = lastStatement();
+        assertFalse(sql.contains("join"), sql);
+        assertFalse(sql.contains("trade_leg"), sql);
+        assertFalse(sql.contains("uti_code"), sql);
+
+        tradeProjection.find(null, List.of("tradeId", "bookName"));
+        sql = lastStatement();
+        assertTrue(sql.contains("left join book"), sql);
+        assertFalse(sql.contains("counterparty"), sql);
+    }
+
+    @Test
+    void testFind_SortsPagesAndReusesJoinsForFilters() {
+        Specification<Trade> fxBook = (root, query, builder) ->
+                builder.equal(TradeProjection.expression(root, builder, "bookName"), "FX-BOOK-1");
+
+        List<Map<String, Object>> rows = tradeProjection.find(fxBook, List.of("tradeId", "bookName"),
+                Sort.by(Sort.Order.desc("tradeId")), 1, 2);
+
+        assertEquals(List.of(100005L, 100003L), rows.stream().map(row -> row.get("tradeId")).toList());
+        String sql = lastStatement();
+        assertEquals(sql.indexOf("join book"), sql.lastIndexOf("join book"), sql);
+    }
+
+    @Test
+    void testFind_AppliesRsqlSpecification() {
+        List<Map<String, Object>> rows = tradeProjection.find(
+                rsqlQueryCache.specification("book.bookName==RATES-BOOK-1;tradeStatus.tradeStatus==CANCELLED"),
+                List.of("tradeId", "counterpartyName"));
+
+        assertEquals(List.of(Map.of("tradeId", 100006L, "counterpartyName", "BigBank")), rows);
+    }
+
+    @Test
+    void testFields_RejectsUnknownAndCollectionFields() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> tradeProjection.fields(List.of("tradeId", "notional")));
+        assertEquals("Unknown trade field: notional", unknown.getMessage());
+
+        IllegalArgumentException legs = assertThrows(IllegalArgumentException.class,
+                () -> tradeProjection.fields(List.of("tradeLegs")));
+        assertTrue(legs.getMessage().startsWith("Field tradeLegs cannot be selected"));
+
+        assertEquals(List.of("tradeId", "version"), tradeProjection.fields(List.of("tradeId", " version", "tradeId")));
+    }
+}
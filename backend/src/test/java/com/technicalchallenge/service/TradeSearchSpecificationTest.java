@@ -0,0 +1,95 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.dto.TradeSearchCriteria;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.repository.TradeRepository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs trade searches against the seeded schema and checks that only the supplied criteria
+ * reach the WHERE clause, with references matched on their foreign key columns.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tradesearch;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.technicalchallenge.service.TradeSearchSpecificationTest$SqlCapture"
+})
+class TradeSearchSpecificationTest {
+
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @BeforeEach
+    void setUp() {
+        SqlCapture.statements.clear();
+    }
+
+    private List<Long> search(TradeSearchCriteria criteria) {
+        return tradeRepository.findAll(TradeSearchSpecification.of(criteria)).stream()
+                .map(Trade::getTradeId).sorted().toList();
+    }
+
+    private static String whereClause() {
+        String sql = SqlCapture.statements.get(SqlCapture.statements.size() - 1).toLowerCase();
+        return sql.substring(sql.indexOf(" where "));
+    }
+
+    @Test
+    void testCounterpartyList_MatchesAnyOfTheIds() {
+        TradeSearchCriteria criteria = new TradeSearchCriteria();
+        criteria.setCounterpartyIds(List.of(1000L, 1001L));
+        List<Long> both = search(criteria);
+
+        criteria.setCounterpartyIds(List.of(1000L));
+        assertEquals(List.of(100001L, 100004L, 100006L, 100008L), search(criteria));
+        assertTrue(both.containsAll(search(criteria)));
+        assertTrue(both.size() > 4);
+        assertTrue(whereClause().contains("counterparty_id="), whereClause());
+    }
+
+    @Test
+    void testOnlySuppliedCriteria_ReachTheWhereClause() {
+        TradeSearchCriteria criteria = new TradeSearchCriteria();
+        criteria.setBookIds(List.of(1000L, 1001L));
+        criteria.setEarliestTradeDate(LocalDate.of(2024, 1, 1));
+
+        search(criteria);
+
+        String where = whereClause();
+        assertTrue(where.contains("book_id in"), where);
+        assertTrue(where.contains("trade_date>="), where);
+        assertFalse(where.contains("counterparty_id"), where);
+        assertFalse(where.contains("maturity"), where);
+        assertFalse(where.contains("join"), where);
+    }
+
+    @Test
+    void testNoCriteria_ReturnsEveryTradeWithoutWhereClause() {
+        assertEquals(tradeRepository.count(), search(new TradeSearchCriteria()).size());
+        assertFalse(SqlCapture.statements.get(SqlCapture.statements.size() - 1).toLowerCase().contains(" where "));
+    }
+}
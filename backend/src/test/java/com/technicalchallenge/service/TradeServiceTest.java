@@ -1,6 +1,8 @@
 package com.technicalchallenge.service;
 
+import com.technicalchallenge.dto.TradeAmendmentSummaryDTO;
 import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
 import com.technicalchallenge.dto.TradeLegDTO;
 import com.technicalchallenge.model.ApplicationUser;
 import com.technicalchallenge.model.Book;
@@ -21,44 +23,47 @@ import com.technicalchallenge.model.TradeType;
 import com.technicalchallenge.model.ValidationResult;
 import com.technicalchallenge.repository.ApplicationUserRepository;
 import com.technicalchallenge.repository.BookRepository;
-import com.technicalchallenge.repository.BusinessDayConventionRepository;
 import com.technicalchallenge.repository.CashflowRepository;
 import com.technicalchallenge.repository.CounterpartyRepository;
-import com.technicalchallenge.repository.CurrencyRepository;
-import com.technicalchallenge.repository.HolidayCalendarRepository;
-import com.technicalchallenge.repository.IndexRepository;
-import com.technicalchallenge.repository.LegTypeRepository;
-import com.technicalchallenge.repository.PayRecRepository;
-import com.technicalchallenge.repository.ScheduleRepository;
+import com.technicalchallenge.repository.HolidayRepository;
 import com.technicalchallenge.repository.TradeLegRepository;
 import com.technicalchallenge.repository.TradeRepository;
 import com.technicalchallenge.repository.TradeStatusRepository;
-import com.technicalchallenge.repository.TradeSubTypeRepository;
-import com.technicalchallenge.repository.TradeTypeRepository;
+import com.technicalchallenge.validation.TradeValidationEngine;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -75,23 +80,23 @@ class TradeServiceTest {
     @Mock
     private CashflowRepository cashflowRepository;
 
-    @Mock
-    private TradeStatusRepository tradeStatusRepository;
+    @Spy
+    private CashflowGenerator cashflowGenerator = new CashflowGenerator();
 
-    @Mock
-    private BookRepository bookRepository;
+    @Spy
+    private CashflowGenerationPipeline cashflowGenerationPipeline = new CashflowGenerationPipeline();
 
-    @Mock
-    private CounterpartyRepository counterpartyRepository;
+    @Spy
+    private TradeValidationEngine tradeValidationEngine = new TradeValidationEngine();
 
     @Mock
-    private LegTypeRepository legTypeRepository;
+    private TradeStatusRepository tradeStatusRepository;
 
     @Mock
-    private IndexRepository indexRepository;
+    private BookRepository bookRepository;
 
     @Mock
-    private PayRecRepository payRecRepository;
+    private CounterpartyRepository counterpartyRepository;
 
     @Mock
     private ApplicationUserRepository applicationUserRepository;
@@ -100,22 +105,22 @@ class TradeServiceTest {
     private AdditionalInfoService additionalInfoService;
 
     @Mock
-    private TradeTypeRepository tradeTypeRepository;
+    private TradeIdAllocator tradeIdAllocator;
 
     @Mock
-    private TradeSubTypeRepository tradeSubTypeRepository;
+    private ReferenceDataResolver referenceDataResolver;
 
     @Mock
-    private CurrencyRepository currencyRepository;
+    private TradeBlotterIndex tradeBlotterIndex;
 
     @Mock
-    private ScheduleRepository scheduleRepository;
+    private TradeProjection tradeProjection;
 
-    @Mock
-    private HolidayCalendarRepository holidayCalendarRepository;
+    @Spy
+    private TradeFetchPlan tradeFetchPlan = new TradeFetchPlan();
 
-    @Mock
-    private BusinessDayConventionRepository businessDayConventionRepository;
+    @Spy
+    private RsqlQueryCache rsqlQueryCache = new RsqlQueryCache();
 
     @InjectMocks
     private TradeService tradeService;
@@ -143,8 +148,23 @@ class TradeServiceTest {
     private TradeLegDTO leg1;
     private TradeLegDTO leg2;
 
+    private ReferenceDataSnapshot referenceData;
+
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(cashflowGenerator, "cashflowRepository", cashflowRepository);
+        ReflectionTestUtils.setField(tradeFetchPlan, "tradeRepository", tradeRepository);
+        ReflectionTestUtils.setField(tradeFetchPlan, "tradeLegRepository", tradeLegRepository);
+        ReflectionTestUtils.setField(rsqlQueryCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(rsqlQueryCache, "init");
+        ReflectionTestUtils.setField(cashflowGenerator, "meterRegistry", new SimpleMeterRegistry());
+        HolidayCalendarEngine holidayCalendarEngine = new HolidayCalendarEngine();
+        ReflectionTestUtils.setField(holidayCalendarEngine, "holidayRepository", mock(HolidayRepository.class));
+        ReflectionTestUtils.setField(cashflowGenerator, "holidayCalendarEngine", holidayCalendarEngine);
+        ReflectionTestUtils.setField(cashflowGenerationPipeline, "cashflowGenerator", cashflowGenerator);
+        ReflectionTestUtils.setField(tradeValidationEngine, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(tradeValidationEngine, "init");
+
         // Set up test data
         // === DTO setup ===
         tradeDTO = new TradeDTO();
@@ -252,21 +272,52 @@ class TradeServiceTest {
 
         earliest = LocalDate.of(2024, 1, 1);
         latest = LocalDate.of(2024, 12, 31);
+
+        // === Reference data snapshot used to resolve DTO names and IDs ===
+        TradeStatus amendedStatus = new TradeStatus();
+        amendedStatus.setId(203L);
+        amendedStatus.setTradeStatus("AMENDED");
+
+        LegType fixed = new LegType();
+        fixed.setId(1000L);
+        fixed.setType("Fixed");
+        LegType floating = new LegType();
+        floating.setId(1001L);
+        floating.setType("Floating");
+
+        Index index = new Index();
+        index.setId(1000L);
+        index.setIndex("LIBOR");
+
+        PayRec pay = new PayRec();
+        pay.setId(1000L);
+        pay.setPayRec("Pay");
+        PayRec receive = new PayRec();
+        receive.setId(1001L);
+        receive.setPayRec("Receive");
+
+        referenceData = ReferenceDataSnapshot.builder()
+                .version(1L)
+                .books(ReferenceIndex.of(List.of(book), Book::getId, Book::getBookName))
+                .counterparties(ReferenceIndex.of(List.of(counterparty), Counterparty::getId, Counterparty::getName))
+                .tradeStatuses(ReferenceIndex.of(List.of(tradeStatus, amendedStatus), TradeStatus::getId, TradeStatus::getTradeStatus))
+                .usersByFirstName(ReferenceIndex.of(List.of(traderUser), ApplicationUser::getId, ApplicationUser::getFirstName))
+                .usersByLoginId(ReferenceIndex.of(List.of(traderUser), ApplicationUser::getId, ApplicationUser::getLoginId))
+                .tradeTypes(ReferenceIndex.of(List.of(tradeType), TradeType::getId, TradeType::getTradeType))
+                .tradeSubTypes(ReferenceIndex.of(List.of(tradeSubType), TradeSubType::getId, TradeSubType::getTradeSubType))
+                .legTypes(ReferenceIndex.of(List.of(fixed, floating), LegType::getId, LegType::getType))
+                .indices(ReferenceIndex.of(List.of(index), Index::getId, Index::getIndex))
+                .payRecs(ReferenceIndex.of(List.of(pay, receive), PayRec::getId, PayRec::getPayRec))
+                .build();
     }
 
     @Test
     void testCreateTrade_Success() {
         // Given
-        when(bookRepository.findById(123L)).thenReturn(Optional.of(book));
-        when(counterpartyRepository.findById(345L)).thenReturn(Optional.of(counterparty));
-        when(tradeStatusRepository.findByTradeStatus("NEW")).thenReturn(Optional.of(tradeStatus));
-        
-        when(applicationUserRepository.findById(anyLong())).thenReturn(Optional.of(traderUser));
+        when(referenceDataResolver.current()).thenReturn(referenceData);
         when(tradeRepository.save(any(Trade.class))).thenReturn(trade);
 
         when(tradeLegRepository.save(any(TradeLeg.class))).thenReturn(tradeLeg);
-        when(tradeTypeRepository.findById(1000L)).thenReturn(Optional.of(tradeType));
-        when(tradeSubTypeRepository.findById(1003L)).thenReturn(Optional.of(tradeSubType));
 
         // When
         Trade result = tradeService.createTrade(tradeDTO);
@@ -275,6 +326,7 @@ class TradeServiceTest {
         assertNotNull(result);
         assertEquals(100001L, result.getTradeId());
         verify(tradeRepository).save(any(Trade.class));
+        verify(tradeBlotterIndex).refresh(100001L);
     }
 
     @Test
@@ -289,6 +341,8 @@ class TradeServiceTest {
 
         // Test that error with correct message is thrown
         assertTrue(exception.getMessage().contains("TRADE VALIDATION FAILED: Start date cannot be before trade date"));
+        // Rejected before any reference data or ID work
+        verifyNoInteractions(referenceDataResolver, tradeIdAllocator, tradeRepository);
     }
 
     @Test
@@ -332,34 +386,48 @@ class TradeServiceTest {
     @Test
     void testSearchTrades_Success_WhenParametersAreValid() {
         // GIVEN
-        when(tradeRepository.searchTradesUsingSearchCriteria(
-                any(), any(), any(), any(), any(), any()))
-                .thenReturn(List.of(trade));
+        when(tradeRepository.findAll(any(Specification.class))).thenReturn(List.of(trade));
 
-        when(tradeStatusRepository.existsById(anyLong())).thenReturn(true);
-        when(applicationUserRepository.existsById(anyLong())).thenReturn(true);
-        when(bookRepository.existsById(anyLong())).thenReturn(true);
-        when(counterpartyRepository.existsById(anyLong())).thenReturn(true);
+        when(tradeStatusRepository.countByIdIn(Set.of(1L))).thenReturn(1L);
+        when(applicationUserRepository.countByIdIn(Set.of(2L))).thenReturn(1L);
+        when(bookRepository.countByIdIn(Set.of(3L, 5L))).thenReturn(2L);
+        when(counterpartyRepository.countByIdIn(Set.of(4L))).thenReturn(1L);
 
         // WHEN
-        List<Trade> result = tradeService.searchTrades(earliest, latest, 1L, 2L, 3L, 4L);
+        List<Trade> result = tradeService.searchTrades(new TradeSearchCriteria(earliest, latest, null, null, null, null,
+                List.of(1L), List.of(2L), List.of(3L, 5L), List.of(4L)));
 
         // THEN
         assertEquals(1, result.size());
-        verify(tradeRepository).searchTradesUsingSearchCriteria(earliest, latest, 1L, 2L, 3L, 4L);
+        verify(tradeRepository).findAll(any(Specification.class));
+        verify(bookRepository).countByIdIn(Set.of(3L, 5L));
+        verify(tradeFetchPlan).withLegs(List.of(trade));
     }
 
     @Test
     void testSearchTrades_ThrowsException_WhenValidationFails() {
         // GIVEN
-        when(tradeStatusRepository.existsById(anyLong())).thenReturn(false);
+        when(tradeStatusRepository.countByIdIn(Set.of(99L))).thenReturn(0L);
 
         // WHEN + THEN
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
-                tradeService.searchTrades(earliest, latest, 99L, 2L, 3L, 4L)
+                tradeService.searchTrades(new TradeSearchCriteria(earliest, latest, null, null, null, null,
+                        List.of(99L), List.of(2L), List.of(3L), List.of(4L)))
         );
         assertTrue(exception.getMessage().contains("Trade status ID does not exist"));
-        verify(tradeRepository, never()).searchTradesUsingSearchCriteria(any(), any(), any(), any(), any(), any());
+        verify(tradeRepository, never()).findAll(any(Specification.class));
+    }
+
+    @Test
+    void testSearchTrades_ThrowsException_WhenMaturityRangeIsReversed() {
+        TradeSearchCriteria criteria = new TradeSearchCriteria();
+        criteria.setEarliestMaturityDate(latest);
+        criteria.setLatestMaturityDate(earliest);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> tradeService.searchTrades(criteria));
+
+        assertEquals("\n Earliest maturity date must be before latest maturity date", exception.getMessage());
+        verifyNoInteractions(tradeRepository);
     }
 
     @Test
@@ -382,6 +450,77 @@ class TradeServiceTest {
         verify(tradeRepository).findAll(pageable);
     }
 
+    @Test
+    void testPaginateTradesByKeyset_FirstPageIssuesTokenForNext() {
+        // Given
+        Trade newer = new Trade();
+        newer.setTradeId(100002L);
+        newer.setVersion(1);
+        trade.setVersion(2);
+        when(tradeRepository.findKeysetFirstPageByTradeId(PageRequest.of(0, 3)))
+                .thenReturn(new ArrayList<>(List.of(newer, trade, trade1)));
+
+        // When
+        TradeKeysetPage page = tradeService.paginateTradesByKeyset(2, TradeCursor.Order.TRADE_ID, null, false);
+
+        // Then
+        assertEquals(2, page.getTrades().size());
+        assertNull(page.getTotalElements());
+        TradeCursor cursor = TradeCursor.decode(page.getContinuationToken(), TradeCursor.Order.TRADE_ID);
+        assertEquals(trade.getTradeId(), cursor.getTradeId());
+        assertEquals(trade.getVersion(), cursor.getVersion());
+        verify(tradeRepository, never()).count();
+    }
+
+    @Test
+    void testPaginateTradesByKeyset_ContinuesFromTokenAndCachesTotal() {
+        // Given
+        String token = new TradeCursor(TradeCursor.Order.TRADE_ID, 100002L, 3, null, null).encode();
+        when(tradeRepository.findKeysetPageByTradeIdAfter(100002L, 3, PageRequest.of(0, 3))).thenReturn(List.of(trade));
+        when(tradeRepository.count()).thenReturn(8L);
+
+        // When
+        TradeKeysetPage page = tradeService.paginateTradesByKeyset(2, TradeCursor.Order.TRADE_ID, token, true);
+        tradeService.paginateTradesByKeyset(2, TradeCursor.Order.TRADE_ID, token, true);
+
+        // Then
+        assertEquals(1, page.getTrades().size());
+        assertNull(page.getContinuationToken());
+        assertEquals(8L, page.getTotalElements());
+        verify(tradeRepository, times(1)).count();
+    }
+
+    @Test
+    void testPaginateTradesByKeyset_ContinuesPastUntouchedTrade() {
+        // Given
+        trade.setId(1007L);
+        trade.setLastTouchTimestamp(null);
+        when(tradeRepository.findKeysetFirstPageByLastTouch(PageRequest.of(0, 2)))
+                .thenReturn(new ArrayList<>(List.of(trade, trade1)));
+
+        // When
+        TradeKeysetPage first = tradeService.paginateTradesByKeyset(1, TradeCursor.Order.LAST_TOUCH, null, false);
+        tradeService.paginateTradesByKeyset(1, TradeCursor.Order.LAST_TOUCH, first.getContinuationToken(), false);
+
+        // Then
+        TradeCursor cursor = TradeCursor.decode(first.getContinuationToken(), TradeCursor.Order.LAST_TOUCH);
+        assertNull(cursor.getLastTouchTimestamp());
+        assertEquals(1007L, cursor.getId());
+        verify(tradeRepository).findKeysetPageByLastTouchAfterUntouched(1007L, PageRequest.of(0, 2));
+        verify(tradeRepository, never()).findKeysetPageByLastTouchAfter(any(), any(), any());
+    }
+
+    @Test
+    void testPaginateTradesByKeyset_RejectsTokenForOtherOrder() {
+        String token = new TradeCursor(TradeCursor.Order.TRADE_ID, 100002L, 3, null, null).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> tradeService.paginateTradesByKeyset(2, TradeCursor.Order.LAST_TOUCH, token, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> tradeService.paginateTradesByKeyset(2, TradeCursor.Order.TRADE_ID, "not-a-token", false));
+        verifyNoInteractions(tradeRepository);
+    }
+
     @Test
     void testPaginateTrades_InvalidPageNum() {
         // Given
@@ -465,22 +604,130 @@ class TradeServiceTest {
         tradeDTO.setTradeStatus("AMENDED");
 
         when(tradeRepository.findByTradeIdAndActiveTrue(100001L)).thenReturn(Optional.of(trade));
-        when(tradeStatusRepository.findByTradeStatus("AMENDED")).thenReturn(Optional.of(tradeStatus));
+        when(referenceDataResolver.current()).thenReturn(referenceData);
         when(tradeRepository.save(any(Trade.class))).thenReturn(trade);
-        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
-        when(counterpartyRepository.findById(anyLong())).thenReturn(Optional.of(counterparty));
-        when(applicationUserRepository.findById(anyLong())).thenReturn(Optional.of(traderUser));
-        when(tradeTypeRepository.findById(1000L)).thenReturn(Optional.of(tradeType));
-        when(tradeSubTypeRepository.findById(1003L)).thenReturn(Optional.of(tradeSubType));
 
         when(tradeLegRepository.save(any(TradeLeg.class))).thenReturn(tradeLeg);
 
         // When
-        Trade result = tradeService.amendTrade(100001L, tradeDTO);
+        TradeAmendment result = tradeService.amendTrade(100001L, tradeDTO);
 
         // Then
-        assertNotNull(result);
+        assertNotNull(result.getTrade());
+        assertEquals(2, result.getSummary().getLegsRegenerated());
         verify(tradeRepository, times(2)).save(any(Trade.class)); // Save old and new
+        verify(tradeBlotterIndex).refresh(100001L);
+    }
+
+    @Test
+    void testAmendTrade_CounterpartyOnlyChangeCarriesLegsForward() {
+        // Given the live version has the same legs and dates but another counterparty
+        Counterparty previousCounterparty = new Counterparty();
+        previousCounterparty.setId(346L);
+        trade.setVersion(1);
+        tradeDTO.setTradeStatus("AMENDED");
+        trade.setCounterparty(previousCounterparty);
+        trade.setTradeDate(tradeDTO.getTradeDate());
+        trade.setTradeStartDate(tradeDTO.getTradeStartDate());
+        trade.setTradeMaturityDate(tradeDTO.getTradeMaturityDate());
+        TradeLeg floatingLeg = existingLeg(501L, leg1);
+        TradeLeg fixedLeg = existingLeg(502L, leg2);
+        Cashflow coupon = new Cashflow();
+        coupon.setTradeLeg(floatingLeg);
+        coupon.setPaymentValue(new BigDecimal("2500.00"));
+        coupon.setValueDate(tradeDTO.getTradeStartDate().plusMonths(3));
+        floatingLeg.setCashflows(new ArrayList<>(List.of(coupon)));
+        trade.setTradeLegs(new ArrayList<>(List.of(floatingLeg, fixedLeg)));
+
+        when(tradeRepository.findByTradeIdAndActiveTrue(100001L)).thenReturn(Optional.of(trade));
+        when(referenceDataResolver.current()).thenReturn(referenceData);
+        when(tradeRepository.save(any(Trade.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(tradeLegRepository.save(any(TradeLeg.class))).thenAnswer(savingLegsFrom(701L));
+
+        // When
+        TradeAmendment result = tradeService.amendTrade(100001L, tradeDTO);
+
+        // Then
+        TradeAmendmentSummaryDTO summary = result.getSummary();
+        assertEquals(List.of("counterparty"), summary.getChangedFields());
+        assertEquals(2, summary.getLegsCopied());
+        assertEquals(List.of(501L, 502L), summary.getCopiedLegIds());
+        assertEquals(0, summary.getLegsRegenerated());
+        assertEquals(0, summary.getCashflowsGenerated());
+
+        // The new version gets copies, and the superseded version keeps its legs and cashflows
+        List<TradeLeg> copies = result.getTrade().getTradeLegs();
+        assertEquals(List.of(701L, 702L), copies.stream().map(TradeLeg::getLegId).toList());
+        assertSame(result.getTrade(), copies.get(0).getTrade());
+        assertSame(trade, floatingLeg.getTrade());
+        assertSame(trade, fixedLeg.getTrade());
+        assertSame(floatingLeg, coupon.getTradeLeg());
+        Cashflow copiedCoupon = copies.get(0).getCashflows().get(0);
+        assertSame(copies.get(0), copiedCoupon.getTradeLeg());
+        assertEquals(new BigDecimal("2500.00"), copiedCoupon.getPaymentValue());
+        verify(cashflowRepository).saveAll(List.of(copiedCoupon));
+        verify(cashflowGenerator, never()).generate(any(), any(), any());
+    }
+
+    // Saves legs as the repository would, numbering them from the given ID
+    private static Answer<TradeLeg> savingLegsFrom(long firstLegId) {
+        AtomicLong nextLegId = new AtomicLong(firstLegId);
+        return invocation -> {
+            TradeLeg leg = invocation.getArgument(0);
+            leg.setLegId(nextLegId.getAndIncrement());
+            return leg;
+        };
+    }
+
+    @Test
+    void testAmendTrade_RegeneratesOnlyChangedLeg() {
+        // Given the fixed leg's rate changes
+        trade.setVersion(1);
+        tradeDTO.setTradeStatus("AMENDED");
+        trade.setTradeDate(tradeDTO.getTradeDate());
+        trade.setTradeStartDate(tradeDTO.getTradeStartDate());
+        trade.setTradeMaturityDate(tradeDTO.getTradeMaturityDate());
+        TradeLeg floatingLeg = existingLeg(501L, leg1);
+        TradeLeg fixedLeg = existingLeg(502L, leg2);
+        trade.setTradeLegs(new ArrayList<>(List.of(floatingLeg, fixedLeg)));
+        leg2.setRate(0.02);
+
+        when(tradeRepository.findByTradeIdAndActiveTrue(100001L)).thenReturn(Optional.of(trade));
+        when(referenceDataResolver.current()).thenReturn(referenceData);
+        when(tradeRepository.save(any(Trade.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(tradeLegRepository.save(any(TradeLeg.class))).thenAnswer(savingLegsFrom(601L));
+
+        // When
+        TradeAmendment result = tradeService.amendTrade(100001L, tradeDTO);
+
+        // Then
+        TradeAmendmentSummaryDTO summary = result.getSummary();
+        assertTrue(summary.getChangedFields().isEmpty());
+        assertEquals(List.of(501L), summary.getCopiedLegIds());
+        assertEquals(List.of(502L), summary.getReplacedLegIds());
+        assertEquals(List.of(602L), summary.getRegeneratedLegIds());
+        assertEquals(1, summary.getLegsReplaced());
+        assertEquals(0, summary.getLegsRemoved());
+        assertEquals(4, summary.getCashflowsGenerated()); // Quarterly default over one year
+        assertTrue(fixedLeg.getActive());
+        assertSame(trade, fixedLeg.getTrade());
+        assertSame(trade, floatingLeg.getTrade());
+        verify(tradeLegRepository, times(2)).save(any(TradeLeg.class));
+        verify(cashflowRepository, times(1)).saveAll(anyList());
+    }
+
+    // Builds a stored leg with the same economic terms the DTO leg resolves to
+    private TradeLeg existingLeg(Long legId, TradeLegDTO legDTO) {
+        TradeLeg leg = new TradeLeg();
+        leg.setLegId(legId);
+        leg.setTrade(trade);
+        leg.setNotional(legDTO.getNotional());
+        leg.setRate(legDTO.getRate());
+        leg.setLegRateType(referenceData.getLegTypes().byName(legDTO.getLegType()).orElseThrow());
+        leg.setPayReceiveFlag(referenceData.getPayRecs().byName(legDTO.getPayReceiveFlag()).orElseThrow());
+        leg.setIndex(referenceData.getIndices().byId(legDTO.getIndexId()).orElse(null));
+        leg.setActive(true);
+        return leg;
     }
 
     @Test
@@ -511,20 +758,7 @@ class TradeServiceTest {
         tradeDTO.setTradeStartDate(LocalDate.now());
         tradeDTO.setTradeMaturityDate(LocalDate.now().plusYears(years).plusMonths(months));
 
-        LegType legType = new LegType();
-        Index index = new Index();
-        PayRec payRec = new PayRec();
-
-        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
-        when(counterpartyRepository.findById(anyLong())).thenReturn(Optional.of(counterparty));
-        when(tradeStatusRepository.findByTradeStatus("NEW")).thenReturn(Optional.of(tradeStatus));
-        when(applicationUserRepository.findById(anyLong())).thenReturn(Optional.of(traderUser));
-
-        when(legTypeRepository.findByType(anyString())).thenReturn(Optional.of(legType));
-        when(indexRepository.findById(anyLong())).thenReturn(Optional.of(index));
-        when(payRecRepository.findByPayRec(anyString())).thenReturn(Optional.of(payRec));
-        when(tradeTypeRepository.findById(1000L)).thenReturn(Optional.of(tradeType));
-        when(tradeSubTypeRepository.findById(1003L)).thenReturn(Optional.of(tradeSubType));
+        when(referenceDataResolver.current()).thenReturn(referenceData);
 
         when(tradeRepository.save(any(Trade.class))).thenReturn(trade);
 
@@ -532,9 +766,13 @@ class TradeServiceTest {
         // When
         tradeService.createTrade(tradeDTO);
         
-        // Then verify cashflowRepository.save has been called the correct number of times
+        // Then verify the cashflows are saved together in a single batch
         // There are two trade legs and a cashflow is generated for each for evey month
-        verify(cashflowRepository, times(invocationsCount)).save(any(Cashflow.class));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Cashflow>> savedCashflows = ArgumentCaptor.forClass(List.class);
+        verify(cashflowRepository, times(1)).saveAll(savedCashflows.capture());
+        verify(cashflowRepository, never()).save(any(Cashflow.class));
+        assertEquals(invocationsCount, savedCashflows.getValue().size());
     }
 
     // @Test
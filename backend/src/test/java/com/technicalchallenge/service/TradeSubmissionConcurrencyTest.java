@@ -0,0 +1,121 @@
+package com.technicalchallenge.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.technicalchallenge.config.ModelMapperConfig;
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.mapper.TradeMapper;
+import com.technicalchallenge.repository.TradeRepository;
+import com.technicalchallenge.repository.TradeSubmissionKeyRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Two nodes booking the same submission key at once, each with its own in-memory state,
+ * so only the key's primary key stands between them, and the purge of expired keys.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TradeSubmissionService.class, TradeMapper.class, ModelMapperConfig.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:tradesubmission;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TradeSubmissionConcurrencyTest {
+
+    private static final String KEY = "key:simon:retry-1";
+
+    @Autowired
+    private TradeSubmissionService firstNode;
+
+    @Autowired
+    private TradeSubmissionKeyRepository tradeSubmissionKeyRepository;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private TradeMapper tradeMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM trade_submission_key");
+    }
+
+    private TradeSubmissionService secondNode() {
+        TradeSubmissionService node = new TradeSubmissionService();
+        ReflectionTestUtils.setField(node, "tradeSubmissionKeyRepository", tradeSubmissionKeyRepository);
+        ReflectionTestUtils.setField(node, "tradeRepository", tradeRepository);
+        ReflectionTestUtils.setField(node, "tradeMapper", tradeMapper);
+        ReflectionTestUtils.setField(node, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(node, "meterRegistry", new SimpleMeterRegistry());
+        node.init();
+        return node;
+    }
+
+    // Books a seed trade once both nodes have checked the key and found nothing
+    private TradeDTO booking(CyclicBarrier bothBooking, Long tradeRowId) {
+        try {
+            bothBooking.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return tradeMapper.toDto(tradeRepository.findById(tradeRowId).orElseThrow());
+    }
+
+    @Test
+    void testSubmit_SameKeyOnTwoNodesBooksOnce() throws Exception {
+        TradeSubmissionService secondNode = secondNode();
+        CyclicBarrier bothBooking = new CyclicBarrier(2);
+
+        CompletableFuture<TradeSubmission> first = CompletableFuture.supplyAsync(
+                () -> firstNode.submit(KEY, () -> booking(bothBooking, 1000L)));
+        CompletableFuture<TradeSubmission> second = CompletableFuture.supplyAsync(
+                () -> secondNode.submit(KEY, () -> booking(bothBooking, 1001L)));
+        List<TradeSubmission> submissions = List.of(first.get(30, TimeUnit.SECONDS), second.get(30, TimeUnit.SECONDS));
+
+        // Both are answered with the one booking whose key was recorded
+        Long recorded = jdbcTemplate.queryForObject(
+                "SELECT trade_row_id FROM trade_submission_key WHERE submission_key = ?", Long.class, KEY);
+        assertEquals(recorded, submissions.get(0).getTrade().getId());
+        assertEquals(recorded, submissions.get(1).getTrade().getId());
+        assertNotEquals(submissions.get(0).isReplayed(), submissions.get(1).isReplayed());
+    }
+
+    @Test
+    void testPurgeExpiredKeys_DeletesOnlyKeysPastTheTtl() {
+        jdbcTemplate.update("INSERT INTO trade_submission_key (submission_key, created_date, trade_id, trade_row_id) VALUES (?, ?, ?, ?)",
+                "key:simon:old", LocalDateTime.now().minusHours(25), 100001L, 1000L);
+        jdbcTemplate.update("INSERT INTO trade_submission_key (submission_key, created_date, trade_id, trade_row_id) VALUES (?, ?, ?, ?)",
+                KEY, LocalDateTime.now().minusHours(23), 100002L, 1001L);
+
+        assertEquals(1, firstNode.purgeExpiredKeys());
+
+        assertEquals(List.of(KEY), jdbcTemplate.queryForList("SELECT submission_key FROM trade_submission_key", String.class));
+    }
+}
@@ -0,0 +1,191 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.mapper.TradeMapper;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.TradeSubmissionKey;
+import com.technicalchallenge.repository.TradeRepository;
+import com.technicalchallenge.repository.TradeSubmissionKeyRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradeSubmissionServiceTest {
+
+    @Mock
+    private TradeSubmissionKeyRepository tradeSubmissionKeyRepository;
+
+    @Mock
+    private TradeRepository tradeRepository;
+
+    @Mock
+    private TradeMapper tradeMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TradeSubmissionService tradeSubmissionService;
+
+    private TradeDTO bookedTrade;
+    private AtomicInteger bookings;
+
+    @BeforeEach
+    void setUp() {
+        tradeSubmissionService.init();
+
+        bookedTrade = new TradeDTO();
+        bookedTrade.setId(10000L);
+        bookedTrade.setTradeId(100009L);
+        bookings = new AtomicInteger();
+    }
+
+    private TradeDTO book() {
+        bookings.incrementAndGet();
+        return bookedTrade;
+    }
+
+    @Test
+    void testSubmissionKey_HeaderScopedByUserThenUti() {
+        TradeDTO tradeDTO = new TradeDTO();
+        tradeDTO.setUtiCode("UTI-1");
+
+        assertEquals("key:alice:abc", tradeSubmissionService.submissionKey("alice", " abc ", tradeDTO));
+        assertEquals("uti:UTI-1", tradeSubmissionService.submissionKey("alice", null, tradeDTO));
+
+        tradeDTO.setUtiCode(" ");
+        assertNull(tradeSubmissionService.submissionKey("alice", "", tradeDTO));
+    }
+
+    @Test
+    void testSubmit_FirstSubmissionBooksAndRecordsKey() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(tradeSubmissionKeyRepository.findById("key:alice:abc")).thenReturn(Optional.empty());
+
+        TradeSubmission submission = tradeSubmissionService.submit("key:alice:abc", this::book);
+
+        assertFalse(submission.isReplayed());
+        assertSame(bookedTrade, submission.getTrade());
+        ArgumentCaptor<TradeSubmissionKey> captor = ArgumentCaptor.forClass(TradeSubmissionKey.class);
+        verify(tradeSubmissionKeyRepository).saveAndFlush(captor.capture());
+        assertEquals(10000L, captor.getValue().getTradeRowId());
+        assertEquals(100009L, captor.getValue().getTradeId());
+    }
+
+    @Test
+    void testSubmit_RetryIsAnsweredFromMemory() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(tradeSubmissionKeyRepository.findById("key:alice:abc")).thenReturn(Optional.empty());
+
+        tradeSubmissionService.submit("key:alice:abc", this::book);
+        TradeSubmission retry = tradeSubmissionService.submit("key:alice:abc", this::book);
+
+        assertTrue(retry.isReplayed());
+        assertSame(bookedTrade, retry.getTrade());
+        assertEquals(1, bookings.get());
+        verify(tradeSubmissionKeyRepository, times(1)).findById("key:alice:abc");
+        assertEquals(1.0, meterRegistry.get("trade.submission.replayed").counter().count());
+    }
+
+    @Test
+    void testSubmit_KeyRecordedEarlierReturnsStoredTrade() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        Trade stored = new Trade();
+        when(tradeSubmissionKeyRepository.findById("uti:UTI-1"))
+                .thenReturn(Optional.of(new TradeSubmissionKey("uti:UTI-1", 10000L, 100009L, LocalDateTime.now().minusHours(1))));
+        when(tradeRepository.findById(10000L)).thenReturn(Optional.of(stored));
+        when(tradeMapper.toDto(stored)).thenReturn(bookedTrade);
+
+        TradeSubmission submission = tradeSubmissionService.submit("uti:UTI-1", this::book);
+
+        assertTrue(submission.isReplayed());
+        assertSame(bookedTrade, submission.getTrade());
+        assertEquals(0, bookings.get());
+        verify(tradeSubmissionKeyRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testSubmit_ExpiredKeyBooksAgain() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(tradeSubmissionKeyRepository.findById("uti:UTI-1"))
+                .thenReturn(Optional.of(new TradeSubmissionKey("uti:UTI-1", 1L, 100001L, LocalDateTime.now().minusDays(2))));
+
+        TradeSubmission submission = tradeSubmissionService.submit("uti:UTI-1", this::book);
+
+        assertFalse(submission.isReplayed());
+        assertEquals(1, bookings.get());
+        verify(tradeRepository, never()).findById(any());
+        verify(tradeSubmissionKeyRepository).delete(any(TradeSubmissionKey.class));
+        verify(tradeSubmissionKeyRepository).saveAndFlush(any(TradeSubmissionKey.class));
+    }
+
+    @Test
+    void testSubmit_FailedBookingIsNotRemembered() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(tradeSubmissionKeyRepository.findById("key:alice:abc")).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> tradeSubmissionService.submit("key:alice:abc", () -> {
+            throw new RuntimeException("TRADE VALIDATION FAILED: Trade date is required");
+        }));
+        TradeSubmission retry = tradeSubmissionService.submit("key:alice:abc", this::book);
+
+        assertFalse(retry.isReplayed());
+        assertEquals(1, bookings.get());
+    }
+
+    @Test
+    void testExpiringCache_EvictsLeastRecentlyUsedAndExpired() {
+        AtomicLong now = new AtomicLong();
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(2, Duration.ofMillis(100), now::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.get("a"));
+
+        now.set(100);
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testPurgeExpiredKeys_DeletesKeysOlderThanTheTtl() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(tradeSubmissionKeyRepository.deleteRecordedBefore(any())).thenReturn(3);
+        LocalDateTime before = LocalDateTime.now().minusHours(24);
+
+        assertEquals(3, tradeSubmissionService.purgeExpiredKeys());
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(tradeSubmissionKeyRepository).deleteRecordedBefore(cutoff.capture());
+        assertFalse(cutoff.getValue().isBefore(before));
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusHours(23)));
+    }
+}
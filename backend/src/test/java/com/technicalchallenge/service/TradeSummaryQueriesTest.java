@@ -0,0 +1,176 @@
+package com.technicalchallenge.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.technicalchallenge.dto.TradeBlotterSummaryDTO;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.TradeLeg;
+import com.technicalchallenge.repository.TradeRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Groups the seed trades per trader in the database and checks the figures match what the
+ * blotter index keeps for the same trader.
+ */
+// Statement logging would dominate the benchmark timings
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TradeSummaryQueries.class, TradeBlotterIndex.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tradesummaryqueries;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+class TradeSummaryQueriesTest {
+
+    // Simon King, who trades on FX-BOOK-1
+    private static final long TRADER_ID = 1003L;
+
+    @Autowired
+    private TradeSummaryQueries tradeSummaryQueries;
+
+    @Autowired
+    private TradeBlotterIndex tradeBlotterIndex;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static void assertSameSummary(TradeBlotterSummaryDTO expected, TradeBlotterSummaryDTO actual) {
+        assertEquals(expected.getTradeCount(), actual.getTradeCount());
+        assertEquals(expected.getTotalNotional(), actual.getTotalNotional());
+        assertEquals(expected.getTradeCountByStatus(), actual.getTradeCountByStatus());
+        assertEquals(expected.getTradeCountByTradeType(), actual.getTradeCountByTradeType());
+        assertEquals(expected.getTradeCountByCounterparty(), actual.getTradeCountByCounterparty());
+        assertEquals(expected.getTradeCountByBook(), actual.getTradeCountByBook());
+        assertEquals(expected.getNotionalByBook(), actual.getNotionalByBook());
+        assertEquals(expected.getNotionalByCurrency(), actual.getNotionalByCurrency());
+        assertEquals(expected.getRiskExposureByBook(), actual.getRiskExposureByBook());
+    }
+
+    @Test
+    void testSummariseTrader_GroupsTradesAndSignsLegs() {
+        TradeBlotterSummaryDTO summary = tradeSummaryQueries.summariseTrader(TRADER_ID);
+
+        assertEquals(4, summary.getTradeCount());
+        assertEquals(new BigDecimal("2000000.00"), summary.getTotalNotional());
+        assertEquals(Map.of("FX-BOOK-1", 4L), summary.getTradeCountByBook());
+        assertEquals(Map.of("USD", new BigDecimal("2000000.00")), summary.getNotionalByCurrency());
+        // Trade 100001 pays and receives 1M, and the book's other trades have no legs
+        assertEquals(Map.of("FX-BOOK-1", new BigDecimal("0.00")), summary.getRiskExposureByBook());
+    }
+
+    @Test
+    void testSummariseTrader_MatchesBlotterIndex() {
+        tradeBlotterIndex.rebuild();
+
+        for (long traderId : new long[] {1003L, 1004L, 1005L, 9999L}) {
+            assertSameSummary(tradeBlotterIndex.summariseTrader(traderId), tradeSummaryQueries.summariseTrader(traderId));
+        }
+    }
+
+    /**
+     * Times one trader's dashboard summary over a large book three ways: walking the trade
+     * and leg entities as the dashboard used to, grouping in the database, and reading the
+     * index's running totals. Run with -Ddashboard.benchmark=true, optionally
+     * -Ddashboard.benchmark.rows=N.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "dashboard.benchmark", matches = "true")
+    // Committed rows, so the index's own load transaction sees them
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void benchmarkTraderSummary() {
+        try {
+            runTraderSummaryBenchmark();
+        } finally {
+            jdbcTemplate.update("DELETE FROM trade_leg WHERE leg_id >= 1000000");
+            jdbcTemplate.update("DELETE FROM trade WHERE id >= 1000000");
+        }
+    }
+
+    private void runTraderSummaryBenchmark() {
+        int rows = Integer.getInteger("dashboard.benchmark.rows", 20_000);
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        List<Object[]> trades = new ArrayList<>();
+        List<Object[]> legs = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            long id = 1_000_000L + i;
+            trades.add(new Object[] {id, id, start.plusDays(i % 3650)});
+            // A pay and a receive leg, in USD or EUR
+            legs.add(new Object[] {2 * id, BigDecimal.valueOf(1000 + i % 500), id, 1000L + i % 2, 1000L});
+            legs.add(new Object[] {2 * id + 1, BigDecimal.valueOf(900 + i % 300), id, 1000L + i % 2, 1001L});
+            if (trades.size() == 10_000 || i == rows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO trade (id, trade_id, version, book_id, counterparty_id, trader_user_id,"
+                        + " trade_type_id, trade_status_id, trade_date, active) VALUES (?, ?, 1, 1000, 1000, 1003, 1001, 1004, ?, true)",
+                        trades);
+                jdbcTemplate.batchUpdate("INSERT INTO trade_leg (leg_id, notional, trade_id, currency_id, pay_rec_id, active)"
+                        + " VALUES (?, ?, ?, ?, ?, true)", legs);
+                trades.clear();
+                legs.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+        tradeBlotterIndex.rebuild();
+
+        TradeBlotterSummaryDTO indexed = tradeBlotterIndex.summariseTrader(TRADER_ID);
+        assertSameSummary(indexed, tradeSummaryQueries.summariseTrader(TRADER_ID));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        long entityNanos = time(() -> transaction.execute(status -> {
+            long legCount = 0;
+            for (Trade trade : tradeRepository.findByTraderUser_Id(TRADER_ID)) {
+                for (TradeLeg leg : trade.getTradeLegs()) {
+                    legCount += leg.getNotional() == null ? 0 : 1;
+                }
+            }
+            return legCount;
+        }));
+        long groupedNanos = time(() -> tradeSummaryQueries.summariseTrader(TRADER_ID).getTradeCount());
+        long indexNanos = time(() -> tradeBlotterIndex.summariseTrader(TRADER_ID).getTradeCount());
+        System.out.printf("Dashboard summary of %d trades: entities %.2f ms, group by %.2f ms, index %.3f ms per summary%n",
+                indexed.getTradeCount(), entityNanos / 1e6, groupedNanos / 1e6, indexNanos / 1e6);
+        assertTrue(groupedNanos < entityNanos);
+        assertTrue(indexNanos < groupedNanos);
+    }
+
+    private static long time(LongSupplier summary) {
+        int warmup = 2;
+        int iterations = 5;
+        for (int i = 0; i < warmup; i++) {
+            summary.getAsLong();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            summary.getAsLong();
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+}
@@ -0,0 +1,202 @@
+package com.technicalchallenge.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.DailySummary;
+import com.technicalchallenge.model.TradeSummary;
+import com.technicalchallenge.repository.ApplicationUserRepository;
+import com.technicalchallenge.repository.DailySummaryRepository;
+import com.technicalchallenge.repository.TradeSummaryRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class TradeSummarySnapshotServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 14);
+
+    @Mock
+    private TradeDashboardService tradeDashboardService;
+
+    @Mock
+    private ApplicationUserRepository applicationUserRepository;
+
+    @Mock
+    private TradeSummaryRepository tradeSummaryRepository;
+
+    @Mock
+    private DailySummaryRepository dailySummaryRepository;
+
+    @Mock
+    private TraderDailyStatistics traderDailyStatistics;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TradeSummarySnapshotService tradeSummarySnapshotService;
+
+    private ApplicationUser simon;
+    private ApplicationUser joey;
+
+    @BeforeEach
+    void setUp() {
+        tradeSummarySnapshotService.init();
+
+        simon = trader(1003L, "simon");
+        joey = trader(1005L, "joey");
+        lenient().when(applicationUserRepository.findByActiveTrue()).thenReturn(List.of(simon, joey));
+    }
+
+    private static ApplicationUser trader(Long id, String loginId) {
+        ApplicationUser trader = new ApplicationUser();
+        trader.setId(id);
+        trader.setLoginId(loginId);
+        trader.setActive(true);
+        return trader;
+    }
+
+    private static TradeSummary tradeSummary(ApplicationUser trader, LocalTime time) {
+        TradeSummary summary = new TradeSummary();
+        summary.setTraderUser(trader);
+        summary.setSummaryDateStamp(TODAY);
+        summary.setSummaryTimeStamp(time);
+        summary.setTradeCountByStatus(Map.of("LIVE", 2L));
+        return summary;
+    }
+
+    // What the dashboard builds for a trader without trades
+    private static TradeSummary emptySummary(ApplicationUser trader) {
+        TradeSummary summary = new TradeSummary();
+        summary.setTraderUser(trader);
+        summary.setSummaryDateStamp(TODAY);
+        summary.setSummaryTimeStamp(LocalTime.of(10, 5));
+        return summary;
+    }
+
+    @Test
+    void testSnapshotIntraday_SavesEachTraderWithTradesAtPeriodStart() {
+        when(tradeDashboardService.buildTradeSummary(simon)).thenReturn(tradeSummary(simon, LocalTime.of(10, 41, 7)));
+        when(tradeDashboardService.buildTradeSummary(joey)).thenReturn(emptySummary(joey));
+        when(tradeSummaryRepository.findByTraderUser_IdAndSummaryDateStampAndSummaryTimeStamp(1003L, TODAY, LocalTime.of(10, 0)))
+                .thenReturn(Optional.empty());
+
+        assertEquals(1, tradeSummarySnapshotService.snapshotIntraday());
+
+        ArgumentCaptor<TradeSummary> saved = ArgumentCaptor.forClass(TradeSummary.class);
+        verify(tradeSummaryRepository).save(saved.capture());
+        assertEquals(simon, saved.getValue().getTraderUser());
+        assertEquals(LocalTime.of(10, 0), saved.getValue().getSummaryTimeStamp());
+        assertNull(saved.getValue().getId());
+        verify(dailySummaryRepository, never()).save(any());
+        verify(traderDailyStatistics, never()).record(any());
+        assertEquals(1.0, meterRegistry.get("trade.summary.snapshots").tag("kind", "intraday").counter().count());
+    }
+
+    @Test
+    void testSnapshotIntraday_UpdatesThePeriodsExistingRow() {
+        TradeSummary earlier = tradeSummary(simon, LocalTime.of(10, 0));
+        earlier.setId(42L);
+        when(tradeDashboardService.buildTradeSummary(simon)).thenReturn(tradeSummary(simon, LocalTime.of(10, 59, 59)));
+        when(tradeDashboardService.buildTradeSummary(joey)).thenReturn(emptySummary(joey));
+        when(tradeSummaryRepository.findByTraderUser_IdAndSummaryDateStampAndSummaryTimeStamp(1003L, TODAY, LocalTime.of(10, 0)))
+                .thenReturn(Optional.of(earlier));
+
+        tradeSummarySnapshotService.snapshotIntraday();
+
+        ArgumentCaptor<TradeSummary> saved = ArgumentCaptor.forClass(TradeSummary.class);
+        verify(tradeSummaryRepository).save(saved.capture());
+        assertEquals(42L, saved.getValue().getId());
+    }
+
+    @Test
+    void testSnapshotEndOfDay_SavesOneDailySummaryPerTraderPerDay() {
+        when(tradeDashboardService.buildTradeSummary(simon)).thenReturn(tradeSummary(simon, LocalTime.of(23, 55)));
+        when(tradeDashboardService.buildTradeSummary(joey)).thenReturn(emptySummary(joey));
+        when(tradeSummaryRepository.findByTraderUser_IdAndSummaryDateStampAndSummaryTimeStamp(eq(1003L), eq(TODAY), any()))
+                .thenReturn(Optional.empty());
+
+        DailySummary daily = new DailySummary();
+        daily.setTraderUser(simon);
+        daily.setSummaryDate(TODAY);
+        daily.setTodaysNotional(new BigDecimal("300.00"));
+        when(tradeDashboardService.buildDailySummary(simon)).thenReturn(daily);
+        DailySummary savedEarlierToday = new DailySummary();
+        savedEarlierToday.setId(7L);
+        when(dailySummaryRepository.findByTraderUser_IdAndSummaryDate(1003L, TODAY)).thenReturn(Optional.of(savedEarlierToday));
+
+        // Joey has no trades today, which is still a day in the trader's history
+        DailySummary quietDay = new DailySummary();
+        quietDay.setTraderUser(joey);
+        quietDay.setSummaryDate(TODAY);
+        quietDay.setTodaysTradeCount(0);
+        when(tradeDashboardService.buildDailySummary(joey)).thenReturn(quietDay);
+        when(dailySummaryRepository.findByTraderUser_IdAndSummaryDate(1005L, TODAY)).thenReturn(Optional.empty());
+
+        assertEquals(2, tradeSummarySnapshotService.snapshotEndOfDay());
+
+        verify(dailySummaryRepository).save(daily);
+        assertEquals(7L, daily.getId());
+        verify(traderDailyStatistics).record(daily);
+        verify(dailySummaryRepository).save(quietDay);
+        verify(traderDailyStatistics).record(quietDay);
+        verify(tradeSummaryRepository, times(1)).save(any(TradeSummary.class));
+        assertEquals(2.0, meterRegistry.get("trade.summary.snapshots").tag("kind", "end-of-day").counter().count());
+    }
+
+    @Test
+    void testSnapshotIntraday_OneFailingTraderDoesNotStopTheOthers() {
+        when(tradeDashboardService.buildTradeSummary(simon)).thenThrow(new RuntimeException("Index unavailable"));
+        when(tradeDashboardService.buildTradeSummary(joey)).thenReturn(tradeSummary(joey, LocalTime.of(9, 30)));
+        when(tradeSummaryRepository.findByTraderUser_IdAndSummaryDateStampAndSummaryTimeStamp(1005L, TODAY, LocalTime.of(9, 0)))
+                .thenReturn(Optional.empty());
+
+        assertEquals(1, tradeSummarySnapshotService.snapshotIntraday());
+
+        verify(tradeSummaryRepository).save(any(TradeSummary.class));
+        assertEquals(1.0, meterRegistry.get("trade.summary.snapshot.failures").counter().count());
+    }
+
+    @Test
+    void testPeriodStart_CountsPeriodsFromMidnight() {
+        ReflectionTestUtils.setField(tradeSummarySnapshotService, "intradayIntervalMs", 15 * 60 * 1000L);
+
+        assertEquals(LocalTime.of(10, 30), tradeSummarySnapshotService.periodStart(LocalTime.of(10, 44, 59)));
+        assertEquals(LocalTime.MIDNIGHT, tradeSummarySnapshotService.periodStart(LocalTime.of(0, 14)));
+
+        // A period longer than a day is a day
+        ReflectionTestUtils.setField(tradeSummarySnapshotService, "intradayIntervalMs", 3 * 86_400_000L);
+        assertEquals(LocalTime.MIDNIGHT, tradeSummarySnapshotService.periodStart(LocalTime.of(18, 0)));
+    }
+}
@@ -0,0 +1,153 @@
+package com.technicalchallenge.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.DailySummary;
+import com.technicalchallenge.repository.DailySummaryRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TraderDailyStatisticsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 14);
+    private static final Long TRADER_ID = 1003L;
+
+    @Mock
+    private DailySummaryRepository dailySummaryRepository;
+
+    @InjectMocks
+    private TraderDailyStatistics traderDailyStatistics;
+
+    private ApplicationUser trader;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(traderDailyStatistics, "maxWindowDays", 30);
+        trader = new ApplicationUser();
+        trader.setId(TRADER_ID);
+    }
+
+    private DailySummary summary(LocalDate date, String notional, int tradeCount) {
+        DailySummary summary = new DailySummary();
+        summary.setTraderUser(trader);
+        summary.setSummaryDate(date);
+        summary.setTodaysNotional(new BigDecimal(notional));
+        summary.setTodaysTradeCount(tradeCount);
+        return summary;
+    }
+
+    private void savedSummaries(DailySummary... summaries) {
+        when(dailySummaryRepository.findByTraderUser_IdAndSummaryDateBetween(eq(TRADER_ID), any(), any()))
+                .thenReturn(List.of(summaries));
+    }
+
+    @Test
+    void testWindow_TotalsTheDaysUpToYesterday() {
+        savedSummaries(summary(TODAY.minusDays(1), "100.00", 1),
+                summary(TODAY.minusDays(2), "200.00", 2),
+                summary(TODAY.minusDays(11), "300.00", 3));
+
+        TraderDailyStatistics.Window previousDay = traderDailyStatistics.window(TRADER_ID, TODAY, 1);
+        assertEquals(1, previousDay.getSummaryDays());
+        assertEquals(new BigDecimal("100.00"), previousDay.getNotional());
+
+        TraderDailyStatistics.Window week = traderDailyStatistics.window(TRADER_ID, TODAY, 7);
+        assertEquals(2, week.getSummaryDays());
+        assertEquals(3, week.getTradeCount());
+        assertEquals(new BigDecimal("150.00"), week.averageNotional());
+        assertEquals(1.5, week.averageTradeCount());
+
+        TraderDailyStatistics.Window month = traderDailyStatistics.window(TRADER_ID, TODAY, 30);
+        assertEquals(3, month.getSummaryDays());
+        assertEquals(new BigDecimal("600.00"), month.getNotional());
+
+        // The history is read once, from the oldest day the longest window can reach
+        verify(dailySummaryRepository, times(1)).findByTraderUser_IdAndSummaryDateBetween(
+                eq(TRADER_ID), any(), eq(TODAY.minusDays(1)));
+    }
+
+    @Test
+    void testWindow_EmptyWithoutSummaries() {
+        savedSummaries();
+
+        TraderDailyStatistics.Window month = traderDailyStatistics.window(TRADER_ID, TODAY, 30);
+
+        assertTrue(month.isEmpty());
+        assertEquals(BigDecimal.ZERO, month.averageNotional());
+        assertEquals(0.0, month.averageTradeCount());
+    }
+
+    @Test
+    void testWindow_RejectsLengthsOutsideTheHistory() {
+        IllegalArgumentException tooLong = assertThrows(IllegalArgumentException.class,
+                () -> traderDailyStatistics.window(TRADER_ID, TODAY, 31));
+        assertEquals("Window must be between 1 and 30 days: 31", tooLong.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> traderDailyStatistics.window(TRADER_ID, TODAY, 0));
+    }
+
+    @Test
+    void testRecord_MovesTheHistoryOnWithoutReloading() {
+        savedSummaries(summary(TODAY.minusDays(1), "100.00", 1));
+        traderDailyStatistics.window(TRADER_ID, TODAY, 7);
+
+        // End of day saves today's summary, which tomorrow's windows end with
+        traderDailyStatistics.record(summary(TODAY, "500.00", 5));
+
+        TraderDailyStatistics.Window previousDay = traderDailyStatistics.window(TRADER_ID, TODAY.plusDays(1), 1);
+        assertEquals(new BigDecimal("500.00"), previousDay.getNotional());
+        TraderDailyStatistics.Window week = traderDailyStatistics.window(TRADER_ID, TODAY.plusDays(1), 7);
+        assertEquals(2, week.getSummaryDays());
+        assertEquals(6, week.getTradeCount());
+
+        verify(dailySummaryRepository, times(1)).findByTraderUser_IdAndSummaryDateBetween(eq(TRADER_ID), any(), any());
+    }
+
+    @Test
+    void testRecord_ReplacesADayAlreadyHeld() {
+        savedSummaries(summary(TODAY.minusDays(1), "100.00", 1), summary(TODAY.minusDays(3), "200.00", 2));
+        traderDailyStatistics.window(TRADER_ID, TODAY, 7);
+
+        // A second end of day run for a day already held, and a day first saved late
+        traderDailyStatistics.record(summary(TODAY.minusDays(3), "250.00", 4));
+        traderDailyStatistics.record(summary(TODAY.minusDays(2), "50.00", 1));
+
+        TraderDailyStatistics.Window week = traderDailyStatistics.window(TRADER_ID, TODAY, 7);
+        assertEquals(3, week.getSummaryDays());
+        assertEquals(6, week.getTradeCount());
+        assertEquals(new BigDecimal("400.00"), week.getNotional());
+        assertEquals(new BigDecimal("100.00"), traderDailyStatistics.window(TRADER_ID, TODAY, 1).getNotional());
+    }
+
+    @Test
+    void testRecord_GapReloadsOnTheNextWindow() {
+        savedSummaries(summary(TODAY.minusDays(1), "100.00", 1));
+        traderDailyStatistics.window(TRADER_ID, TODAY, 7);
+
+        // Today's end of day was missed here, so tomorrow's summary cannot follow on
+        traderDailyStatistics.record(summary(TODAY.plusDays(1), "500.00", 5));
+        traderDailyStatistics.window(TRADER_ID, TODAY.plusDays(2), 7);
+
+        verify(dailySummaryRepository).findByTraderUser_IdAndSummaryDateBetween(
+                eq(TRADER_ID), any(), eq(TODAY.plusDays(1)));
+    }
+}
@@ -0,0 +1,129 @@
+package com.technicalchallenge.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.model.FieldValidationError;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.ValidationResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TradeValidationEngineTest {
+
+    private TradeValidationEngine engine;
+    private SimpleMeterRegistry meterRegistry;
+    private TradeDTO tradeDTO;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new TradeValidationEngine();
+        ReflectionTestUtils.setField(engine, "meterRegistry", meterRegistry);
+
+        tradeDTO = new TradeDTO();
+        tradeDTO.setTradeDate(LocalDate.now());
+        tradeDTO.setTradeStartDate(LocalDate.now().plusDays(2));
+        tradeDTO.setTradeMaturityDate(LocalDate.now().plusYears(1));
+        tradeDTO.setTradeLegs(List.of(leg("Pay", "Fixed"), leg("Receive", "Fixed")));
+    }
+
+    private static TradeLegDTO leg(String payReceive, String legType) {
+        TradeLegDTO leg = new TradeLegDTO();
+        leg.setLegType(legType);
+        leg.setPayReceiveFlag(payReceive);
+        leg.setCurrencyId(1000L);
+        leg.setScheduleId(1000L);
+        leg.setHolidayCalendarId(1000L);
+        leg.setPaymentBdcId(1000L);
+        leg.setFixingBdcId(1000L);
+        leg.setRate(0.05);
+        leg.setNotional(BigDecimal.valueOf(1_000_000));
+        return leg;
+    }
+
+    private static List<String> messages(ValidationResult result) {
+        return result.getValidationErrors().stream().map(FieldValidationError::getErrorMessage).toList();
+    }
+
+    @Test
+    void testValidateStructure_ValidTradeNeedsNoReferenceData() {
+        engine.init();
+
+        ValidationResult result = engine.validateStructure(tradeDTO);
+
+        assertTrue(result.isValid());
+        assertEquals(1, meterRegistry.get("trade.validation.rule.duration").tag("rule", "leg-fields").timer().count());
+    }
+
+    @Test
+    void testValidate_ReportsEveryFailureAndCountsPerRule() {
+        engine.init();
+        tradeDTO.setTradeDate(null);
+        tradeDTO.setTradeLegs(List.of(leg("Pay", "Fixed")));
+
+        ValidationResult result = engine.validate(tradeDTO, new Trade());
+
+        assertFalse(result.isValid());
+        assertEquals("Trade date is required", messages(result).get(0));
+        assertTrue(messages(result).contains("Trade must have exactly two legs"));
+        assertTrue(messages(result).contains("Book not found or not set"));
+        assertEquals(1.0, meterRegistry.get("trade.validation.rule.failures").tag("rule", "trade-dates").counter().count());
+        assertEquals(1.0, meterRegistry.get("trade.validation.rule.failures").tag("rule", "book").counter().count());
+        assertEquals(0.0, meterRegistry.get("trade.validation.rule.failures").tag("rule", "leg-fields").counter().count());
+    }
+
+    @Test
+    void testValidate_FailFastStopsAtFirstFailingRule() {
+        ReflectionTestUtils.setField(engine, "failFast", true);
+        engine.init();
+        tradeDTO.setTradeLegs(List.of(leg("Pay", "Fixed"), leg("Pay", "Fixed")));
+
+        ValidationResult result = engine.validate(tradeDTO, new Trade());
+
+        assertEquals(List.of("Legs must have opposite pay/receive flags (one PAY, one RECEIVE)"), messages(result));
+        assertEquals(0, meterRegistry.get("trade.validation.rule.duration").tag("rule", "book").timer().count());
+    }
+
+    @Test
+    void testValidate_CheaperRulesRunFirst() {
+        List<String> order = new ArrayList<>();
+        ReflectionTestUtils.setField(engine, "customRules", List.of(
+                new TradeValidationRules.Rule("expensive", "custom", ValidationStage.STRUCTURE, 10,
+                        (dto, trade, result) -> order.add("expensive")),
+                new TradeValidationRules.Rule("cheap", "custom", ValidationStage.STRUCTURE, 0,
+                        (dto, trade, result) -> order.add("cheap"))));
+        engine.init();
+
+        engine.validateStructure(tradeDTO);
+
+        assertEquals(List.of("cheap", "expensive"), order);
+    }
+
+    @Test
+    void testValidateStructure_BatchMatchesSingleTradeResults() {
+        engine.init();
+        TradeDTO malformed = new TradeDTO();
+        malformed.setTradeLegs(List.of(leg("Pay", "Floating"), leg("Pay", "Fixed")));
+        List<TradeDTO> batch = List.of(tradeDTO, malformed, tradeDTO);
+
+        List<ValidationResult> results = engine.validateStructure(batch);
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isValid());
+        assertTrue(results.get(2).isValid());
+        assertEquals(messages(engine.validateStructure(malformed)), messages(results.get(1)));
+    }
+}
@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
@@ -12,6 +14,7 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,6 +26,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.dto.TradeSearchCriteria;
 import com.technicalchallenge.model.ApplicationUser;
 import com.technicalchallenge.model.Book;
 import com.technicalchallenge.model.CostCenter;
@@ -625,27 +629,39 @@ public class ValidationTest {
         assertEquals(3, result.getValidationErrors().size(), "Expected 3 missing field errors");
     }
 
+    private static TradeSearchCriteria criteria(LocalDate earliest, LocalDate latest,
+                                                Long tradeStatusId, Long traderId, Long bookId, Long counterpartyId) {
+        TradeSearchCriteria criteria = new TradeSearchCriteria();
+        criteria.setEarliestTradeDate(earliest);
+        criteria.setLatestTradeDate(latest);
+        criteria.setTradeStatusIds(tradeStatusId == null ? null : List.of(tradeStatusId));
+        criteria.setTraderIds(traderId == null ? null : List.of(traderId));
+        criteria.setBookIds(bookId == null ? null : List.of(bookId));
+        criteria.setCounterpartyIds(counterpartyId == null ? null : List.of(counterpartyId));
+        return criteria;
+    }
+
     @Test
-    void testValidateSearchParameters_AllValid_NoException() {
-        when(tradeStatusRepository.existsById(1L)).thenReturn(true);
-        when(applicationUserRepository.existsById(2L)).thenReturn(true);
-        when(bookRepository.existsById(3L)).thenReturn(true);
-        when(counterpartyRepository.existsById(4L)).thenReturn(true);
+    void testValidateSearchCriteria_AllValid_NoException() {
+        when(tradeStatusRepository.countByIdIn(Set.of(1L))).thenReturn(1L);
+        when(applicationUserRepository.countByIdIn(Set.of(2L))).thenReturn(1L);
+        when(bookRepository.countByIdIn(Set.of(3L))).thenReturn(1L);
+        when(counterpartyRepository.countByIdIn(Set.of(4L))).thenReturn(1L);
 
-        assertDoesNotThrow(() -> Validation.validateSearchParameters(
-                earliestTradeDate, latestTradeDate, 1L, 2L, 3L, 4L,
+        assertDoesNotThrow(() -> Validation.validateSearchCriteria(
+                criteria(earliestTradeDate, latestTradeDate, 1L, 2L, 3L, 4L),
                 tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository
         ));
     }
 
     @Test
-    void testValidateSearchParameters_ShouldThrow_WhenEarlierDateIsLater() {
+    void testValidateSearchCriteria_ShouldThrow_WhenEarlierDateIsLater() {
 
         // Make earliest date later than latest date
         earliestTradeDate = LocalDate.now().plusMonths(10);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
-                Validation.validateSearchParameters(earliestTradeDate, latestTradeDate, null, null, null, null,
+                Validation.validateSearchCriteria(criteria(earliestTradeDate, latestTradeDate, null, null, null, null),
                 tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository
         ));
 
@@ -653,12 +669,12 @@ public class ValidationTest {
     }
 
     @Test
-    void testValidateSearchParameters_InvalidTradeStatus_ThrowsException() {
-        when(tradeStatusRepository.existsById(99L)).thenReturn(false);
+    void testValidateSearchCriteria_InvalidTradeStatus_ThrowsException() {
+        when(tradeStatusRepository.countByIdIn(Set.of(99L))).thenReturn(0L);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
-                Validation.validateSearchParameters(
-                        null, null, 99L, null, null, null,
+                Validation.validateSearchCriteria(
+                        criteria(null, null, 99L, null, null, null),
                         tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository
                 )
         );
@@ -667,12 +683,12 @@ public class ValidationTest {
     }
 
     @Test
-    void testValidateSearchParameters_InvalidTrader_ThrowsException() {
-        when(applicationUserRepository.existsById(77L)).thenReturn(false);
+    void testValidateSearchCriteria_InvalidTrader_ThrowsException() {
+        when(applicationUserRepository.countByIdIn(Set.of(77L))).thenReturn(0L);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
-                Validation.validateSearchParameters(
-                        earliestTradeDate, latestTradeDate, null, 77L, null, null,
+                Validation.validateSearchCriteria(
+                        criteria(earliestTradeDate, latestTradeDate, null, 77L, null, null),
                         tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository
                 )
         );
@@ -681,12 +697,12 @@ public class ValidationTest {
     }
 
     @Test
-    void testValidateSearchParameters_InvalidBook_ThrowsException() {
-        when(bookRepository.existsById(55L)).thenReturn(false);
+    void testValidateSearchCriteria_InvalidBook_ThrowsException() {
+        when(bookRepository.countByIdIn(Set.of(55L))).thenReturn(0L);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
-                Validation.validateSearchParameters(
-                        earliestTradeDate, latestTradeDate, null, null, 55L, null,
+                Validation.validateSearchCriteria(
+                        criteria(earliestTradeDate, latestTradeDate, null, null, 55L, null),
                         tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository
                 )
         );
@@ -695,12 +711,12 @@ public class ValidationTest {
     }
 
     @Test
-    void testValidateSearchParameters_InvalidCounterparty_ThrowsException() {
-        when(counterpartyRepository.existsById(44L)).thenReturn(false);
+    void testValidateSearchCriteria_InvalidCounterparty_ThrowsException() {
+        when(counterpartyRepository.countByIdIn(Set.of(44L))).thenReturn(0L);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
-                Validation.validateSearchParameters(
-                        earliestTradeDate, latestTradeDate, null, null, null, 44L,
+                Validation.validateSearchCriteria(
+                        criteria(earliestTradeDate, latestTradeDate, null, null, null, 44L),
                         tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository
                 )
         );
@@ -709,14 +725,14 @@ public class ValidationTest {
     }
 
     @Test
-    void testValidateSearchParameters_MultipleInvalidConditions_ThrowsCombinedMessage() {
+    void testValidateSearchCriteria_MultipleInvalidConditions_ThrowsCombinedMessage() {
         earliestTradeDate = LocalDate.now().plusMonths(10); // invalid order
-        when(tradeStatusRepository.existsById(99L)).thenReturn(false);
-        when(applicationUserRepository.existsById(77L)).thenReturn(false);
+        when(tradeStatusRepository.countByIdIn(Set.of(99L))).thenReturn(0L);
+        when(applicationUserRepository.countByIdIn(Set.of(77L))).thenReturn(0L);
 
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
-                Validation.validateSearchParameters(
-                        earliestTradeDate, latestTradeDate, 99L, 77L, null, null,
+                Validation.validateSearchCriteria(
+                        criteria(earliestTradeDate, latestTradeDate, 99L, 77L, null, null),
                         tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository
                 )
         );
@@ -728,13 +744,45 @@ public class ValidationTest {
     }
 
     @Test
-    void testValidateSearchParameters_AllNull_NoException() {
-        assertDoesNotThrow(() -> Validation.validateSearchParameters(
-                null, null, null, null, null, null,
+    void testValidateSearchCriteria_AllNull_NoException() {
+        assertDoesNotThrow(() -> Validation.validateSearchCriteria(
+                criteria(null, null, null, null, null, null),
                 tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository
         ));
     }
 
+    @Test
+    void testValidateSearchCriteria_AnyUnknownIdInList_ThrowsException() {
+        TradeSearchCriteria criteria = criteria(null, null, null, null, null, null);
+        criteria.setBookIds(List.of(3L, 55L, 3L));
+        // Only book 3 exists
+        when(bookRepository.countByIdIn(Set.of(3L, 55L))).thenReturn(1L);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                Validation.validateSearchCriteria(criteria,
+                        tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository));
+
+        assertTrue(exception.getMessage().contains("Book ID does not exist in the database"));
+        // The list is checked in one query, with repeated ids counted once
+        verify(bookRepository, times(1)).countByIdIn(Set.of(3L, 55L));
+    }
+
+    @Test
+    void testValidateSearchCriteria_ReversedMaturityAndExecutionRanges_ThrowsCombinedMessage() {
+        TradeSearchCriteria criteria = criteria(null, null, null, null, null, null);
+        criteria.setEarliestMaturityDate(LocalDate.of(2027, 1, 1));
+        criteria.setLatestMaturityDate(LocalDate.of(2026, 1, 1));
+        criteria.setEarliestExecutionDate(LocalDate.of(2025, 6, 2));
+        criteria.setLatestExecutionDate(LocalDate.of(2025, 6, 1));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                Validation.validateSearchCriteria(criteria,
+                        tradeStatusRepository, applicationUserRepository, bookRepository, counterpartyRepository));
+
+        assertTrue(exception.getMessage().contains("Earliest maturity date must be before latest maturity date"));
+        assertTrue(exception.getMessage().contains("Earliest execution date must be before latest execution date"));
+    }
+
     @Test
     void testValidatePaginationParams_ValidParams() {
         // Should not throw any exception
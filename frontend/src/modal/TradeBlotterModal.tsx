@@ -1,42 +1,43 @@
 import React from "react";
 import {observer} from "mobx-react-lite";
-import AGGridTable from "../components/AGGridTable";
-import {fetchTrades} from "../utils/api";
-import {getColDefFromResult, getRowDataFromData} from "../utils/agGridUtils";
-import { useQuery } from '@tanstack/react-query';
-import {Trade} from "../utils/tradeTypes";
+import {AgGridReact} from "ag-grid-react";
+import {AllCommunityModule, GridApi, GridReadyEvent, ModuleRegistry} from "ag-grid-community";
+import "ag-grid-community/styles/ag-grid.css";
+import "ag-grid-community/styles/ag-theme-alpine.css";
+import {createTradeRowsDatasource, getColDefFromFields, TRADE_BLOTTER_FIELDS} from "../utils/agGridUtils";
+import userStore from "../stores/userStore";
 
+ModuleRegistry.registerModules([AllCommunityModule]);
+
+// Blocks of trades are fetched as the grid scrolls; the loaded blocks are refreshed on this interval
+const REFRESH_INTERVAL_MS = 30000;
 
 export const TradeBlotterModal: React.FC = observer(() => {
-    const [trades, setTrades] = React.useState<Trade[]>([]);
+    const [gridApi, setGridApi] = React.useState<GridApi | null>(null);
+    const userId = userStore.user?.loginId ?? "";
 
-    const {data, isSuccess} = useQuery({
-        queryKey: ['trades'],
-        queryFn: async () => {
-            const res = await fetchTrades();
-            return res.data;
-        },
-        refetchInterval: 30000,
-        refetchIntervalInBackground: true,
-    });
+    const columnDefs = React.useMemo(() => getColDefFromFields(TRADE_BLOTTER_FIELDS), []);
+    const datasource = React.useMemo(() => createTradeRowsDatasource(userId, TRADE_BLOTTER_FIELDS), [userId]);
 
     React.useEffect(() => {
-        if (isSuccess && data) {
-            setTrades(data);
-        }
-    }, [isSuccess, data]);
+        if (!gridApi) return;
+        const timer = setInterval(() => gridApi.refreshInfiniteCache(), REFRESH_INTERVAL_MS);
+        return () => clearInterval(timer);
+    }, [gridApi]);
 
-    const columnDefs = getColDefFromResult(trades);
-    const rowData = getRowDataFromData(trades);
     return (
         <div className={"h-fit w-full flex flex-col min-h-full min-w-full justify-start"}>
-            <div>
-                <AGGridTable columnDefs={columnDefs}
-                             rowData={rowData}
-                             onSelectionChanged={() => {
-                             }}
-                             rowSelection={"single"}/>
+            <div className={"h-[600px] w-full ag-theme-alpine"}>
+                <AgGridReact
+                    columnDefs={columnDefs}
+                    rowModelType={"infinite"}
+                    datasource={datasource}
+                    cacheBlockSize={100}
+                    rowSelection={"single"}
+                    theme={"legacy"}
+                    onGridReady={(event: GridReadyEvent) => setGridApi(event.api)}
+                />
             </div>
         </div>
     )
-})
\ No newline at end of file
+})
@@ -1,3 +1,6 @@
+import {ColDef, IDatasource, IGetRowsParams} from 'ag-grid-community';
+import {fetchTradeRows} from './api';
+
 export function getColDefFromResult(data: unknown): unknown[] {
     if (!data) return [];
     const sample = Array.isArray(data) ? data[0] : data;
@@ -42,3 +45,39 @@ export function getRowDataFromData(data: unknown): unknown[] {
         };
     });
 }
+
+
+// Columns of the trade blotter, as served by the trade rows endpoint
+export const TRADE_BLOTTER_FIELDS = ['tradeId', 'version', 'tradeDate', 'startDate', 'maturityDate', 'bookName',
+    'counterpartyName', 'traderUserName', 'tradeType', 'tradeSubType', 'tradeStatus', 'utiCode'];
+
+// Column definitions for rows loaded by the backend, which sorts and filters them
+export function getColDefFromFields(fields: string[]): ColDef[] {
+    return fields.map(field => ({
+        headerName: field.charAt(0).toUpperCase() + field.slice(1),
+        field,
+        sortable: true,
+        filter: 'agTextColumnFilter'
+    }));
+}
+
+/**
+ * Datasource for the infinite row model that asks the backend for each block of trades,
+ * so sorting and filtering run in the database instead of over a full download. The same
+ * endpoint also takes server-side row model requests with row groups.
+ */
+export function createTradeRowsDatasource(userId: string, fields?: string[]): IDatasource {
+    return {
+        getRows: (params: IGetRowsParams) => {
+            fetchTradeRows(userId, {
+                startRow: params.startRow,
+                endRow: params.endRow,
+                sortModel: params.sortModel,
+                filterModel: params.filterModel,
+                fields,
+            })
+                .then(res => params.successCallback(getRowDataFromData(res.data.rows), res.data.lastRow ?? -1))
+                .catch(() => params.failCallback());
+        }
+    };
+}
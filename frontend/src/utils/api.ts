@@ -11,6 +11,10 @@ const api = axios.create({
 
 export const fetchTrades = () => api.get('/trades');
 
+// One block of blotter rows, sorted, filtered and grouped by the backend
+export const fetchTradeRows = (userId: string, request: unknown) =>
+    api.post('/trades/rows', request, {params: {userId}});
+
 export const fetchAllUsers = async () => {
   console.log("Fetching all users from the API");
   return await api.get('/users').then((res) => {return res});